@@ -34,8 +34,11 @@ import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.nio.charset.Charset;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.LinkedHashSet;
 import java.util.LinkedList;
+import java.util.List;
 import java.util.Stack;
 import java.util.Vector;
 import java.util.regex.Pattern;
@@ -85,6 +88,9 @@ public class AntennaPreprocessor extends PPComposerExtensionClass {
 	/** antenna preprocessor used from external library */
 	private Preprocessor preprocessor;
 
+	/** comma separated list of activated features */
+	private String defines = "";
+
 	private AntennaModelBuilder antennaModelBuilder;
 
 	/** pattern for replacing preprocessor commands like "//#if" */
@@ -142,6 +148,7 @@ public class AntennaPreprocessor extends PPComposerExtensionClass {
 			// add activated features as definitions to preprocessor
 			preprocessor.clearDefines();
 			preprocessor.addDefines(featureList.toString());
+			defines = featureList.toString();
 
 			// preprocess for all files in source folder
 			startPreprocessingSourceFiles(featureProject.getBuildFolder(), true);
@@ -241,7 +248,6 @@ public class AntennaPreprocessor extends PPComposerExtensionClass {
 
 	@Override
 	public void postModelChanged() {
-		deleteAllPreprocessorAnotationMarkers();
 		prepareFullBuild(null);
 		startPreprocessingSourceFiles(featureProject.getBuildFolder(), false);
 	}
@@ -250,73 +256,126 @@ public class AntennaPreprocessor extends PPComposerExtensionClass {
 		try {
 			preprocessSourceFiles(sourceFolder, performFullBuild);
 			setModelMarkers();
-		} catch (FileNotFoundException e) {
-			AntennaCorePlugin.getDefault().logError(e);
 		} catch (CoreException e) {
 			AntennaCorePlugin.getDefault().logError(e);
-		} catch (IOException e) {
-			AntennaCorePlugin.getDefault().logError(e);
 		}
 	}
 
 	/**
-	 * preprocess all files in folder
+	 * preprocess all files in folder<br>
+	 * The files are processed in parallel by {@link PreprocessorWorker}s. Files that did not change since the last build are not processed again.
 	 * 
 	 * @param sourceFolder folder with files to preprocess
+	 * @param performFullBuild <code>true</code> if the files should be preprocessed, <code>false</code> if they should only be checked
 	 * @throws CoreException
-	 * @throws FileNotFoundException
-	 * @throws IOException
 	 */
-	private void preprocessSourceFiles(IFolder sourceFolder, boolean performFullBuild) throws CoreException, FileNotFoundException, IOException {
-		for (final IResource res : sourceFolder.members()) {
-			if (res instanceof IFolder) {
-				// for folders do recursively 
-				preprocessSourceFiles((IFolder) res, performFullBuild);
-			} else if (res instanceof IFile) {
-				// delete all existing builder markers 
-				if (performFullBuild) {
-					featureProject.deleteBuilderMarkers(res, 0);
-				}
+	private void preprocessSourceFiles(IFolder sourceFolder, boolean performFullBuild) throws CoreException {
+		final List<IFile> files = new ArrayList<>();
+		collectFiles(sourceFolder, files);
 
-				// get all lines from file
-				final Vector<String> lines = loadStringsFromFile((IFile) res);
+		final List<IFile> changedFiles = Collections.synchronizedList(new ArrayList<IFile>());
+		beginBatch();
+		try {
+			processFiles(files, new PreprocessorWorker(performFullBuild, changedFiles));
+		} finally {
+			endBatch(files, performFullBuild, changedFiles);
+		}
+	}
 
-				// do checking and some stuff
-				processLinesOfFile(lines, (IFile) res);
+	/**
+	 * Checks and preprocesses a single file. The file is only written, markers are collected by the current batch.
+	 * 
+	 * @param res the file
+	 * @param preprocessor the preprocessor of the current thread or <code>null</code> if the file should only be checked
+	 * @param state the check state of the current thread
+	 * @param changedFiles the collection of files changed by the preprocessor
+	 * @throws CoreException
+	 * @throws IOException
+	 */
+	private void preprocessSourceFile(IFile res, Preprocessor preprocessor, CheckState state, Collection<IFile> changedFiles)
+			throws CoreException, IOException {
+		final boolean performFullBuild = preprocessor != null;
 
-				if (!performFullBuild) {
-					continue;
-				}
+		// get all lines from file
+		final Vector<String> lines = loadStringsFromFile(res);
+		if (restoreFromCache(res, getFileHash(lines, performFullBuild))) {
+			return;
+		}
 
-				boolean changed = false;
+		// do checking and some stuff
+		processLinesOfFile(lines, res, state);
+
+		if (performFullBuild) {
+			boolean changed = false;
+			try {
+				// run antenna preprocessor
+				changed = preprocessor.preprocess(lines, res.getCharset());
+			} catch (PPException e) {
+				final int lineNumber = e.getLineNumber();
+				createBuilderMarker(res, e.getMessage().replace("Line #" + lineNumber + " :", "Antenna:"), Math.max(lineNumber, 0) + 1, IMarker.SEVERITY_ERROR);
+				AntennaCorePlugin.getDefault().logError(e);
+			}
 
+			// if preprocessor changed file: save (the file is refreshed at the end of the batch)
+			if (changed) {
+				FileOutputStream ostr = null;
 				try {
-					// run antenna preprocessor
-					changed = preprocessor.preprocess(lines, ((IFile) res).getCharset());
-				} catch (PPException e) {
-					final int lineNumber = e.getLineNumber();
-					featureProject.createBuilderMarker(res, e.getMessage().replace("Line #" + lineNumber + " :", "Antenna:"), Math.max(lineNumber, 0) + 1,
-							IMarker.SEVERITY_ERROR);
-					AntennaCorePlugin.getDefault().logError(e);
-				}
-
-				// if preprocessor changed file: save & refresh
-				if (changed) {
-					FileOutputStream ostr = null;
-					try {
-						ostr = new FileOutputStream(res.getRawLocation().toOSString());
-						Preprocessor.saveStrings(lines, ostr, ((IFile) res).getCharset());
-					} finally {
-						if (ostr != null) {
-							ostr.close();
-						}
+					ostr = new FileOutputStream(res.getRawLocation().toOSString());
+					Preprocessor.saveStrings(lines, ostr, res.getCharset());
+				} finally {
+					if (ostr != null) {
+						ostr.close();
 					}
-					// use touch to support e.g. linux
-					res.touch(null);
-					res.refreshLocal(IResource.DEPTH_ZERO, null);
 				}
+				changedFiles.add(res);
 			}
 		}
+		storeInCache(res, getFileHash(lines, performFullBuild));
+	}
+
+	/**
+	 * Processes the files of the source folder. Each worker uses its own instance of the antenna {@link Preprocessor} and its own
+	 * {@link CheckState}.
+	 */
+	private class PreprocessorWorker extends FileWorker {
+
+		private final boolean performFullBuild;
+		private final Collection<IFile> changedFiles;
+
+		private final CheckState state = new CheckState();
+		private final Preprocessor workerPreprocessor;
+
+		PreprocessorWorker(boolean performFullBuild, Collection<IFile> changedFiles) {
+			this.performFullBuild = performFullBuild;
+			this.changedFiles = changedFiles;
+			workerPreprocessor = performFullBuild ? createPreprocessor() : null;
+		}
+
+		private Preprocessor createPreprocessor() {
+			final Preprocessor newPreprocessor = new Preprocessor(new AntennaLogger(), new AntennaLineFilter());
+			try {
+				newPreprocessor.addDefines(defines);
+			} catch (PPException e) {
+				AntennaCorePlugin.getDefault().logError(e);
+			}
+			return newPreprocessor;
+		}
+
+		@Override
+		protected void work(IFile res) {
+			try {
+				preprocessSourceFile(res, workerPreprocessor, state, changedFiles);
+			} catch (CoreException | IOException e) {
+				fileCache.remove(res);
+				AntennaCorePlugin.getDefault().logError(e);
+			}
+		}
+
+		@Override
+		protected FileWorker newWorker() {
+			return new PreprocessorWorker(performFullBuild, changedFiles);
+		}
+
 	}
 
 	/**
@@ -324,12 +383,14 @@ public class AntennaPreprocessor extends PPComposerExtensionClass {
 	 * 
 	 * @param lines all lines of file
 	 * @param res file
+	 * @param state the check state of the current thread
 	 */
-	synchronized private void processLinesOfFile(Vector<String> lines, IFile res) {
-		expressionStack = new Stack<Node>();
+	private void processLinesOfFile(Vector<String> lines, IFile res, CheckState state) {
+		state.reset();
+		final Stack<Node> expressionStack = state.expressionStack;
 
 		// count of if, ifelse and else to remove after processing of else from stack
-		ifelseCountStack = new Stack<Integer>();
+		final Stack<Integer> ifelseCountStack = state.ifelseCountStack;
 
 		// go line for line
 		for (int j = 0; j < lines.size(); ++j) {
@@ -353,7 +414,7 @@ public class AntennaPreprocessor extends PPComposerExtensionClass {
 					ifelseCountStack.push(ifelseCountStack.pop() + 1);
 				}
 
-				setMarkersContradictionalFeatures(line, res, j + 1);
+				setMarkersContradictionalFeatures(line, res, j + 1, state);
 
 				setMarkersNotConcreteFeatures(line, res, j + 1);
 			} else if (containsPreprocessorDirective(line, "endif")) {
@@ -387,8 +448,10 @@ public class AntennaPreprocessor extends PPComposerExtensionClass {
 	 * @param line content of line
 	 * @param res file containing given line
 	 * @param lineNumber line number of given line
+	 * @param state the check state of the current thread
 	 */
-	private void setMarkersContradictionalFeatures(String line, IFile res, int lineNumber) {
+	private void setMarkersContradictionalFeatures(String line, IFile res, int lineNumber, CheckState state) {
+		final Stack<Node> expressionStack = state.expressionStack;
 		if (containsPreprocessorDirective(line, "else")) {
 			if (!expressionStack.isEmpty()) {
 				Node[] nestedExpressions = new Node[expressionStack.size()];
@@ -396,7 +459,7 @@ public class AntennaPreprocessor extends PPComposerExtensionClass {
 
 				And nestedExpressionsAnd = new And(nestedExpressions);
 
-				isContradictionOrTautology(nestedExpressionsAnd.clone(), true, lineNumber, res);
+				isContradictionOrTautology(nestedExpressionsAnd.clone(), true, lineNumber, res, state);
 			}
 
 			return;
@@ -418,7 +481,7 @@ public class AntennaPreprocessor extends PPComposerExtensionClass {
 		line = line.replace("-", " not ");
 
 		//get all features and generate Node expression for given line
-		Node ppExpression = nodereader.stringToNode(line, featureList);
+		Node ppExpression = state.nodeReader.stringToNode(line, featureList);
 
 		if (ppExpression != null) {
 			if (negative) {
@@ -426,7 +489,7 @@ public class AntennaPreprocessor extends PPComposerExtensionClass {
 			}
 			expressionStack.push(ppExpression);
 
-			checkExpressions(ppExpression, lineNumber, res);
+			checkExpressions(ppExpression, lineNumber, res, state);
 		} else {
 			// if generating of expression failed, generate expression "true"
 			if (!conditionIsSet) {
@@ -566,7 +629,7 @@ public class AntennaPreprocessor extends PPComposerExtensionClass {
 			Preprocessor preprocessor = new Preprocessor(new AntennaLogger(), new AntennaLineFilter());
 			preprocessor.addDefines(featureList.toString());
 			// preprocess for all files in source folder
-			preprocessSourceFiles(folder, preprocessor, congurationName);
+			preprocessSourceFiles(folder, preprocessor, new CheckState(), congurationName);
 		} catch (CoreException | IOException | PPException e) {
 			AntennaCorePlugin.getDefault().logError(e);
 		}
@@ -575,12 +638,12 @@ public class AntennaPreprocessor extends PPComposerExtensionClass {
 	/**
 	 * Customized build for buildConfiguration().
 	 */
-	private void preprocessSourceFiles(IFolder sourceFolder, Preprocessor preprocessor, String congurationName)
+	private void preprocessSourceFiles(IFolder sourceFolder, Preprocessor preprocessor, CheckState state, String congurationName)
 			throws CoreException, FileNotFoundException, IOException {
 		for (final IResource res : sourceFolder.members()) {
 			if (res instanceof IFolder) {
 				// for folders do recursively 
-				preprocessSourceFiles((IFolder) res, preprocessor, null);
+				preprocessSourceFiles((IFolder) res, preprocessor, state, null);
 			} else if (res instanceof IFile) {
 				if (res.getName().equals(congurationName + "." + getConfigurationExtension())) {
 					continue;
@@ -590,7 +653,7 @@ public class AntennaPreprocessor extends PPComposerExtensionClass {
 
 				// do checking and some stuff
 				if (featureModel != null) {// TODO check why the FM is null when generating products
-					processLinesOfFile(lines, (IFile) res);
+					processLinesOfFile(lines, (IFile) res, state);
 				}
 				boolean changed = false;
 				try {
@@ -32,8 +32,10 @@ import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.nio.charset.Charset;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.LinkedHashSet;
 import java.util.LinkedList;
+import java.util.List;
 import java.util.Stack;
 import java.util.Vector;
 import java.util.regex.Matcher;
@@ -95,11 +97,6 @@ public class MungePreprocessor extends PPComposerExtensionClass {
 	/** compiled regular expression for instructions and comment symbols */
 	public static final Pattern OP_COM_PATTERN = Pattern.compile("(" + OPERATORS + ")|/\\*|\\*/");
 
-	/**
-	 * is true if actual line is in comment section (between <code>&#47;*</code> and <code>*&#47;</code>)
-	 */
-	private boolean commentSection;
-
 	public MungePreprocessor() {
 		super("Munge");
 	}
@@ -150,7 +147,6 @@ public class MungePreprocessor extends PPComposerExtensionClass {
 	}
 
 	protected void annotationChecking() {
-		deleteAllPreprocessorAnotationMarkers();
 		Job job = new Job(PREPROCESSOR_ANNOTATION_CHECKING) {
 			@Override
 			protected IStatus run(IProgressMonitor monitor) {
@@ -163,20 +159,63 @@ public class MungePreprocessor extends PPComposerExtensionClass {
 		job.schedule();
 	}
 
+	/**
+	 * Checks the annotations of all files in the given folder.<br>
+	 * The files are checked in parallel by {@link AnnotationCheckingWorker}s. Files that did not change since the last check are not checked again.
+	 * 
+	 * @param folder the source folder
+	 */
 	private void annotationChecking(IFolder folder) {
+		final List<IFile> files = new ArrayList<>();
 		try {
-			for (final IResource res : folder.members()) {
-				if (res instanceof IFolder) {
-					annotationChecking((IFolder) res);
-				} else if (res instanceof IFile) {
-					final Vector<String> lines = loadStringsFromFile((IFile) res);
-					// do checking and some stuff
-					processLinesOfFile(lines, (IFile) res);
-				}
-			}
+			collectFiles(folder, files);
 		} catch (CoreException e) {
 			MungeCorePlugin.getDefault().logError(e);
 		}
+
+		beginBatch();
+		try {
+			processFiles(files, new AnnotationCheckingWorker());
+		} finally {
+			endBatch(files, false, Collections.<IFile> emptyList());
+		}
+	}
+
+	/**
+	 * The check state of Munge, which additionally stores whether the current line is in a comment.
+	 */
+	private class MungeCheckState extends CheckState {
+
+		/**
+		 * is true if actual line is in comment section (between <code>&#47;*</code> and <code>*&#47;</code>)
+		 */
+		private boolean commentSection;
+
+	}
+
+	/**
+	 * Checks the annotations of the files in the source folder. Each worker uses its own {@link MungeCheckState}.
+	 */
+	private class AnnotationCheckingWorker extends FileWorker {
+
+		private final MungeCheckState state = new MungeCheckState();
+
+		@Override
+		protected void work(IFile res) {
+			final Vector<String> lines = loadStringsFromFile(res);
+			final long hash = getFileHash(lines, false);
+			if (!restoreFromCache(res, hash)) {
+				// do checking and some stuff
+				processLinesOfFile(lines, res, state);
+				storeInCache(res, hash);
+			}
+		}
+
+		@Override
+		protected FileWorker newWorker() {
+			return new AnnotationCheckingWorker();
+		}
+
 	}
 
 	/**
@@ -244,24 +283,25 @@ public class MungePreprocessor extends PPComposerExtensionClass {
 	 *            all lines of file
 	 * @param res
 	 *            file
+	 * @param state
+	 *            the check state of the current thread
 	 */
-	synchronized private void processLinesOfFile(Vector<String> lines, IFile res) {
-		expressionStack = new Stack<Node>();
+	private void processLinesOfFile(Vector<String> lines, IFile res, MungeCheckState state) {
+		state.reset();
 
 		// count of if, ifelse and else to remove after processing of else from
 		// stack
-		ifelseCountStack = new Stack<Integer>();
-		ifelseCountStack.push(0);
+		state.ifelseCountStack.push(0);
 
-		commentSection = false;
+		state.commentSection = false;
 
 		// go line for line
 		for (int j = 0; j < lines.size(); ++j) {
 			String line = lines.get(j);
 
-			if (line.contains("/*") || line.contains("*/") || commentSection) {
+			if (line.contains("/*") || line.contains("*/") || state.commentSection) {
 
-				setMarkersContradictionalFeatures(line, res, j + 1);
+				setMarkersContradictionalFeatures(line, res, j + 1, state);
 
 				setMarkersNotConcreteFeatures(line, res, j + 1);
 			}
@@ -285,8 +325,12 @@ public class MungePreprocessor extends PPComposerExtensionClass {
 	 *            file containing given line
 	 * @param lineNumber
 	 *            line number of given line
+	 * @param state
+	 *            the check state of the current thread
 	 */
-	private void setMarkersContradictionalFeatures(String line, IFile res, int lineNumber) {
+	private void setMarkersContradictionalFeatures(String line, IFile res, int lineNumber, MungeCheckState state) {
+		final Stack<Node> expressionStack = state.expressionStack;
+		final Stack<Integer> ifelseCountStack = state.ifelseCountStack;
 
 		Matcher m = OP_COM_PATTERN.matcher(line);
 
@@ -296,9 +340,9 @@ public class MungePreprocessor extends PPComposerExtensionClass {
 
 			if (singleElement == null) {
 				if (completeElement.equals("/*")) {
-					commentSection = true;
+					state.commentSection = true;
 				} else if (completeElement.equals("*/")) {
-					commentSection = false;
+					state.commentSection = false;
 				}
 			} else {
 				if (singleElement.startsWith("if") || singleElement.equals("else")) {
@@ -313,10 +357,10 @@ public class MungePreprocessor extends PPComposerExtensionClass {
 
 						And nestedExpressionsAnd = new And(nestedExpressions);
 
-						isContradictionOrTautology(nestedExpressionsAnd.clone(), true, lineNumber, res);
+						isContradictionOrTautology(nestedExpressionsAnd.clone(), true, lineNumber, res, state);
 
 					} else {
-						Node ppExpression = nodereader.stringToNode(m.group(4), featureList);
+						Node ppExpression = state.nodeReader.stringToNode(m.group(4), featureList);
 
 						if (singleElement.equals("if_not")) {
 							ppExpression = new Not(ppExpression.clone());
@@ -328,7 +372,7 @@ public class MungePreprocessor extends PPComposerExtensionClass {
 
 						ifelseCountStack.push(ifelseCountStack.pop() + 1);
 						expressionStack.push(ppExpression);
-						checkExpressions(ppExpression, lineNumber, res);
+						checkExpressions(ppExpression, lineNumber, res, state);
 					}
 
 				} else if (singleElement.equals("end")) {
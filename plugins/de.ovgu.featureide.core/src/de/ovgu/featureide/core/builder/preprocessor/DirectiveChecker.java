@@ -0,0 +1,322 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2016  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ * 
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.core.builder.preprocessor;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.prop4j.And;
+import org.prop4j.Equals;
+import org.prop4j.Implies;
+import org.prop4j.Literal;
+import org.prop4j.Node;
+import org.prop4j.Not;
+import org.prop4j.Or;
+import org.sat4j.core.VecInt;
+import org.sat4j.minisat.SolverFactory;
+import org.sat4j.specs.ContradictionException;
+import org.sat4j.specs.ISolver;
+import org.sat4j.specs.TimeoutException;
+
+/**
+ * Answers the satisfiability questions of {@link PPComposerExtensionClass} for preprocessor directives.<br>
+ * The clauses of the feature model are added only once to a single solver and are guarded by a selector variable,
+ * such that the same solver can be used to check expressions with and without the feature model.
+ * Each expression is encoded by fresh auxiliary variables (Tseitin transformation) and all queries are answered by assumptions.
+ * Results are cached by the textual representation of the expressions, thus, directives that occur in several files are checked only once.
+ * As every auxiliary variable has to be assigned by the solver, the solver is rebuilt when there are too many of them.<br>
+ * <br>
+ * An instance is valid for one build (i.e., until the feature model changes). All methods are synchronized,
+ * thus, threads that check files concurrently use their own instances (see {@link PPComposerExtensionClass.CheckState}).
+ * 
+ * @see PPComposerExtensionClass#prepareFullBuild(org.eclipse.core.resources.IFile)
+ */
+public class DirectiveChecker {
+
+	private static final int DEFAULT_TIMEOUT = 1000;
+
+	/** The minimal number of auxiliary variables that are allowed before the solver is rebuilt. */
+	private static final int MIN_AUXILIARY_VARIABLES = 1000;
+
+	private final Node[] modelClauses;
+
+	private ISolver solver;
+
+	private final Map<Object, Integer> varToInt = new HashMap<>();
+
+	/** Maps the textual representation of an expression to the variable that represents it. */
+	private final Map<String, Integer> expressionToInt = new HashMap<>();
+
+	private final Map<String, Integer> statusCache = new HashMap<>();
+
+	private final Map<String, Boolean> redundancyCache = new HashMap<>();
+
+	/** The selector variable for the feature model clauses or {@code 0} if there is no feature model. */
+	private int modelSelector;
+
+	private int numberOfVariables;
+
+	private int maxNumberOfVariables;
+
+	private int trueVariable = 0;
+
+	private boolean contradiction = false;
+
+	/**
+	 * Creates a new checker.
+	 * 
+	 * @param featureModelCNF the feature model in conjunctive normal form (may be {@code null})
+	 */
+	public DirectiveChecker(Node featureModelCNF) {
+		if (featureModelCNF == null) {
+			modelClauses = null;
+		} else if (featureModelCNF instanceof And) {
+			modelClauses = featureModelCNF.getChildren();
+		} else {
+			modelClauses = new Node[] { featureModelCNF };
+		}
+		initSolver();
+	}
+
+	private void initSolver() {
+		solver = SolverFactory.newDefault();
+		solver.setTimeoutMs(DEFAULT_TIMEOUT);
+		varToInt.clear();
+		expressionToInt.clear();
+		numberOfVariables = 0;
+		trueVariable = 0;
+		contradiction = false;
+
+		if (modelClauses != null) {
+			modelSelector = newVariable();
+			try {
+				for (Node clause : modelClauses) {
+					final Node[] literals = (clause instanceof Literal) ? new Node[] { clause } : clause.getChildren();
+					final int[] intClause = new int[literals.length + 1];
+					for (int i = 0; i < literals.length; i++) {
+						intClause[i] = getSignedVariable((Literal) literals[i]);
+					}
+					intClause[literals.length] = -modelSelector;
+					addClause(intClause);
+				}
+			} catch (ContradictionException e) {
+				contradiction = true;
+			}
+		} else {
+			modelSelector = 0;
+		}
+		maxNumberOfVariables = numberOfVariables + Math.max(numberOfVariables, MIN_AUXILIARY_VARIABLES);
+	}
+
+	/**
+	 * Checks whether the given expression is a contradiction or a tautology.
+	 * 
+	 * @param expression the expression to prove
+	 * @param withModel whether the feature model should be considered
+	 * @return {@link PPComposerExtensionClass#SAT_CONTRADICTION}, {@link PPComposerExtensionClass#SAT_TAUTOLOGY} or
+	 *         {@link PPComposerExtensionClass#SAT_NONE}
+	 * @throws TimeoutException if the solver needs too long
+	 */
+	public synchronized int getStatus(Node expression, boolean withModel) throws TimeoutException {
+		final String key = (withModel ? "M:" : "E:") + expression.toString();
+		final Integer cachedStatus = statusCache.get(key);
+		if (cachedStatus != null) {
+			return cachedStatus;
+		}
+
+		final int status;
+		checkNumberOfVariables();
+		final int x = encode(expression);
+		if (!isSatisfiable(withModel, x)) {
+			status = PPComposerExtensionClass.SAT_CONTRADICTION;
+		} else if (!isSatisfiable(withModel, -x)) {
+			status = PPComposerExtensionClass.SAT_TAUTOLOGY;
+		} else {
+			status = PPComposerExtensionClass.SAT_NONE;
+		}
+		statusCache.put(key, status);
+		return status;
+	}
+
+	/**
+	 * Checks whether the given expression is always {@code true} within the given context and the feature model.
+	 * 
+	 * @param expression the expression to prove
+	 * @param context the expression of the surrounding directives
+	 * @return {@code true} if the expression is superfluous in the given context
+	 * @throws TimeoutException if the solver needs too long
+	 */
+	public synchronized boolean isRedundant(Node expression, Node context) throws TimeoutException {
+		final String key = context.toString() + '\n' + expression.toString();
+		final Boolean cachedResult = redundancyCache.get(key);
+		if (cachedResult != null) {
+			return cachedResult;
+		}
+
+		checkNumberOfVariables();
+		final boolean redundant = !isSatisfiable(true, encode(context), -encode(expression));
+		redundancyCache.put(key, redundant);
+		return redundant;
+	}
+
+	/**
+	 * Removes all cached results. The encoded expressions are kept.
+	 */
+	public synchronized void clearCache() {
+		statusCache.clear();
+		redundancyCache.clear();
+	}
+
+	private void checkNumberOfVariables() {
+		if (numberOfVariables > maxNumberOfVariables) {
+			initSolver();
+		}
+	}
+
+	private boolean isSatisfiable(boolean withModel, int... literals) throws TimeoutException {
+		if (contradiction) {
+			return false;
+		}
+		final VecInt assumptions = new VecInt(literals.length + 1);
+		for (int literal : literals) {
+			assumptions.push(literal);
+		}
+		if (withModel && modelSelector != 0) {
+			assumptions.push(modelSelector);
+		}
+		return solver.isSatisfiable(assumptions);
+	}
+
+	/**
+	 * Returns a variable that is equivalent to the given expression.
+	 * For each new sub expression an auxiliary variable and its defining clauses are added to the solver.
+	 */
+	private int encode(Node expression) {
+		final String key = expression.toString();
+		final Integer cachedVariable = expressionToInt.get(key);
+		if (cachedVariable != null) {
+			return cachedVariable;
+		}
+		int x;
+		try {
+			x = encodeNode(expression);
+		} catch (ContradictionException e) {
+			// can only occur if the solver was already unsatisfiable
+			contradiction = true;
+			x = getTrueVariable();
+		}
+		expressionToInt.put(key, x);
+		return x;
+	}
+
+	private int encodeNode(Node node) throws ContradictionException {
+		if (node instanceof Literal) {
+			return getSignedVariable((Literal) node);
+		} else if (node instanceof Not) {
+			return -encodeNode(node.getChildren()[0]);
+		} else if (node instanceof And) {
+			return encodeAnd(encodeChildren(node), false);
+		} else if (node instanceof Or) {
+			return encodeAnd(encodeChildren(node), true);
+		} else if (node instanceof Implies) {
+			final Node[] children = node.getChildren();
+			return encodeAnd(new int[] { -encodeNode(children[0]), encodeNode(children[1]) }, true);
+		} else if (node instanceof Equals) {
+			final Node[] children = node.getChildren();
+			final int a = encodeNode(children[0]);
+			final int b = encodeNode(children[1]);
+			final int x = newVariable();
+			addClause(-x, -a, b);
+			addClause(-x, a, -b);
+			addClause(x, a, b);
+			addClause(x, -a, -b);
+			return x;
+		} else {
+			// cardinality constraints are not used in directives, thus, we can afford to convert them
+			return encodeAnd(encodeChildren(node.toCNF()), false);
+		}
+	}
+
+	private int[] encodeChildren(Node node) throws ContradictionException {
+		if (node instanceof Literal) {
+			return new int[] { encodeNode(node) };
+		}
+		final Node[] children = node.getChildren();
+		final int[] literals = new int[children.length];
+		for (int i = 0; i < children.length; i++) {
+			literals[i] = encodeNode(children[i]);
+		}
+		return literals;
+	}
+
+	/**
+	 * Encodes a conjunction (or a disjunction, if {@code or} is {@code true}, by using De Morgan's laws).
+	 */
+	private int encodeAnd(int[] literals, boolean or) throws ContradictionException {
+		final int sign = or ? -1 : 1;
+		if (literals.length == 0) {
+			return sign * getTrueVariable();
+		} else if (literals.length == 1) {
+			return literals[0];
+		}
+		final int x = newVariable();
+		final int[] clause = new int[literals.length + 1];
+		for (int i = 0; i < literals.length; i++) {
+			final int literal = sign * literals[i];
+			addClause(-x, literal);
+			clause[i] = -literal;
+		}
+		clause[literals.length] = x;
+		solver.addClause(new VecInt(clause));
+		return sign * x;
+	}
+
+	private int getTrueVariable() {
+		if (trueVariable == 0) {
+			trueVariable = newVariable();
+			try {
+				addClause(trueVariable);
+			} catch (ContradictionException e) {
+				contradiction = true;
+			}
+		}
+		return trueVariable;
+	}
+
+	private void addClause(int... clause) throws ContradictionException {
+		solver.addClause(new VecInt(clause));
+	}
+
+	private int getSignedVariable(Literal literal) {
+		Integer x = varToInt.get(literal.var);
+		if (x == null) {
+			x = newVariable();
+			varToInt.put(literal.var, x);
+		}
+		return literal.positive ? x : -x;
+	}
+
+	private int newVariable() {
+		solver.newVar(++numberOfVariables);
+		return numberOfVariables;
+	}
+
+}
@@ -26,11 +26,19 @@ import static de.ovgu.featureide.fm.core.localization.StringTable.PREPROCESSOR;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
 import java.util.Scanner;
+import java.util.Set;
 import java.util.Stack;
 import java.util.Vector;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -38,23 +46,31 @@ import org.eclipse.core.resources.IFile;
 import org.eclipse.core.resources.IFolder;
 import org.eclipse.core.resources.IMarker;
 import org.eclipse.core.resources.IResource;
+import org.eclipse.core.resources.IWorkspace;
+import org.eclipse.core.resources.IWorkspaceRunnable;
+import org.eclipse.core.resources.ResourcesPlugin;
 import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IProgressMonitor;
 import org.prop4j.And;
-import org.prop4j.Implies;
 import org.prop4j.Literal;
 import org.prop4j.Node;
 import org.prop4j.NodeReader;
-import org.prop4j.Not;
-import org.prop4j.SatSolver;
 import org.sat4j.specs.TimeoutException;
 
 import de.ovgu.featureide.core.CorePlugin;
 import de.ovgu.featureide.core.builder.ComposerExtensionClass;
+import de.ovgu.featureide.core.builder.preprocessor.PreprocessorFileCache.Entry;
+import de.ovgu.featureide.core.builder.preprocessor.PreprocessorFileCache.Marker;
 import de.ovgu.featureide.fm.core.base.FeatureUtils;
 import de.ovgu.featureide.fm.core.base.IFeature;
 import de.ovgu.featureide.fm.core.base.IFeatureModel;
 import de.ovgu.featureide.fm.core.editing.AdvancedNodeCreator;
+import de.ovgu.featureide.fm.core.editing.AdvancedNodeCreator.CNFType;
 import de.ovgu.featureide.fm.core.functional.Functional;
+import de.ovgu.featureide.fm.core.job.IRunner;
+import de.ovgu.featureide.fm.core.job.LongRunningMethod;
+import de.ovgu.featureide.fm.core.job.LongRunningWrapper;
+import de.ovgu.featureide.fm.core.job.monitor.IMonitor;
 
 /**
  * Abstract class for FeatureIDE preprocessor composer extensions with
@@ -67,11 +83,11 @@ import de.ovgu.featureide.fm.core.functional.Functional;
 public abstract class PPComposerExtensionClass extends ComposerExtensionClass {
 
 	/** The expression is satisfiable but not a tautology. */
-	static final int SAT_NONE = 0;
+	public static final int SAT_NONE = 0;
 	/** The expression is a contradiction. */
-	static final int SAT_CONTRADICTION = 1;
+	public static final int SAT_CONTRADICTION = 1;
 	/** The expression is a tautology. */
-	static final int SAT_TAUTOLOGY = 2;
+	public static final int SAT_TAUTOLOGY = 2;
 	protected static final String MESSAGE_DEAD_CODE = ": This expression is a contradiction and causes a dead code block.";
 	protected static final String MESSAGE_ALWAYS_TRUE = ": This expression is a tautology and causes a superfluous code block.";
 	protected static final String MESSAGE_ABSTRACT = IS_DEFINED_AS_ABSTRACT_IN_THE_FEATURE_MODEL__ONLY_CONCRETE_FEATURES_SHOULD_BE_REFERENCED_IN_PREPROCESSOR_DIRECTIVES_;
@@ -83,6 +99,18 @@ public abstract class PPComposerExtensionClass extends ComposerExtensionClass {
 	 */
 	protected Node featureModel;
 
+	/**
+	 * Checks the expressions of the directives against the feature model.
+	 * Generated in {@link #prepareFullBuild(IFile)}.
+	 */
+	protected DirectiveChecker directiveChecker;
+
+	/**
+	 * The feature model in conjunctive normal form, used to create further {@link DirectiveChecker}s (see {@link CheckState}).
+	 * Generated in {@link #prepareFullBuild(IFile)}.
+	 */
+	private Node featureModelCNF;
+
 	/**
 	 * Preprocessor name used for messages in build markers (must set in
 	 * subclass).
@@ -137,6 +165,77 @@ public abstract class PPComposerExtensionClass extends ComposerExtensionClass {
 	/** contains all used features at any source file **/
 	protected HashSet<String> usedFeatures = new HashSet<String>();
 
+	/**
+	 * Results of the files processed in previous builds (see {@link #restoreFromCache(IFile, long)}).
+	 */
+	protected final PreprocessorFileCache fileCache = new PreprocessorFileCache();
+
+	/**
+	 * Hash value of the feature model generated in {@link #prepareFullBuild(IFile)}.
+	 */
+	private long featureModelHash = 0;
+
+	private final ReentrantLock batchLock = new ReentrantLock();
+
+	/** Builder markers of the current batch (see {@link #beginBatch()}). */
+	private ConcurrentHashMap<IResource, List<Marker>> batchMarkers = null;
+
+	/** Features used in the files of the current batch (see {@link #beginBatch()}). */
+	private ConcurrentHashMap<IResource, Set<String>> batchUsedFeatures = null;
+
+	/**
+	 * The state for checking the directives of files. Files can be checked concurrently, if each thread uses its own state.
+	 * The state of a thread has its own {@link DirectiveChecker} and {@link NodeReader}, and the stacks for nested directives.
+	 */
+	protected class CheckState {
+
+		/** Stack for preprocessor directives (for nested expressions). */
+		public final Stack<Node> expressionStack = new Stack<Node>();
+
+		/** Stack for count of "if" and "else" instructions for each level. */
+		public final Stack<Integer> ifelseCountStack = new Stack<Integer>();
+
+		/** Node Reader with the same settings as {@link PPComposerExtensionClass#nodereader}. */
+		public final NodeReader nodeReader = new NodeReader();
+
+		public final DirectiveChecker directiveChecker = new DirectiveChecker(featureModelCNF);
+
+		public CheckState() {
+			nodeReader.setIgnoreMissingFeatures(nodereader.ignoresMissingFeatures());
+		}
+
+		/**
+		 * Clears the stacks. Should be called before the next file is checked.
+		 */
+		public void reset() {
+			expressionStack.clear();
+			ifelseCountStack.clear();
+		}
+
+	}
+
+	/**
+	 * Processes the files of a batch (see {@link PPComposerExtensionClass#processFiles(Collection, FileWorker)}).
+	 * Each task uses its own worker, thus, a worker can keep state that is not thread-safe (e.g., a {@link CheckState}).
+	 * Workspace operations are not allowed, as the calling thread may hold the workspace lock.
+	 */
+	protected abstract static class FileWorker {
+
+		/**
+		 * @return a new worker with the same settings for another task
+		 */
+		protected abstract FileWorker newWorker();
+
+		/**
+		 * Processes a single file.
+		 * 
+		 * @param file
+		 *            the file
+		 */
+		protected abstract void work(IFile file);
+
+	}
+
 	/**
 	 * Sets the name of the plug-in
 	 */
@@ -187,6 +286,15 @@ public abstract class PPComposerExtensionClass extends ComposerExtensionClass {
 
 		// create expression of feature model
 		featureModel = AdvancedNodeCreator.createNodes(fm);
+		final AdvancedNodeCreator nodeCreator = new AdvancedNodeCreator(fm);
+		nodeCreator.setCnfType(CNFType.Regular);
+		final Node cnf = nodeCreator.createNodes();
+		featureModelCNF = cnf;
+		directiveChecker = new DirectiveChecker(cnf);
+
+		long hash = PreprocessorFileCache.hash(0, cnf.toString());
+		hash = PreprocessorFileCache.hash(hash, concreteFeatures.toString());
+		featureModelHash = PreprocessorFileCache.hash(hash, abstractFeatures.toString());
 
 		featureList = Functional.toList(FeatureUtils.extractFeatureNames(fm.getFeatures()));
 
@@ -204,24 +312,15 @@ public abstract class PPComposerExtensionClass extends ComposerExtensionClass {
 	 *         {@link #SAT_NONE}
 	 */
 	protected int isContradictionOrTautology(Node node, boolean withModel) {
-		// with model: node
-		// without model: feature model && node
-		Node contradictionNode = (withModel && featureModel != null) ? new And(featureModel.clone(), node.clone()) : node.clone();
-		// with model: !node
-		// without model: !(feature model => node)
-		Node tautologyNode = new Not((withModel && featureModel != null) ? new Implies(featureModel.clone(), node.clone()) : node.clone());
-
-		// expression -> contradiction?
-		SatSolver solverContradiction = new SatSolver(contradictionNode, 1000);
-		// expression -> tautology?
-		SatSolver solverTautology = new SatSolver(tautologyNode, 1000);
+		if (directiveChecker == null) {
+			directiveChecker = new DirectiveChecker(null);
+		}
+		return isContradictionOrTautology(node, withModel, directiveChecker);
+	}
 
+	private int isContradictionOrTautology(Node node, boolean withModel, DirectiveChecker checker) {
 		try {
-			if (!solverContradiction.isSatisfiable()) {
-				return SAT_CONTRADICTION;
-			} else if (!solverTautology.isSatisfiable()) {
-				return SAT_TAUTOLOGY;
-			}
+			return checker.getStatus(node, withModel);
 		} catch (TimeoutException e) {
 			CorePlugin.getDefault().logError(e);
 		}
@@ -241,9 +340,9 @@ public abstract class PPComposerExtensionClass extends ComposerExtensionClass {
 	 */
 	protected void setMarkersOnContradictionOrTautology(int status, int lineNumber, IFile res) {
 		if (status == SAT_CONTRADICTION) {
-			featureProject.createBuilderMarker(res, pluginName + MESSAGE_DEAD_CODE, lineNumber, IMarker.SEVERITY_WARNING);
+			createBuilderMarker(res, pluginName + MESSAGE_DEAD_CODE, lineNumber, IMarker.SEVERITY_WARNING);
 		} else if (status == SAT_TAUTOLOGY) {
-			featureProject.createBuilderMarker(res, pluginName + MESSAGE_ALWAYS_TRUE, lineNumber, IMarker.SEVERITY_WARNING);
+			createBuilderMarker(res, pluginName + MESSAGE_ALWAYS_TRUE, lineNumber, IMarker.SEVERITY_WARNING);
 		}
 	}
 
@@ -269,6 +368,30 @@ public abstract class PPComposerExtensionClass extends ComposerExtensionClass {
 		return status;
 	}
 
+	/**
+	 * Checks for tautology and contradiction with the {@link DirectiveChecker} of the given state and set build markers.
+	 * 
+	 * @param node
+	 *            expression to check.
+	 * @param withModel
+	 *            Checking with model if is <code>true</code>.
+	 * @param lineNumber
+	 *            number of line
+	 * @param res
+	 *            file path
+	 * @param state
+	 *            the state of the current thread
+	 * @return {@link #SAT_CONTRADICTION}, {@link #SAT_TAUTOLOGY} or
+	 *         {@link #SAT_NONE}
+	 */
+	protected int isContradictionOrTautology(Node node, boolean withModel, int lineNumber, IFile res, CheckState state) {
+		int status = isContradictionOrTautology(node, withModel, state.directiveChecker);
+
+		setMarkersOnContradictionOrTautology(status, lineNumber, res);
+
+		return status;
+	}
+
 	/**
 	 * Checks given line if it contains expressions which are always
 	 * <code>true</code> or <code>false</code>.<br />
@@ -289,17 +412,54 @@ public abstract class PPComposerExtensionClass extends ComposerExtensionClass {
 	 *            file containing the given expression
 	 */
 	protected void checkExpressions(Node ppExpression, int lineNumber, IFile res) {
+		if (directiveChecker == null) {
+			directiveChecker = new DirectiveChecker(null);
+		}
+		checkExpressions(ppExpression, lineNumber, res, expressionStack, directiveChecker);
+	}
+
+	/**
+	 * Checks the given expression like {@link #checkExpressions(Node, int, IFile)}, but uses the stack and the {@link DirectiveChecker} of the
+	 * given state. Thus, it can be called concurrently for different files.
+	 * 
+	 * @param ppExpression
+	 *            expression in the current line
+	 * @param lineNumber
+	 *            line number
+	 * @param res
+	 *            file containing the given expression
+	 * @param state
+	 *            the state of the current thread
+	 */
+	protected void checkExpressions(Node ppExpression, int lineNumber, IFile res, CheckState state) {
+		checkExpressions(ppExpression, lineNumber, res, state.expressionStack, state.directiveChecker);
+	}
+
+	private void checkExpressions(Node ppExpression, int lineNumber, IFile res, Stack<Node> expressionStack, DirectiveChecker checker) {
 		if (ppExpression == null) {
 			return;
 		}
 
 		/** collect all used features **/
-		findLiterals(ppExpression);
+		synchronized (usedFeatures) {
+			findLiterals(ppExpression, usedFeatures);
+		}
+		final ConcurrentHashMap<IResource, Set<String>> fileUsedFeatures = batchUsedFeatures;
+		if (fileUsedFeatures != null && res != null) {
+			Set<String> features = fileUsedFeatures.get(res);
+			if (features == null) {
+				features = new HashSet<>();
+				fileUsedFeatures.put(res, features);
+			}
+			findLiterals(ppExpression, features);
+		}
 
-		int result = isContradictionOrTautology(ppExpression.clone(), false, lineNumber, res);
+		int result = isContradictionOrTautology(ppExpression.clone(), false, checker);
+		setMarkersOnContradictionOrTautology(result, lineNumber, res);
 
 		if (result == SAT_NONE) {
-			result = isContradictionOrTautology(ppExpression.clone(), true, lineNumber, res);
+			result = isContradictionOrTautology(ppExpression.clone(), true, checker);
+			setMarkersOnContradictionOrTautology(result, lineNumber, res);
 
 			if (result == SAT_NONE && !expressionStack.isEmpty()) {
 				Node[] nestedExpressions = new Node[expressionStack.size()];
@@ -307,7 +467,8 @@ public abstract class PPComposerExtensionClass extends ComposerExtensionClass {
 
 				And nestedExpressionsAnd = new And(nestedExpressions);
 
-				result = isContradictionOrTautology(nestedExpressionsAnd.clone(), true, lineNumber, res);
+				result = isContradictionOrTautology(nestedExpressionsAnd.clone(), true, checker);
+				setMarkersOnContradictionOrTautology(result, lineNumber, res);
 				if (result == SAT_NONE && expressionStack.size() > 1) {
 					nestedExpressions = new Node[expressionStack.size() - 1];
 					int index = 0;
@@ -318,7 +479,7 @@ public abstract class PPComposerExtensionClass extends ComposerExtensionClass {
 						nestedExpressions[index++] = expression;
 					}
 					nestedExpressionsAnd = new And(nestedExpressions);
-					checkRedundancy(ppExpression, nestedExpressionsAnd, lineNumber, res);
+					checkRedundancy(ppExpression, nestedExpressionsAnd, lineNumber, res, checker);
 				}
 			}
 		}
@@ -328,11 +489,9 @@ public abstract class PPComposerExtensionClass extends ComposerExtensionClass {
 	 * Checks whether the expression is superfluous in the given context.
 	 * 
 	 */
-	private void checkRedundancy(Node nestedExpression, Node expression, int lineNumber, IFile res) {
-		Node node = new And(new And(featureModel.clone(), expression.clone()), new Not(nestedExpression.clone()));
-		SatSolver solver = new SatSolver(node, 1000);
+	private void checkRedundancy(Node nestedExpression, Node expression, int lineNumber, IFile res, DirectiveChecker checker) {
 		try {
-			if (!solver.isSatisfiable()) {
+			if (checker.isRedundant(nestedExpression, expression)) {
 				setMarkersOnContradictionOrTautology(SAT_TAUTOLOGY, lineNumber, res);
 			}
 		} catch (TimeoutException e) {
@@ -340,12 +499,12 @@ public abstract class PPComposerExtensionClass extends ComposerExtensionClass {
 		}
 	}
 
-	private void findLiterals(Node ppExpression) {
+	private void findLiterals(Node ppExpression, Set<String> features) {
 		if (ppExpression instanceof Literal) {
-			usedFeatures.add(((Literal) ppExpression).var.toString());
+			features.add(((Literal) ppExpression).var.toString());
 		} else {
 			for (Node child : ppExpression.getChildren()) {
-				findLiterals(child);
+				findLiterals(child, features);
 			}
 		}
 	}
@@ -369,7 +528,7 @@ public abstract class PPComposerExtensionClass extends ComposerExtensionClass {
 			matcherFeature = patternIsAbstractFeature.matcher(name);
 
 		if (matcherFeature != null && matcherFeature.matches()) {
-			featureProject.createBuilderMarker(res, pluginName + ": " + name + MESSAGE_ABSTRACT, lineNumber, IMarker.SEVERITY_WARNING);
+			createBuilderMarker(res, pluginName + ": " + name + MESSAGE_ABSTRACT, lineNumber, IMarker.SEVERITY_WARNING);
 		} else {
 			Matcher matcherConreteFeature = null;
 			if (patternIsConcreteFeature != null) {
@@ -377,13 +536,274 @@ public abstract class PPComposerExtensionClass extends ComposerExtensionClass {
 			}
 
 			if (matcherConreteFeature != null && !matcherConreteFeature.matches()) {
-				featureProject.createBuilderMarker(res, pluginName + ": " + name + MESSAGE_NOT_DEFINED, lineNumber, IMarker.SEVERITY_WARNING);
+				createBuilderMarker(res, pluginName + ": " + name + MESSAGE_NOT_DEFINED, lineNumber, IMarker.SEVERITY_WARNING);
 				return false;
 			}
 		}
 		return true;
 	}
 
+	/**
+	 * Creates a builder marker. Within a batch, the marker is collected and created in {@link #endBatch(Collection, boolean, Collection)}.
+	 * 
+	 * @param res
+	 *            the resource of the marker
+	 * @param message
+	 *            the message
+	 * @param lineNumber
+	 *            the line number
+	 * @param severity
+	 *            the severity (e.g., {@link IMarker#SEVERITY_WARNING})
+	 */
+	protected void createBuilderMarker(IResource res, String message, int lineNumber, int severity) {
+		final ConcurrentHashMap<IResource, List<Marker>> markers = batchMarkers;
+		if (markers == null || res == null) {
+			featureProject.createBuilderMarker(res, message, lineNumber, severity);
+		} else {
+			getMarkers(markers, res).add(new Marker(message, lineNumber, severity));
+		}
+	}
+
+	private static List<Marker> getMarkers(ConcurrentHashMap<IResource, List<Marker>> markers, IResource res) {
+		List<Marker> fileMarkers = markers.get(res);
+		if (fileMarkers == null) {
+			final List<Marker> newMarkers = Collections.synchronizedList(new ArrayList<Marker>());
+			fileMarkers = markers.putIfAbsent(res, newMarkers);
+			if (fileMarkers == null) {
+				fileMarkers = newMarkers;
+			}
+		}
+		return fileMarkers;
+	}
+
+	/**
+	 * Starts a batch. Until {@link #endBatch(Collection, boolean, Collection)} is called, all builder markers are collected per file, such
+	 * that they can be created within a single workspace operation and can be stored in the {@link #fileCache}.<br>
+	 * Only one batch can be active at a time, other threads are blocked until the current batch ends.
+	 * Both methods must be called by the same thread, the files of the batch can be processed by other threads.
+	 */
+	protected void beginBatch() {
+		batchLock.lock();
+		batchMarkers = new ConcurrentHashMap<>();
+		batchUsedFeatures = new ConcurrentHashMap<>();
+	}
+
+	/**
+	 * Ends the current batch. Within a single workspace operation, the changed files are refreshed, the old markers of the processed files are
+	 * removed, and the collected markers are created.
+	 * 
+	 * @param files
+	 *            all files of the batch (including the ones restored from the cache)
+	 * @param deleteAllMarkers
+	 *            if <code>true</code> all builder markers of the files are removed, otherwise only the markers for preprocessor annotations
+	 * @param changedFiles
+	 *            the files changed by the preprocessor
+	 */
+	protected void endBatch(Collection<IFile> files, boolean deleteAllMarkers, Collection<IFile> changedFiles) {
+		final ConcurrentHashMap<IResource, List<Marker>> markers = batchMarkers;
+		try {
+			updateFiles(files, deleteAllMarkers, changedFiles, (markers != null) ? markers : Collections.<IResource, List<Marker>> emptyMap());
+		} catch (CoreException e) {
+			CorePlugin.getDefault().logError(e);
+		} finally {
+			batchMarkers = null;
+			batchUsedFeatures = null;
+			batchLock.unlock();
+		}
+	}
+
+	/**
+	 * Applies the results of a batch to the workspace (see {@link #endBatch(Collection, boolean, Collection)}).
+	 * 
+	 * @param files
+	 *            all files of the batch (including the ones restored from the cache)
+	 * @param deleteAllMarkers
+	 *            if <code>true</code> all builder markers of the files are removed, otherwise only the markers for preprocessor annotations
+	 * @param changedFiles
+	 *            the files changed by the preprocessor
+	 * @param markers
+	 *            the collected builder markers of each file
+	 * @throws CoreException
+	 */
+	protected void updateFiles(final Collection<IFile> files, final boolean deleteAllMarkers, final Collection<IFile> changedFiles,
+			final Map<IResource, List<Marker>> markers) throws CoreException {
+		ResourcesPlugin.getWorkspace().run(new IWorkspaceRunnable() {
+			@Override
+			public void run(IProgressMonitor monitor) throws CoreException {
+				for (IFile file : changedFiles) {
+					// use touch to support e.g. linux
+					file.touch(null);
+					file.refreshLocal(IResource.DEPTH_ZERO, null);
+				}
+				for (IFile file : files) {
+					if (!file.exists()) {
+						continue;
+					}
+					if (deleteAllMarkers) {
+						file.deleteMarkers(BUILDER_MARKER, false, IResource.DEPTH_ZERO);
+					} else {
+						for (IMarker marker : file.findMarkers(BUILDER_MARKER, false, IResource.DEPTH_ZERO)) {
+							if (isPreprocessorAnotationMarker(marker)) {
+								marker.delete();
+							}
+						}
+					}
+					final List<Marker> fileMarkers = markers.get(file);
+					if (fileMarkers != null) {
+						// prevent duplicate markers
+						for (Marker fileMarker : new LinkedHashSet<>(fileMarkers)) {
+							final IMarker marker = file.createMarker(BUILDER_MARKER);
+							marker.setAttributes(new String[] { IMarker.MESSAGE, IMarker.SEVERITY, IMarker.LINE_NUMBER },
+									new Object[] { fileMarker.getMessage(), fileMarker.getSeverity(), fileMarker.getLineNumber() });
+						}
+					}
+				}
+			}
+		}, null, IWorkspace.AVOID_UPDATE, null);
+	}
+
+	/**
+	 * Computes the hash value of a file for the {@link #fileCache}. The hash value includes the feature model and, optionally, the activated
+	 * features.
+	 * 
+	 * @param lines
+	 *            the content of the file
+	 * @param withConfiguration
+	 *            <code>true</code> if the file is preprocessed with the activated features, <code>false</code> if it is only checked
+	 * @return the hash value
+	 */
+	protected long getFileHash(Collection<String> lines, boolean withConfiguration) {
+		long hash = featureModelHash;
+		if (withConfiguration) {
+			hash = PreprocessorFileCache.hash(hash, "build");
+			hash = (activatedFeatures != null) ? PreprocessorFileCache.hash(hash, activatedFeatures) : PreprocessorFileCache.hash(hash, (String) null);
+		} else {
+			hash = PreprocessorFileCache.hash(hash, "check");
+		}
+		return PreprocessorFileCache.hash(hash, lines);
+	}
+
+	/**
+	 * Restores the results of a file from the {@link #fileCache}, if the file did not change since it was processed.
+	 * Must be called within a batch.
+	 * 
+	 * @param file
+	 *            the file
+	 * @param hash
+	 *            the current hash value of the file (see {@link #getFileHash(Collection, boolean)})
+	 * @return <code>true</code> if the results were restored and the file needs no processing
+	 */
+	protected boolean restoreFromCache(IFile file, long hash) {
+		final ConcurrentHashMap<IResource, List<Marker>> markers = batchMarkers;
+		final Entry entry = fileCache.get(file, hash);
+		if (entry == null || markers == null) {
+			return false;
+		}
+		synchronized (usedFeatures) {
+			usedFeatures.addAll(entry.getUsedFeatures());
+		}
+		getMarkers(markers, file).addAll(entry.getMarkers());
+		return true;
+	}
+
+	/**
+	 * Stores the results of a processed file in the {@link #fileCache}. Must be called within a batch.
+	 * 
+	 * @param file
+	 *            the file
+	 * @param hash
+	 *            the hash value of the file after processing (see {@link #getFileHash(Collection, boolean)})
+	 */
+	protected void storeInCache(IFile file, long hash) {
+		final ConcurrentHashMap<IResource, List<Marker>> markers = batchMarkers;
+		final ConcurrentHashMap<IResource, Set<String>> features = batchUsedFeatures;
+		if (markers == null || features == null) {
+			return;
+		}
+		final List<Marker> fileMarkers = markers.get(file);
+		final Set<String> fileFeatures = features.get(file);
+		final List<Marker> markerList;
+		if (fileMarkers != null) {
+			synchronized (fileMarkers) {
+				markerList = new ArrayList<>(fileMarkers);
+			}
+		} else {
+			markerList = Collections.emptyList();
+		}
+		fileCache.put(file, hash, (fileFeatures != null) ? new HashSet<>(fileFeatures) : Collections.<String> emptySet(), markerList);
+	}
+
+	/**
+	 * Processes the given files in parallel with the tasks of the {@link LongRunningWrapper#SCHEDULER}.
+	 * Each task takes the next unprocessed file until all files are processed, thus, at most one task per thread of the scheduler is created.
+	 * Returns when all files are processed.
+	 * 
+	 * @param files
+	 *            the files to process
+	 * @param worker
+	 *            the worker of the first task, which creates the workers of the other tasks
+	 */
+	protected static void processFiles(Collection<IFile> files, final FileWorker worker) {
+		final ConcurrentLinkedQueue<IFile> queue = new ConcurrentLinkedQueue<>(files);
+		final int numberOfTasks = Math.min(files.size(), LongRunningWrapper.SCHEDULER.getMaximumNumberOfThreads());
+		final List<IRunner<Void>> tasks = new ArrayList<>(numberOfTasks);
+		for (int i = 0; i < numberOfTasks; i++) {
+			final boolean firstTask = i == 0;
+			final IRunner<Void> task = LongRunningWrapper.getThread(new LongRunningMethod<Void>() {
+				@Override
+				public Void execute(IMonitor monitor) throws Exception {
+					// the workers of the other tasks are created concurrently
+					final FileWorker taskWorker = firstTask ? worker : worker.newWorker();
+					for (IFile file = queue.poll(); file != null; file = queue.poll()) {
+						monitor.checkCancel();
+						taskWorker.work(file);
+					}
+					return null;
+				}
+			});
+			tasks.add(task);
+			task.schedule();
+		}
+
+		// the results are collected by the current batch, thus, all tasks must have finished before it ends
+		boolean interrupted = false;
+		for (IRunner<Void> task : tasks) {
+			while (true) {
+				try {
+					task.join();
+					break;
+				} catch (InterruptedException e) {
+					interrupted = true;
+					for (IRunner<Void> otherTask : tasks) {
+						otherTask.cancel();
+					}
+				}
+			}
+		}
+		if (interrupted) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	/**
+	 * Collects all files within the given folder and its sub folders.
+	 * 
+	 * @param folder
+	 *            the folder
+	 * @param files
+	 *            the collection to add the files to
+	 * @throws CoreException
+	 */
+	protected static void collectFiles(IFolder folder, Collection<IFile> files) throws CoreException {
+		for (IResource res : folder.members()) {
+			if (res instanceof IFolder) {
+				collectFiles((IFolder) res, files);
+			} else if (res instanceof IFile) {
+				files.add((IFile) res);
+			}
+		}
+	}
+
 	/**
 	 * Read all lines of a file into a vector.
 	 * 
@@ -0,0 +1,197 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2016  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ * 
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.core.builder.preprocessor;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.eclipse.core.resources.IFile;
+
+/**
+ * Remembers the results of the preprocessing of each file between builds.<br>
+ * A file is identified by its path and its state is represented by a hash value of its content and the current configuration (see
+ * {@link #hash(long, Collection)}). If the hash value of a file did not change since the last build, the file does not need to be processed again and the
+ * cached results (i.e., its builder markers and used features) can be reused.<br>
+ * <br>
+ * This class is thread-safe.
+ * 
+ * @see PPComposerExtensionClass
+ */
+public class PreprocessorFileCache {
+
+	/**
+	 * A builder marker that was created while processing a file.
+	 */
+	public static class Marker {
+
+		private final String message;
+		private final int lineNumber;
+		private final int severity;
+
+		public Marker(String message, int lineNumber, int severity) {
+			this.message = message;
+			this.lineNumber = lineNumber;
+			this.severity = severity;
+		}
+
+		public String getMessage() {
+			return message;
+		}
+
+		public int getLineNumber() {
+			return lineNumber;
+		}
+
+		public int getSeverity() {
+			return severity;
+		}
+
+		@Override
+		public int hashCode() {
+			return (31 * ((31 * lineNumber) + severity)) + ((message == null) ? 0 : message.hashCode());
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj) {
+				return true;
+			}
+			if (obj == null || getClass() != obj.getClass()) {
+				return false;
+			}
+			final Marker other = (Marker) obj;
+			return lineNumber == other.lineNumber && severity == other.severity
+				&& ((message == null) ? other.message == null : message.equals(other.message));
+		}
+
+	}
+
+	/**
+	 * The cached results of a single file.
+	 */
+	public static class Entry {
+
+		private final long hash;
+		private final Set<String> usedFeatures;
+		private final List<Marker> markers;
+
+		private Entry(long hash, Set<String> usedFeatures, List<Marker> markers) {
+			this.hash = hash;
+			this.usedFeatures = usedFeatures;
+			this.markers = markers;
+		}
+
+		public long getHash() {
+			return hash;
+		}
+
+		public Set<String> getUsedFeatures() {
+			return usedFeatures;
+		}
+
+		public List<Marker> getMarkers() {
+			return markers;
+		}
+
+	}
+
+	private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+	private static final long FNV_PRIME = 0x100000001b3L;
+
+	private final ConcurrentHashMap<String, Entry> entries = new ConcurrentHashMap<>();
+
+	/**
+	 * Computes a 64-bit FNV-1a hash value.
+	 * 
+	 * @param seed the hash value of the preceding data (e.g., {@link #hash(long, String)} of the configuration) or {@code 0}
+	 * @param lines the lines to hash
+	 * @return the new hash value
+	 */
+	public static long hash(long seed, Collection<String> lines) {
+		long hash = seed;
+		for (String line : lines) {
+			hash = hash(hash, line);
+		}
+		return hash;
+	}
+
+	/**
+	 * Computes a 64-bit FNV-1a hash value. {@code null} and the end of the string are part of the hash value, thus, {@code "a", "b"} and {@code "ab"}
+	 * result in different values.
+	 * 
+	 * @param seed the hash value of the preceding data or {@code 0}
+	 * @param s the string to hash
+	 * @return the new hash value
+	 */
+	public static long hash(long seed, String s) {
+		long hash = seed ^ FNV_OFFSET;
+		if (s != null) {
+			for (int i = 0; i < s.length(); i++) {
+				hash = (hash ^ s.charAt(i)) * FNV_PRIME;
+			}
+		}
+		return ((hash ^ (s == null ? 0xffff : 0xfffe)) * FNV_PRIME);
+	}
+
+	/**
+	 * Returns the cached results of the given file, if its hash value did not change.
+	 * 
+	 * @param file the file
+	 * @param hash the current hash value of the file
+	 * @return the cached results or {@code null} if the file has to be processed
+	 */
+	public Entry get(IFile file, long hash) {
+		final Entry entry = entries.get(getKey(file));
+		return (entry != null && entry.hash == hash) ? entry : null;
+	}
+
+	/**
+	 * Stores the results of a file.
+	 * 
+	 * @param file the file
+	 * @param hash the hash value of the file
+	 * @param usedFeatures the features used in the preprocessor directives of the file
+	 * @param markers the builder markers of the file
+	 */
+	public void put(IFile file, long hash, Set<String> usedFeatures, List<Marker> markers) {
+		entries.put(getKey(file), new Entry(hash, Collections.unmodifiableSet(usedFeatures), Collections.unmodifiableList(markers)));
+	}
+
+	public void remove(IFile file) {
+		entries.remove(getKey(file));
+	}
+
+	public void clear() {
+		entries.clear();
+	}
+
+	public int size() {
+		return entries.size();
+	}
+
+	private static String getKey(IFile file) {
+		return file.getFullPath().toString();
+	}
+
+}
@@ -24,8 +24,14 @@ import static de.ovgu.featureide.fm.core.localization.StringTable.PRINTED_OUTPUT
 import static de.ovgu.featureide.fm.core.localization.StringTable.READING_MODEL_FILE___;
 
 import java.io.ByteArrayInputStream;
+import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
 import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.Collection;
 import java.util.List;
 
@@ -33,6 +39,7 @@ import org.eclipse.core.resources.IContainer;
 import org.eclipse.core.resources.IFile;
 import org.eclipse.core.resources.IFolder;
 import org.osgi.framework.BundleContext;
+import org.prop4j.analyses.AnalysisResultCache;
 
 import de.ovgu.featureide.fm.core.base.IFeature;
 import de.ovgu.featureide.fm.core.base.IFeatureModel;
@@ -45,11 +52,13 @@ import de.ovgu.featureide.fm.core.base.impl.ExtendedFeatureModel.UsedModel;
 import de.ovgu.featureide.fm.core.base.impl.ExtendedFeatureModelFactory;
 import de.ovgu.featureide.fm.core.base.impl.FMFactoryManager;
 import de.ovgu.featureide.fm.core.base.impl.FMFormatManager;
+import de.ovgu.featureide.fm.core.io.AnalysisResultCacheFormat;
 import de.ovgu.featureide.fm.core.io.EclipseFileSystem;
 import de.ovgu.featureide.fm.core.io.FileSystem;
 import de.ovgu.featureide.fm.core.io.IConfigurationFormat;
 import de.ovgu.featureide.fm.core.io.IFeatureModelFormat;
 import de.ovgu.featureide.fm.core.io.IPersistentFormat;
+import de.ovgu.featureide.fm.core.io.ProblemList;
 import de.ovgu.featureide.fm.core.io.manager.FeatureModelManager;
 import de.ovgu.featureide.fm.core.io.manager.FileManagerMap;
 import de.ovgu.featureide.fm.core.io.velvet.VelvetFeatureModelFormat;
@@ -66,6 +75,8 @@ import de.ovgu.featureide.fm.core.job.util.JobSequence;
  */
 public class FMCorePlugin extends AbstractCorePlugin {
 
+	private static final String ANALYSIS_RESULT_CACHE_FILENAME = "analysis.cache";
+
 	private static FMCorePlugin plugin;
 
 	@Override
@@ -94,14 +105,46 @@ public class FMCorePlugin extends AbstractCorePlugin {
 		if (!FMFactoryManager.factoryWorkspaceProvider.load()) {
 			FMFactoryManager.factoryWorkspaceProvider.getFactoryWorkspace().assignID(VelvetFeatureModelFormat.ID, ExtendedFeatureModelFactory.ID);
 		}
+
+		loadAnalysisResultCache();
 	}
 
 	public void stop(BundleContext context) throws Exception {
 		FMFactoryManager.factoryWorkspaceProvider.save();
+		saveAnalysisResultCache();
 		plugin = null;
 		super.stop(context);
 	}
 
+	/**
+	 * The analysis results are stored in the workspace metadata, which is not accessible via the workspace API.
+	 */
+	private Path getAnalysisResultCachePath() {
+		return Paths.get(getStateLocation().append(ANALYSIS_RESULT_CACHE_FILENAME).toOSString());
+	}
+
+	private void loadAnalysisResultCache() {
+		final Path path = getAnalysisResultCachePath();
+		if (Files.isReadable(path)) {
+			try {
+				final ProblemList problems = new AnalysisResultCacheFormat().read(AnalysisResultCache.getInstance(), ByteBuffer.wrap(Files.readAllBytes(path)));
+				if (problems.containsError()) {
+					AnalysisResultCache.getInstance().clear();
+				}
+			} catch (IOException e) {
+				logError(e);
+			}
+		}
+	}
+
+	private void saveAnalysisResultCache() {
+		try (OutputStream out = Files.newOutputStream(getAnalysisResultCachePath())) {
+			new AnalysisResultCacheFormat().write(AnalysisResultCache.getInstance(), out);
+		} catch (IOException e) {
+			logError(e);
+		}
+	}
+
 	public static FMCorePlugin getDefault() {
 		return plugin;
 	}
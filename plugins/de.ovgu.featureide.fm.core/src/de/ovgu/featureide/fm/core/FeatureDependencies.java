@@ -20,26 +20,42 @@
  */
 package de.ovgu.featureide.fm.core;
 
+import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
-import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
-import org.prop4j.And;
-import org.prop4j.Implies;
 import org.prop4j.Literal;
 import org.prop4j.Node;
-import org.prop4j.Not;
-import org.prop4j.SatSolver;
-import org.sat4j.specs.TimeoutException;
+import org.prop4j.solver.BackboneFinder;
+import org.prop4j.solver.BasicSolver;
+import org.prop4j.solver.ISatSolver;
+import org.prop4j.solver.ISatSolver.SatResult;
+import org.prop4j.solver.SatInstance;
+import org.sat4j.specs.ContradictionException;
+import org.sat4j.specs.IVecInt;
+import org.sat4j.specs.IteratorInt;
 
 import de.ovgu.featureide.fm.core.base.IFeature;
 import de.ovgu.featureide.fm.core.base.IFeatureModel;
+import de.ovgu.featureide.fm.core.base.IFeatureStructure;
 import de.ovgu.featureide.fm.core.editing.AdvancedNodeCreator;
+import de.ovgu.featureide.fm.core.editing.NodeCreator;
+import de.ovgu.featureide.fm.core.functional.Functional;
+import de.ovgu.featureide.fm.core.job.monitor.NullMonitor;
 
 /**
- * Calculates dependencies of features
+ * Calculates dependencies of features</br>
+ * </br>
+ * All dependencies are computed with a single incremental solver. For each feature, the features that are always or never selected together
+ * with it are the backbone of the formula under the assumption that the feature is selected. Models that were found for previous features are
+ * kept, such that most candidates are ruled out without calling the solver.
+ * The results are stored as one row of bits per feature and are computed lazily.
  * 
  * @author Soenke Holthusen
  * @author Marcus Pinnecke (Feature Interface) * 
@@ -52,12 +68,37 @@ public class FeatureDependencies {
 	    + "X NEVER  Y := If X is selected then Y cannot be selected in any valid configuration."
 	    + "\n";
 
+	/**
+	 * The maximal number of models that are kept for ruling out candidates.
+	 */
+	private static final int MAX_MODELS = 1024;
+
     private IFeatureModel fm;
     private Node rootNode;
-    
-    private Map<IFeature, Set<IFeature>> always = new HashMap<IFeature, Set<IFeature>>();
-    private Map<IFeature, Set<IFeature>> never = new HashMap<IFeature, Set<IFeature>>();
-    private Map<IFeature, Set<IFeature>> maybe = new HashMap<IFeature, Set<IFeature>>();
+
+	private final List<IFeature> features;
+	private final Map<IFeature, Integer> featureIndices;
+
+	/**
+	 * For each feature (by index), the features that are always (or never) selected if the feature is selected. {@code null} if not computed yet.
+	 */
+	private final BitSet[] always, never;
+
+	private ISatSolver solver = null;
+	private boolean contradiction = false;
+	/**
+	 * The variable of each feature (by index) or {@code 0} if the feature does not occur in the formula.
+	 */
+	private int[] variables;
+	/**
+	 * The indices of the features that are selected (or deselected) in every valid configuration.
+	 */
+	private BitSet coreFeatures, deadFeatures;
+	/**
+	 * The selected variables of already found models.
+	 */
+	private final List<BitSet> models = new ArrayList<>();
+	private int modelCounter = 0;
 
     /**
      * @param fm
@@ -74,6 +115,13 @@ public class FeatureDependencies {
     public FeatureDependencies(IFeatureModel fm, boolean calculateDependencies) {
 		this.fm = fm;
 		this.rootNode = createRootNode(fm);
+		this.features = Functional.toList(fm.getFeatures());
+		this.featureIndices = new HashMap<>();
+		for (int i = 0; i < features.size(); i++) {
+			featureIndices.put(features.get(i), i);
+		}
+		this.always = new BitSet[features.size()];
+		this.never = new BitSet[features.size()];
 		if (calculateDependencies) {
 			calculateDependencies();
 		}
@@ -82,59 +130,233 @@ public class FeatureDependencies {
     /**
      * calculates feature dependencies
      */
-    private void calculateDependencies() {
-		for (IFeature feature : fm.getFeatures()) {
-		    always.put(feature, new HashSet<IFeature>());
-		    never.put(feature, new HashSet<IFeature>());
-		    maybe.put(feature, new HashSet<IFeature>());
-	
-		    Node nodeSel = new And(rootNode, new Literal(feature.getName()));
-	
-		    for (IFeature current_feature : fm.getFeatures()) {
-				if (!current_feature.equals(feature)) {
-				    try {
-						if (nodeImpliesFeature(nodeSel, current_feature.getName(), true)) {
-						    always.get(feature).add(current_feature);
-						} else if (nodeImpliesFeature(nodeSel, current_feature.getName(), false)) {
-						    never.get(feature).add(current_feature);
-						} else {
-						    maybe.get(feature).add(current_feature);
+	private void calculateDependencies() {
+		for (int i = 0; i < features.size(); i++) {
+			getRow(i);
+		}
+	}
+
+	/**
+	 * Computes the dependencies of one feature, if not done yet.
+	 * 
+	 * @param index the index of the feature
+	 */
+	private synchronized void getRow(int index) {
+		if (always[index] != null) {
+			return;
+		}
+		if (solver == null && !contradiction) {
+			initSolver();
+		}
+		// a feature implies its parent and thus all dependencies of its parent
+		final IFeatureStructure parent = features.get(index).getStructure().getParent();
+		final Integer parentIndex = (parent != null) ? featureIndices.get(parent.getFeature()) : null;
+		if (parentIndex != null) {
+			getRow(parentIndex);
+		}
+		final BitSet alwaysRow = new BitSet(features.size());
+		final BitSet neverRow = new BitSet(features.size());
+		final int variable = contradiction ? 0 : variables[index];
+
+		if (contradiction || deadFeatures.get(index)) {
+			// no valid configuration contains the feature, thus it implies everything
+			alwaysRow.set(0, features.size());
+		} else {
+			alwaysRow.or(coreFeatures);
+			neverRow.or(deadFeatures);
+			if (variable != 0 && !coreFeatures.get(index)) {
+				final IVecInt assignment = solver.getAssignment();
+				final int baseSize = assignment.size();
+				assignment.push(variable);
+				if (parentIndex != null) {
+					alwaysRow.or(always[parentIndex]);
+					alwaysRow.set(parentIndex);
+					neverRow.or(never[parentIndex]);
+					pushLiterals(assignment, alwaysRow, coreFeatures, true);
+					pushLiterals(assignment, neverRow, deadFeatures, false);
+				}
+				try {
+					final int[] candidates = getCandidates(variable);
+					if (candidates == null) {
+						alwaysRow.set(0, features.size());
+						neverRow.clear();
+					} else {
+						new BackboneFinder(solver.getInternalSolver(), assignment) {
+							@Override
+							protected void modelFound(int[] model) {
+								addModel(model);
+							}
+						}.findBackbone(candidates, new NullMonitor());
+
+						final BitSet selected = new BitSet();
+						final BitSet deselected = new BitSet();
+						for (IteratorInt it = assignment.iterator(); it.hasNext();) {
+							final int literal = it.next();
+							(literal > 0 ? selected : deselected).set(Math.abs(literal));
 						}
-				    } catch (TimeoutException e) {
-				    	Logger.logError(e);
-				    }
+						for (int i = 0; i < variables.length; i++) {
+							if (selected.get(variables[i])) {
+								alwaysRow.set(i);
+							} else if (deselected.get(variables[i])) {
+								neverRow.set(i);
+							}
+						}
+					}
+				} finally {
+					assignment.shrinkTo(baseSize);
 				}
-		    }
+			}
 		}
-    }
-    
-    
+		alwaysRow.clear(index);
+		neverRow.clear(index);
+		neverRow.andNot(alwaysRow);
+		always[index] = alwaysRow;
+		never[index] = neverRow;
+	}
+
+	private void pushLiterals(IVecInt assignment, BitSet row, BitSet fixedFeatures, boolean selected) {
+		for (int i = row.nextSetBit(0); i >= 0; i = row.nextSetBit(i + 1)) {
+			final int variable = variables[i];
+			if (variable != 0 && !fixedFeatures.get(i)) {
+				assignment.push(selected ? variable : -variable);
+			}
+		}
+	}
+
+	/**
+	 * Creates the solver and computes the core and dead features.
+	 */
+	private void initSolver() {
+		coreFeatures = new BitSet(features.size());
+		deadFeatures = new BitSet(features.size());
+		variables = new int[features.size()];
+
+		final Node cnf = NodeCreator.removeBooleanValues(rootNode);
+		if (cnf == null) {
+			contradiction = true;
+			return;
+		}
+		// only variables contained in a clause are known by the solver (otherwise its models would have gaps)
+		final SatInstance satInstance = new SatInstance(cnf, new LinkedHashSet<Object>(cnf.getContainedFeatures()));
+		for (int i = 0; i < variables.length; i++) {
+			final int[] literal = satInstance.convertToInt(new Literal[] { new Literal(features.get(i).getName()) });
+			variables[i] = literal.length > 0 ? literal[0] : 0;
+		}
+		try {
+			solver = new BasicSolver(satInstance);
+		} catch (ContradictionException e) {
+			contradiction = true;
+			return;
+		}
+		final int[] candidates = getCandidates(0);
+		if (candidates == null) {
+			contradiction = true;
+			solver = null;
+			return;
+		}
+		final IVecInt assignment = solver.getAssignment();
+		new BackboneFinder(solver.getInternalSolver(), assignment) {
+			@Override
+			protected void modelFound(int[] model) {
+				addModel(model);
+			}
+		}.findBackbone(candidates, new NullMonitor());
+
+		// the backbone literals remain as assumptions for all further computations
+		final BitSet selected = new BitSet();
+		final BitSet deselected = new BitSet();
+		for (IteratorInt it = assignment.iterator(); it.hasNext();) {
+			final int literal = it.next();
+			(literal > 0 ? selected : deselected).set(Math.abs(literal));
+		}
+		for (int i = 0; i < variables.length; i++) {
+			if (selected.get(variables[i])) {
+				coreFeatures.set(i);
+			} else if (deselected.get(variables[i])) {
+				deadFeatures.set(i);
+			}
+		}
+	}
+
+	/**
+	 * Determines all literals that are contained in every known model that contains the given variable.
+	 * If there is no such model, the solver is called to find one.
+	 * 
+	 * @param variable the variable or {@code 0} to consider all models
+	 * @return the candidates for the backbone (at index {@code variable - 1}) or {@code null} if there is no model
+	 */
+	private int[] getCandidates(int variable) {
+		BitSet intersection = null;
+		BitSet union = null;
+		for (BitSet model : models) {
+			if (variable == 0 || model.get(variable)) {
+				if (intersection == null) {
+					intersection = (BitSet) model.clone();
+					union = (BitSet) model.clone();
+				} else {
+					intersection.and(model);
+					union.or(model);
+				}
+			}
+		}
+		if (intersection == null) {
+			if (solver.isSatisfiable() != SatResult.TRUE) {
+				return null;
+			}
+			intersection = addModel(solver.getModel());
+			union = intersection;
+		}
+
+		final int numberOfVariables = solver.getSatInstance().getNumberOfVariables();
+		final boolean[] assigned = new boolean[numberOfVariables + 1];
+		for (IteratorInt it = solver.getAssignment().iterator(); it.hasNext();) {
+			assigned[Math.abs(it.next())] = true;
+		}
+		final int[] candidates = new int[numberOfVariables];
+		for (int i = 1; i <= numberOfVariables; i++) {
+			if (!assigned[i]) {
+				if (intersection.get(i)) {
+					candidates[i - 1] = i;
+				} else if (!union.get(i)) {
+					candidates[i - 1] = -i;
+				}
+			}
+		}
+		return candidates;
+	}
+
+	private BitSet addModel(int[] model) {
+		final BitSet selection = new BitSet();
+		for (int literal : model) {
+			if (literal > 0) {
+				selection.set(literal);
+			}
+		}
+		if (models.size() < MAX_MODELS) {
+			models.add(selection);
+		} else {
+			models.set(modelCounter++ % MAX_MODELS, selection);
+		}
+		return selection;
+	}
+
+	private Set<IFeature> toFeatureSet(BitSet row) {
+		final Set<IFeature> result = new LinkedHashSet<>();
+		for (int i = row.nextSetBit(0); i >= 0; i = row.nextSetBit(i + 1)) {
+			result.add(features.get(i));
+		}
+		return result;
+	}
     
     /**
      * Gets all implied features of the given feature
      * @param feature
      * @return all implied features
      */
-    public Collection<IFeature> getImpliedFeatures(IFeature feature) {
-    	if (always.containsKey(feature)) {
-    		return always.get(feature);
-    	}
-    	always.put(feature, new HashSet<IFeature>());
-    	Node nodeSel = new And(rootNode, new Literal(feature.getName()));
-    	Collection<IFeature> impliedFeatures = always.get(feature);
-    	try {
-    		for (IFeature f : fm.getFeatures()) {
-    			if (!f.equals(feature)) {
-					if (nodeImpliesFeature(nodeSel, f.getName(), true)) {
-					    impliedFeatures.add(f);
-					}
-    			}
-    		}
-    	} catch (TimeoutException e) {
-			Logger.logError(e);
-		}
-    	return impliedFeatures;
-    }
+	public Collection<IFeature> getImpliedFeatures(IFeature feature) {
+		final Set<IFeature> impliedFeatures = always(feature);
+		return impliedFeatures != null ? impliedFeatures : Collections.<IFeature> emptySet();
+	}
     
     /**
 	 * @param A Feature
@@ -142,16 +364,13 @@ public class FeatureDependencies {
 	 * @return <code>true</code> if A implies B
 	 */
 	public boolean isAlways(IFeature A, IFeature B) {
-		if (always.containsKey(A)) {
-			return always.get(A).contains(B);
-		}
-		Node nodeSel = new And(rootNode, new Literal(A.getName()));
-		try {
-			return nodeImpliesFeature(nodeSel, B.getName(), true);
-		} catch (TimeoutException e) {
-			Logger.logError(e);
+		final Integer indexA = featureIndices.get(A);
+		final Integer indexB = featureIndices.get(B);
+		if (indexA == null || indexB == null) {
+			return false;
 		}
-		return false;
+		getRow(indexA);
+		return always[indexA].get(indexB);
 	}
     
     /**
@@ -165,61 +384,68 @@ public class FeatureDependencies {
 		return AdvancedNodeCreator.createCNF(fm);
     }
 
-    /**
-     * @param node
-     * @param s
-     * @param positive
-     *            if false, the feature is negated
-     * @return true if the given feature is selected in every valid
-     *         configuration for the featureModel represented by node
-     * @throws TimeoutException
-     */
-    private  boolean nodeImpliesFeature(Node node, String featureName, boolean positive) throws TimeoutException {
-    	Node nodeNeg = null;
-    	if (positive) { 
-    		nodeNeg = new Not((new Implies(node, new Literal(featureName))));
-    	} else {
-    		nodeNeg = new Not((new Implies(node, new Not(featureName))));
-    	}
-    	return !new SatSolver(nodeNeg, 2500).isSatisfiable();
-    }
-    
     /**
      * @param feature
      * @return
      */
-    public Set<IFeature> always(IFeature feature) {
-    	return always.get(feature);
-    }
+	public Set<IFeature> always(IFeature feature) {
+		final Integer index = featureIndices.get(feature);
+		if (index == null) {
+			return null;
+		}
+		getRow(index);
+		return toFeatureSet(always[index]);
+	}
     
     /**
      * @param feature
      * @return
      */
-    public Set<IFeature> never(IFeature feature) {
-    	return never.get(feature);
-    }
+	public Set<IFeature> never(IFeature feature) {
+		final Integer index = featureIndices.get(feature);
+		if (index == null) {
+			return null;
+		}
+		getRow(index);
+		return toFeatureSet(never[index]);
+	}
     
     /**
      * @param feature
      * @return
      */
-    public Set<IFeature> maybe(IFeature feature) {
-    	return maybe.get(feature);
-    }
+	public Set<IFeature> maybe(IFeature feature) {
+		final Integer index = featureIndices.get(feature);
+		if (index == null) {
+			return null;
+		}
+		getRow(index);
+		return toFeatureSet(getMaybeRow(index));
+	}
+
+	private BitSet getMaybeRow(int index) {
+		final BitSet maybeRow = new BitSet(features.size());
+		maybeRow.set(0, features.size());
+		maybeRow.andNot(always[index]);
+		maybeRow.andNot(never[index]);
+		maybeRow.clear(index);
+		return maybeRow;
+	}
     
     public String toString() {
     	StringBuilder builder = new StringBuilder();
-		for (IFeature feature : fm.getFeatures()) {
+		for (int i = 0; i < features.size(); i++) {
+			getRow(i);
+			final String name = features.get(i).getName();
 		    builder.append("\n");
-		    for (IFeature f : always.get(feature)) {
-				builder.append(feature.getName() + " ALWAYS " + f.getName() + "\n");
+		    for (IFeature f : toFeatureSet(always[i])) {
+				builder.append(name + " ALWAYS " + f.getName() + "\n");
 		    }
-		    for (IFeature f : never.get(feature)) {
-				builder.append(feature.getName() + " NEVER " + f.getName() + "\n");
+		    for (IFeature f : toFeatureSet(never[i])) {
+				builder.append(name + " NEVER " + f.getName() + "\n");
 		    }
-		    for (IFeature f : maybe.get(feature)) {
-				builder.append(feature.getName() + " MAYBE " + f.getName() + "\n");
+		    for (IFeature f : toFeatureSet(getMaybeRow(i))) {
+				builder.append(name + " MAYBE " + f.getName() + "\n");
 		    }
 		}
 		return builder.toString();
@@ -45,6 +45,7 @@ import org.prop4j.Not;
 import org.prop4j.Or;
 import org.prop4j.SatSolver;
 import org.prop4j.analyses.FeatureModelAnalysis;
+import org.prop4j.analyses.IncrementalFeatureModelAnalysis;
 import org.sat4j.specs.TimeoutException;
 
 import de.ovgu.featureide.fm.core.base.FeatureUtils;
@@ -56,6 +57,7 @@ import de.ovgu.featureide.fm.core.base.IFeatureStructure;
 import de.ovgu.featureide.fm.core.base.impl.FMFactoryManager;
 import de.ovgu.featureide.fm.core.editing.AdvancedNodeCreator;
 import de.ovgu.featureide.fm.core.editing.NodeCreator;
+import de.ovgu.featureide.fm.core.explanations.Explainer;
 import de.ovgu.featureide.fm.core.functional.Functional;
 import de.ovgu.featureide.fm.core.functional.Functional.IFunction;
 import de.ovgu.featureide.fm.core.job.LongRunningWrapper;
@@ -91,6 +93,12 @@ public class FeatureModelAnalyzer {
 	 */
 	public HashMap<IFeature, List<String>> falseOptFeatureExpl = new HashMap<>();
 
+	/**
+	 * Computes the explanations that are not yet contained in the maps above.
+	 * Belongs to the feature model as it was when the last analysis was started.
+	 */
+	private Explainer explainer = null;
+
 	public static enum Attribute {
 		Mandatory, Optional, Alternative, Or, Abstract, Concrete, Hidden, Dead, FalseOptional, IndetHidden, UnsatisfiableConst, TautologyConst, VoidModelConst, RedundantConst
 	}
@@ -120,6 +128,10 @@ public class FeatureModelAnalyzer {
 	 * Defines whether redundant constraints should be calculated.
 	 */
 	public boolean calculateRedundantConstraints = true;
+	/**
+	 * Defines whether redundant constraints should be pre-filtered in parallel.
+	 */
+	public boolean calculateRedundantConstraintsInParallel = false;
 	/**
 	 * Defines whether constraints that are tautologies should be calculated.
 	 */
@@ -142,6 +154,8 @@ public class FeatureModelAnalyzer {
 
 	private FeatureDependencies dependencies;
 
+	private volatile IncrementalFeatureModelAnalysis incrementalAnalysis = null;
+
 	/**
 	 * Returns the value calculated during the last call of
 	 * updateFeatureModel().
@@ -555,20 +569,103 @@ public class FeatureModelAnalyzer {
 		analysis.setCalculateFeatures(calculateFeatures);
 		analysis.setCalculateConstraints(calculateConstraints);
 		analysis.setCalculateRedundantConstraints(calculateRedundantConstraints);
+		analysis.setCalculateRedundantConstraintsInParallel(calculateRedundantConstraintsInParallel);
 		analysis.setCalculateTautologyConstraints(calculateTautologyConstraints);
 		analysis.setCalculateDeadConstraints(calculateDeadConstraints);
 		analysis.setCalculateFOConstraints(calculateFOConstraints);
+		analysis.setIncrementalAnalysis(incrementalAnalysis);
 		final HashMap<Object, Object> newAttributes = LongRunningWrapper.runMethod(analysis, this.monitor);
 		cachedValidity = analysis.isValid();
 		cachedCoreFeatures = analysis.getCoreFeatures();
 		cachedDeadFeatures = analysis.getDeadFeatures();
 		cachedFalseOptionalFeatures = analysis.getFalseOptionalFeatures();
-		deadFeatureExpl = analysis.deadFeatureExpl;
-		falseOptFeatureExpl = analysis.falseOptFeatureExpl;
-		redundantConstrExpl = analysis.redundantConstrExpl;
+		synchronized (this) {
+			deadFeatureExpl = analysis.deadFeatureExpl;
+			falseOptFeatureExpl = analysis.falseOptFeatureExpl;
+			redundantConstrExpl = analysis.redundantConstrExpl;
+			explainer = analysis.getExplainer();
+		}
 		return newAttributes;
 	}
 
+	/**
+	 * Returns the explanation for a dead feature or, if the given feature is the root of a void feature model, for the void feature model.
+	 * The explanation is computed on the first call and then stored in {@link #deadFeatureExpl}.
+	 * 
+	 * @param feature the dead feature
+	 * @return the explanation (empty if the feature is not dead)
+	 */
+	public synchronized List<String> getDeadFeatureExplanation(IFeature feature) {
+		List<String> explanation = deadFeatureExpl.get(feature);
+		if (explanation == null) {
+			explanation = (feature.getStructure().isRoot() && !cachedValidity) ? getExplainer().explainVoidFeatureModel()
+					: getExplainer().explainDeadFeature(feature);
+			deadFeatureExpl.put(feature, explanation);
+		}
+		return explanation;
+	}
+
+	/**
+	 * Returns the explanation for a false-optional feature.
+	 * The explanation is computed on the first call and then stored in {@link #falseOptFeatureExpl}.
+	 * 
+	 * @param feature the false-optional feature
+	 * @return the explanation (empty if the feature is not false-optional)
+	 */
+	public synchronized List<String> getFalseOptionalFeatureExplanation(IFeature feature) {
+		List<String> explanation = falseOptFeatureExpl.get(feature);
+		if (explanation == null) {
+			explanation = getExplainer().explainFalseOptionalFeature(feature);
+			falseOptFeatureExpl.put(feature, explanation);
+		}
+		return explanation;
+	}
+
+	/**
+	 * Returns the explanation for a redundant constraint.
+	 * The explanation is computed on the first call and then stored in {@link #redundantConstrExpl}.
+	 * 
+	 * @param constraint the redundant constraint
+	 * @return the explanation (empty if the constraint is not redundant)
+	 */
+	public synchronized List<String> getRedundantConstraintExplanation(IConstraint constraint) {
+		final int index = FeatureUtils.getConstraintIndex(fm, constraint);
+		List<String> explanation = redundantConstrExpl.get(index);
+		if (explanation == null) {
+			explanation = getExplainer().explainRedundantConstraint(constraint);
+			redundantConstrExpl.put(index, explanation);
+		}
+		return explanation;
+	}
+
+	/**
+	 * Returns the explainer of the last analysis or creates a new one.
+	 * A new explainer gets the redundant constraints in the same order as {@link FeatureModelAnalysis} registers them,
+	 * so that a redundant constraint is never explained by a constraint that was marked as redundant before it.
+	 */
+	private Explainer getExplainer() {
+		if (explainer == null) {
+			explainer = new Explainer(fm);
+			for (IConstraint constraint : fm.getConstraints()) {
+				final ConstraintAttribute attribute = constraint.getConstraintAttribute();
+				if (attribute == ConstraintAttribute.REDUNDANT || attribute == ConstraintAttribute.TAUTOLOGY) {
+					explainer.addRedundantConstraint(constraint);
+				}
+			}
+		}
+		return explainer;
+	}
+
+	/**
+	 * Discards all explanations, because the feature model was changed.
+	 */
+	private synchronized void resetExplanations() {
+		explainer = null;
+		deadFeatureExpl = new HashMap<>();
+		falseOptFeatureExpl = new HashMap<>();
+		redundantConstrExpl = new HashMap<>();
+	}
+
 	private void beginTask(int totalWork) {
 		monitor.setTaskName(ANALYZE);
 		monitor.setRemainingWork(totalWork);
@@ -580,11 +677,13 @@ public class FeatureModelAnalyzer {
 		analysis.setCalculateConstraints(true);
 		analysis.setCalculateExplanations(false);
 		analysis.setCalculateRedundantConstraints(calculateRedundantConstraints);
+		analysis.setCalculateRedundantConstraintsInParallel(calculateRedundantConstraintsInParallel);
 		analysis.setCalculateTautologyConstraints(calculateTautologyConstraints);
 		analysis.setCalculateDeadConstraints(calculateDeadConstraints);
 		analysis.setCalculateFOConstraints(calculateFOConstraints);
 		analysis.updateConstraints();
 		cachedValidity = analysis.isValid();
+		resetExplanations();
 	}
 
 	private boolean canceled() {
@@ -601,13 +700,39 @@ public class FeatureModelAnalyzer {
 		analysis.setCalculateFeatures(true);
 		analysis.setCalculateConstraints(false);
 		analysis.setCalculateExplanations(false);
+		analysis.setIncrementalAnalysis(incrementalAnalysis);
 		analysis.updateFeatures();
 		cachedValidity = analysis.isValid();
+		resetExplanations();
 		cachedCoreFeatures = analysis.getCoreFeatures();
 		cachedDeadFeatures = analysis.getDeadFeatures();
 		cachedFalseOptionalFeatures = analysis.getFalseOptionalFeatures();
 	}
 
+	/**
+	 * Defines whether validity, core, dead, and false-optional features are analyzed incrementally.
+	 * If enabled, an {@link IncrementalFeatureModelAnalysis} is registered at the feature model and keeps its solver between two analyses,
+	 * such that {@link #analyzeFeatureModel(IMonitor)} and {@link #updateFeatures()} only check the parts of the model that were changed since the last call.
+	 * Disabling removes the listener from the feature model again.
+	 * 
+	 * @param incremental {@code true} to analyze incrementally, {@code false} to analyze the complete model every time
+	 */
+	public synchronized void setIncremental(boolean incremental) {
+		if (incremental) {
+			if (incrementalAnalysis == null) {
+				incrementalAnalysis = new IncrementalFeatureModelAnalysis(fm);
+				fm.addListener(incrementalAnalysis);
+			}
+		} else if (incrementalAnalysis != null) {
+			fm.removeListener(incrementalAnalysis);
+			incrementalAnalysis = null;
+		}
+	}
+
+	public boolean isIncremental() {
+		return incrementalAnalysis != null;
+	}
+
 	/**
 	 * Calculations for indeterminate hidden features
 	 * 
@@ -60,6 +60,58 @@ public abstract class AFeatureGraph implements IFeatureGraph {
 		return isEdge(edge, EDGE_00) || isEdge(edge, EDGE_01) || isEdge(edge, EDGE_10) || isEdge(edge, EDGE_11);
 	}
 
+	/**
+	 * Computes the new value of an edge when the given edge type is added to it.
+	 * 
+	 * @param oldValue the current value of the edge
+	 * @param edgeType the edge type to add
+	 * @return the new value of the edge
+	 */
+	protected static int getNewEdgeValue(byte oldValue, byte edgeType) {
+		switch (edgeType) {
+		case EDGE_NONE:
+			return EDGE_NONE;
+		case EDGE_00Q:
+			if (!isEdge(oldValue, (byte) (EDGE_00 | EDGE_01))) {
+				return oldValue | EDGE_00Q;
+			} else {
+				return oldValue;
+			}
+		case EDGE_00:
+			assert !isEdge(oldValue, EDGE_01);
+			return (oldValue & MASK_0_CLEAR) | EDGE_00;
+		case EDGE_01Q:
+			if (!isEdge(oldValue, (byte) (EDGE_00 | EDGE_01))) {
+				return oldValue | EDGE_01Q;
+			} else {
+				return oldValue;
+			}
+		case EDGE_01:
+			assert !isEdge(oldValue, EDGE_00);
+			return (oldValue & MASK_0_CLEAR) | EDGE_01;
+		case EDGE_10Q:
+			if (!isEdge(oldValue, (byte) (EDGE_10 | EDGE_11))) {
+				return oldValue | EDGE_10Q;
+			} else {
+				return oldValue;
+			}
+		case EDGE_10:
+			assert !isEdge(oldValue, EDGE_11);
+			return (oldValue & MASK_1_CLEAR) | EDGE_10;
+		case EDGE_11Q:
+			if (!isEdge(oldValue, (byte) (EDGE_10 | EDGE_11))) {
+				return oldValue | EDGE_11Q;
+			} else {
+				return oldValue;
+			}
+		case EDGE_11:
+			assert !isEdge(oldValue, EDGE_10);
+			return (oldValue & MASK_1_CLEAR) | EDGE_11;
+		default:
+			return oldValue;
+		}
+	}
+
 	public AFeatureGraph(SatInstance satInstance, int[] index) {
 		int count = 0;
 		for (int i = 0; i < index.length; i++) {
@@ -82,6 +134,9 @@ public abstract class AFeatureGraph implements IFeatureGraph {
 		final AFeatureGraph anotherAGraph = (AFeatureGraph) otherGraph;
 		this.size = anotherAGraph.size;
 		this.index = anotherAGraph.index;
+		if (anotherAGraph.satInstance != null) {
+			this.satInstance = anotherAGraph.satInstance;
+		}
 	}
 
 	public void setSatInstance(SatInstance satInstance) {
@@ -100,6 +155,16 @@ public abstract class AFeatureGraph implements IFeatureGraph {
 		return index;
 	}
 
+	@Override
+	public int getNextEdge(int fromIndex, int toIndex) {
+		for (int i = toIndex + 1; i < size; i++) {
+			if (getEdge(fromIndex, i) != EDGE_NONE) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
 	@Override
 	public int getFeatureIndex(String name) {
 		return index[satInstance.getVariable(name) - 1];
@@ -34,6 +34,15 @@ public interface IFeatureGraph extends Serializable {
 
 	int getSize();
 
+	/**
+	 * Returns the next index that is connected to the given feature.
+	 * 
+	 * @param fromIndex the internal index of the feature
+	 * @param toIndex the internal index after which the search starts (-1 to start at the beginning)
+	 * @return the smallest index greater than {@code toIndex} with an edge from {@code fromIndex} or -1 if there is none
+	 */
+	int getNextEdge(int fromIndex, int toIndex);
+
 	int[] getIndex();
 
 	SatInstance getSatInstance();
@@ -35,6 +35,21 @@ public class MatrixFeatureGraph extends AFeatureGraph {
 		adjMatrix = new byte[size * size];
 	}
 
+	/**
+	 * Creates a feature graph from an existing adjacency matrix.
+	 * 
+	 * @param satInstance the corresponding sat instance
+	 * @param index the mapping from variables to internal indices
+	 * @param adjMatrix the edges in row-major order (size: number of internal indices squared)
+	 */
+	public MatrixFeatureGraph(SatInstance satInstance, int[] index, byte[] adjMatrix) {
+		super(satInstance, index);
+		if (adjMatrix.length != size * size) {
+			throw new IllegalArgumentException("Adjacency matrix has wrong size: " + adjMatrix.length);
+		}
+		this.adjMatrix = adjMatrix;
+	}
+
 	public MatrixFeatureGraph() {
 		super();
 	}
@@ -42,8 +57,17 @@ public class MatrixFeatureGraph extends AFeatureGraph {
 	@Override
 	public void copyValues(IFeatureGraph otherGraph) {
 		super.copyValues(otherGraph);
-		final MatrixFeatureGraph matrixGraph = (MatrixFeatureGraph) otherGraph;
-		adjMatrix = Arrays.copyOf(matrixGraph.adjMatrix, matrixGraph.adjMatrix.length);
+		if (otherGraph instanceof MatrixFeatureGraph) {
+			final MatrixFeatureGraph matrixGraph = (MatrixFeatureGraph) otherGraph;
+			adjMatrix = Arrays.copyOf(matrixGraph.adjMatrix, matrixGraph.adjMatrix.length);
+		} else {
+			adjMatrix = new byte[size * size];
+			for (int i = 0; i < size; i++) {
+				for (int j = otherGraph.getNextEdge(i, -1); j >= 0; j = otherGraph.getNextEdge(i, j)) {
+					adjMatrix[(i * size) + j] = otherGraph.getEdge(i, j);
+				}
+			}
+		}
 	}
 
 	@Override
@@ -53,63 +77,8 @@ public class MatrixFeatureGraph extends AFeatureGraph {
 		}
 		final int index = (from * size) + to;
 
-		final int newValue;
-		final byte oldValue;
-		oldValue = adjMatrix[index];
-
-		switch (edgeType) {
-		case EDGE_NONE:
-			newValue = EDGE_NONE;
-			break;
-		case EDGE_00Q:
-			if (!isEdge(oldValue, (byte) (EDGE_00 | EDGE_01))) {
-				newValue = oldValue | EDGE_00Q;
-			} else {
-				newValue = oldValue;
-			}
-			break;
-		case EDGE_00:
-			assert !isEdge(oldValue, EDGE_01);
-			newValue = (oldValue & MASK_0_CLEAR) | EDGE_00;
-			break;
-		case EDGE_01Q:
-			if (!isEdge(oldValue, (byte) (EDGE_00 | EDGE_01))) {
-				newValue = oldValue | EDGE_01Q;
-			} else {
-				newValue = oldValue;
-			}
-			break;
-		case EDGE_01:
-			assert !isEdge(oldValue, EDGE_00);
-			newValue = (oldValue & MASK_0_CLEAR) | EDGE_01;
-			break;
-
-		case EDGE_10Q:
-			if (!isEdge(oldValue, (byte) (EDGE_10 | EDGE_11))) {
-				newValue = oldValue | EDGE_10Q;
-			} else {
-				newValue = oldValue;
-			}
-			break;
-		case EDGE_10:
-			assert !isEdge(oldValue, EDGE_11);
-			newValue = (oldValue & MASK_1_CLEAR) | EDGE_10;
-			break;
-		case EDGE_11Q:
-			if (!isEdge(oldValue, (byte) (EDGE_10 | EDGE_11))) {
-				newValue = oldValue | EDGE_11Q;
-			} else {
-				newValue = oldValue;
-			}
-			break;
-		case EDGE_11:
-			assert !isEdge(oldValue, EDGE_10);
-			newValue = (oldValue & MASK_1_CLEAR) | EDGE_11;
-			break;
-		default:
-			newValue = oldValue;
-			break;
-		}
+		final byte oldValue = adjMatrix[index];
+		final int newValue = getNewEdgeValue(oldValue, edgeType);
 
 		adjMatrix[index] = (byte) (0x000000ff & newValue);
 
@@ -122,6 +91,17 @@ public class MatrixFeatureGraph extends AFeatureGraph {
 		return adjMatrix[index];
 	}
 
+	@Override
+	public int getNextEdge(int fromIndex, int toIndex) {
+		final int rowOffset = fromIndex * size;
+		for (int i = toIndex + 1; i < size; i++) {
+			if (adjMatrix[rowOffset + i] != EDGE_NONE) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
 	@Override
 	public byte getValue(int fromIndex, int toIndex, boolean fromSelected) {
 		final int index = (fromIndex * size) + toIndex;
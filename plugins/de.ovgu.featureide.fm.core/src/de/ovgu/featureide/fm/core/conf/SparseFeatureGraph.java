@@ -0,0 +1,278 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2016  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ * 
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.conf;
+
+import java.util.Arrays;
+
+import org.prop4j.solver.SatInstance;
+
+/**
+ * Feature graph that stores its edges as compressed sparse rows.</br>
+ * For each row, the columns of all non-empty edges are stored in ascending order together with their values.
+ * Thus, the required memory only depends on the number of edges and not on the squared number of features.
+ * Rows can grow while the graph is built. A row that exceeds its capacity is moved to the end of the storage.
+ * The space that is left by moved rows can be reclaimed by calling {@link #trimToSize()}.
+ */
+public class SparseFeatureGraph extends AFeatureGraph {
+
+	private static final long serialVersionUID = -3155185532862883561L;
+
+	private static final int INITIAL_ROW_CAPACITY = 4;
+
+	private int[] rowOffsets;
+	private int[] rowLengths;
+	private int[] rowCapacities;
+
+	private int[] columns;
+	private byte[] values;
+	private int storageSize;
+
+	public SparseFeatureGraph(SatInstance satInstance, int[] index) {
+		super(satInstance, index);
+		rowOffsets = new int[size];
+		rowLengths = new int[size];
+		rowCapacities = new int[size];
+		columns = new int[size * INITIAL_ROW_CAPACITY];
+		values = new byte[size * INITIAL_ROW_CAPACITY];
+		for (int i = 0; i < size; i++) {
+			rowOffsets[i] = i * INITIAL_ROW_CAPACITY;
+			rowCapacities[i] = INITIAL_ROW_CAPACITY;
+		}
+		storageSize = columns.length;
+	}
+
+	/**
+	 * Creates a feature graph from existing compressed sparse rows.
+	 * 
+	 * @param satInstance the corresponding sat instance
+	 * @param index the mapping from variables to internal indices
+	 * @param rowOffsets the start of each row within {@code columns} and {@code values} (size: number of internal indices + 1)
+	 * @param columns the column of each edge (ascending within each row)
+	 * @param values the value of each edge (must not be {@link #EDGE_NONE})
+	 */
+	public SparseFeatureGraph(SatInstance satInstance, int[] index, int[] rowOffsets, int[] columns, byte[] values) {
+		super(satInstance, index);
+		if (rowOffsets.length != size + 1) {
+			throw new IllegalArgumentException("Row offsets have wrong size: " + rowOffsets.length);
+		}
+		this.rowOffsets = Arrays.copyOf(rowOffsets, size);
+		this.rowLengths = new int[size];
+		for (int i = 0; i < size; i++) {
+			rowLengths[i] = rowOffsets[i + 1] - rowOffsets[i];
+		}
+		this.rowCapacities = Arrays.copyOf(rowLengths, size);
+		this.columns = columns;
+		this.values = values;
+		this.storageSize = rowOffsets[size];
+	}
+
+	public SparseFeatureGraph() {
+		super();
+	}
+
+	@Override
+	public void copyValues(IFeatureGraph otherGraph) {
+		super.copyValues(otherGraph);
+		if (otherGraph instanceof SparseFeatureGraph) {
+			final SparseFeatureGraph sparseGraph = (SparseFeatureGraph) otherGraph;
+			rowOffsets = Arrays.copyOf(sparseGraph.rowOffsets, size);
+			rowLengths = Arrays.copyOf(sparseGraph.rowLengths, size);
+			rowCapacities = Arrays.copyOf(sparseGraph.rowCapacities, size);
+			columns = Arrays.copyOf(sparseGraph.columns, sparseGraph.storageSize);
+			values = Arrays.copyOf(sparseGraph.values, sparseGraph.storageSize);
+			storageSize = sparseGraph.storageSize;
+		} else {
+			rowOffsets = new int[size];
+			rowLengths = new int[size];
+			rowCapacities = new int[size];
+			int edgeCount = 0;
+			for (int i = 0; i < size; i++) {
+				for (int j = otherGraph.getNextEdge(i, -1); j >= 0; j = otherGraph.getNextEdge(i, j)) {
+					edgeCount++;
+				}
+			}
+			columns = new int[edgeCount];
+			values = new byte[edgeCount];
+			storageSize = 0;
+			for (int i = 0; i < size; i++) {
+				rowOffsets[i] = storageSize;
+				for (int j = otherGraph.getNextEdge(i, -1); j >= 0; j = otherGraph.getNextEdge(i, j)) {
+					columns[storageSize] = j;
+					values[storageSize++] = otherGraph.getEdge(i, j);
+				}
+				rowLengths[i] = storageSize - rowOffsets[i];
+				rowCapacities[i] = rowLengths[i];
+			}
+		}
+	}
+
+	@Override
+	public boolean setEdge(int from, int to, byte edgeType) {
+		if (from == to) {
+			return false;
+		}
+		final int position = find(from, to);
+		final byte oldValue = (position >= 0) ? values[position] : EDGE_NONE;
+		final byte newValue = (byte) (0x000000ff & getNewEdgeValue(oldValue, edgeType));
+
+		if (oldValue == newValue) {
+			return false;
+		}
+		if (position >= 0) {
+			if (newValue == EDGE_NONE) {
+				remove(from, position);
+			} else {
+				values[position] = newValue;
+			}
+		} else {
+			insert(from, -position - 1, to, newValue);
+		}
+		return true;
+	}
+
+	@Override
+	public byte getEdge(int fromIndex, int toIndex) {
+		final int position = find(fromIndex, toIndex);
+		return (position >= 0) ? values[position] : EDGE_NONE;
+	}
+
+	@Override
+	public int getNextEdge(int fromIndex, int toIndex) {
+		int position = find(fromIndex, toIndex);
+		position = (position >= 0) ? position + 1 : -position - 1;
+		return (position < rowOffsets[fromIndex] + rowLengths[fromIndex]) ? columns[position] : -1;
+	}
+
+	@Override
+	public byte getValue(int fromIndex, int toIndex, boolean fromSelected) {
+		final byte edge = getEdge(fromIndex, toIndex);
+		return (byte) (((fromSelected ? (edge >>> 4) : edge)) & 0x0000000f);
+	}
+
+	@Override
+	public byte getValueInternal(int fromIndex, int toIndex, boolean fromSelected) {
+		final int internalFrom = index[fromIndex];
+		final int internalTo = index[toIndex];
+		if (internalFrom < 0 || internalTo < 0) {
+			return -1;
+		}
+		return getValue(internalFrom, internalTo, fromSelected);
+	}
+
+	/**
+	 * @return the number of non-empty edges in this graph
+	 */
+	public int getNumberOfEdges() {
+		int count = 0;
+		for (int i = 0; i < size; i++) {
+			count += rowLengths[i];
+		}
+		return count;
+	}
+
+	/**
+	 * Removes all unused capacity from the storage, such that all rows are stored consecutively.
+	 * Should be called after the graph is completely built.
+	 */
+	public void trimToSize() {
+		final int edgeCount = getNumberOfEdges();
+		final int[] newColumns = new int[edgeCount];
+		final byte[] newValues = new byte[edgeCount];
+		int offset = 0;
+		for (int i = 0; i < size; i++) {
+			final int length = rowLengths[i];
+			System.arraycopy(columns, rowOffsets[i], newColumns, offset, length);
+			System.arraycopy(values, rowOffsets[i], newValues, offset, length);
+			rowOffsets[i] = offset;
+			rowCapacities[i] = length;
+			offset += length;
+		}
+		columns = newColumns;
+		values = newValues;
+		storageSize = edgeCount;
+	}
+
+	/**
+	 * Searches for the position of an edge within the storage.
+	 * 
+	 * @return the position of the edge or (-(insertion point) - 1) if the edge does not exist
+	 */
+	private int find(int fromIndex, int toIndex) {
+		final int rowOffset = rowOffsets[fromIndex];
+		return Arrays.binarySearch(columns, rowOffset, rowOffset + rowLengths[fromIndex], toIndex);
+	}
+
+	private void remove(int row, int position) {
+		final int rowEnd = rowOffsets[row] + rowLengths[row];
+		System.arraycopy(columns, position + 1, columns, position, rowEnd - position - 1);
+		System.arraycopy(values, position + 1, values, position, rowEnd - position - 1);
+		rowLengths[row]--;
+	}
+
+	private void insert(int row, int position, int column, byte value) {
+		if (rowLengths[row] == rowCapacities[row]) {
+			position += grow(row);
+		}
+		final int rowEnd = rowOffsets[row] + rowLengths[row];
+		System.arraycopy(columns, position, columns, position + 1, rowEnd - position);
+		System.arraycopy(values, position, values, position + 1, rowEnd - position);
+		columns[position] = column;
+		values[position] = value;
+		rowLengths[row]++;
+	}
+
+	/**
+	 * Doubles the capacity of a row.
+	 * 
+	 * @return the distance by which the row was moved
+	 */
+	private int grow(int row) {
+		final int oldOffset = rowOffsets[row];
+		final int oldCapacity = rowCapacities[row];
+		final int newCapacity = Math.max(INITIAL_ROW_CAPACITY, oldCapacity << 1);
+
+		// the last row can be extended in place
+		if (oldOffset + oldCapacity == storageSize) {
+			ensureStorageCapacity(oldOffset + newCapacity);
+			storageSize = oldOffset + newCapacity;
+			rowCapacities[row] = newCapacity;
+			return 0;
+		}
+
+		final int newOffset = storageSize;
+		ensureStorageCapacity(newOffset + newCapacity);
+		System.arraycopy(columns, oldOffset, columns, newOffset, rowLengths[row]);
+		System.arraycopy(values, oldOffset, values, newOffset, rowLengths[row]);
+		storageSize = newOffset + newCapacity;
+		rowOffsets[row] = newOffset;
+		rowCapacities[row] = newCapacity;
+		return newOffset - oldOffset;
+	}
+
+	private void ensureStorageCapacity(int minCapacity) {
+		if (minCapacity > columns.length) {
+			final int newLength = Math.max(minCapacity, columns.length + (columns.length >> 1));
+			columns = Arrays.copyOf(columns, newLength);
+			values = Arrays.copyOf(values, newLength);
+		}
+	}
+
+}
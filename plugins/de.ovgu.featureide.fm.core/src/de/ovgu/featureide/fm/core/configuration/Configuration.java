@@ -20,6 +20,7 @@
  */
 package de.ovgu.featureide.fm.core.configuration;
 
+import java.math.BigInteger;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
@@ -331,6 +332,15 @@ public class Configuration implements Cloneable {
 		return LongRunningWrapper.runMethod(propagator.number(timeout));
 	}
 
+	/**
+	 * Counts the exact number of possible solutions.
+	 * 
+	 * @return the number of solutions
+	 */
+	public BigInteger exactNumber() {
+		return LongRunningWrapper.runMethod(propagator.exactNumber());
+	}
+
 	public void resetValues() {
 		for (SelectableFeature feature : features) {
 			feature.setManual(Selection.UNDEFINED);
@@ -20,6 +20,7 @@
  */
 package de.ovgu.featureide.fm.core.configuration;
 
+import java.math.BigInteger;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
@@ -171,20 +172,41 @@ public class ConfigurationPropagator implements IConfigurationPropagator {
 			if (rootNode == null) {
 				return 0L;
 			}
-			final List<Node> children = new ArrayList<Node>();
+			final List<Literal> literals = getSelectedLiteralsWithoutHidden();
 
-			for (SelectableFeature feature : configuration.features) {
-				if (feature.getSelection() != Selection.UNDEFINED && (configuration.ignoreAbstractFeatures || feature.getFeature().getStructure().isConcrete())
-						&& !feature.getFeature().getStructure().hasHiddenParent()) {
-					children.add(new Literal(feature.getFeature().getName(), feature.getSelection() == Selection.SELECTED));
-				}
+			final BigInteger number = getModelCounter().countSolutions(literals, timeout, monitor);
+			if (number != null) {
+				// Long.MIN_VALUE indicates at least Long.MAX_VALUE solutions
+				return number.bitLength() < Long.SIZE ? number.longValue() : Long.MIN_VALUE;
 			}
 
-			final Node[] nodeArray = createNodeArray(children, rootNodeWithoutHidden);
+			final Node[] nodeArray = createNodeArray(new ArrayList<Node>(literals), rootNodeWithoutHidden);
 			return new SatSolver(new And(nodeArray), timeout).countSolutions();
 		}
 	}
 
+	public class ExactCountSolutionsMethod implements LongRunningMethod<BigInteger> {
+
+		@Override
+		public BigInteger execute(IMonitor monitor) {
+			if (rootNode == null) {
+				return BigInteger.ZERO;
+			}
+			return getModelCounter().countSolutions(getSelectedLiteralsWithoutHidden(), 0, monitor);
+		}
+	}
+
+	public class CountSelectionsMethod implements LongRunningMethod<Map<String, BigInteger>> {
+
+		@Override
+		public Map<String, BigInteger> execute(IMonitor monitor) {
+			if (rootNode == null) {
+				return Collections.emptyMap();
+			}
+			return getModelCounter().countSelections(getSelectedLiteralsWithoutHidden(), 0, monitor);
+		}
+	}
+
 	public class FindClause implements LongRunningMethod<List<Node>> {
 
 		private List<SelectableFeature> featureList;
@@ -560,8 +582,12 @@ public class ConfigurationPropagator implements IConfigurationPropagator {
 				Logger.logError(e);
 			}
 
-			rootNodeWithoutHidden = buildThread1.getResults();
-			rootNode = buildThread2.getResults();
+			synchronized (ConfigurationPropagator.this) {
+				rootNodeWithoutHidden = buildThread1.getResults();
+				rootNode = buildThread2.getResults();
+				propagationSolver = null;
+				modelCounter = null;
+			}
 			return null;
 		}
 	}
@@ -584,19 +610,22 @@ public class ConfigurationPropagator implements IConfigurationPropagator {
 
 			configuration.resetAutomaticValues();
 
-			final SatSolver manualSolver = new SatSolver(rootNode, ConfigurationPropagator.TIMEOUT);
+			final PropagationSolver solver = getPropagationSolver();
 
-			final List<Node> manualSelected = (redundantManual) ? new LinkedList<Node>() : new ArrayList<Node>();
-			for (SelectableFeature feature : configuration.features) {
+			final List<SelectableFeature> features = configuration.features;
+			final int[] manualLiterals = new int[features.size()];
+			int i = 0;
+			for (SelectableFeature feature : features) {
 				switch (feature.getManual()) {
 				case SELECTED:
-					manualSelected.add(new Literal(feature.getFeature().getName(), true));
+					manualLiterals[i] = solver.getLiteral(feature.getFeature().getName(), true);
 					break;
 				case UNSELECTED:
-					manualSelected.add(new Literal(feature.getFeature().getName(), false));
+					manualLiterals[i] = solver.getLiteral(feature.getFeature().getName(), false);
 					break;
 				default:
 				}
+				i++;
 			}
 
 			workMonitor.worked();
@@ -604,93 +633,67 @@ public class ConfigurationPropagator implements IConfigurationPropagator {
 			final HashMap<SelectableFeature, Selection> possibleRedundantManual = new HashMap<SelectableFeature, Selection>();
 
 			if (redundantManual) {
-				for (Iterator<Node> iterator = manualSelected.iterator(); iterator.hasNext();) {
-					final Literal l = (Literal) iterator.next();
-					try {
-						l.positive = !l.positive;
-						if (!manualSolver.isSatisfiable(manualSelected)) {
-							final SelectableFeature feature = configuration.table.get(l.var);
-							possibleRedundantManual.put(feature, feature.getManual());
-							feature.setManual(Selection.UNDEFINED);
-							iterator.remove();
-						}
-					} catch (TimeoutException e) {
-						Logger.logError(e);
-					} finally {
-						l.positive = !l.positive;
+				i = 0;
+				for (SelectableFeature feature : features) {
+					if (solver.isImplied(manualLiterals, i)) {
+						possibleRedundantManual.put(feature, feature.getManual());
+						feature.setManual(Selection.UNDEFINED);
+						manualLiterals[i] = 0;
 					}
+					i++;
 				}
 			}
 
-			final Node[] nodeArray = createNodeArray(manualSelected, rootNode);
-			final SatSolver automaticSolver = new SatSolver(new And(nodeArray), ConfigurationPropagator.TIMEOUT);
+			final byte[] values = solver.propagate(manualLiterals, workMonitor.subTask(0));
 
-			ListIterator<SelectableFeature> it = configuration.features.listIterator();
 			int index = -1;
 			if (startFeatureName != null) {
-				while (it.hasNext()) {
-					final SelectableFeature feature = it.next();
-
+				i = 0;
+				for (SelectableFeature feature : features) {
 					if (startFeatureName.equals(feature.getFeature().getName())) {
-						it.previous();
-						index = it.nextIndex();
+						index = i;
 						break;
 					}
+					i++;
 				}
 			}
 
 			if (index > 0) {
-				updateAllFeatures(automaticSolver, it, workMonitor, manualSelected, manualSolver, possibleRedundantManual);
-				updateAllFeatures(automaticSolver, configuration.features.subList(0, index).iterator(), workMonitor, manualSelected, manualSolver,
-						possibleRedundantManual);
+				updateAllFeatures(solver, values, manualLiterals, index, features.size(), workMonitor, possibleRedundantManual);
+				updateAllFeatures(solver, values, manualLiterals, 0, index, workMonitor, possibleRedundantManual);
 			} else {
-				updateAllFeatures(automaticSolver, configuration.features.iterator(), workMonitor, manualSelected, manualSolver, possibleRedundantManual);
+				updateAllFeatures(solver, values, manualLiterals, 0, features.size(), workMonitor, possibleRedundantManual);
 			}
 			return null;
 		}
 
-		private void updateAllFeatures(final SatSolver automaticSolver, Iterator<SelectableFeature> it, IMonitor workMonitor, List<Node> manualSelected,
-				SatSolver manualSolver, HashMap<SelectableFeature, Selection> possibleRedundantManual) {
-			final Node[] manualSelectedArray = createNodeArray(manualSelected);
-			int i = 0;
-			while (it.hasNext()) {
-				final SelectableFeature feature = it.next();
+		private void updateAllFeatures(PropagationSolver solver, byte[] values, int[] manualLiterals, int start, int end, IMonitor workMonitor,
+				HashMap<SelectableFeature, Selection> possibleRedundantManual) {
+			final List<SelectableFeature> features = configuration.features.subList(start, end);
+			int i = start;
+			for (SelectableFeature feature : features) {
+				workMonitor.checkCancel();
 				if (feature.getManual() == Selection.UNDEFINED) {
-					Literal l = new Literal(feature.getFeature().getName(), true);
-					try {
-						if (!automaticSolver.isSatisfiable(l)) {
-							feature.setAutomatic(Selection.UNSELECTED);
-						} else {
-							l = new Literal(feature.getFeature().getName(), false);
-							if (!automaticSolver.isSatisfiable(l)) {
-								feature.setAutomatic(Selection.SELECTED);
-							} else {
-								feature.setAutomatic(Selection.UNDEFINED);
-								Selection manualSelection = possibleRedundantManual.get(feature);
-								if (manualSelection != null) {
-									feature.setManual(manualSelection);
-								}
-							}
-						}
-					} catch (TimeoutException e) {
-						Logger.logError(e);
-					}
-				} else {
-					Literal l = (Literal) manualSelectedArray[i++];
-					while (!feature.getFeature().getName().equals(l.var)) {
-						l = (Literal) manualSelectedArray[i++];
-					}
-					try {
-						l.positive = !l.positive;
-						if (!manualSolver.isSatisfiable(manualSelectedArray)) {
-							feature.setAutomatic(l.positive ? Selection.UNSELECTED : Selection.SELECTED);
+					final int literal = solver.getLiteral(feature.getFeature().getName(), true);
+					switch (literal == 0 ? 0 : values[literal - 1]) {
+					case -1:
+						feature.setAutomatic(Selection.UNSELECTED);
+						break;
+					case 1:
+						feature.setAutomatic(Selection.SELECTED);
+						break;
+					default:
+						feature.setAutomatic(Selection.UNDEFINED);
+						final Selection manualSelection = possibleRedundantManual.get(feature);
+						if (manualSelection != null) {
+							feature.setManual(manualSelection);
 						}
-					} catch (TimeoutException e) {
-						Logger.logError(e);
-					} finally {
-						l.positive = !l.positive;
+						break;
 					}
+				} else if (solver.isImplied(manualLiterals, i)) {
+					feature.setAutomatic(feature.getManual());
 				}
+				i++;
 				workMonitor.invoke(feature);
 				workMonitor.worked();
 			}
@@ -705,6 +708,10 @@ public class ConfigurationPropagator implements IConfigurationPropagator {
 
 	private Node rootNode = null, rootNodeWithoutHidden = null;
 
+	private PropagationSolver propagationSolver = null;
+
+	private ModelCounter modelCounter = null;
+
 	/**
 	 * This method creates a clone of the given {@link ConfigurationPropagator}
 	 * 
@@ -723,6 +730,10 @@ public class ConfigurationPropagator implements IConfigurationPropagator {
 		if (propagator.isLoaded()) {
 			this.rootNode = propagator.rootNode.clone();
 			this.rootNodeWithoutHidden = propagator.rootNodeWithoutHidden.clone();
+			// the compiled formula does not depend on the configuration and can be shared
+			synchronized (propagator) {
+				this.modelCounter = propagator.modelCounter;
+			}
 		}
 	}
 
@@ -770,6 +781,42 @@ public class ConfigurationPropagator implements IConfigurationPropagator {
 		return new GetSolutionsMethod(max);
 	}
 
+	/**
+	 * Returns the persistent solver for the propagation of this configuration.
+	 * The solver is created on the first call after the formula was loaded.
+	 */
+	private synchronized PropagationSolver getPropagationSolver() {
+		if (propagationSolver == null) {
+			propagationSolver = new PropagationSolver(rootNode);
+		}
+		return propagationSolver;
+	}
+
+	/**
+	 * Returns the model counter for the formula without hidden features.
+	 * The counter is created on the first call after the formula was loaded.
+	 */
+	private synchronized ModelCounter getModelCounter() {
+		if (modelCounter == null) {
+			modelCounter = new ModelCounter(rootNodeWithoutHidden);
+		}
+		return modelCounter;
+	}
+
+	/**
+	 * @return the literals of all selected and unselected features that are neither hidden nor (if abstract features are not ignored) abstract
+	 */
+	private List<Literal> getSelectedLiteralsWithoutHidden() {
+		final List<Literal> literals = new ArrayList<Literal>();
+		for (SelectableFeature feature : configuration.features) {
+			if (feature.getSelection() != Selection.UNDEFINED && (configuration.ignoreAbstractFeatures || feature.getFeature().getStructure().isConcrete())
+					&& !feature.getFeature().getStructure().hasHiddenParent()) {
+				literals.add(new Literal(feature.getFeature().getName(), feature.getSelection() == Selection.SELECTED));
+			}
+		}
+		return literals;
+	}
+
 	public boolean isLoaded() {
 		return rootNode != null;
 	}
@@ -811,6 +858,22 @@ public class ConfigurationPropagator implements IConfigurationPropagator {
 		return new CountSolutionsMethod(timeout);
 	}
 
+	/**
+	 * Counts the exact number of possible solutions.
+	 * Hidden features are ignored.
+	 */
+	public ExactCountSolutionsMethod exactNumber() {
+		return new ExactCountSolutionsMethod();
+	}
+
+	/**
+	 * Counts for each feature the number of possible solutions that contain the feature.
+	 * Hidden features are ignored.
+	 */
+	public CountSelectionsMethod countSelections() {
+		return new CountSelectionsMethod();
+	}
+
 	@Override
 	public UpdateMethod update(boolean redundantManual, String startFeatureName) {
 		return new UpdateMethod(redundantManual, startFeatureName);
@@ -27,13 +27,21 @@ import static de.ovgu.featureide.fm.core.localization.StringTable.FEATURE_;
 import static de.ovgu.featureide.fm.core.localization.StringTable.IS_CORRUPT__NO_ENDING_QUOTATION_MARKS_FOUND_;
 
 import java.io.BufferedReader;
+import java.io.BufferedWriter;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
 import java.io.StringReader;
+import java.io.Writer;
+import java.nio.charset.Charset;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Set;
 import java.util.StringTokenizer;
 
+import de.ovgu.featureide.fm.core.Logger;
 import de.ovgu.featureide.fm.core.PluginID;
 import de.ovgu.featureide.fm.core.RenamingsManager;
 import de.ovgu.featureide.fm.core.base.IFeature;
@@ -41,6 +49,7 @@ import de.ovgu.featureide.fm.core.base.IFeatureModel;
 import de.ovgu.featureide.fm.core.functional.Functional;
 import de.ovgu.featureide.fm.core.io.IConfigurationFormat;
 import de.ovgu.featureide.fm.core.io.IPersistentFormat;
+import de.ovgu.featureide.fm.core.io.IStreamPersistentFormat;
 import de.ovgu.featureide.fm.core.io.Problem;
 import de.ovgu.featureide.fm.core.io.ProblemList;
 import de.ovgu.featureide.fm.core.localization.StringTable;
@@ -51,14 +60,32 @@ import de.ovgu.featureide.fm.core.localization.StringTable;
  * 
  * @author Sebastian Krieter
  */
-public class DefaultFormat implements IConfigurationFormat {
+public class DefaultFormat implements IConfigurationFormat, IStreamPersistentFormat<Configuration> {
 
 	public static final String ID = PluginID.PLUGIN_ID + ".format.config." + DefaultFormat.class.getSimpleName();
 
 	private static final String NEWLINE = System.lineSeparator();
 
+	private static final Charset CHARSET = Charset.forName("UTF-8");
+
 	@Override
 	public ProblemList read(Configuration configuration, CharSequence source) {
+		return read(configuration, new BufferedReader(new StringReader(source.toString())));
+	}
+
+	@Override
+	public ProblemList read(Configuration configuration, InputStream source) {
+		return read(configuration, new BufferedReader(new InputStreamReader(source, CHARSET)));
+	}
+
+	@Override
+	public void write(Configuration configuration, OutputStream target) throws IOException {
+		final Writer writer = new BufferedWriter(new OutputStreamWriter(target, CHARSET));
+		write(configuration, writer);
+		writer.flush();
+	}
+
+	private ProblemList read(Configuration configuration, BufferedReader reader) {
 		final RenamingsManager renamingsManager = configuration.getFeatureModel().getRenamingsManager();
 		final ProblemList warnings = new ProblemList();
 
@@ -68,7 +95,7 @@ public class DefaultFormat implements IConfigurationFormat {
 
 		String line = null;
 		int lineNumber = 1;
-		try (BufferedReader reader = new BufferedReader(new StringReader(source.toString()))) {
+		try {
 			while ((line = reader.readLine()) != null) {
 				if (line.startsWith("#") || line.isEmpty() || line.equals(" ")) {
 					continue;
@@ -133,39 +160,47 @@ public class DefaultFormat implements IConfigurationFormat {
 	@Override
 	public String write(Configuration configuration) {
 		final StringBuilder buffer = new StringBuilder();
+		try {
+			write(configuration, buffer);
+		} catch (IOException e) {
+			Logger.logError(e);
+		}
+		return buffer.toString();
+	}
+
+	private void write(Configuration configuration, Appendable buffer) throws IOException {
 		final IFeatureModel featureModel = configuration.getFeatureModel();
 		if (featureModel.isFeatureOrderUserDefined()) {
 			final List<String> list = Functional.toList(featureModel.getFeatureOrderList());
 			final Set<String> featureSet = configuration.getSelectedFeatureNames();
 			for (String s : list) {
 				if (featureSet.contains(s)) {
-					if (s.contains(" ")) {
-						buffer.append("\"" + s + "\"" + NEWLINE);
-					} else {
-						buffer.append(s + NEWLINE);
-					}
+					writeFeatureName(s, buffer);
 				}
 			}
-			return buffer.toString();
+		} else {
+			writeSelectedFeatures(configuration.getRoot(), buffer);
 		}
-
-		writeSelectedFeatures(configuration.getRoot(), buffer);
-		return buffer.toString();
 	}
 
-	private void writeSelectedFeatures(SelectableFeature feature, StringBuilder buffer) {
+	private void writeSelectedFeatures(SelectableFeature feature, Appendable buffer) throws IOException {
 		if (feature.getFeature().getStructure().isConcrete() && feature.getSelection() == Selection.SELECTED) {
-			if (feature.getName().contains(" ")) {
-				buffer.append("\"" + feature.getName() + "\"" + NEWLINE);
-			} else {
-				buffer.append(feature.getName() + NEWLINE);
-			}
+			writeFeatureName(feature.getName(), buffer);
 		}
 		for (TreeElement child : feature.getChildren()) {
 			writeSelectedFeatures((SelectableFeature) child, buffer);
 		}
 	}
 
+	private void writeFeatureName(String name, Appendable buffer) throws IOException {
+		if (name.contains(" ")) {
+			buffer.append('"').append(name).append('"');
+		} else {
+			buffer.append(name);
+		}
+		buffer.append(NEWLINE);
+	}
+
 	@Override
 	public String getSuffix() {
 		return StringTable.CONFIG;
@@ -0,0 +1,116 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2016  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ * 
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.configuration;
+
+import java.math.BigInteger;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+
+import org.prop4j.Literal;
+import org.prop4j.Node;
+import org.prop4j.solver.DDNNF;
+import org.prop4j.solver.DDNNFCompiler;
+import org.prop4j.solver.SatInstance;
+import org.sat4j.specs.TimeoutException;
+
+import de.ovgu.featureide.fm.core.editing.NodeCreator;
+import de.ovgu.featureide.fm.core.job.monitor.IMonitor;
+
+/**
+ * Counts the solutions of a configuration exactly.</br>
+ * The formula is compiled into a {@link DDNNF} on the first request, afterwards each count takes linear time in the size of the d-DNNF.
+ * 
+ * @see ConfigurationPropagator.CountSolutionsMethod
+ */
+class ModelCounter {
+
+	private final SatInstance satInstance;
+
+	private DDNNF ddnnf = null;
+	private long failedTimeout = -1;
+
+	/**
+	 * @param rootNode the formula in CNF
+	 */
+	public ModelCounter(Node rootNode) {
+		final Node cnf = NodeCreator.removeBooleanValues(rootNode);
+		satInstance = (cnf == null) ? null : new SatInstance(cnf, new LinkedHashSet<Object>(cnf.getContainedFeatures()));
+	}
+
+	/**
+	 * Counts the solutions of the formula that contain all given literals.
+	 * 
+	 * @param literals the selected features (literals of features that are not contained in the formula are ignored)
+	 * @param timeout the maximum time for the compilation in milliseconds ({@code 0} for no limit)
+	 * @param monitor the monitor
+	 * @return the number of solutions or {@code null} if the formula could not be compiled in time
+	 */
+	public BigInteger countSolutions(Collection<Literal> literals, long timeout, IMonitor monitor) {
+		if (satInstance == null) {
+			return BigInteger.ZERO;
+		}
+		final DDNNF ddnnf = getDDNNF(timeout, monitor);
+		return (ddnnf == null) ? null : ddnnf.countModels(satInstance.convertToInt(literals));
+	}
+
+	/**
+	 * Counts for each feature of the formula the solutions that contain all given literals and the feature.
+	 * 
+	 * @param literals the selected features (literals of features that are not contained in the formula are ignored)
+	 * @param timeout the maximum time for the compilation in milliseconds ({@code 0} for no limit)
+	 * @param monitor the monitor
+	 * @return the number of solutions for each feature name or {@code null} if the formula could not be compiled in time
+	 */
+	public Map<String, BigInteger> countSelections(Collection<Literal> literals, long timeout, IMonitor monitor) {
+		final Map<String, BigInteger> result = new LinkedHashMap<>();
+		if (satInstance == null) {
+			return result;
+		}
+		final DDNNF ddnnf = getDDNNF(timeout, monitor);
+		if (ddnnf == null) {
+			return null;
+		}
+		final BigInteger[] selections = ddnnf.countSelections(satInstance.convertToInt(literals));
+		for (int i = 0; i < selections.length; i++) {
+			result.put(satInstance.getVariableObject(i + 1).toString(), selections[i]);
+		}
+		return result;
+	}
+
+	/**
+	 * Returns the compiled formula. A failed compilation is only repeated for a greater timeout.
+	 */
+	private synchronized DDNNF getDDNNF(long timeout, IMonitor monitor) {
+		if (ddnnf == null && (failedTimeout < 0 || timeout == 0 || timeout > failedTimeout)) {
+			final DDNNFCompiler compiler = new DDNNFCompiler(satInstance);
+			compiler.setTimeout(timeout);
+			try {
+				ddnnf = compiler.execute(monitor);
+			} catch (TimeoutException e) {
+				failedTimeout = timeout;
+			}
+		}
+		return ddnnf;
+	}
+
+}
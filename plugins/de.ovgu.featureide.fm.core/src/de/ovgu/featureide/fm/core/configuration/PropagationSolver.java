@@ -0,0 +1,267 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2016  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ * 
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.configuration;
+
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+
+import org.prop4j.And;
+import org.prop4j.Literal;
+import org.prop4j.Node;
+import org.prop4j.analyses.AnalysisResultCache;
+import org.prop4j.solver.BackboneFinder;
+import org.prop4j.solver.BasicSolver;
+import org.prop4j.solver.ISatSolver;
+import org.prop4j.solver.ISatSolver.SatResult;
+import org.prop4j.solver.SatInstance;
+import org.sat4j.specs.ContradictionException;
+import org.sat4j.specs.IVecInt;
+
+import de.ovgu.featureide.fm.core.editing.NodeCreator;
+import de.ovgu.featureide.fm.core.job.monitor.IMonitor;
+
+/**
+ * Persistent solver for the propagation of a configuration.</br>
+ * The formula is loaded only once. Manual selections are passed as assumptions, such that learned clauses are kept between updates.
+ * The result of the last propagation is cached. If the manual selections only grow (or only shrink), all features that were already
+ * fixed (or free) before remain fixed (or free) and do not need to be tested again.
+ * The values for a configuration without manual selections are shared via the {@link AnalysisResultCache}.
+ * 
+ * @see ConfigurationPropagator.UpdateMethod
+ */
+class PropagationSolver {
+
+	private final SatInstance satInstance;
+	private final ISatSolver solver;
+
+	private int[] lastAssumptions = null;
+	private byte[] lastValues = null;
+
+	/**
+	 * @param rootNode the formula in CNF
+	 */
+	public PropagationSolver(Node rootNode) {
+		final Node cnf = NodeCreator.removeBooleanValues(rootNode);
+		ISatSolver solver = null;
+		if (cnf != null) {
+			// only variables contained in a clause are known by the solver (otherwise its models would have gaps)
+			satInstance = new SatInstance(cnf, new LinkedHashSet<Object>(cnf.getContainedFeatures()));
+			try {
+				solver = new BasicSolver(satInstance);
+			} catch (ContradictionException e) {
+				// the formula is unsatisfiable
+			}
+		} else {
+			satInstance = new SatInstance(new And());
+		}
+		this.solver = solver;
+
+		if (solver != null) {
+			final int[][] backbone = AnalysisResultCache.getInstance().get(satInstance.getFingerprint(), AnalysisResultCache.BACKBONE);
+			if (backbone != null) {
+				lastAssumptions = new int[0];
+				lastValues = new byte[satInstance.getNumberOfVariables()];
+				for (int literal : backbone[0]) {
+					lastValues[Math.abs(literal) - 1] = (byte) (literal > 0 ? 1 : -1);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Returns the literal for a feature.
+	 * 
+	 * @param featureName the name of the feature
+	 * @param selected the sign of the literal
+	 * @return the literal or {@code 0} if the feature is not contained in the formula (i.e., it can always be selected and unselected)
+	 */
+	public int getLiteral(String featureName, boolean selected) {
+		return satInstance.convertToInt(new Literal[] { new Literal(featureName, selected) })[0];
+	}
+
+	/**
+	 * Checks whether a literal is implied by the other literals.
+	 * 
+	 * @param literals the manual selections as literals ({@code 0} entries are ignored)
+	 * @param index the index of the literal to check
+	 * @return {@code true} if the formula and all other literals imply the literal at the given index
+	 */
+	public synchronized boolean isImplied(int[] literals, int index) {
+		if (solver == null) {
+			return true;
+		}
+		final int literal = literals[index];
+		if (literal == 0) {
+			return false;
+		}
+		literals[index] = -literal;
+		try {
+			setAssumptions(literals);
+			return solver.isSatisfiable() == SatResult.FALSE;
+		} finally {
+			literals[index] = literal;
+			solver.assignmentClear(0);
+		}
+	}
+
+	/**
+	 * Computes the values of all variables that are implied by the formula and the given literals.
+	 * 
+	 * @param literals the manual selections as literals ({@code 0} entries are ignored)
+	 * @param monitor the monitor
+	 * @return for each variable (at index {@code variable - 1}) {@code 1}, if it must be selected, {@code -1}, if it must be unselected, and
+	 *         {@code 0}, if it can be selected and unselected
+	 */
+	public synchronized byte[] propagate(int[] literals, IMonitor monitor) {
+		final int numberOfVariables = satInstance.getNumberOfVariables();
+		final byte[] values = new byte[numberOfVariables];
+		if (solver == null) {
+			Arrays.fill(values, (byte) -1);
+			return values;
+		}
+
+		final int[] assumptions = normalize(literals);
+		if (lastAssumptions != null && Arrays.equals(assumptions, lastAssumptions)) {
+			return Arrays.copyOf(lastValues, numberOfVariables);
+		}
+		try {
+			setAssumptions(assumptions);
+			final int[] model = solver.findModel();
+			if (model == null) {
+				// contradicting selections
+				Arrays.fill(values, (byte) -1);
+				lastAssumptions = null;
+				return values;
+			}
+
+			final int[] candidates = Arrays.copyOf(model, numberOfVariables);
+			if (lastAssumptions != null) {
+				if (containsAll(assumptions, lastAssumptions)) {
+					// fixed variables remain fixed
+					for (int i = 0; i < numberOfVariables; i++) {
+						if (lastValues[i] != 0) {
+							values[i] = lastValues[i];
+							candidates[i] = 0;
+							solver.assignmentPush(values[i] > 0 ? i + 1 : -(i + 1));
+						}
+					}
+				} else if (containsAll(lastAssumptions, assumptions)) {
+					// free variables remain free
+					for (int i = 0; i < numberOfVariables; i++) {
+						if (lastValues[i] == 0) {
+							candidates[i] = 0;
+						}
+					}
+				}
+			}
+			for (int literal : assumptions) {
+				final int i = Math.abs(literal) - 1;
+				values[i] = (byte) (literal > 0 ? 1 : -1);
+				candidates[i] = 0;
+			}
+
+			final IVecInt assignment = solver.getAssignment();
+			final int knownSize = assignment.size();
+			final BackboneFinder backboneFinder = new BackboneFinder(solver.getInternalSolver(), assignment);
+			backboneFinder.findBackbone(candidates, monitor);
+			for (int i = knownSize; i < assignment.size(); i++) {
+				final int literal = assignment.get(i);
+				values[Math.abs(literal) - 1] = (byte) (literal > 0 ? 1 : -1);
+			}
+
+			if (backboneFinder.isTimeoutOccurred()) {
+				// the values may be incomplete, thus, they are neither reused nor cached
+				lastAssumptions = null;
+				return values;
+			}
+			lastAssumptions = assumptions;
+			lastValues = Arrays.copyOf(values, numberOfVariables);
+			if (assumptions.length == 0) {
+				AnalysisResultCache.getInstance().put(satInstance.getFingerprint(), AnalysisResultCache.BACKBONE, new int[][] { getLiterals(values) });
+			}
+			return values;
+		} catch (RuntimeException e) {
+			lastAssumptions = null;
+			throw e;
+		} finally {
+			solver.assignmentClear(0);
+		}
+	}
+
+	private void setAssumptions(int[] literals) {
+		solver.assignmentClear(0);
+		for (int literal : literals) {
+			if (literal != 0) {
+				solver.assignmentPush(literal);
+			}
+		}
+	}
+
+	private static int[] getLiterals(byte[] values) {
+		int size = 0;
+		for (byte value : values) {
+			if (value != 0) {
+				size++;
+			}
+		}
+		final int[] literals = new int[size];
+		int index = 0;
+		for (int i = 0; i < values.length; i++) {
+			if (values[i] != 0) {
+				literals[index++] = values[i] > 0 ? i + 1 : -(i + 1);
+			}
+		}
+		return literals;
+	}
+
+	/**
+	 * @return the non-zero literals in ascending order without duplicates
+	 */
+	private static int[] normalize(int[] literals) {
+		final int[] sorted = Arrays.copyOf(literals, literals.length);
+		Arrays.sort(sorted);
+		int size = 0;
+		for (int i = 0; i < sorted.length; i++) {
+			final int literal = sorted[i];
+			if (literal != 0 && (size == 0 || sorted[size - 1] != literal)) {
+				sorted[size++] = literal;
+			}
+		}
+		return Arrays.copyOf(sorted, size);
+	}
+
+	/**
+	 * @return {@code true} if the sorted array {@code a} contains all elements of the sorted array {@code b}
+	 */
+	private static boolean containsAll(int[] a, int[] b) {
+		int i = 0;
+		for (int literal : b) {
+			while (i < a.length && a[i] < literal) {
+				i++;
+			}
+			if (i == a.length || a[i] != literal) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+}
@@ -21,6 +21,7 @@
 package de.ovgu.featureide.fm.core.editing;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
 import java.util.ListIterator;
@@ -51,8 +52,13 @@ import de.ovgu.featureide.fm.core.job.monitor.NullMonitor;
  */
 public class AdvancedNodeCreator implements LongRunningMethod<Node> {
 
+	/**
+	 * The form of the created formula.</br>
+	 * {@link #Tseitin} creates a regular CNF that is only equisatisfiable to the feature model, using auxiliary variables for complex constraints
+	 * (see {@link Node#buildTseitinCNF(Node, Collection)}).
+	 */
 	public static enum CNFType {
-		None, Compact, Regular
+		None, Compact, Regular, Tseitin
 	}
 
 	public static enum ModelType {
@@ -125,6 +131,11 @@ public class AdvancedNodeCreator implements LongRunningMethod<Node> {
 
 	private IFeatureModel featureModel = null;
 
+	/**
+	 * The names of all auxiliary variables introduced by the last call of {@link #createNodes()} (only used for {@link CNFType#Tseitin}).
+	 */
+	private final List<String> auxiliaryVariables = new ArrayList<>();
+
 	private Collection<String> excludedFeatureNames = null;
 
 	public AdvancedNodeCreator() {
@@ -167,6 +178,11 @@ public class AdvancedNodeCreator implements LongRunningMethod<Node> {
 				clauses.add(constraint.getNode().clone());
 			}
 			break;
+		case Tseitin:
+			for (IConstraint constraint : featureModel.getConstraints()) {
+				clauses.addAll(Arrays.asList(Node.buildTseitinCNF(constraint.getNode(), auxiliaryVariables).getChildren()));
+			}
+			break;
 		case Regular:
 			compact = false;
 		case Compact:
@@ -196,6 +212,7 @@ public class AdvancedNodeCreator implements LongRunningMethod<Node> {
 			final Or emptyNode = includeBooleanValues ? new Or(new Literal(NodeCreator.varTrue), new Literal(NodeCreator.varFalse, false)) : new Or();
 			switch (cnfType) {
 			case Regular:
+			case Tseitin:
 				return new And(emptyNode);
 			case None:
 			case Compact:
@@ -204,6 +221,7 @@ public class AdvancedNodeCreator implements LongRunningMethod<Node> {
 			}
 		}
 
+		auxiliaryVariables.clear();
 		monitor.setRemainingWork(10);
 		final Node[] basicFormula = createFormula(monitor.subTask(1));
 		final Node newFormula = removeFeatures(basicFormula, monitor.subTask(9));
@@ -244,6 +262,7 @@ public class AdvancedNodeCreator implements LongRunningMethod<Node> {
 
 			switch (cnfType) {
 			case Regular:
+			case Tseitin:
 				nodeArray[length] = new Or(new Literal[] { new Literal(NodeCreator.varTrue) });
 				nodeArray[length + 1] = new Or(new Literal[] { new Literal(NodeCreator.varFalse, false) });
 				break;
@@ -266,7 +285,7 @@ public class AdvancedNodeCreator implements LongRunningMethod<Node> {
 
 	private Node removeFeatures(final Node[] nodeArray, IMonitor monitor) {
 		if (excludedFeatureNames != null && !excludedFeatureNames.isEmpty()) {
-			final FeatureRemover remover = new FeatureRemover(new And(nodeArray), excludedFeatureNames, includeBooleanValues, cnfType == CNFType.Regular);
+			final FeatureRemover remover = new FeatureRemover(new And(nodeArray), excludedFeatureNames, includeBooleanValues, cnfType == CNFType.Regular || cnfType == CNFType.Tseitin);
 			return remover.createNewClauseList(LongRunningWrapper.runMethod(remover, monitor));
 		} else {
 			return new And(nodeArray);
@@ -281,6 +300,7 @@ public class AdvancedNodeCreator implements LongRunningMethod<Node> {
 			if (!optionalRoot) {
 				switch (cnfType) {
 				case Regular:
+				case Tseitin:
 					clauses.add(new Or(getVariable(root, true)));
 					break;
 				case None:
@@ -291,49 +311,66 @@ public class AdvancedNodeCreator implements LongRunningMethod<Node> {
 				}
 			}
 
-			final Iterable<IFeature> features = featureModel.getFeatures();
-			for (IFeature feature : features) {
+			for (IFeature feature : featureModel.getFeatures()) {
+				createStructuralNodes(feature, clauses);
+			}
+
+			return new And(clauses.toArray(new Node[0]));
+		}
+		return new And(new Node[0]);
+	}
+
+	/**
+	 * Creates all structural clauses that are induced by the given feature as a parent (i.e., the implications from its children, mandatory children, and its
+	 * group type).
+	 * The clauses are always in regular form (i.e., {@link Or} nodes containing only {@link Literal}s).
+	 * 
+	 * @param feature the parent feature
+	 * @return the list of clauses for the given feature
+	 */
+	public List<Node> createStructuralNodes(IFeature feature) {
+		final List<Node> clauses = new ArrayList<>();
+		createStructuralNodes(feature, clauses);
+		return clauses;
+	}
+
+	private void createStructuralNodes(IFeature feature, List<Node> clauses) {
+		for (IFeatureStructure child : feature.getStructure().getChildren()) {
+			clauses.add(new Or(getVariable(feature, true), getVariable(child.getFeature(), false)));
+		}
+
+		if (feature.getStructure().hasChildren()) {
+			if (feature.getStructure().isAnd()) {
+				for (IFeatureStructure child : feature.getStructure().getChildren()) {
+					if (child.isMandatory()) {
+						clauses.add(new Or(getVariable(child.getFeature(), true), getVariable(feature, false)));
+					}
+				}
+			} else if (feature.getStructure().isOr()) {
+				final Literal[] orLiterals = new Literal[feature.getStructure().getChildren().size() + 1];
+				int i = 0;
+				for (IFeatureStructure child : feature.getStructure().getChildren()) {
+					orLiterals[i++] = getVariable(child.getFeature(), true);
+				}
+				orLiterals[i] = getVariable(feature, false);
+				clauses.add(new Or(orLiterals));
+			} else if (feature.getStructure().isAlternative()) {
+				final Literal[] alternativeLiterals = new Literal[feature.getStructure().getChildrenCount() + 1];
+				int i = 0;
 				for (IFeatureStructure child : feature.getStructure().getChildren()) {
-					clauses.add(new Or(getVariable(feature, true), getVariable(child.getFeature(), false)));
+					alternativeLiterals[i++] = getVariable(child.getFeature(), true);
 				}
+				alternativeLiterals[i] = getVariable(feature, false);
+				clauses.add(new Or(alternativeLiterals));
 
-				if (feature.getStructure().hasChildren()) {
-					if (feature.getStructure().isAnd()) {
-						for (IFeatureStructure child : feature.getStructure().getChildren()) {
-							if (child.isMandatory()) {
-								clauses.add(new Or(getVariable(child.getFeature(), true), getVariable(feature, false)));
-							}
-						}
-					} else if (feature.getStructure().isOr()) {
-						final Literal[] orLiterals = new Literal[feature.getStructure().getChildren().size() + 1];
-						int i = 0;
-						for (IFeatureStructure child : feature.getStructure().getChildren()) {
-							orLiterals[i++] = getVariable(child.getFeature(), true);
-						}
-						orLiterals[i] = getVariable(feature, false);
-						clauses.add(new Or(orLiterals));
-					} else if (feature.getStructure().isAlternative()) {
-						final Literal[] alternativeLiterals = new Literal[feature.getStructure().getChildrenCount() + 1];
-						int i = 0;
-						for (IFeatureStructure child : feature.getStructure().getChildren()) {
-							alternativeLiterals[i++] = getVariable(child.getFeature(), true);
-						}
-						alternativeLiterals[i] = getVariable(feature, false);
-						clauses.add(new Or(alternativeLiterals));
-
-						for (ListIterator<IFeatureStructure> it1 = feature.getStructure().getChildren().listIterator(); it1.hasNext();) {
-							final IFeatureStructure fs = it1.next();
-							for (ListIterator<IFeatureStructure> it2 = feature.getStructure().getChildren().listIterator(it1.nextIndex()); it2.hasNext();) {
-								clauses.add(new Or(getVariable(fs.getFeature(), false), getVariable(((IFeatureStructure) it2.next()).getFeature(), false)));
-							}
-						}
+				for (ListIterator<IFeatureStructure> it1 = feature.getStructure().getChildren().listIterator(); it1.hasNext();) {
+					final IFeatureStructure fs = it1.next();
+					for (ListIterator<IFeatureStructure> it2 = feature.getStructure().getChildren().listIterator(it1.nextIndex()); it2.hasNext();) {
+						clauses.add(new Or(getVariable(fs.getFeature(), false), getVariable(((IFeatureStructure) it2.next()).getFeature(), false)));
 					}
 				}
 			}
-
-			return new And(clauses.toArray(new Node[0]));
 		}
-		return new And(new Node[0]);
 	}
 
 	@Override
@@ -345,6 +382,15 @@ public class AdvancedNodeCreator implements LongRunningMethod<Node> {
 		return cnfType;
 	}
 
+	/**
+	 * {@link #auxiliaryVariables}
+	 * 
+	 * @return the auxiliary variables of the last created formula
+	 */
+	public List<String> getAuxiliaryVariables() {
+		return auxiliaryVariables;
+	}
+
 	public Collection<String> getExcludedFeatureNames() {
 		return excludedFeatureNames;
 	}
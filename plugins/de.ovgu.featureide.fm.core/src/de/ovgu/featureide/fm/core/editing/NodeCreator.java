@@ -191,6 +191,36 @@ public class NodeCreator {
 		};
 	};
 
+	/**
+	 * Removes the constants {@link #varTrue} and {@link #varFalse} from a CNF.
+	 * Satisfied clauses are omitted and unsatisfied literals are removed from their clause.
+	 * 
+	 * @return the simplified CNF or {@code null} if it contains an unsatisfied clause
+	 */
+	public static Node removeBooleanValues(Node cnf) {
+		final Node[] clauses = (cnf instanceof And) ? cnf.getChildren() : new Node[] { cnf };
+		final List<Node> newClauses = new ArrayList<>(clauses.length);
+		clauseLoop: for (Node clause : clauses) {
+			final Node[] literals = (clause instanceof Literal) ? new Node[] { clause } : clause.getChildren();
+			final List<Node> newLiterals = new ArrayList<>(literals.length);
+			for (Node child : literals) {
+				final Literal literal = (Literal) child;
+				if (literal.var == varTrue || literal.var == varFalse) {
+					if (literal.positive == (literal.var == varTrue)) {
+						continue clauseLoop;
+					}
+				} else {
+					newLiterals.add(literal);
+				}
+			}
+			if (newLiterals.isEmpty()) {
+				return null;
+			}
+			newClauses.add(new Or(newLiterals));
+		}
+		return new And(newClauses);
+	}
+
 	public static And eliminateAbstractVariables(And and, Map<Object, Node> map, IFeatureModel featureModel) {
 		for (Entry<Object, Node> entry : map.entrySet())
 			if (entry.getValue() == null) {
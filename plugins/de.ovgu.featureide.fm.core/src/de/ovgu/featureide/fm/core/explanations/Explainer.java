@@ -0,0 +1,360 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2016  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ * 
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.explanations;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.prop4j.And;
+import org.prop4j.Literal;
+import org.prop4j.Node;
+import org.prop4j.Or;
+import org.prop4j.solver.MUSFinder;
+
+import de.ovgu.featureide.fm.core.base.IConstraint;
+import de.ovgu.featureide.fm.core.base.IFeature;
+import de.ovgu.featureide.fm.core.base.IFeatureModel;
+import de.ovgu.featureide.fm.core.base.IFeatureStructure;
+
+/**
+ * Explains dead features, false-optional features, void feature models, and redundant constraints by minimal unsatisfiable subsets (MUS) of the
+ * feature model's clauses.</br>
+ * The clauses are grouped by their origin (e.g., a mandatory relation or a cross-tree constraint) and loaded into a single {@link MUSFinder}.
+ * An explanation consists of the groups of the smallest MUS found. Additionally, for each part of this MUS, an alternative MUS without this part
+ * is searched. Each part of an explanation is weighted by the number of MUSes it occurs in (see the suffix <i>$occurrences/all</i>).</br>
+ * </br>
+ * The feature model is captured when the explainer is created. Explanations are computed on demand and cached, thus an explainer must be
+ * replaced if the feature model changes.
+ */
+public class Explainer {
+
+	private final MUSFinder finder = new MUSFinder();
+	private final List<String> groupTexts = new ArrayList<>();
+	private final Map<IConstraint, Integer> constraintGroups = new HashMap<>();
+	private final Map<IConstraint, Node> constraintNodes = new HashMap<>();
+	private final List<Integer> redundantGroups = new ArrayList<>();
+
+	private final Map<Object, List<String>> cache = new HashMap<>();
+
+	private List<String> voidExplanation = null;
+
+	/**
+	 * Creates a new explainer for the current state of the given feature model.
+	 * 
+	 * @param featureModel the feature model
+	 */
+	public Explainer(IFeatureModel featureModel) {
+		final IFeatureStructure root = featureModel.getStructure().getRoot();
+		if (root != null) {
+			final IFeature rootFeature = root.getFeature();
+			addGroup(rootFeature.getName() + " is ROOT", new Or(new Literal(rootFeature.getName())));
+			addChildren(root);
+		}
+		for (IConstraint constraint : featureModel.getConstraints()) {
+			final Node cnf = constraint.getNode().toRegularCNF();
+			constraintNodes.put(constraint, cnf);
+			constraintGroups.put(constraint, addCNF(constraint.getNode().toString() + " is Constraint", cnf));
+		}
+	}
+
+	private void addChildren(IFeatureStructure parent) {
+		final String parentName = parent.getFeature().getName();
+		final List<IFeatureStructure> children = parent.getChildren();
+		if (children.isEmpty()) {
+			return;
+		}
+		if (parent.isAnd()) {
+			for (IFeatureStructure child : children) {
+				final String childName = child.getFeature().getName();
+				if (child.isMandatory()) {
+					addGroup(childName + " is mandatory child of " + parentName, new Or(new Literal(childName, false), new Literal(parentName)),
+							new Or(new Literal(parentName, false), new Literal(childName)));
+				} else {
+					addGroup(childName + " is child of " + parentName, new Or(new Literal(childName, false), new Literal(parentName)));
+				}
+			}
+		} else {
+			final String type = parent.isAlternative() ? "alternative" : "or";
+			final Node[] groupClause = new Node[children.size() + 1];
+			groupClause[0] = new Literal(parentName, false);
+			int i = 1;
+			for (IFeatureStructure child : children) {
+				final String childName = child.getFeature().getName();
+				groupClause[i++] = new Literal(childName);
+				addGroup(childName + " is " + type + " child of " + parentName, new Or(new Literal(childName, false), new Literal(parentName)));
+			}
+			addGroup(parentName + " requires one of its " + type + " children", new Or(groupClause));
+			if (parent.isAlternative() && children.size() > 1) {
+				final List<Node> exclusions = new ArrayList<>();
+				for (int j = 1; j < groupClause.length; j++) {
+					for (int k = j + 1; k < groupClause.length; k++) {
+						exclusions.add(new Or(new Literal(((Literal) groupClause[j]).var, false), new Literal(((Literal) groupClause[k]).var, false)));
+					}
+				}
+				addGroup("Alternative children of " + parentName + " exclude each other", exclusions.toArray(new Node[exclusions.size()]));
+			}
+		}
+		for (IFeatureStructure child : children) {
+			addChildren(child);
+		}
+	}
+
+	private int addGroup(String text, Node... clauses) {
+		return addCNF(text, new And(clauses));
+	}
+
+	private int addCNF(String text, Node cnf) {
+		groupTexts.add(text);
+		return finder.addGroup(cnf);
+	}
+
+	/**
+	 * Marks a constraint as redundant. Redundant constraints are not used to explain constraints that are marked as redundant later on.
+	 * 
+	 * @param constraint the redundant constraint
+	 */
+	public synchronized void addRedundantConstraint(IConstraint constraint) {
+		final Integer group = constraintGroups.get(constraint);
+		if (group != null && !redundantGroups.contains(group)) {
+			redundantGroups.add(group);
+		}
+	}
+
+	/**
+	 * @param feature the dead feature
+	 * @return the explanation or an empty list if the feature is not dead
+	 */
+	public synchronized List<String> explainDeadFeature(IFeature feature) {
+		List<String> explanation = cache.get(feature);
+		if (explanation == null) {
+			final int literal = finder.getLiteral(new Literal(feature.getName()));
+			explanation = explain(getHeader(feature, " is dead, because: "), literal == 0 ? null : Arrays.asList(new int[] { literal }),
+					getAllGroups(), " ");
+			cache.put(feature, explanation);
+		}
+		return new ArrayList<>(explanation);
+	}
+
+	/**
+	 * @param feature the false-optional feature
+	 * @return the explanation or an empty list if the feature is not false-optional
+	 */
+	public synchronized List<String> explainFalseOptionalFeature(IFeature feature) {
+		final String key = "false-optional " + feature.getName();
+		List<String> explanation = cache.get(key);
+		if (explanation == null) {
+			final IFeatureStructure parent = feature.getStructure().getParent();
+			final int literal = finder.getLiteral(new Literal(feature.getName(), false));
+			final int parentLiteral = parent == null ? 0 : finder.getLiteral(new Literal(parent.getFeature().getName()));
+			explanation = explain(getHeader(feature, " is false-optional, because: "),
+					literal == 0 || parentLiteral == 0 ? null : Arrays.asList(new int[] { parentLiteral, literal }), getAllGroups(), " ");
+			cache.put(key, explanation);
+		}
+		return new ArrayList<>(explanation);
+	}
+
+	/**
+	 * @return the explanation or an empty list if the feature model is not void
+	 */
+	public synchronized List<String> explainVoidFeatureModel() {
+		if (voidExplanation == null) {
+			voidExplanation = explain("\n Feature Model is void, because: ", Arrays.asList(new int[0]), getAllGroups(), " ");
+		}
+		return new ArrayList<>(voidExplanation);
+	}
+
+	/**
+	 * Explains a redundant constraint by the other constraints and the feature tree. Constraints that were marked as redundant before the given
+	 * constraint are not used (see {@link #addRedundantConstraint(IConstraint)}).</br>
+	 * The explanation is combined from explanations for each clause of the constraint.</br>
+	 * If the constraint is not part of the feature model (e.g., a constraint that was derived from it), the explanation shows why it is implied
+	 * by the feature model.
+	 * 
+	 * @param constraint the redundant constraint
+	 * @return the explanation or an empty list if the constraint is not redundant
+	 */
+	public synchronized List<String> explainRedundantConstraint(IConstraint constraint) {
+		List<String> explanation = cache.get(constraint);
+		if (explanation == null) {
+			final Integer group = constraintGroups.get(constraint);
+			final Node cnf = group == null ? constraint.getNode().toRegularCNF() : constraintNodes.get(constraint);
+			final List<int[]> queries = new ArrayList<>();
+			for (Node clause : cnf.getChildren()) {
+				final Node[] literals = clause.getChildren();
+				final int[] negatedClause = new int[literals.length];
+				for (int i = 0; i < literals.length; i++) {
+					negatedClause[i] = -finder.getLiteral((Literal) literals[i]);
+				}
+				if (isConsistent(negatedClause)) {
+					queries.add(negatedClause);
+				}
+			}
+
+			final boolean[] excluded = new boolean[finder.getNumberOfGroups()];
+			if (group != null) {
+				excluded[group] = true;
+				final int position = redundantGroups.indexOf(group);
+				for (int redundantGroup : position < 0 ? redundantGroups : redundantGroups.subList(0, position)) {
+					excluded[redundantGroup] = true;
+				}
+			}
+			final int[] groups = new int[excluded.length];
+			int size = 0;
+			for (int i = 0; i < excluded.length; i++) {
+				if (!excluded[i]) {
+					groups[size++] = i;
+				}
+			}
+			explanation = explain("\nConstraint is redundant, because:", queries.isEmpty() ? null : queries, Arrays.copyOf(groups, size), "");
+			cache.put(constraint, explanation);
+		}
+		return new ArrayList<>(explanation);
+	}
+
+	/**
+	 * @return {@code false} if the literals contain an unknown variable or a complementary pair
+	 */
+	private static boolean isConsistent(int[] literals) {
+		for (int i = 0; i < literals.length; i++) {
+			if (literals[i] == 0) {
+				return false;
+			}
+			for (int j = i + 1; j < literals.length; j++) {
+				if (literals[i] == -literals[j]) {
+					return false;
+				}
+			}
+		}
+		return true;
+	}
+
+	private int[] getAllGroups() {
+		final int[] groups = new int[finder.getNumberOfGroups()];
+		for (int i = 0; i < groups.length; i++) {
+			groups[i] = i;
+		}
+		return groups;
+	}
+
+	private static String getHeader(IFeature feature, String defect) {
+		final String property;
+		if (feature.getStructure().isConcrete()) {
+			property = "Concrete ";
+		} else if (feature.getStructure().isAbstract()) {
+			property = "Abstract ";
+		} else {
+			property = "";
+		}
+		return "\n " + property + "Feature " + feature.getName() + defect;
+	}
+
+	/**
+	 * Computes one explanation for each query and combines them.
+	 * 
+	 * @param header the first line of the explanation
+	 * @param queries the assumptions of each query or {@code null} if there is no explanation
+	 * @param groups the groups that may be used
+	 * @param prefix the prefix of each part of the explanation
+	 */
+	private List<String> explain(String header, List<int[]> queries, int[] groups, String prefix) {
+		final List<String> explanation = new ArrayList<>();
+		if (queries == null) {
+			return explanation;
+		}
+
+		final Map<Integer, Integer> occurrences = new LinkedHashMap<>();
+		int numberOfMUSes = 0;
+		final boolean[] inExplanation = new boolean[finder.getNumberOfGroups()];
+		for (int[] assumptions : queries) {
+			final List<int[]> muses = findMUSes(assumptions, groups);
+			if (muses.isEmpty()) {
+				return explanation;
+			}
+			int[] shortest = muses.get(0);
+			for (int[] mus : muses) {
+				if (mus.length < shortest.length) {
+					shortest = mus;
+				}
+				for (int group : mus) {
+					final Integer count = occurrences.get(group);
+					occurrences.put(group, count == null ? 1 : count + 1);
+				}
+			}
+			numberOfMUSes += muses.size();
+			for (int group : shortest) {
+				inExplanation[group] = true;
+			}
+		}
+
+		explanation.add(header);
+		for (int group = 0; group < inExplanation.length; group++) {
+			if (inExplanation[group]) {
+				explanation.add(prefix + groupTexts.get(group) + "$" + occurrences.get(group) + "/" + numberOfMUSes);
+			}
+		}
+		if (explanation.size() == 1) {
+			explanation.add("No explanation possible");
+		}
+		return explanation;
+	}
+
+	/**
+	 * Finds a MUS and, for each of its groups, an alternative MUS without that group.
+	 * 
+	 * @return all distinct MUSes found (empty if the groups are satisfiable with the assumptions)
+	 */
+	private List<int[]> findMUSes(int[] assumptions, int[] groups) {
+		final List<int[]> muses = new ArrayList<>();
+		final int[] mus = finder.findMUS(assumptions, groups);
+		if (mus == null) {
+			return muses;
+		}
+		muses.add(mus);
+		for (int removedGroup : mus) {
+			final int[] remainingGroups = new int[groups.length - 1];
+			int size = 0;
+			for (int group : groups) {
+				if (group != removedGroup) {
+					remainingGroups[size++] = group;
+				}
+			}
+			final int[] alternative = finder.findMUS(assumptions, remainingGroups);
+			if (alternative != null) {
+				boolean isNew = true;
+				for (int[] knownMUS : muses) {
+					if (Arrays.equals(knownMUS, alternative)) {
+						isNew = false;
+						break;
+					}
+				}
+				if (isNew) {
+					muses.add(alternative);
+				}
+			}
+		}
+		return muses;
+	}
+
+}
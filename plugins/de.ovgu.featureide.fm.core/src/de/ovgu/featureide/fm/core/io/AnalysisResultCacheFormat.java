@@ -0,0 +1,192 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2016  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ * 
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.io;
+
+import static de.ovgu.featureide.fm.core.io.FeatureGraphFormat.computeChecksum;
+import static de.ovgu.featureide.fm.core.io.FeatureGraphFormat.decodeZigZag;
+import static de.ovgu.featureide.fm.core.io.FeatureGraphFormat.encodeZigZag;
+import static de.ovgu.featureide.fm.core.io.FeatureGraphFormat.readVarInt;
+import static de.ovgu.featureide.fm.core.io.FeatureGraphFormat.writeVarInt;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map.Entry;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+
+import org.prop4j.analyses.AnalysisResultCache;
+import org.prop4j.analyses.AnalysisResultCache.Key;
+
+import de.ovgu.featureide.fm.core.Logger;
+import de.ovgu.featureide.fm.core.PluginID;
+import de.ovgu.featureide.fm.core.io.Problem.Severity;
+
+/**
+ * Reads / Writes the results of an {@link AnalysisResultCache}.</br>
+ * The results are stored in a versioned binary format from the least to the most recently used one, such that the order is kept when they are read.
+ * Each result consists of its key (fingerprint, analysis, parameters) and its literal arrays. The file ends with a CRC32 checksum of its content.
+ * Read results are added to the cache. Thus, the capacity of the cache is respected.
+ */
+public class AnalysisResultCacheFormat implements IBinaryPersistentFormat<AnalysisResultCache> {
+
+	public static final String ID = PluginID.PLUGIN_ID + ".format.cache." + AnalysisResultCacheFormat.class.getSimpleName();
+
+	private static final int MAGIC_NUMBER = 0x46494152;
+
+	private static final short VERSION = 2;
+
+	@Override
+	public ProblemList read(AnalysisResultCache object, CharSequence source) {
+		return read(object, ByteBuffer.wrap(source.toString().getBytes(StandardCharsets.ISO_8859_1)));
+	}
+
+	/**
+	 * Returns the binary representation of the cache.
+	 * Each byte is mapped to one character (ISO-8859-1), such that {@link #read(AnalysisResultCache, CharSequence)} can restore the original bytes.
+	 */
+	@Override
+	public String write(AnalysisResultCache object) {
+		final ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
+		try {
+			write(object, byteArrayOutputStream);
+		} catch (IOException e) {
+			Logger.logError(e);
+			return null;
+		}
+		return new String(byteArrayOutputStream.toByteArray(), StandardCharsets.ISO_8859_1);
+	}
+
+	@Override
+	public ProblemList read(AnalysisResultCache object, ByteBuffer source) {
+		final ProblemList problems = new ProblemList();
+		final ByteBuffer buffer = source.duplicate();
+		try {
+			if (buffer.remaining() < 10 || buffer.getInt() != MAGIC_NUMBER) {
+				problems.add(new Problem("Not an analysis cache file", 0, Severity.ERROR));
+				return problems;
+			}
+			final short version = buffer.getShort();
+			if (version != VERSION) {
+				problems.add(new Problem("Unsupported analysis cache version: " + version, 0, Severity.ERROR));
+				return problems;
+			}
+			final int checksumPosition = buffer.limit() - 4;
+			if (computeChecksum(buffer, source.position(), checksumPosition) != buffer.getInt(checksumPosition)) {
+				problems.add(new Problem("Analysis cache file is corrupted (wrong checksum)", 0, Severity.ERROR));
+				return problems;
+			}
+
+			final int numberOfEntries = readVarInt(buffer);
+			for (int i = 0; i < numberOfEntries; i++) {
+				final long fingerprint = buffer.getLong();
+				final byte[] analysis = new byte[readVarInt(buffer)];
+				buffer.get(analysis);
+				final long parameters = buffer.getLong();
+				final int[][] result = new int[readVarInt(buffer)][];
+				for (int j = 0; j < result.length; j++) {
+					final int[] literals = new int[readVarInt(buffer)];
+					for (int k = 0; k < literals.length; k++) {
+						literals[k] = decodeZigZag(readVarInt(buffer));
+					}
+					result[j] = literals;
+				}
+				object.put(fingerprint, new String(analysis, StandardCharsets.UTF_8), parameters, result);
+			}
+			if (buffer.position() != checksumPosition) {
+				problems.add(new Problem("Analysis cache file contains unexpected data", 0, Severity.ERROR));
+			}
+		} catch (BufferUnderflowException | IndexOutOfBoundsException | IllegalArgumentException e) {
+			problems.add(new Problem(e));
+		}
+		return problems;
+	}
+
+	@Override
+	public void write(AnalysisResultCache object, OutputStream target) throws IOException {
+		final List<Entry<Key, int[][]>> entries = object.getEntries();
+		final CRC32 checksum = new CRC32();
+		final BufferedOutputStream bufferedOut = new BufferedOutputStream(target);
+		final DataOutputStream out = new DataOutputStream(new CheckedOutputStream(bufferedOut, checksum));
+
+		out.writeInt(MAGIC_NUMBER);
+		out.writeShort(VERSION);
+
+		writeVarInt(out, entries.size());
+		for (Entry<Key, int[][]> entry : entries) {
+			final Key key = entry.getKey();
+			out.writeLong(key.getFingerprint());
+			final byte[] analysis = key.getAnalysis().getBytes(StandardCharsets.UTF_8);
+			writeVarInt(out, analysis.length);
+			out.write(analysis);
+			out.writeLong(key.getParameters());
+
+			final int[][] result = entry.getValue();
+			writeVarInt(out, result.length);
+			for (int[] literals : result) {
+				writeVarInt(out, literals.length);
+				for (int literal : literals) {
+					writeVarInt(out, encodeZigZag(literal));
+				}
+			}
+		}
+		out.flush();
+
+		final int checksumValue = (int) checksum.getValue();
+		bufferedOut.write(checksumValue >>> 24);
+		bufferedOut.write(checksumValue >>> 16);
+		bufferedOut.write(checksumValue >>> 8);
+		bufferedOut.write(checksumValue);
+		bufferedOut.flush();
+	}
+
+	@Override
+	public String getSuffix() {
+		return "cache";
+	}
+
+	@Override
+	public IPersistentFormat<AnalysisResultCache> getInstance() {
+		return this;
+	}
+
+	@Override
+	public boolean supportsRead() {
+		return true;
+	}
+
+	@Override
+	public boolean supportsWrite() {
+		return true;
+	}
+
+	@Override
+	public String getId() {
+		return ID;
+	}
+
+}
@@ -1,7 +1,10 @@
 package de.ovgu.featureide.fm.core.io;
 
+import java.io.BufferedInputStream;
 import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.LinkedList;
@@ -14,6 +17,7 @@ import org.eclipse.core.resources.ResourcesPlugin;
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IPath;
 
+import de.ovgu.featureide.fm.core.io.FileSystem.AtomicOutputStream;
 import de.ovgu.featureide.fm.core.io.FileSystem.IFileSystem;
 
 public class EclipseFileSystem implements IFileSystem {
@@ -53,6 +57,36 @@ public class EclipseFileSystem implements IFileSystem {
 		return Files.readAllBytes(path);
 	}
 
+	@Override
+	public InputStream getInputStream(Path path) throws IOException {
+		return new BufferedInputStream(Files.newInputStream(path));
+	}
+
+	@Override
+	public AtomicOutputStream getOutputStream(final Path path) throws IOException {
+		// the workspace only accepts the complete content of a file, so it is collected until the stream is committed
+		final ByteArrayOutputStream content = new ByteArrayOutputStream();
+		return new AtomicOutputStream(content) {
+
+			private boolean closed = false;
+
+			@Override
+			public void commit() throws IOException {
+				if (closed) {
+					throw new IOException("Stream is already closed.");
+				}
+				closed = true;
+				EclipseFileSystem.this.write(path, content.toByteArray());
+			}
+
+			@Override
+			public void close() {
+				closed = true;
+			}
+
+		};
+	}
+
 	@Override
 	public void mkDir(Path path) throws IOException {
 		IContainer container = ResourcesPlugin.getWorkspace().getRoot().getContainerForLocation(getIPath(path));
@@ -20,49 +20,260 @@
  */
 package de.ovgu.featureide.fm.core.io;
 
-import java.io.ByteArrayInputStream;
+import java.io.BufferedOutputStream;
 import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
 import java.io.IOException;
-import java.io.ObjectInputStream;
-import java.io.ObjectOutputStream;
-import java.nio.charset.Charset;
+import java.io.OutputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+
+import org.prop4j.solver.ClauseStore;
+import org.prop4j.solver.SatInstance;
 
 import de.ovgu.featureide.fm.core.Logger;
 import de.ovgu.featureide.fm.core.PluginID;
 import de.ovgu.featureide.fm.core.conf.IFeatureGraph;
+import de.ovgu.featureide.fm.core.conf.SparseFeatureGraph;
+import de.ovgu.featureide.fm.core.io.Problem.Severity;
 
 /**
- * Reads / Writes a feature graph.
+ * Reads / Writes a feature graph.</br>
+ * The graph is stored in a versioned binary format that contains the corresponding formula (variables and clauses) and the edges of the graph.
+ * Each row of the adjacency matrix is stored sparsely (i.e., only the non-empty edges together with the distance to the previous one).
+ * The file ends with a CRC32 checksum of its content.
+ * Additionally, the {@link SatInstance#getFingerprint() fingerprint} of the formula is stored, such that an outdated graph can be detected
+ * when it is read into a feature graph that already has a sat instance.
  * 
  * @author Sebastian Krieter
  */
-public class FeatureGraphFormat implements IFeatureGraphFormat {
+public class FeatureGraphFormat implements IFeatureGraphFormat, IBinaryPersistentFormat<IFeatureGraph> {
 
 	public static final String ID = PluginID.PLUGIN_ID + ".format.fg." + FeatureGraphFormat.class.getSimpleName();
 
+	private static final int MAGIC_NUMBER = 0x46474246;
+
+	private static final short VERSION = 1;
+
 	@Override
 	public ProblemList read(IFeatureGraph object, CharSequence source) {
-		ProblemList problems = new ProblemList();
-		try (final ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(source.toString().getBytes(Charset.forName("UTF-8"))))) {
-			final IFeatureGraph featureGraph = (IFeatureGraph) in.readObject();
-			object.copyValues(featureGraph);
-		} catch (IOException | ClassNotFoundException e) {
-			problems.add(new Problem(e));
-		}
-		return problems;
+		return read(object, ByteBuffer.wrap(source.toString().getBytes(StandardCharsets.ISO_8859_1)));
 	}
 
+	/**
+	 * Returns the binary representation of the feature graph.
+	 * Each byte is mapped to one character (ISO-8859-1), such that {@link #read(IFeatureGraph, CharSequence)} can restore the original bytes.
+	 */
 	@Override
 	public String write(IFeatureGraph object) {
 		final ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
-		String ret = null;
-		try (final ObjectOutputStream out = new ObjectOutputStream(byteArrayOutputStream)) {
-			out.writeObject(object);
-			ret = byteArrayOutputStream.toString("UTF-8");
+		try {
+			write(object, byteArrayOutputStream);
 		} catch (IOException e) {
 			Logger.logError(e);
+			return null;
+		}
+		return new String(byteArrayOutputStream.toByteArray(), StandardCharsets.ISO_8859_1);
+	}
+
+	@Override
+	public ProblemList read(IFeatureGraph object, ByteBuffer source) {
+		final ProblemList problems = new ProblemList();
+		final ByteBuffer buffer = source.duplicate();
+		try {
+			if (buffer.remaining() < 18 || buffer.getInt() != MAGIC_NUMBER) {
+				problems.add(new Problem("Not a feature graph file", 0, Severity.ERROR));
+				return problems;
+			}
+			final short version = buffer.getShort();
+			if (version != VERSION) {
+				problems.add(new Problem("Unsupported feature graph version: " + version, 0, Severity.ERROR));
+				return problems;
+			}
+			final int checksumPosition = buffer.limit() - 4;
+			if (computeChecksum(buffer, source.position(), checksumPosition) != buffer.getInt(checksumPosition)) {
+				problems.add(new Problem("Feature graph file is corrupted (wrong checksum)", 0, Severity.ERROR));
+				return problems;
+			}
+			final long fingerprint = buffer.getLong();
+
+			final SatInstance satInstance = object.getSatInstance();
+			if (satInstance != null && satInstance.getFingerprint() != fingerprint) {
+				problems.add(new Problem("Feature graph does not match the feature model", 0, Severity.ERROR));
+				return problems;
+			}
+
+			final int numberOfVariables = readVarInt(buffer);
+			final List<String> variables = new ArrayList<>(numberOfVariables);
+			for (int i = 0; i < numberOfVariables; i++) {
+				final byte[] name = new byte[readVarInt(buffer)];
+				buffer.get(name);
+				variables.add(new String(name, StandardCharsets.UTF_8));
+			}
+
+			final int numberOfClauses = readVarInt(buffer);
+			final int[] offsets = new int[numberOfClauses + 1];
+			final int[] literals = new int[readVarInt(buffer)];
+			int literalIndex = 0;
+			for (int i = 0; i < numberOfClauses; i++) {
+				offsets[i] = literalIndex;
+				final int clauseSize = readVarInt(buffer);
+				for (int j = 0; j < clauseSize; j++) {
+					literals[literalIndex++] = decodeZigZag(readVarInt(buffer));
+				}
+			}
+			offsets[numberOfClauses] = literalIndex;
+
+			final int[] index = new int[readVarInt(buffer)];
+			for (int i = 0; i < index.length; i++) {
+				index[i] = decodeZigZag(readVarInt(buffer));
+			}
+
+			final int size = readVarInt(buffer);
+			final int[] rowOffsets = new int[size + 1];
+			int[] columns = new int[size];
+			byte[] values = new byte[size];
+			int edgeCount = 0;
+			for (int row = 0; row < size; row++) {
+				rowOffsets[row] = edgeCount;
+				final int rowLength = readVarInt(buffer);
+				if (edgeCount + rowLength > columns.length) {
+					final int newLength = Math.max(edgeCount + rowLength, columns.length << 1);
+					columns = Arrays.copyOf(columns, newLength);
+					values = Arrays.copyOf(values, newLength);
+				}
+				int column = -1;
+				for (int i = 0; i < rowLength; i++) {
+					column += readVarInt(buffer) + 1;
+					columns[edgeCount] = column;
+					values[edgeCount++] = buffer.get();
+				}
+			}
+			rowOffsets[size] = edgeCount;
+			if (buffer.position() != checksumPosition) {
+				problems.add(new Problem("Feature graph file contains unexpected data", 0, Severity.ERROR));
+				return problems;
+			}
+
+			final SatInstance graphSatInstance = (satInstance != null) ? satInstance
+					: new SatInstance(new ClauseStore(literals, offsets), variables);
+			object.copyValues(new SparseFeatureGraph(graphSatInstance, index, rowOffsets, columns, values));
+		} catch (BufferUnderflowException | IndexOutOfBoundsException | IllegalArgumentException e) {
+			problems.add(new Problem(e));
+		}
+		return problems;
+	}
+
+	@Override
+	public void write(IFeatureGraph object, OutputStream target) throws IOException {
+		final SatInstance satInstance = object.getSatInstance();
+		final CRC32 checksum = new CRC32();
+		final BufferedOutputStream bufferedOut = new BufferedOutputStream(target);
+		final DataOutputStream out = new DataOutputStream(new CheckedOutputStream(bufferedOut, checksum));
+
+		out.writeInt(MAGIC_NUMBER);
+		out.writeShort(VERSION);
+		out.writeLong(satInstance.getFingerprint());
+
+		final int numberOfVariables = satInstance.getNumberOfVariables();
+		writeVarInt(out, numberOfVariables);
+		for (int i = 1; i <= numberOfVariables; i++) {
+			final byte[] name = satInstance.getVariableObject(i).toString().getBytes(StandardCharsets.UTF_8);
+			writeVarInt(out, name.length);
+			out.write(name);
+		}
+
+		final ClauseStore clauses = satInstance.getClauses();
+		writeVarInt(out, clauses.getNumberOfClauses());
+		writeVarInt(out, clauses.getNumberOfLiterals());
+		for (int i = 0; i < clauses.getNumberOfClauses(); i++) {
+			final int clauseSize = clauses.getClauseSize(i);
+			writeVarInt(out, clauseSize);
+			for (int j = 0; j < clauseSize; j++) {
+				writeVarInt(out, encodeZigZag(clauses.getLiteral(i, j)));
+			}
+		}
+
+		final int[] index = object.getIndex();
+		writeVarInt(out, index.length);
+		for (int i = 0; i < index.length; i++) {
+			writeVarInt(out, encodeZigZag(index[i]));
+		}
+
+		final int size = object.getSize();
+		writeVarInt(out, size);
+		for (int row = 0; row < size; row++) {
+			int count = 0;
+			for (int column = object.getNextEdge(row, -1); column >= 0; column = object.getNextEdge(row, column)) {
+				count++;
+			}
+			writeVarInt(out, count);
+			int lastColumn = -1;
+			for (int column = object.getNextEdge(row, -1); column >= 0; column = object.getNextEdge(row, column)) {
+				writeVarInt(out, column - lastColumn - 1);
+				out.writeByte(object.getEdge(row, column));
+				lastColumn = column;
+			}
+		}
+		out.flush();
+
+		final int checksumValue = (int) checksum.getValue();
+		bufferedOut.write(checksumValue >>> 24);
+		bufferedOut.write(checksumValue >>> 16);
+		bufferedOut.write(checksumValue >>> 8);
+		bufferedOut.write(checksumValue);
+		bufferedOut.flush();
+	}
+
+	static int computeChecksum(ByteBuffer buffer, int from, int to) {
+		final CRC32 checksum = new CRC32();
+		if (buffer.hasArray()) {
+			checksum.update(buffer.array(), buffer.arrayOffset() + from, to - from);
+		} else {
+			final ByteBuffer content = buffer.duplicate();
+			content.limit(to).position(from);
+			final byte[] chunk = new byte[Math.min(to - from, 1 << 16)];
+			while (content.hasRemaining()) {
+				final int length = Math.min(chunk.length, content.remaining());
+				content.get(chunk, 0, length);
+				checksum.update(chunk, 0, length);
+			}
+		}
+		return (int) checksum.getValue();
+	}
+
+	static void writeVarInt(DataOutputStream out, int value) throws IOException {
+		while ((value & ~0x7f) != 0) {
+			out.writeByte((value & 0x7f) | 0x80);
+			value >>>= 7;
 		}
-		return ret;
+		out.writeByte(value);
+	}
+
+	static int readVarInt(ByteBuffer buffer) {
+		int value = 0;
+		for (int shift = 0; shift < 32; shift += 7) {
+			final byte b = buffer.get();
+			value |= (b & 0x7f) << shift;
+			if (b >= 0) {
+				return value;
+			}
+		}
+		throw new IllegalArgumentException("Malformed variable-length integer");
+	}
+
+	static int encodeZigZag(int value) {
+		return (value << 1) ^ (value >> 31);
+	}
+
+	static int decodeZigZag(int value) {
+		return (value >>> 1) ^ -(value & 1);
 	}
 
 	@Override
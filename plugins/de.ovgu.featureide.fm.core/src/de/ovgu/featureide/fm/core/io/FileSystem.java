@@ -20,7 +20,10 @@
  */
 package de.ovgu.featureide.fm.core.io;
 
+import java.io.FilterOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.nio.charset.Charset;
 import java.nio.file.Path;
 
@@ -30,6 +33,29 @@ import java.nio.file.Path;
  */
 public final class FileSystem {
 
+	/**
+	 * A stream that replaces the content of a file.
+	 * The new content becomes visible only when {@link #commit()} is called. Closing the stream without a commit discards the new content, so
+	 * the file keeps its old content if writing fails.
+	 */
+	public static abstract class AtomicOutputStream extends FilterOutputStream {
+
+		protected AtomicOutputStream(OutputStream out) {
+			super(out);
+		}
+
+		@Override
+		public void write(byte[] b, int off, int len) throws IOException {
+			out.write(b, off, len);
+		}
+
+		/**
+		 * Replaces the content of the file with the content written so far and closes the stream.
+		 */
+		public abstract void commit() throws IOException;
+
+	}
+
 	public static interface IFileSystem {
 
 		void write(Path path, byte[] content) throws IOException;
@@ -38,6 +64,17 @@ public final class FileSystem {
 
 		byte[] read(Path path) throws IOException;
 
+		/**
+		 * Opens a stream to read the content of a file sequentially. The content is not loaded into memory at once.
+		 */
+		InputStream getInputStream(Path path) throws IOException;
+
+		/**
+		 * Opens a stream to replace the content of a file. The file is created if it does not exist.
+		 * The content is only replaced when {@link AtomicOutputStream#commit()} is called.
+		 */
+		AtomicOutputStream getOutputStream(Path path) throws IOException;
+
 		void mkDir(Path path) throws IOException;
 
 		void delete(Path path) throws IOException;
@@ -59,6 +96,14 @@ public final class FileSystem {
 		return INSTANCE.read(path);
 	}
 
+	public static InputStream getInputStream(Path path) throws IOException {
+		return INSTANCE.getInputStream(path);
+	}
+
+	public static AtomicOutputStream getOutputStream(Path path) throws IOException {
+		return INSTANCE.getOutputStream(path);
+	}
+
 	public static void mkDir(Path path) throws IOException {
 		INSTANCE.mkDir(path);
 	}
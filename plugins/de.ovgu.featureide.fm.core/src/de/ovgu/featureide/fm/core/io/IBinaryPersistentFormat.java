@@ -0,0 +1,38 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2016  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ * 
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.io;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * Interface for saving and loading data in a binary format.</br>
+ * In contrast to {@link IPersistentFormat#read(Object, CharSequence)} and {@link IPersistentFormat#write(Object)}, the data is not converted into a
+ * string, but read from a (possibly memory-mapped) buffer and written directly into a stream.
+ */
+public interface IBinaryPersistentFormat<T> extends IPersistentFormat<T> {
+
+	ProblemList read(T object, ByteBuffer source);
+
+	void write(T object, OutputStream target) throws IOException;
+
+}
@@ -0,0 +1,38 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2016  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ * 
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.io;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * Interface for saving and loading data in a text format without holding the complete text in memory.</br>
+ * In contrast to {@link IPersistentFormat#read(Object, CharSequence)} and {@link IPersistentFormat#write(Object)}, the data is read from and
+ * written to a stream (see {@link FileSystem#getInputStream(java.nio.file.Path)} and {@link FileSystem#getOutputStream(java.nio.file.Path)}).
+ */
+public interface IStreamPersistentFormat<T> extends IPersistentFormat<T> {
+
+	ProblemList read(T object, InputStream source) throws IOException;
+
+	void write(T object, OutputStream target) throws IOException;
+
+}
@@ -1,14 +1,202 @@
 package de.ovgu.featureide.fm.core.io;
 
+import java.io.BufferedOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileAlreadyExistsException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
 import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.nio.file.attribute.PosixFileAttributes;
 
+import de.ovgu.featureide.fm.core.io.FileSystem.AtomicOutputStream;
 import de.ovgu.featureide.fm.core.io.FileSystem.IFileSystem;
 
 public class JavaFileSystem implements IFileSystem {
 
+	/**
+	 * Reads a file through memory-mapped buffers. Large files are mapped in consecutive windows of at most {@link #WINDOW_SIZE} bytes.
+	 */
+	private static final class MappedInputStream extends InputStream {
+
+		private static final long WINDOW_SIZE = 1 << 26;
+
+		private final FileChannel channel;
+		private final long size;
+
+		private long position = 0;
+		private ByteBuffer window = ByteBuffer.allocate(0);
+
+		public MappedInputStream(Path path) throws IOException {
+			channel = FileChannel.open(path, StandardOpenOption.READ);
+			size = channel.size();
+		}
+
+		private boolean nextWindow() throws IOException {
+			if (!window.hasRemaining()) {
+				releaseWindow();
+				if (position >= size) {
+					return false;
+				}
+				final long length = Math.min(WINDOW_SIZE, size - position);
+				window = channel.map(MapMode.READ_ONLY, position, length);
+				position += length;
+			}
+			return true;
+		}
+
+		/**
+		 * Unmaps the current window immediately instead of waiting for the garbage collector, which would keep the file mapped (and, on some
+		 * platforms, locked) for an indefinite time.
+		 */
+		private void releaseWindow() {
+			final ByteBuffer oldWindow = window;
+			window = ByteBuffer.allocate(0);
+			if (oldWindow instanceof MappedByteBuffer) {
+				unmap(oldWindow);
+			}
+		}
+
+		@Override
+		public int read() throws IOException {
+			return nextWindow() ? window.get() & 0xff : -1;
+		}
+
+		@Override
+		public int read(byte[] b, int off, int len) throws IOException {
+			if (len == 0) {
+				return 0;
+			}
+			if (!nextWindow()) {
+				return -1;
+			}
+			final int length = Math.min(len, window.remaining());
+			window.get(b, off, length);
+			return length;
+		}
+
+		@Override
+		public int available() throws IOException {
+			return (int) Math.min(Integer.MAX_VALUE, window.remaining() + (size - position));
+		}
+
+		@Override
+		public void close() throws IOException {
+			releaseWindow();
+			channel.close();
+		}
+
+	}
+
+	/**
+	 * Releases a mapped buffer. Neither the buffer nor any of its views must be accessed afterwards.
+	 * If the running VM does not support this, the buffer is released by the garbage collector.
+	 */
+	public static void unmap(ByteBuffer buffer) {
+		try {
+			// Java 9 and newer
+			final Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+			final Field unsafeField = unsafeClass.getDeclaredField("theUnsafe");
+			unsafeField.setAccessible(true);
+			unsafeClass.getMethod("invokeCleaner", ByteBuffer.class).invoke(unsafeField.get(null), buffer);
+			return;
+		} catch (Exception e) {
+			// try the method of older VMs
+		}
+		try {
+			// Java 8 and older
+			final Method cleanerMethod = buffer.getClass().getMethod("cleaner");
+			cleanerMethod.setAccessible(true);
+			final Object cleaner = cleanerMethod.invoke(buffer);
+			if (cleaner != null) {
+				cleaner.getClass().getMethod("clean").invoke(cleaner);
+			}
+		} catch (Exception e) {
+			// the buffer is released by the garbage collector
+		}
+	}
+
+	/**
+	 * Writes to a temporary file in the directory of the target file. On commit, the temporary file replaces the target file.
+	 * The target file keeps its permissions and, if possible, its owner.
+	 */
+	private static final class TemporaryFileOutputStream extends AtomicOutputStream {
+
+		private final Path path;
+		private final Path temporaryPath;
+
+		private boolean closed = false;
+
+		private TemporaryFileOutputStream(Path path, Path temporaryPath, OutputStream out) {
+			super(new BufferedOutputStream(out));
+			this.path = path;
+			this.temporaryPath = temporaryPath;
+		}
+
+		@Override
+		public void commit() throws IOException {
+			if (closed) {
+				throw new IOException("Stream is already closed.");
+			}
+			closed = true;
+			try {
+				out.close();
+				if (Files.exists(path)) {
+					copyAttributes(path, temporaryPath);
+				}
+				try {
+					Files.move(temporaryPath, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+				} catch (AtomicMoveNotSupportedException e) {
+					Files.move(temporaryPath, path, StandardCopyOption.REPLACE_EXISTING);
+				}
+			} finally {
+				Files.deleteIfExists(temporaryPath);
+			}
+		}
+
+		@Override
+		public void close() throws IOException {
+			if (!closed) {
+				closed = true;
+				try {
+					out.close();
+				} finally {
+					Files.deleteIfExists(temporaryPath);
+				}
+			}
+		}
+
+	}
+
+	/**
+	 * Copies the POSIX permissions, owner, and group of a file. The owner and group are only copied if the user is allowed to change them.
+	 */
+	private static void copyAttributes(Path source, Path target) throws IOException {
+		final PosixFileAttributeView sourceView = Files.getFileAttributeView(source, PosixFileAttributeView.class);
+		final PosixFileAttributeView targetView = Files.getFileAttributeView(target, PosixFileAttributeView.class);
+		if (sourceView == null || targetView == null) {
+			return;
+		}
+		final PosixFileAttributes attributes = sourceView.readAttributes();
+		targetView.setPermissions(attributes.permissions());
+		try {
+			targetView.setGroup(attributes.group());
+			targetView.setOwner(attributes.owner());
+		} catch (IOException e) {
+			// the file is owned by the current user instead
+		}
+	}
+
 	@Override
 	public void write(Path path, byte[] content) throws IOException {
 		Files.write(path, content, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
@@ -24,6 +212,27 @@ public class JavaFileSystem implements IFileSystem {
 		return Files.readAllBytes(path);
 	}
 
+	@Override
+	public InputStream getInputStream(Path path) throws IOException {
+		return new MappedInputStream(path);
+	}
+
+	@Override
+	public AtomicOutputStream getOutputStream(Path path) throws IOException {
+		// replace the target of a symbolic link instead of the link itself
+		final Path absolutePath = Files.exists(path) ? path.toRealPath() : path.toAbsolutePath();
+		final String prefix = "." + absolutePath.getFileName() + ".";
+		for (int i = 0;; i++) {
+			final Path temporaryPath = absolutePath.resolveSibling(prefix + i + ".tmp");
+			try {
+				return new TemporaryFileOutputStream(absolutePath, temporaryPath,
+						Files.newOutputStream(temporaryPath, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE));
+			} catch (FileAlreadyExistsException e) {
+				// another stream writes to the same file, try the next name
+			}
+		}
+	}
+
 	@Override
 	public void mkDir(Path path) throws IOException {
 		Files.createDirectories(path);
@@ -20,20 +20,23 @@
  */
 package de.ovgu.featureide.fm.core.io.dimacs;
 
-import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
-import java.io.StringReader;
-import java.util.ArrayList;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.Charset;
 import java.util.HashMap;
 import java.util.HashSet;
-import java.util.LinkedList;
 import java.util.Map;
 
-import org.prop4j.And;
 import org.prop4j.Literal;
 import org.prop4j.Node;
-import org.prop4j.Or;
+import org.prop4j.solver.SatInstance;
 
+import de.ovgu.featureide.fm.core.Logger;
 import de.ovgu.featureide.fm.core.PluginID;
 import de.ovgu.featureide.fm.core.base.FeatureUtils;
 import de.ovgu.featureide.fm.core.base.IFeature;
@@ -44,8 +47,11 @@ import de.ovgu.featureide.fm.core.editing.AdvancedNodeCreator;
 import de.ovgu.featureide.fm.core.editing.remove.FeatureRemover;
 import de.ovgu.featureide.fm.core.io.IFeatureModelFormat;
 import de.ovgu.featureide.fm.core.io.IPersistentFormat;
+import de.ovgu.featureide.fm.core.io.IStreamPersistentFormat;
 import de.ovgu.featureide.fm.core.io.Problem;
+import de.ovgu.featureide.fm.core.io.Problem.Severity;
 import de.ovgu.featureide.fm.core.io.ProblemList;
+import de.ovgu.featureide.fm.core.io.UnsupportedModelException;
 import de.ovgu.featureide.fm.core.job.LongRunningWrapper;
 import de.ovgu.featureide.fm.core.job.monitor.ConsoleMonitor;
 import de.ovgu.featureide.fm.core.job.monitor.IMonitor;
@@ -55,112 +61,108 @@ import de.ovgu.featureide.fm.core.job.monitor.IMonitor;
  * 
  * @author Sebastian Krieter
  */
-public class DIMACSFormat implements IFeatureModelFormat {
+public class DIMACSFormat implements IFeatureModelFormat, IStreamPersistentFormat<IFeatureModel> {
 	
 	public static final String ID = PluginID.PLUGIN_ID + ".format.fm." + DIMACSFormat.class.getSimpleName();
 
+	private static final Charset CHARSET = Charset.forName("UTF-8");
+
 	@Override
 	public ProblemList read(IFeatureModel featureModel, CharSequence source) {
+		return read(featureModel, new ByteArrayInputStream(source.toString().getBytes(CHARSET)));
+	}
+
+	/**
+	 * Reads the model with a {@link DIMACSReader}. Named variables become features, all other variables are removed from the formula.</br>
+	 * If only solver-level analyses are needed, {@link DIMACSReader#read(java.nio.file.Path)} should be used instead, which does not
+	 * construct a feature model.
+	 */
+	@Override
+	public ProblemList read(IFeatureModel featureModel, InputStream source) {
 		final ProblemList problemList = new ProblemList();
-		final LinkedList<String> sb = new LinkedList<>();
-
-		String[] names = null;
-		int lineNumber = 0;
-		try (BufferedReader r = new BufferedReader(new StringReader(source.toString()))) {
-			String str = null;
-			while ((str = r.readLine()) != null) {
-				if (!str.isEmpty()) {
-					sb.add(str);
-					if (str.startsWith("p")) {
-						final String[] startLine = str.split("\\s+");
-						names = new String[Integer.parseInt(startLine[2]) + 1];
-					}
-				}
-				lineNumber++;
-			}
-		} catch (IOException e) {
-			problemList.add(new Problem(e, lineNumber));
-		}
 		final IFeatureModelFactory factory = FMFactoryManager.getFactory(featureModel);
-		final IFeature rootFeature = factory.createFeature(featureModel, "__Root__"); 
-				
+		final IFeature rootFeature = factory.createFeature(featureModel, "__Root__");
+
 		rootFeature.getStructure().setAbstract(true);
 		featureModel.addFeature(rootFeature);
 		featureModel.getStructure().setRoot(rootFeature.getStructure());
 
-		while (!sb.isEmpty()) {
-			final String line = sb.removeFirst();
-			if (line.startsWith("c")) {
-				final String[] commentLine = line.split("\\s");
-				final String id = commentLine[1].trim();
-				final String name = commentLine[2].trim();
-				try {
-					names[Integer.parseInt(id)] = name;
-				} catch (NumberFormatException e) {
-				}
-			} else {
-				break;
-			}
+		final SatInstance satInstance;
+		try {
+			satInstance = new DIMACSReader(source).read();
+		} catch (IOException e) {
+			problemList.add(new Problem(e, 0));
+			return problemList;
+		} catch (UnsupportedModelException e) {
+			problemList.add(new Problem(e.getMessage(), e.lineNumber, Severity.ERROR));
+			return problemList;
 		}
 
+		final int numberOfVariables = satInstance.getNumberOfVariables();
+		final int numberOfFeatureVariables = satInstance.getNumberOfFeatureVariables();
+		for (int i = 1; i <= numberOfFeatureVariables; i++) {
+			final IFeature feature = factory.createFeature(featureModel, satInstance.getVariableObject(i).toString());
+			featureModel.addFeature(feature);
+			rootFeature.getStructure().addChild(feature.getStructure());
+		}
 		final HashSet<String> abstractNames = new HashSet<>();
-		for (int i = 1; i < names.length; i++) {
-			final String name = names[i];
-			if (name != null) {
-				final IFeature feature = factory.createFeature(featureModel, name); 
-				featureModel.addFeature(feature);
-				rootFeature.getStructure().addChild(feature.getStructure());
-			}
+		for (int i = numberOfFeatureVariables + 1; i <= numberOfVariables; i++) {
+			abstractNames.add(satInstance.getVariableObject(i).toString());
 		}
 
-		final ArrayList<Or> clauses = new ArrayList<>();
-		final ArrayList<Literal> clauseParts = new ArrayList<>();
-		while (!sb.isEmpty()) {
-			final String[] clauseLine = sb.removeFirst().split("\\s");
-			for (int i = 0; i < clauseLine.length - 1; i++) {
-				final int varIndex = Integer.parseInt(clauseLine[i]);
-				String name = names[Math.abs(varIndex)];
-				if (name == null) {
-					name = "__Abstract__" + Math.abs(varIndex);
-					abstractNames.add(name);
-				}
-				clauseParts.add(new Literal(name, varIndex > 0));
+		if (abstractNames.isEmpty()) {
+			final int numberOfClauses = satInstance.getClauses().getNumberOfClauses();
+			for (int i = 0; i < numberOfClauses; i++) {
+				featureModel.addConstraint(factory.createConstraint(featureModel, satInstance.getClause(i)));
+			}
+		} else {
+			// the auxiliary variables can only be removed from a complete formula
+			final IMonitor workMonitor = new ConsoleMonitor();
+			final FeatureRemover remover = new FeatureRemover(satInstance.getCnf(), abstractNames, false);
+			final Node cnf = remover.createNewClauseList(LongRunningWrapper.runMethod(remover, workMonitor));
+			for (Node clause : cnf.getChildren()) {
+				featureModel.addConstraint(factory.createConstraint(featureModel, clause));
 			}
-			final Literal[] array = clauseParts.toArray(new Literal[0]);
-			final Or propNode = new Or(array);
-			clauses.add(propNode);
-			clauseParts.clear();
-		}
-		Node cnf = new And(clauses.toArray(new Or[0]));
-		final IMonitor workMonitor = new ConsoleMonitor();
-		final FeatureRemover remover = new FeatureRemover(cnf, abstractNames, false);
-		cnf = remover.createNewClauseList(LongRunningWrapper.runMethod(remover, workMonitor));
-		for (Node clause : cnf.getChildren()) {
-			featureModel.addConstraint(factory.createConstraint(featureModel, clause));
 		}
 		return problemList;
 	}
 
 	@Override
 	public String write(IFeatureModel featureModel) {
+		final StringBuilder string = new StringBuilder();
+		try {
+			write(featureModel, string);
+		} catch (IOException e) {
+			Logger.logError(e);
+		}
+		return string.toString();
+	}
+
+	@Override
+	public void write(IFeatureModel featureModel, OutputStream target) throws IOException {
+		final Writer writer = new BufferedWriter(new OutputStreamWriter(target, CHARSET));
+		write(featureModel, writer);
+		writer.flush();
+	}
+
+	private void write(IFeatureModel featureModel, Appendable string) throws IOException {
 		final Node nodes = AdvancedNodeCreator.createCNF(featureModel);
 
-		StringBuilder string = new StringBuilder();
 		Map<String, Integer> featureMap = new HashMap<String, Integer>();
 		int i = 1;
 		for (CharSequence name : FeatureUtils.extractFeatureNames(featureModel.getFeatures())) {
 			featureMap.put(name.toString(), i);
 			string.append("c ");
-			string.append(i);
+			string.append(Integer.toString(i));
 			string.append(' ');
 			string.append(name.toString());
 			string.append(System.lineSeparator());
 			i++;
 		}
 		string.append("p cnf ");
-		string.append(featureModel.getNumberOfFeatures());
+		string.append(Integer.toString(featureModel.getNumberOfFeatures()));
 		string.append(' ');
-		string.append(nodes.getChildren().length - 2);
+		string.append(Integer.toString(nodes.getChildren().length - 2));
 		string.append("\r\n");
 
 		CHILDREN : for (Node and : nodes.getChildren()) {
@@ -169,10 +171,10 @@ public class DIMACSFormat implements IFeatureModelFormat {
 					continue;
 				}
 				if (((Literal) and).positive) {
-					string.append(featureMap.get(and.toString()));
+					string.append(String.valueOf(featureMap.get(and.toString())));
 				} else {
 					string.append('-');
-					string.append(featureMap.get(((Literal) and).var.toString()));
+					string.append(String.valueOf(featureMap.get(((Literal) and).var.toString())));
 				}
 				string.append(' ');
 			} else {
@@ -184,10 +186,10 @@ public class DIMACSFormat implements IFeatureModelFormat {
 
 				for (Node literal : and.getChildren()) {
 					if (((Literal) literal).positive) {
-						string.append(featureMap.get(literal.toString()));
+						string.append(String.valueOf(featureMap.get(literal.toString())));
 					} else {
 						string.append('-');
-						string.append(featureMap.get(((Literal) literal).var.toString()));
+						string.append(String.valueOf(featureMap.get(((Literal) literal).var.toString())));
 					}
 					string.append(' ');
 				}
@@ -195,8 +197,6 @@ public class DIMACSFormat implements IFeatureModelFormat {
 			string.append('0');
 			string.append(System.lineSeparator());
 		}
-
-		return string.toString();
 	}
 
 	@Override
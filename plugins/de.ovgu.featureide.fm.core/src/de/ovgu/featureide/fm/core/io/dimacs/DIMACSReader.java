@@ -0,0 +1,309 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2016  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ * 
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.io.dimacs;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+
+import org.prop4j.Node;
+import org.prop4j.solver.ClauseStore;
+import org.prop4j.solver.SatInstance;
+
+import de.ovgu.featureide.fm.core.io.FileSystem;
+import de.ovgu.featureide.fm.core.io.UnsupportedModelException;
+
+/**
+ * Reads a formula in the DIMACS CNF format directly into a {@link SatInstance}.</br>
+ * The source is tokenized byte by byte and all clauses are stored in a {@link ClauseStore}, so no strings or {@link Node nodes} are created
+ * for clauses. Thus, solver-level analyses (e.g., {@link org.prop4j.analyses.CoreDeadAnalysis}) can be applied to large files without
+ * building a feature model first (see {@link #read(Path)}).</br>
+ * Variable names are taken from comments of the form {@code c <index> <name>}. Variables without a name are
+ * {@link Node#isAuxiliaryVariable(Object) auxiliary} variables. If the source does not contain any names, each variable is named by its index.
+ */
+public class DIMACSReader {
+
+	private static final Charset CHARSET = Charset.forName("UTF-8");
+
+	private static final int BUFFER_SIZE = 1 << 16;
+
+	private static final int MAX_INITIAL_CAPACITY = 1 << 20;
+
+	private final InputStream source;
+
+	private final byte[] buffer = new byte[BUFFER_SIZE];
+	private int position = 0;
+	private int limit = 0;
+
+	private int lineNumber = 1;
+
+	private final HashMap<Integer, String> names = new HashMap<>();
+	private int numberOfVariables = 0;
+
+	private int[] literals = new int[16];
+	private int numberOfLiterals = 0;
+	private int[] offsets = new int[16];
+	private int numberOfClauses = 0;
+
+	/**
+	 * Reads the DIMACS file at the given path.
+	 * 
+	 * @param path the path of the file
+	 * @return the formula of the file
+	 */
+	public static SatInstance read(Path path) throws IOException, UnsupportedModelException {
+		try (InputStream source = FileSystem.getInputStream(path)) {
+			return new DIMACSReader(source).read();
+		}
+	}
+
+	public DIMACSReader(InputStream source) {
+		this.source = source;
+	}
+
+	/**
+	 * Reads the complete source. The source is not closed.
+	 * 
+	 * @return the formula of the source
+	 */
+	public SatInstance read() throws IOException, UnsupportedModelException {
+		boolean openClause = false;
+		for (int c = next(); c >= 0; c = next()) {
+			switch (c) {
+			case '\n':
+				lineNumber++;
+				break;
+			case ' ':
+			case '\t':
+			case '\r':
+				break;
+			case 'c':
+				readComment();
+				break;
+			case 'p':
+				readProblemLine();
+				break;
+			case '%':
+				// end marker used by some benchmark libraries
+				if (openClause) {
+					finishClause();
+				}
+				return createSatInstance();
+			case '-':
+				final int variable = readNumber(next());
+				if (variable == 0) {
+					throw new UnsupportedModelException("Invalid literal -0", lineNumber);
+				}
+				openClause = true;
+				addLiteral(-variable);
+				break;
+			default:
+				if (c >= '0' && c <= '9') {
+					final int literal = readNumber(c);
+					if (literal == 0) {
+						finishClause();
+						openClause = false;
+					} else {
+						openClause = true;
+						addLiteral(literal);
+					}
+				} else {
+					throw new UnsupportedModelException("Unexpected character '" + (char) c + "'", lineNumber);
+				}
+				break;
+			}
+		}
+		if (openClause) {
+			finishClause();
+		}
+		return createSatInstance();
+	}
+
+	private int next() throws IOException {
+		if (position == limit && !fill()) {
+			return -1;
+		}
+		return buffer[position++] & 0xff;
+	}
+
+	private int peek() throws IOException {
+		if (position == limit && !fill()) {
+			return -1;
+		}
+		return buffer[position] & 0xff;
+	}
+
+	private boolean fill() throws IOException {
+		position = 0;
+		limit = source.read(buffer, 0, BUFFER_SIZE);
+		if (limit < 0) {
+			limit = 0;
+			return false;
+		}
+		return true;
+	}
+
+	private static boolean isDigit(int c) {
+		return c >= '0' && c <= '9';
+	}
+
+	private void skipBlanks() throws IOException {
+		for (int c = peek(); c == ' ' || c == '\t' || c == '\r'; c = peek()) {
+			position++;
+		}
+	}
+
+	/**
+	 * Skips the remaining part of the current line, except for the line break itself.
+	 */
+	private void skipLine() throws IOException {
+		for (int c = peek(); c >= 0 && c != '\n'; c = peek()) {
+			position++;
+		}
+	}
+
+	private int readNumber(int first) throws IOException, UnsupportedModelException {
+		if (!isDigit(first)) {
+			throw new UnsupportedModelException("Expected a number", lineNumber);
+		}
+		int value = first - '0';
+		for (int c = peek(); isDigit(c); c = peek()) {
+			position++;
+			if (value > (Integer.MAX_VALUE - 9) / 10) {
+				throw new UnsupportedModelException("Number too large", lineNumber);
+			}
+			value = (value * 10) + (c - '0');
+		}
+		return value;
+	}
+
+	private void readComment() throws IOException, UnsupportedModelException {
+		skipBlanks();
+		if (isDigit(peek())) {
+			final int index = readNumber(next());
+			final int c = peek();
+			if (index > 0 && (c == ' ' || c == '\t')) {
+				skipBlanks();
+				final String name = readRestOfLine();
+				if (!name.isEmpty()) {
+					names.put(index, name);
+					numberOfVariables = Math.max(numberOfVariables, index);
+				}
+			}
+		}
+		skipLine();
+	}
+
+	private String readRestOfLine() throws IOException {
+		byte[] bytes = new byte[64];
+		int length = 0;
+		for (int c = peek(); c >= 0 && c != '\n'; c = peek()) {
+			position++;
+			if (length == bytes.length) {
+				bytes = Arrays.copyOf(bytes, length << 1);
+			}
+			bytes[length++] = (byte) c;
+		}
+		return new String(bytes, 0, length, CHARSET).trim();
+	}
+
+	private void readProblemLine() throws IOException, UnsupportedModelException {
+		skipBlanks();
+		final StringBuilder format = new StringBuilder();
+		for (int c = peek(); c >= 0 && c != ' ' && c != '\t' && c != '\r' && c != '\n'; c = peek()) {
+			position++;
+			format.append((char) c);
+		}
+		if (!"cnf".equals(format.toString())) {
+			throw new UnsupportedModelException("Unsupported problem format \"" + format + "\"", lineNumber);
+		}
+		skipBlanks();
+		numberOfVariables = Math.max(numberOfVariables, readNumber(next()));
+		skipBlanks();
+		final int expectedClauses = readNumber(next());
+		skipLine();
+
+		final int capacity = Math.min(expectedClauses, MAX_INITIAL_CAPACITY) + 1;
+		if (capacity > offsets.length) {
+			offsets = Arrays.copyOf(offsets, capacity);
+		}
+	}
+
+	private void addLiteral(int literal) {
+		if (numberOfLiterals == literals.length) {
+			literals = Arrays.copyOf(literals, literals.length << 1);
+		}
+		literals[numberOfLiterals++] = literal;
+		numberOfVariables = Math.max(numberOfVariables, Math.abs(literal));
+	}
+
+	private void finishClause() {
+		if (numberOfClauses + 1 >= offsets.length) {
+			offsets = Arrays.copyOf(offsets, offsets.length << 1);
+		}
+		offsets[++numberOfClauses] = numberOfLiterals;
+	}
+
+	private SatInstance createSatInstance() throws UnsupportedModelException {
+		final List<String> variables = new ArrayList<>(numberOfVariables);
+		final HashSet<String> usedNames = new HashSet<>();
+		int numberOfFeatureVariables = 0;
+		for (int i = 1; i <= numberOfVariables; i++) {
+			String name = names.get(i);
+			if (name == null) {
+				name = names.isEmpty() ? Integer.toString(i) : Node.AUXILIARY_VARIABLE_PREFIX + i;
+			}
+			if (!usedNames.add(name)) {
+				throw new UnsupportedModelException("Duplicate variable name \"" + name + "\"", 0);
+			}
+			if (!Node.isAuxiliaryVariable(name)) {
+				numberOfFeatureVariables++;
+			}
+			variables.add(name);
+		}
+
+		// SatInstance places all auxiliary variables after the other variables
+		final int[] newIndex = new int[numberOfVariables + 1];
+		boolean reordered = false;
+		int featureIndex = 0;
+		int auxiliaryIndex = numberOfFeatureVariables;
+		for (int i = 1; i <= numberOfVariables; i++) {
+			newIndex[i] = Node.isAuxiliaryVariable(variables.get(i - 1)) ? ++auxiliaryIndex : ++featureIndex;
+			reordered |= newIndex[i] != i;
+		}
+		if (reordered) {
+			for (int i = 0; i < numberOfLiterals; i++) {
+				final int literal = literals[i];
+				literals[i] = literal > 0 ? newIndex[literal] : -newIndex[-literal];
+			}
+		}
+
+		final ClauseStore clauses = new ClauseStore(Arrays.copyOf(literals, numberOfLiterals), Arrays.copyOf(offsets, numberOfClauses + 1));
+		return new SatInstance(clauses, variables);
+	}
+
+}
@@ -20,6 +20,7 @@
  */
 package de.ovgu.featureide.fm.core.io.manager;
 
+import java.io.InputStream;
 import java.nio.charset.Charset;
 import java.nio.file.Path;
 import java.nio.file.Paths;
@@ -31,7 +32,9 @@ import de.ovgu.featureide.fm.core.base.event.FeatureIDEEvent.EventType;
 import de.ovgu.featureide.fm.core.base.event.IEventListener;
 import de.ovgu.featureide.fm.core.base.event.IEventManager;
 import de.ovgu.featureide.fm.core.io.FileSystem;
+import de.ovgu.featureide.fm.core.io.FileSystem.AtomicOutputStream;
 import de.ovgu.featureide.fm.core.io.IPersistentFormat;
+import de.ovgu.featureide.fm.core.io.IStreamPersistentFormat;
 import de.ovgu.featureide.fm.core.io.Problem;
 import de.ovgu.featureide.fm.core.io.ProblemList;
 
@@ -95,10 +98,19 @@ public abstract class AFileManager<T> implements IFileManager, IEventManager {
 		}
 		lastProblems.clear();
 		try {
-			final String content = new String(FileSystem.read(path), DEFAULT_CHARSET);
+			final IPersistentFormat<T> formatInstance = format.getInstance();
 			List<Problem> problemList;
-			synchronized (saveSyncObject) {
-				problemList = format.getInstance().read(variableObject, content);
+			if (formatInstance instanceof IStreamPersistentFormat) {
+				try (InputStream content = FileSystem.getInputStream(path)) {
+					synchronized (saveSyncObject) {
+						problemList = ((IStreamPersistentFormat<T>) formatInstance).read(variableObject, content);
+					}
+				}
+			} else {
+				final String content = new String(FileSystem.read(path), DEFAULT_CHARSET);
+				synchronized (saveSyncObject) {
+					problemList = formatInstance.read(variableObject, content);
+				}
 			}
 			if (problemList != null) {
 				lastProblems.addAll(problemList);
@@ -125,9 +137,19 @@ public abstract class AFileManager<T> implements IFileManager, IEventManager {
 	public boolean save() {
 		lastProblems.clear();
 		try {
-			final byte[] content = format.getInstance().write(variableObject).getBytes(DEFAULT_CHARSET);
-			synchronized (saveSyncObject) {
-				FileSystem.write(path, content);
+			final IPersistentFormat<T> formatInstance = format.getInstance();
+			if (formatInstance instanceof IStreamPersistentFormat) {
+				synchronized (saveSyncObject) {
+					try (AtomicOutputStream content = FileSystem.getOutputStream(path)) {
+						((IStreamPersistentFormat<T>) formatInstance).write(variableObject, content);
+						content.commit();
+					}
+				}
+			} else {
+				final byte[] content = formatInstance.write(variableObject).getBytes(DEFAULT_CHARSET);
+				synchronized (saveSyncObject) {
+					FileSystem.write(path, content);
+				}
 			}
 			persist();
 			fireEvent(new FeatureIDEEvent(variableObject, EventType.MODEL_DATA_SAVED));
@@ -21,16 +21,27 @@
 package de.ovgu.featureide.fm.core.io.manager;
 
 import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
 import java.nio.charset.Charset;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.util.List;
 
 import de.ovgu.featureide.fm.core.io.FileSystem;
+import de.ovgu.featureide.fm.core.io.FileSystem.AtomicOutputStream;
+import de.ovgu.featureide.fm.core.io.IBinaryPersistentFormat;
 import de.ovgu.featureide.fm.core.io.IPersistentFormat;
+import de.ovgu.featureide.fm.core.io.IStreamPersistentFormat;
+import de.ovgu.featureide.fm.core.io.JavaFileSystem;
 import de.ovgu.featureide.fm.core.io.Problem;
 import de.ovgu.featureide.fm.core.io.ProblemList;
 
@@ -138,8 +149,26 @@ public class SimpleFileHandler<T> {
 		try {
 			final T newObject = object;
 
-			final String content = new String(FileSystem.read(path), DEFAULT_CHARSET);
-			final List<Problem> problemList = format.getInstance().read(newObject, content);
+			final IPersistentFormat<T> formatInstance = format.getInstance();
+			final List<Problem> problemList;
+			if (formatInstance instanceof IBinaryPersistentFormat) {
+				try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+					final MappedByteBuffer content = channel.map(MapMode.READ_ONLY, 0, channel.size());
+					try {
+						problemList = ((IBinaryPersistentFormat<T>) formatInstance).read(newObject, content);
+					} finally {
+						// binary formats copy all values out of the buffer, so the mapping is not needed anymore
+						JavaFileSystem.unmap(content);
+					}
+				}
+			} else if (formatInstance instanceof IStreamPersistentFormat) {
+				try (InputStream content = FileSystem.getInputStream(path)) {
+					problemList = ((IStreamPersistentFormat<T>) formatInstance).read(newObject, content);
+				}
+			} else {
+				final String content = new String(FileSystem.read(path), DEFAULT_CHARSET);
+				problemList = formatInstance.read(newObject, content);
+			}
 			if (problemList != null) {
 				lastProblems.addAll(problemList);
 			}
@@ -154,6 +183,40 @@ public class SimpleFileHandler<T> {
 		try {
 			final T newObject = object;
 
+			final IPersistentFormat<T> formatInstance = format.getInstance();
+			if (formatInstance instanceof IBinaryPersistentFormat) {
+				final List<Problem> problemList;
+				if (inputStream instanceof FileInputStream) {
+					// map the remaining file instead of copying it into memory
+					final FileChannel channel = ((FileInputStream) inputStream).getChannel();
+					final MappedByteBuffer content = channel.map(MapMode.READ_ONLY, channel.position(), channel.size() - channel.position());
+					try {
+						problemList = ((IBinaryPersistentFormat<T>) formatInstance).read(newObject, content);
+					} finally {
+						JavaFileSystem.unmap(content);
+					}
+				} else {
+					final ByteArrayOutputStream content = new ByteArrayOutputStream();
+					final byte[] buffer = new byte[1 << 13];
+					int length;
+					while ((length = inputStream.read(buffer)) >= 0) {
+						content.write(buffer, 0, length);
+					}
+					problemList = ((IBinaryPersistentFormat<T>) formatInstance).read(newObject, ByteBuffer.wrap(content.toByteArray()));
+				}
+				if (problemList != null) {
+					lastProblems.addAll(problemList);
+				}
+				return lastProblems.containsError();
+			}
+			if (formatInstance instanceof IStreamPersistentFormat) {
+				final List<Problem> problemList = ((IStreamPersistentFormat<T>) formatInstance).read(newObject, inputStream);
+				if (problemList != null) {
+					lastProblems.addAll(problemList);
+				}
+				return lastProblems.containsError();
+			}
+
 			final StringBuilder sb = new StringBuilder();
 			try (BufferedReader br = new BufferedReader(new InputStreamReader(inputStream, DEFAULT_CHARSET))) {
 				String line;
@@ -176,8 +239,20 @@ public class SimpleFileHandler<T> {
 	public boolean write() {
 		lastProblems.clear();
 		try {
-			final byte[] content = format.getInstance().write(object).getBytes(DEFAULT_CHARSET);
-			FileSystem.write(path, content);
+			final IPersistentFormat<T> formatInstance = format.getInstance();
+			if (formatInstance instanceof IBinaryPersistentFormat) {
+				try (AtomicOutputStream out = FileSystem.getOutputStream(path)) {
+					((IBinaryPersistentFormat<T>) formatInstance).write(object, out);
+					out.commit();
+				}
+			} else if (formatInstance instanceof IStreamPersistentFormat) {
+				try (AtomicOutputStream out = FileSystem.getOutputStream(path)) {
+					((IStreamPersistentFormat<T>) formatInstance).write(object, out);
+					out.commit();
+				}
+			} else {
+				FileSystem.write(path, formatInstance.write(object).getBytes(DEFAULT_CHARSET));
+			}
 		} catch (final Exception e) {
 			handleException(e);
 		}
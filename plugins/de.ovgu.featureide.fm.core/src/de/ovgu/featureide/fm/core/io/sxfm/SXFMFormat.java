@@ -119,6 +119,7 @@ public class SXFMFormat extends AXMLFormat<IFeatureModel> implements IFeatureMod
 
 	@Override
 	protected void writeDocument(Document doc) {
+		featureModel = object;
 		createXmlDoc(doc);
 	}
 
@@ -275,7 +276,12 @@ public class SXFMFormat extends AXMLFormat<IFeatureModel> implements IFeatureMod
 
 	@Override
 	protected void readDocument(Document doc, List<Problem> warnings) throws UnsupportedModelException {
+		featureModel = object;
+		featureModel.reset();
+		line = 0;
+		idTable = new Hashtable<String, IFeature>();
 		buildFModelRec(doc);
+		featureModel.handleModelDataLoaded();
 	}
 
 	private int line;
@@ -0,0 +1,312 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2016  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ * 
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.io.xml;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.util.List;
+
+import javax.xml.stream.Location;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import javax.xml.stream.XMLStreamWriter;
+
+import de.ovgu.featureide.fm.core.Logger;
+import de.ovgu.featureide.fm.core.io.IStreamPersistentFormat;
+import de.ovgu.featureide.fm.core.io.Problem;
+import de.ovgu.featureide.fm.core.io.Problem.Severity;
+import de.ovgu.featureide.fm.core.io.ProblemList;
+import de.ovgu.featureide.fm.core.io.UnsupportedModelException;
+
+/**
+ * Reads and writes XML files with the streaming API for XML (StAX).</br>
+ * In contrast to {@link AXMLFormat}, no DOM is build. The object is constructed directly while parsing and written directly to the output.
+ * Written elements are indented with tabs in the same way as in {@link AXMLFormat}.</br>
+ * Files can be read from and written to streams, so that the complete text of a file never has to be kept in memory.
+ */
+public abstract class AXMLStreamFormat<T> implements IStreamPersistentFormat<T>, XMLFeatureModelTags {
+
+	private static final String SUFFIX = "xml";
+
+	private static final String XML_DECLARATION = "<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"no\"?>";
+
+	private static final String LINE_SEPARATOR = "\n";
+
+	private static final Charset CHARSET = Charset.forName("UTF-8");
+
+	protected T object;
+
+	protected XMLStreamReader reader;
+
+	protected XMLStreamWriter writer;
+
+	private int depth;
+
+	@Override
+	public String getSuffix() {
+		return SUFFIX;
+	}
+
+	@Override
+	public ProblemList read(T object, CharSequence source) {
+		final ProblemList lastWarnings = new ProblemList();
+		try {
+			reader = createInputFactory().createXMLStreamReader(new StringReader(source.toString()));
+		} catch (XMLStreamException e) {
+			lastWarnings.add(createProblem(e));
+			return lastWarnings;
+		}
+		read(object, lastWarnings);
+		return lastWarnings;
+	}
+
+	@Override
+	public ProblemList read(T object, InputStream source) {
+		final ProblemList lastWarnings = new ProblemList();
+		try {
+			reader = createInputFactory().createXMLStreamReader(source);
+		} catch (XMLStreamException e) {
+			lastWarnings.add(createProblem(e));
+			return lastWarnings;
+		}
+		read(object, lastWarnings);
+		return lastWarnings;
+	}
+
+	private XMLInputFactory createInputFactory() {
+		final XMLInputFactory inputFactory = XMLInputFactory.newInstance();
+		inputFactory.setProperty(XMLInputFactory.IS_COALESCING, Boolean.TRUE);
+		inputFactory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, Boolean.FALSE);
+		return inputFactory;
+	}
+
+	private Problem createProblem(XMLStreamException e) {
+		final Location location = e.getLocation();
+		return new Problem(e, location != null ? location.getLineNumber() : 0);
+	}
+
+	private void read(T object, ProblemList lastWarnings) {
+		this.object = object;
+		try {
+			try {
+				readDocument(lastWarnings);
+			} finally {
+				reader.close();
+			}
+		} catch (XMLStreamException e) {
+			lastWarnings.add(createProblem(e));
+		} catch (UnsupportedModelException e) {
+			lastWarnings.add(new Problem(e.getMessage(), e.lineNumber, Severity.ERROR));
+		} catch (Exception e) {
+			Logger.logError(e);
+			lastWarnings.add(new Problem(e.getMessage(), getLineNumber(), Severity.ERROR));
+		} finally {
+			reader = null;
+		}
+	}
+
+	@Override
+	public String write(T object) {
+		final StringWriter output = new StringWriter();
+		try {
+			write(object, output);
+		} catch (XMLStreamException | IOException e) {
+			Logger.logError(e);
+		}
+		return output.toString();
+	}
+
+	@Override
+	public void write(T object, OutputStream target) throws IOException {
+		try {
+			write(object, new BufferedWriter(new OutputStreamWriter(target, CHARSET)));
+		} catch (XMLStreamException e) {
+			throw new IOException(e);
+		}
+	}
+
+	private void write(T object, Writer output) throws XMLStreamException, IOException {
+		this.object = object;
+		output.write(XML_DECLARATION);
+		try {
+			writer = XMLOutputFactory.newInstance().createXMLStreamWriter(output);
+			depth = 1;
+			try {
+				writeDocument();
+				writer.flush();
+			} finally {
+				writer.close();
+			}
+		} finally {
+			writer = null;
+		}
+		output.write(LINE_SEPARATOR);
+		output.flush();
+	}
+
+	/**
+	 * Reads an XML document from {@link #reader}.
+	 * 
+	 * @param warnings list of warnings / errors that occur during read
+	 */
+	protected abstract void readDocument(List<Problem> warnings) throws XMLStreamException, UnsupportedModelException;
+
+	/**
+	 * Writes an XML document to {@link #writer}, using the methods for indented elements (e.g., {@link #writeStartElement(String)}).
+	 */
+	protected abstract void writeDocument() throws XMLStreamException;
+
+	/**
+	 * @return the line of the current event of {@link #reader}
+	 */
+	protected int getLineNumber() {
+		if (reader != null) {
+			final Location location = reader.getLocation();
+			if (location != null) {
+				return location.getLineNumber();
+			}
+		}
+		return 0;
+	}
+
+	/**
+	 * Moves {@link #reader} to the next start tag within the current element.
+	 * 
+	 * @return {@code true} if the reader is on a child element or {@code false} if the reader is on the end tag of the current element
+	 */
+	protected boolean nextChildElement() throws XMLStreamException {
+		while (reader.hasNext()) {
+			switch (reader.next()) {
+			case XMLStreamConstants.START_ELEMENT:
+				return true;
+			case XMLStreamConstants.END_ELEMENT:
+				return false;
+			default:
+				break;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Moves {@link #reader} to the end tag of the current element, skipping all of its content.
+	 */
+	protected void skipElement() throws XMLStreamException {
+		int level = 1;
+		while (level > 0 && reader.hasNext()) {
+			switch (reader.next()) {
+			case XMLStreamConstants.START_ELEMENT:
+				level++;
+				break;
+			case XMLStreamConstants.END_ELEMENT:
+				level--;
+				break;
+			default:
+				break;
+			}
+		}
+	}
+
+	/**
+	 * Throws an error that will be used for error markers.
+	 * 
+	 * @param message the error message
+	 * @param line the line of the element that causes the error
+	 */
+	protected static void throwError(String message, int line) throws UnsupportedModelException {
+		throw new UnsupportedModelException(message, line);
+	}
+
+	private void writeIndent() throws XMLStreamException {
+		final StringBuilder indent = new StringBuilder(depth + 1);
+		indent.append(LINE_SEPARATOR);
+		for (int i = 0; i < depth; i++) {
+			indent.append('\t');
+		}
+		writer.writeCharacters(indent.toString());
+	}
+
+	/**
+	 * Writes an indented start tag. Attributes can be added directly to the {@link #writer}.
+	 */
+	protected void writeStartElement(String name) throws XMLStreamException {
+		writeIndent();
+		writer.writeStartElement(name);
+		depth++;
+	}
+
+	/**
+	 * Writes an indented end tag for the last start tag.
+	 */
+	protected void writeEndElement() throws XMLStreamException {
+		depth--;
+		writeIndent();
+		writer.writeEndElement();
+	}
+
+	/**
+	 * Writes an indented empty element. Attributes can be added directly to the {@link #writer}.
+	 */
+	protected void writeEmptyElement(String name) throws XMLStreamException {
+		writeIndent();
+		writer.writeEmptyElement(name);
+	}
+
+	/**
+	 * Writes an indented element that contains only the given text in a single line.
+	 */
+	protected void writeTextElement(String name, String text) throws XMLStreamException {
+		writeIndent();
+		if (text.isEmpty()) {
+			writer.writeEmptyElement(name);
+		} else {
+			writer.writeStartElement(name);
+			writer.writeCharacters(text);
+			writer.writeEndElement();
+		}
+	}
+
+	/**
+	 * Writes an indented element that contains the given text. Each line of the text is written in a separate line with an additional
+	 * indentation.
+	 */
+	protected void writeTextBlockElement(String name, String text) throws XMLStreamException {
+		writeStartElement(name);
+		for (String line : text.split(LINE_SEPARATOR, -1)) {
+			writeIndent();
+			writer.writeCharacters(line);
+		}
+		depth--;
+		writeIndent();
+		writer.writeEndElement();
+	}
+
+}
@@ -30,24 +30,21 @@ import static de.ovgu.featureide.fm.core.localization.StringTable.WRONG_SYNTAX;
 
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Set;
 
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+
 import org.prop4j.And;
 import org.prop4j.AtMost;
 import org.prop4j.Equals;
 import org.prop4j.Implies;
 import org.prop4j.Literal;
+import org.prop4j.Node;
 import org.prop4j.Not;
 import org.prop4j.Or;
-import org.w3c.dom.Document;
-import org.w3c.dom.Element;
-import org.w3c.dom.NamedNodeMap;
-import org.w3c.dom.Node;
-import org.w3c.dom.NodeList;
-import org.w3c.dom.Text;
 
 import de.ovgu.featureide.fm.core.PluginID;
 import de.ovgu.featureide.fm.core.base.FeatureUtils;
@@ -55,6 +52,7 @@ import de.ovgu.featureide.fm.core.base.IConstraint;
 import de.ovgu.featureide.fm.core.base.IFeature;
 import de.ovgu.featureide.fm.core.base.IFeatureModel;
 import de.ovgu.featureide.fm.core.base.IFeatureModelFactory;
+import de.ovgu.featureide.fm.core.base.IFeatureStructure;
 import de.ovgu.featureide.fm.core.base.IPropertyContainer.Entry;
 import de.ovgu.featureide.fm.core.base.IPropertyContainer.Type;
 import de.ovgu.featureide.fm.core.base.impl.FMFactoryManager;
@@ -64,18 +62,36 @@ import de.ovgu.featureide.fm.core.io.UnsupportedModelException;
 import de.ovgu.featureide.fm.core.io.xml.XmlPropertyLoader.PropertiesParser;
 
 /**
- * Reads / Writes a feature model in the FeatureIDE XML format
+ * Reads / Writes a feature model in the FeatureIDE XML format.</br>
+ * The feature model is build directly while parsing the XML stream and written directly to the output (see {@link AXMLStreamFormat}).
  * 
  * @author Jens Meinicke
  * @author Marcus Pinnecke
  * @author Sebastian Krieter
  */
-public class XmlFeatureModelFormat extends AXMLFormat<IFeatureModel> implements IFeatureModelFormat {
+public class XmlFeatureModelFormat extends AXMLStreamFormat<IFeatureModel> implements IFeatureModelFormat {
 
 	public static final String ID = PluginID.PLUGIN_ID + ".format.fm." + XmlFeatureModelFormat.class.getSimpleName();
 
+	/**
+	 * A feature name that is referenced before the complete feature tree is known.
+	 */
+	private static final class FeatureReference {
+		private final String name;
+		private final int line;
+
+		public FeatureReference(String name, int line) {
+			this.name = name;
+			this.line = line;
+		}
+	}
+
 	private IFeatureModelFactory factory;
 
+	private final List<FeatureReference> featureReferences = new ArrayList<>();
+	private final List<Node> constraintNodes = new ArrayList<>();
+	private final List<String> featureOrder = new ArrayList<>();
+
 	@Override
 	public boolean supportsRead() {
 		return true;
@@ -87,22 +103,17 @@ public class XmlFeatureModelFormat extends AXMLFormat<IFeatureModel> implements
 	}
 
 	@Override
-	protected void readDocument(Document doc, List<Problem> warnings) throws UnsupportedModelException {
+	protected void readDocument(List<Problem> warnings) throws XMLStreamException, UnsupportedModelException {
 		object.reset();
 
 		factory = FMFactoryManager.getFactory(object);
 
 		final Collection<PropertiesParser> customProperties = new ArrayList<>();
 
-		for (final Element e : getElements(doc.getElementsByTagName(FEATURE_MODEL))) {
-			parseStruct(e.getElementsByTagName(STRUCT));
-			parseConstraints(e.getElementsByTagName(CONSTRAINTS));
-			parseCalculations(e.getElementsByTagName(CALCULATIONS));
-			parseComments(e.getElementsByTagName(COMMENTS));
-			parseFeatureOrder(e.getElementsByTagName(FEATURE_ORDER));
-
-			final XmlPropertyLoader propertyLoader = new XmlPropertyLoader(e.getElementsByTagName(PROPERTIES));
-			customProperties.addAll(propertyLoader.parseProperties());
+		while (reader.hasNext()) {
+			if (reader.next() == XMLStreamConstants.START_ELEMENT && reader.getLocalName().equals(FEATURE_MODEL)) {
+				parseFeatureModel(customProperties);
+			}
 		}
 		if (object.getStructure().getRoot() == null) {
 			throw new UnsupportedModelException(WRONG_SYNTAX, 1);
@@ -113,209 +124,246 @@ public class XmlFeatureModelFormat extends AXMLFormat<IFeatureModel> implements
 		object.handleModelDataLoaded();
 	}
 
+	/**
+	 * Parses the feature model element.
+	 * Constraints and the feature order are added after the feature model element was read completely, such that they can reference all features.
+	 */
+	private void parseFeatureModel(Collection<PropertiesParser> customProperties) throws XMLStreamException, UnsupportedModelException {
+		featureReferences.clear();
+		constraintNodes.clear();
+		featureOrder.clear();
+
+		while (nextChildElement()) {
+			final String nodeName = reader.getLocalName();
+			if (nodeName.equals(STRUCT)) {
+				parseFeatures(null);
+			} else if (nodeName.equals(CONSTRAINTS)) {
+				parseConstraints();
+			} else if (nodeName.equals(CALCULATIONS)) {
+				parseCalculations();
+			} else if (nodeName.equals(COMMENTS)) {
+				parseComments();
+			} else if (nodeName.equals(FEATURE_ORDER)) {
+				parseFeatureOrder();
+			} else if (nodeName.equals(PROPERTIES)) {
+				customProperties.addAll(new XmlPropertyLoader(reader).parseProperties());
+			} else {
+				skipElement();
+			}
+		}
+
+		for (final FeatureReference reference : featureReferences) {
+			if (object.getFeature(reference.name) == null) {
+				throwError("Feature \"" + reference.name + "\" does not exists", reference.line);
+			}
+		}
+		for (final Node constraintNode : constraintNodes) {
+			final IConstraint c = factory.createConstraint(object, constraintNode);
+			object.addConstraint(c);
+		}
+		if (!featureOrder.isEmpty()) {
+			object.setFeatureOrderList(new ArrayList<>(featureOrder));
+		}
+	}
+
 	@Override
-	protected void writeDocument(Document doc) {
-		final Element root = doc.createElement(FEATURE_MODEL);
-		final Element struct = doc.createElement(STRUCT);
-		final Element properties = doc.createElement(PROPERTIES);
-		final Element constraints = doc.createElement(CONSTRAINTS);
-		final Element calculations = doc.createElement(CALCULATIONS);
-		final Element comments = doc.createElement(COMMENTS);
-		final Element order = doc.createElement(FEATURE_ORDER);
-
-		doc.appendChild(root);
-		root.appendChild(properties);
-		createXmlPropertiesPart(doc, properties, object);
-
-		root.appendChild(struct);
-		createXmlDocRec(doc, struct, object.getStructure().getRoot().getFeature());
-
-		root.appendChild(constraints);
-		for (int i = 0; i < object.getConstraints().size(); i++) {
-			Element rule;
-			rule = doc.createElement(RULE);
-
-			constraints.appendChild(rule);
-			createPropositionalConstraints(doc, rule, object.getConstraints().get(i).getNode());
+	protected void writeDocument() throws XMLStreamException {
+		writeStartElement(FEATURE_MODEL);
+
+		writeProperties();
+
+		final IFeatureStructure root = object.getStructure().getRoot();
+		if (root == null) {
+			writeEmptyElement(STRUCT);
+		} else {
+			writeStartElement(STRUCT);
+			writeFeature(root.getFeature());
+			writeEndElement();
 		}
 
-		root.appendChild(calculations);
-		calculations.setAttribute(CALCULATE_AUTO, "" + object.getAnalyser().runCalculationAutomatically);
-		calculations.setAttribute(CALCULATE_FEATURES, "" + object.getAnalyser().calculateFeatures);
-		calculations.setAttribute(CALCULATE_CONSTRAINTS, "" + object.getAnalyser().calculateConstraints);
-		calculations.setAttribute(CALCULATE_REDUNDANT, "" + object.getAnalyser().calculateRedundantConstraints);
-		calculations.setAttribute(CALCULATE_TAUTOLOGY, "" + object.getAnalyser().calculateTautologyConstraints);
-
-		root.appendChild(comments);
-		for (final String comment : object.getProperty().getComments()) {
-			final Element c = doc.createElement(C);
-			comments.appendChild(c);
-			final Text text = doc.createTextNode(comment);
-			c.appendChild(text);
+		final List<IConstraint> constraints = object.getConstraints();
+		if (constraints.isEmpty()) {
+			writeEmptyElement(CONSTRAINTS);
+		} else {
+			writeStartElement(CONSTRAINTS);
+			for (final IConstraint constraint : constraints) {
+				final Node node = constraint.getNode();
+				if (node == null) {
+					writeEmptyElement(RULE);
+				} else {
+					writeStartElement(RULE);
+					writePropositionalConstraint(node);
+					writeEndElement();
+				}
+			}
+			writeEndElement();
 		}
-		order.setAttribute(USER_DEFINED, Boolean.toString(object.isFeatureOrderUserDefined()));
-		root.appendChild(order);
 
-		if (object.isFeatureOrderUserDefined()) {
-			Collection<String> featureOrderList = object.getFeatureOrderList();
+		writeEmptyElement(CALCULATIONS);
+		writer.writeAttribute(CALCULATE_AUTO, "" + object.getAnalyser().runCalculationAutomatically);
+		writer.writeAttribute(CALCULATE_CONSTRAINTS, "" + object.getAnalyser().calculateConstraints);
+		writer.writeAttribute(CALCULATE_FEATURES, "" + object.getAnalyser().calculateFeatures);
+		writer.writeAttribute(CALCULATE_REDUNDANT, "" + object.getAnalyser().calculateRedundantConstraints);
+		writer.writeAttribute(CALCULATE_TAUTOLOGY, "" + object.getAnalyser().calculateTautologyConstraints);
+
+		final Iterable<String> comments = object.getProperty().getComments();
+		if (!comments.iterator().hasNext()) {
+			writeEmptyElement(COMMENTS);
+		} else {
+			writeStartElement(COMMENTS);
+			for (final String comment : comments) {
+				writeTextElement(C, comment);
+			}
+			writeEndElement();
+		}
 
+		Collection<String> featureOrderList = null;
+		if (object.isFeatureOrderUserDefined()) {
+			featureOrderList = object.getFeatureOrderList();
 			if (featureOrderList.isEmpty()) {
 				featureOrderList = FeatureUtils.extractConcreteFeaturesAsStringList(object);
 			}
-
+		}
+		if (featureOrderList == null || featureOrderList.isEmpty()) {
+			writeEmptyElement(FEATURE_ORDER);
+			writer.writeAttribute(USER_DEFINED, Boolean.toString(object.isFeatureOrderUserDefined()));
+		} else {
+			writeStartElement(FEATURE_ORDER);
+			writer.writeAttribute(USER_DEFINED, Boolean.toString(object.isFeatureOrderUserDefined()));
 			for (final String featureName : featureOrderList) {
-				final Element feature = doc.createElement(FEATURE);
-				feature.setAttribute(NAME, featureName);
-				order.appendChild(feature);
+				writeEmptyElement(FEATURE);
+				writer.writeAttribute(NAME, featureName);
 			}
+			writeEndElement();
 		}
+
+		writeEndElement();
 	}
 
-	private Node createFeaturePropertyContainerNode(Document doc, String featureName, Set<Entry<String, Type, Object>> propertyEntries) {
-		final Element result = doc.createElement(FEATURE);
-		result.setAttribute(NAME, featureName);
-		for (final Entry<String, Type, Object> entry : propertyEntries) {
-			result.appendChild(createPropertyEntriesNode(doc, entry));
+	private void writeProperties() throws XMLStreamException {
+		// Store per-feature properties
+		boolean empty = true;
+		for (final IFeature feature : object.getFeatures()) {
+			final Set<Entry<String, Type, Object>> propertyEntries = feature.getCustomProperties().entrySet();
+			if (!propertyEntries.isEmpty()) {
+				if (empty) {
+					writeStartElement(PROPERTIES);
+					empty = false;
+				}
+				writeStartElement(FEATURE);
+				writer.writeAttribute(NAME, feature.getName());
+				for (final Entry<String, Type, Object> entry : propertyEntries) {
+					writeEmptyElement(XmlPropertyLoader.PROPERTY);
+					writer.writeAttribute(XmlPropertyLoader.TYPE, entry.getType().toString());
+					writer.writeAttribute(XmlPropertyLoader.KEY, entry.getKey());
+					writer.writeAttribute(XmlPropertyLoader.VALUE, entry.getValue().toString());
+				}
+				writeEndElement();
+			}
+		}
+		if (empty) {
+			writeEmptyElement(PROPERTIES);
+		} else {
+			writeEndElement();
 		}
-		return result;
-	}
 
-	private Node createPropertyEntriesNode(Document doc, Entry<String, Type, Object> entry) {
-		final Element propertyElement = doc.createElement(XmlPropertyLoader.PROPERTY);
-		propertyElement.setAttribute(XmlPropertyLoader.KEY, entry.getKey());
-		propertyElement.setAttribute(XmlPropertyLoader.VALUE, entry.getValue().toString());
-		propertyElement.setAttribute(XmlPropertyLoader.TYPE, entry.getType().toString());
-		return propertyElement;
+		// TODO: Add here other property container, e.g., feature model
+		// ...
 	}
 
 	/**
-	 * Inserts the tags concerning propositional constraints into the DOM
-	 * document representation
+	 * Writes the tags concerning propositional constraints.
 	 * 
-	 * @param doc
-	 * @param FeatMod Parent node for the propositional nodes
+	 * @param node the propositional node
 	 */
-	private void createPropositionalConstraints(Document doc, Element xmlNode, org.prop4j.Node node) {
-		if (node == null) {
-			return;
-		}
-
-		Element op;
+	private void writePropositionalConstraint(Node node) throws XMLStreamException {
 		if (node instanceof Literal) {
-			Literal literal = (Literal) node;
+			final Literal literal = (Literal) node;
 			if (literal.positive) {
-				op = doc.createElement(VAR);
-				xmlNode.appendChild(op);
-				op.appendChild(doc.createTextNode(node.toString()));
+				writeTextElement(VAR, String.valueOf(literal.var));
 			} else {
-				op = doc.createElement(NOT);
-				xmlNode.appendChild(op);
-				literal = literal.clone();
-				literal.positive = true;
-				createPropositionalConstraints(doc, op, literal);
+				writeStartElement(NOT);
+				writeTextElement(VAR, String.valueOf(literal.var));
+				writeEndElement();
 			}
 			return;
 		}
 
+		final String op;
 		if (node instanceof And) {
-			op = doc.createElement(CONJ);
-			xmlNode.appendChild(op);
+			op = CONJ;
 		} else if (node instanceof Or) {
-			op = doc.createElement(DISJ);
-			xmlNode.appendChild(op);
+			op = DISJ;
 		} else if (node instanceof Not) {
-			op = doc.createElement(NOT);
-			xmlNode.appendChild(op);
+			op = NOT;
 		} else if (node instanceof Equals) {
-			op = doc.createElement(EQ);
-			xmlNode.appendChild(op);
+			op = EQ;
 		} else if (node instanceof Implies) {
-			op = doc.createElement(IMP);
-			xmlNode.appendChild(op);
+			op = IMP;
 		} else if (node instanceof AtMost) {
-			op = doc.createElement(ATMOST1);
-			xmlNode.appendChild(op);
+			op = ATMOST1;
 		} else {
-			op = doc.createElement(UNKNOWN);
-			xmlNode.appendChild(op);
+			op = UNKNOWN;
 		}
 
-		final org.prop4j.Node[] children = node.getChildren();
-
-		for (int i = 0; i < children.length; i++) {
-			createPropositionalConstraints(doc, op, children[i]);
+		final Node[] children = node.getChildren();
+		if (children.length == 0) {
+			writeEmptyElement(op);
+		} else {
+			writeStartElement(op);
+			for (int i = 0; i < children.length; i++) {
+				writePropositionalConstraint(children[i]);
+			}
+			writeEndElement();
 		}
 	}
 
 	/**
-	 * Creates document based on feature model step by step
+	 * Writes a feature and its sub tree.
 	 * 
-	 * @param doc document to write
-	 * @param node parent node
 	 * @param feat current feature
 	 */
-	private void createXmlDocRec(Document doc, Element node, IFeature feat) {
-
-		if (feat == null) {
-			return;
-		}
-
-		Element fnod;
-		List<IFeature> children;
-
-		children = FeatureUtils.convertToFeatureList(feat.getStructure().getChildren());
+	private void writeFeature(IFeature feat) throws XMLStreamException {
+		final List<IFeatureStructure> children = feat.getStructure().getChildren();
+		final String description = feat.getProperty().getDescription();
 		if (children.isEmpty()) {
-			fnod = doc.createElement(FEATURE);
-			final String description = feat.getProperty().getDescription();
-			if (description != null) {
-				final Element descr = doc.createElement(DESCRIPTION);
-				descr.setTextContent("\n" + description.replace("\r", "") + "\n");
-				fnod.appendChild(descr);
+			if (description == null) {
+				writeEmptyElement(FEATURE);
+				writeAttributes(feat);
+				return;
 			}
-			writeAttributes(node, fnod, feat);
+			writeStartElement(FEATURE);
+		} else if (feat.getStructure().isAnd()) {
+			writeStartElement(AND);
+		} else if (feat.getStructure().isOr()) {
+			writeStartElement(OR);
+		} else if (feat.getStructure().isAlternative()) {
+			writeStartElement(ALT);
 		} else {
-			if (feat.getStructure().isAnd()) {
-				fnod = doc.createElement(AND);
-			} else if (feat.getStructure().isOr()) {
-				fnod = doc.createElement(OR);
-			} else if (feat.getStructure().isAlternative()) {
-				fnod = doc.createElement(ALT);
-			} else {
-				fnod = doc.createElement(UNKNOWN);//Logger.logInfo("creatXMlDockRec: Unexpected error!");
-			}
-			final String description = feat.getProperty().getDescription();
-			if (description != null) {
-				final Element descr = doc.createElement(DESCRIPTION);
-				descr.setTextContent("\n" + description.replace("\r", "") + "\n");
-				fnod.appendChild(descr);
-			}
-
-			writeAttributes(node, fnod, feat);
+			writeStartElement(UNKNOWN);
+		}
+		writeAttributes(feat);
 
-			final Iterator<IFeature> i = children.iterator();
-			while (i.hasNext()) {
-				createXmlDocRec(doc, fnod, i.next());
-			}
+		if (description != null) {
+			writeTextBlockElement(DESCRIPTION, description.replace("\r", ""));
+		}
+		for (final IFeatureStructure child : children) {
+			writeFeature(child.getFeature());
 		}
+		writeEndElement();
 	}
 
-	private void createXmlPropertiesPart(Document doc, Element propertiesNode, IFeatureModel featureModel) {
-
-		if ((featureModel == null) || (propertiesNode == null)) {
-			throw new RuntimeException();
+	private void writeAttributes(IFeature feat) throws XMLStreamException {
+		if (feat.getStructure().isAbstract()) {
+			writer.writeAttribute(ABSTRACT, TRUE);
 		}
-
-		// Store per-feature properties
-		for (final IFeature feature : featureModel.getFeatures()) {
-			final String featureName = feature.getName();
-			final Set<Entry<String, Type, Object>> propertyEntries = feature.getCustomProperties().entrySet();
-			if (!propertyEntries.isEmpty()) {
-				propertiesNode.appendChild(createFeaturePropertyContainerNode(doc, featureName, propertyEntries));
-			}
+		if (feat.getStructure().isHidden()) {
+			writer.writeAttribute(HIDDEN, TRUE);
 		}
-
-		// TODO: Add here other property container, e.g., feature model
-		// ...
+		if (feat.getStructure().isMandatory()) {
+			writer.writeAttribute(MANDATORY, TRUE);
+		}
+		writer.writeAttribute(NAME, feat.getName());
 	}
 
 	private void importCustomProperties(Collection<PropertiesParser> customProperties, IFeatureModel object) {
@@ -336,50 +384,37 @@ public class XmlFeatureModelFormat extends AXMLFormat<IFeatureModel> implements
 	/**
 	 * Parses the calculations.
 	 */
-	private void parseCalculations(NodeList nodeList) throws UnsupportedModelException {
-		for (final Element e : getElements(nodeList)) {
-			if (e.hasAttributes()) {
-				final NamedNodeMap nodeMap = e.getAttributes();
-				for (int i = 0; i < nodeMap.getLength(); i++) {
-					final org.w3c.dom.Node node = nodeMap.item(i);
-					final String nodeName = node.getNodeName();
-					final boolean value = node.getNodeValue().equals(TRUE);
-					if (nodeName.equals(CALCULATE_AUTO)) {
-						object.getAnalyser().runCalculationAutomatically = value;
-					} else if (nodeName.equals(CALCULATE_CONSTRAINTS)) {
-						object.getAnalyser().calculateConstraints = value;
-					} else if (nodeName.equals(CALCULATE_REDUNDANT)) {
-						object.getAnalyser().calculateRedundantConstraints = value;
-					} else if (nodeName.equals(CALCULATE_FEATURES)) {
-						object.getAnalyser().calculateFeatures = value;
-					} else if (nodeName.equals(CALCULATE_TAUTOLOGY)) {
-						object.getAnalyser().calculateTautologyConstraints = value;
-					} else {
-						throwError("Unknown calculations attribute: " + nodeName, e);
-					}
-
-				}
+	private void parseCalculations() throws XMLStreamException, UnsupportedModelException {
+		for (int i = 0; i < reader.getAttributeCount(); i++) {
+			final String nodeName = reader.getAttributeLocalName(i);
+			final boolean value = reader.getAttributeValue(i).equals(TRUE);
+			if (nodeName.equals(CALCULATE_AUTO)) {
+				object.getAnalyser().runCalculationAutomatically = value;
+			} else if (nodeName.equals(CALCULATE_CONSTRAINTS)) {
+				object.getAnalyser().calculateConstraints = value;
+			} else if (nodeName.equals(CALCULATE_REDUNDANT)) {
+				object.getAnalyser().calculateRedundantConstraints = value;
+			} else if (nodeName.equals(CALCULATE_FEATURES)) {
+				object.getAnalyser().calculateFeatures = value;
+			} else if (nodeName.equals(CALCULATE_TAUTOLOGY)) {
+				object.getAnalyser().calculateTautologyConstraints = value;
+			} else {
+				throwError("Unknown calculations attribute: " + nodeName, getLineNumber());
 			}
 		}
+		skipElement();
 	}
 
 	/**
 	 * Parses the comment section.
 	 */
-	private void parseComments(NodeList nodeList) throws UnsupportedModelException {
-		for (final Element e : getElements(nodeList)) {
-			if (e.hasChildNodes()) {
-				parseComments2(e.getChildNodes());
-			}
-		}
-	}
-
-	private void parseComments2(NodeList nodeList) throws UnsupportedModelException {
-		for (final Element e : getElements(nodeList)) {
-			if (e.getNodeName().equals(C)) {
-				object.getProperty().addComment(e.getTextContent());
+	private void parseComments() throws XMLStreamException, UnsupportedModelException {
+		while (nextChildElement()) {
+			final String nodeName = reader.getLocalName();
+			if (nodeName.equals(C)) {
+				object.getProperty().addComment(reader.getElementText());
 			} else {
-				throwError("Unknown comment attribute: " + e.getNodeName(), e);
+				throwError("Unknown comment attribute: " + nodeName, getLineNumber());
 			}
 		}
 	}
@@ -387,60 +422,56 @@ public class XmlFeatureModelFormat extends AXMLFormat<IFeatureModel> implements
 	/**
 	 * Parses the constraint section.
 	 */
-	private void parseConstraints(NodeList nodeList) throws UnsupportedModelException {
-		for (final Element e : getElements(nodeList)) {
-			for (final Element child : getElements(e.getChildNodes())) {
-				final String nodeName = child.getNodeName();
-				if (nodeName.equals(RULE)) {
-					final IConstraint c = factory.createConstraint(object, parseConstraints2(child.getChildNodes()).getFirst());
-					if (child.hasAttributes()) {
-						final NamedNodeMap nodeMap = child.getAttributes();
-						for (int i = 0; i < nodeMap.getLength(); i++) {
-							final org.w3c.dom.Node node = nodeMap.item(i);
-							final String attributeName = node.getNodeName();
-							if (attributeName.equals(COORDINATES)) {
-								// Legacy case, for backwards compatibility
-							} else {
-								throwError("Unknown constraint attribute: " + attributeName, node);
-							}
-						}
+	private void parseConstraints() throws XMLStreamException, UnsupportedModelException {
+		while (nextChildElement()) {
+			final String nodeName = reader.getLocalName();
+			final int line = getLineNumber();
+			if (nodeName.equals(RULE)) {
+				for (int i = 0; i < reader.getAttributeCount(); i++) {
+					final String attributeName = reader.getAttributeLocalName(i);
+					if (attributeName.equals(COORDINATES)) {
+						// Legacy case, for backwards compatibility
+					} else {
+						throwError("Unknown constraint attribute: " + attributeName, line);
 					}
-					object.addConstraint(c);
-				} else {
-					throwError("Unknown constraint node: " + nodeName, child);
 				}
+				final LinkedList<Node> nodes = parseConstraintNodes();
+				if (nodes.isEmpty()) {
+					throwError("Empty constraint", line);
+				}
+				constraintNodes.add(nodes.getFirst());
+			} else {
+				throwError("Unknown constraint node: " + nodeName, line);
 			}
 		}
 	}
 
-	private LinkedList<org.prop4j.Node> parseConstraints2(NodeList nodeList) throws UnsupportedModelException {
-		final LinkedList<org.prop4j.Node> nodes = new LinkedList<>();
-		LinkedList<org.prop4j.Node> children;
-		for (final Element e : getElements(nodeList)) {
-			final String nodeName = e.getNodeName();
+	private LinkedList<Node> parseConstraintNodes() throws XMLStreamException, UnsupportedModelException {
+		final LinkedList<Node> nodes = new LinkedList<>();
+		LinkedList<Node> children;
+		while (nextChildElement()) {
+			final String nodeName = reader.getLocalName();
+			final int line = getLineNumber();
 			if (nodeName.equals(DISJ)) {
-				nodes.add(new Or(parseConstraints2(e.getChildNodes())));
+				nodes.add(new Or(parseConstraintNodes()));
 			} else if (nodeName.equals(CONJ)) {
-				nodes.add(new And(parseConstraints2(e.getChildNodes())));
+				nodes.add(new And(parseConstraintNodes()));
 			} else if (nodeName.equals(EQ)) {
-				children = parseConstraints2(e.getChildNodes());
+				children = parseConstraintNodes();
 				nodes.add(new Equals(children.get(0), children.get(1)));
 			} else if (nodeName.equals(IMP)) {
-				children = parseConstraints2(e.getChildNodes());
+				children = parseConstraintNodes();
 				nodes.add(new Implies(children.get(0), children.get(1)));
 			} else if (nodeName.equals(NOT)) {
-				nodes.add(new Not((parseConstraints2(e.getChildNodes())).getFirst()));
+				nodes.add(new Not(parseConstraintNodes().getFirst()));
 			} else if (nodeName.equals(ATMOST1)) {
-				nodes.add(new AtMost(1, parseConstraints2(e.getChildNodes())));
+				nodes.add(new AtMost(1, parseConstraintNodes()));
 			} else if (nodeName.equals(VAR)) {
-				final String featureName = e.getTextContent();
-				if (object.getFeature(featureName) != null) {
-					nodes.add(new Literal(featureName));
-				} else {
-					throwError("Feature \"" + featureName + "\" does not exists", e);
-				}
+				final String featureName = reader.getElementText();
+				featureReferences.add(new FeatureReference(featureName, line));
+				nodes.add(new Literal(featureName));
 			} else {
-				throwError("Unknown constraint type: " + nodeName, e);
+				throwError("Unknown constraint type: " + nodeName, line);
 			}
 		}
 		return nodes;
@@ -449,86 +480,76 @@ public class XmlFeatureModelFormat extends AXMLFormat<IFeatureModel> implements
 	/**
 	 * Parses the feature order section.
 	 */
-	private void parseFeatureOrder(NodeList nodeList) throws UnsupportedModelException {
-		final ArrayList<String> order = new ArrayList<>(object.getNumberOfFeatures());
-		for (final Element e : getElements(nodeList)) {
-			if (e.hasAttributes()) {
-				final NamedNodeMap nodeMap = e.getAttributes();
-				for (int i = 0; i < nodeMap.getLength(); i++) {
-					final org.w3c.dom.Node node = nodeMap.item(i);
-					final String attributeName = node.getNodeName();
-					final String attributeValue = node.getNodeValue();
-					if (attributeName.equals(USER_DEFINED)) {
-						object.setFeatureOrderUserDefined(attributeValue.equals(TRUE));
-					} else if (attributeName.equals(NAME)) {
-						if (object.getFeature(attributeValue) != null) {
-							order.add(attributeValue);
-						} else {
-							throwError("Feature \"" + attributeValue + "\" does not exists", e);
-						}
-					} else {
-						throwError("Unknown feature order attribute: " + attributeName, e);
-					}
+	private void parseFeatureOrder() throws XMLStreamException, UnsupportedModelException {
+		parseFeatureOrderAttributes();
+		while (nextChildElement()) {
+			parseFeatureOrderAttributes();
+			skipElement();
+		}
+	}
 
-				}
-			}
-			if (e.hasChildNodes()) {
-				parseFeatureOrder(e.getChildNodes());
+	private void parseFeatureOrderAttributes() throws UnsupportedModelException {
+		final int line = getLineNumber();
+		for (int i = 0; i < reader.getAttributeCount(); i++) {
+			final String attributeName = reader.getAttributeLocalName(i);
+			final String attributeValue = reader.getAttributeValue(i);
+			if (attributeName.equals(USER_DEFINED)) {
+				object.setFeatureOrderUserDefined(attributeValue.equals(TRUE));
+			} else if (attributeName.equals(NAME)) {
+				featureReferences.add(new FeatureReference(attributeValue, line));
+				featureOrder.add(attributeValue);
+			} else {
+				throwError("Unknown feature order attribute: " + attributeName, line);
 			}
 		}
-		if (!order.isEmpty()) {
-			object.setFeatureOrderList(order);
-		}
 	}
 
-	private void parseFeatures(NodeList nodeList, IFeature parent) throws UnsupportedModelException {
-		for (final Element e : getElements(nodeList)) {
-			final String nodeName = e.getNodeName();
+	/**
+	 * Parses the children of the current element as features.
+	 * 
+	 * @param parent the parent feature or {@code null} for the root feature
+	 */
+	private void parseFeatures(IFeature parent) throws XMLStreamException, UnsupportedModelException {
+		while (nextChildElement()) {
+			final String nodeName = reader.getLocalName();
+			final int line = getLineNumber();
 			if (nodeName.equals(DESCRIPTION)) {
 				/* case: description */
-				String nodeValue = e.getFirstChild().getNodeValue();
-				if (nodeValue != null) {
-					nodeValue = nodeValue.replace("\t", "");
+				String nodeValue = reader.getElementText().replace("\t", "");
+				if (nodeValue.length() >= 2) {
 					nodeValue = nodeValue.substring(1, nodeValue.length() - 1);
-					nodeValue = nodeValue.trim();
 				}
-				parent.getProperty().setDescription(nodeValue);
+				parent.getProperty().setDescription(nodeValue.trim());
 				continue;
 			}
 			boolean mandatory = false;
 			boolean _abstract = false;
 			boolean hidden = false;
 			String name = "";
-			//			FMPoint featureLocation = null;
-			if (e.hasAttributes()) {
-				final NamedNodeMap nodeMap = e.getAttributes();
-				for (int i = 0; i < nodeMap.getLength(); i++) {
-					final org.w3c.dom.Node node = nodeMap.item(i);
-					final String attributeName = node.getNodeName();
-					final String attributeValue = node.getNodeValue();
-					if (attributeName.equals(ABSTRACT)) {
-						_abstract = attributeValue.equals(TRUE);
-					} else if (attributeName.equals(MANDATORY)) {
-						mandatory = attributeValue.equals(TRUE);
-					} else if (attributeName.equals(NAME)) {
-						name = attributeValue;
-					} else if (attributeName.equals(HIDDEN)) {
-						hidden = attributeValue.equals(TRUE);
-					} else if (attributeName.equals(COORDINATES)) {
-						// Legacy case, for backwards compatibility
-					} else {
-						throwError("Unknown feature attribute: " + attributeName, e);
-					}
-
+			for (int i = 0; i < reader.getAttributeCount(); i++) {
+				final String attributeName = reader.getAttributeLocalName(i);
+				final String attributeValue = reader.getAttributeValue(i);
+				if (attributeName.equals(ABSTRACT)) {
+					_abstract = attributeValue.equals(TRUE);
+				} else if (attributeName.equals(MANDATORY)) {
+					mandatory = attributeValue.equals(TRUE);
+				} else if (attributeName.equals(NAME)) {
+					name = attributeValue;
+				} else if (attributeName.equals(HIDDEN)) {
+					hidden = attributeValue.equals(TRUE);
+				} else if (attributeName.equals(COORDINATES)) {
+					// Legacy case, for backwards compatibility
+				} else {
+					throwError("Unknown feature attribute: " + attributeName, line);
 				}
 			}
 
 			if (object.getFeature(name) != null) {
-				throwError("Duplicate entry for feature: " + name, e);
+				throwError("Duplicate entry for feature: " + name, line);
 			}
 			// TODO Consider feature name validity in all readers
 			//			if (!object.getFMComposerExtension().isValidFeatureName(name)) {
-			//				throwError(name + IS_NO_VALID_FEATURE_NAME, e);
+			//				throwError(name + IS_NO_VALID_FEATURE_NAME, line);
 			//			}
 			final IFeature f = factory.createFeature(object, name);
 			f.getStructure().setMandatory(true);
@@ -541,7 +562,7 @@ public class XmlFeatureModelFormat extends AXMLFormat<IFeatureModel> implements
 			} else if (nodeName.equals(FEATURE)) {
 
 			} else {
-				throwError("Unknown feature type: " + nodeName, e);
+				throwError("Unknown feature type: " + nodeName, line);
 			}
 			f.getStructure().setAbstract(_abstract);
 			f.getStructure().setMandatory(mandatory);
@@ -553,52 +574,10 @@ public class XmlFeatureModelFormat extends AXMLFormat<IFeatureModel> implements
 			} else {
 				parent.getStructure().addChild(f.getStructure());
 			}
-			if (e.hasChildNodes()) {
-				parseFeatures(e.getChildNodes(), f);
-			}
-		}
-	}
-
-	/**
-	 * Parse the struct section to add features to the model.
-	 */
-	private void parseStruct(NodeList struct) throws UnsupportedModelException {
-		for (final Element e : getElements(struct)) {
-			parseFeatures(e.getChildNodes(), null);
+			parseFeatures(f);
 		}
 	}
 
-	/**
-	 * Throws an error that will be used for error markers
-	 * 
-	 * @param message The error message
-	 * @param tempNode The node that causes the error. this node is used for positioning.
-	 */
-	private void throwError(String message, org.w3c.dom.Node node) throws UnsupportedModelException {
-		throw new UnsupportedModelException(message, Integer.parseInt(node.getUserData(PositionalXMLReader.LINE_NUMBER_KEY_NAME).toString()));
-	}
-
-	// TODO implement
-	@SuppressWarnings("unused")
-	private void throwWarning(String message, org.w3c.dom.Node node) throws UnsupportedModelException {
-		throw new UnsupportedModelException(message, Integer.parseInt(node.getUserData(PositionalXMLReader.LINE_NUMBER_KEY_NAME).toString()));
-	}
-
-	private void writeAttributes(Element node, Element fnod, IFeature feat) {
-		fnod.setAttribute(NAME, feat.getName());
-		if (feat.getStructure().isHidden()) {
-			fnod.setAttribute(HIDDEN, TRUE);
-		}
-		if (feat.getStructure().isMandatory()) {
-			fnod.setAttribute(MANDATORY, TRUE);
-		}
-		if (feat.getStructure().isAbstract()) {
-			fnod.setAttribute(ABSTRACT, TRUE);
-		}
-
-		node.appendChild(fnod);
-	}
-
 	@Override
 	public XmlFeatureModelFormat getInstance() {
 		return new XmlFeatureModelFormat();
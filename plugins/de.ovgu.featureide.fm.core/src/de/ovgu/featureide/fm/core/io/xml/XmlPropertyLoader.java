@@ -28,6 +28,11 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
+import javax.xml.stream.Location;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
 import org.w3c.dom.Element;
 import org.w3c.dom.NodeList;
 
@@ -64,6 +69,10 @@ public class XmlPropertyLoader {
 		public FeaturePropertiesParser(Element e) {
 			parsePropertiesOfFeature(e);
 		}
+
+		public FeaturePropertiesParser(String featureName, Set<IPropertyContainer.Entry<String, IPropertyContainer.Type, Object>> propertyEntries) {
+			featureProperties.put(featureName, propertyEntries);
+		}
 		
 		private void parsePropertiesOfFeature(Element featureNode) {
 			if (!featureNode.hasAttribute(NAME)) 
@@ -95,11 +104,29 @@ public class XmlPropertyLoader {
 	
 	private NodeList propertiesNode;
 
+	private XMLStreamReader propertiesReader;
+
 	public XmlPropertyLoader(NodeList propertiesNode) throws UnsupportedModelException {
 		this.propertiesNode = propertiesNode;
 	}
+
+	/**
+	 * @param propertiesReader a reader that is positioned on the start tag of a properties element
+	 */
+	public XmlPropertyLoader(XMLStreamReader propertiesReader) {
+		this.propertiesReader = propertiesReader;
+	}
 	
 	public Collection<PropertiesParser> parseProperties() throws UnsupportedModelException {
+		if (propertiesReader != null) {
+			try {
+				return parsePropertiesOfDomain(propertiesReader);
+			} catch (XMLStreamException e) {
+				final Location location = e.getLocation();
+				throw new UnsupportedModelException(e.getMessage(), location != null ? location.getLineNumber() : 0);
+			}
+		}
+
 		Collection<PropertiesParser> result = new ArrayList<>();
 		
 		for (final Element domainNode : getElements(propertiesNode)) {
@@ -108,6 +135,66 @@ public class XmlPropertyLoader {
 		
 		return result;
 	}
+
+	/**
+	 * Reads all children of the current properties element. Afterwards, the reader is positioned on the end tag of the properties element.
+	 */
+	private Collection<PropertiesParser> parsePropertiesOfDomain(XMLStreamReader reader) throws XMLStreamException {
+		List<PropertiesParser> parsers = new ArrayList<>();
+
+		while (nextChildElement(reader)) {
+			final String tagName = reader.getLocalName();
+			if (tagName.equals(FEATURE)) {
+				final String featureName = reader.getAttributeValue(null, NAME);
+				if (featureName == null) {
+					throw new UnsupportedOperationException("Property container of type feature is missing required name attribute");
+				}
+				final Set<Entry<String, Type, Object>> propertyEntries = new HashSet<>();
+				while (nextChildElement(reader)) {
+					if (reader.getLocalName().equals(PROPERTY)) {
+						addPropertyEntry(propertyEntries, featureName, reader.getAttributeValue(null, KEY), reader.getAttributeValue(null, TYPE),
+								reader.getAttributeValue(null, VALUE));
+					}
+					skipElement(reader);
+				}
+				parsers.add(new FeaturePropertiesParser(featureName, propertyEntries));
+			} else {
+				throw new UnsupportedOperationException("Unkown domain which contains properties. Don't know where to attach them:" + tagName);
+			}
+		}
+
+		return parsers;
+	}
+
+	private static boolean nextChildElement(XMLStreamReader reader) throws XMLStreamException {
+		while (reader.hasNext()) {
+			switch (reader.next()) {
+			case XMLStreamConstants.START_ELEMENT:
+				return true;
+			case XMLStreamConstants.END_ELEMENT:
+				return false;
+			default:
+				break;
+			}
+		}
+		return false;
+	}
+
+	private static void skipElement(XMLStreamReader reader) throws XMLStreamException {
+		int level = 1;
+		while (level > 0 && reader.hasNext()) {
+			switch (reader.next()) {
+			case XMLStreamConstants.START_ELEMENT:
+				level++;
+				break;
+			case XMLStreamConstants.END_ELEMENT:
+				level--;
+				break;
+			default:
+				break;
+			}
+		}
+	}
 	
 	private ArrayList<Element> getElements(NodeList nodeList) {
 		ArrayList<Element> elements = new ArrayList<Element>(nodeList.getLength());
@@ -141,24 +228,28 @@ public class XmlPropertyLoader {
 		final Set<Entry<String, Type, Object>> result = new HashSet<>();
 		final NodeList properties = propertyContainerNode.getElementsByTagName(PROPERTY);
 		for(final Element property : getElements(properties)) {
-			if (!(property.hasAttribute(KEY) && property.hasAttribute(VALUE) && property.hasAttribute(TYPE))) 
-				throw new UnsupportedOperationException("One property of container " + propertyContainerNode.getAttribute(NAME) + " is missing one of the required attributes: " + KEY + ", " + VALUE + "," + TYPE);
-			else {
-				final String key = property.getAttribute(KEY);
-				final Type type = Type.valueOf(property.getAttribute(TYPE));
-				final Object value = castValue(type, property.getAttribute(VALUE));
-				final Entry<String, Type, Object> entry = new Entry<String, IPropertyContainer.Type, Object>(key, type, value);
-				if (result.contains(entry)) {
-					for (Entry<String, Type, Object> e : result) {
-						if (e.equals(entry) && (!(e.getValue().equals(entry.getValue()) && (e.getType().equals(entry.getType())))))
-							throw new IllegalStateException("Ambigous property definition for key: " + key);
-					}					
-				} else result.add(entry);
-			}
+			addPropertyEntry(result, propertyContainerNode.getAttribute(NAME), property.hasAttribute(KEY) ? property.getAttribute(KEY) : null,
+					property.hasAttribute(TYPE) ? property.getAttribute(TYPE) : null, property.hasAttribute(VALUE) ? property.getAttribute(VALUE) : null);
 		}
 		return result;
 	}
 
+	private void addPropertyEntry(Set<Entry<String, Type, Object>> result, String containerName, String key, String typeName, String valueString) {
+		if (key == null || valueString == null || typeName == null) 
+			throw new UnsupportedOperationException("One property of container " + containerName + " is missing one of the required attributes: " + KEY + ", " + VALUE + "," + TYPE);
+		else {
+			final Type type = Type.valueOf(typeName);
+			final Object value = castValue(type, valueString);
+			final Entry<String, Type, Object> entry = new Entry<String, IPropertyContainer.Type, Object>(key, type, value);
+			if (result.contains(entry)) {
+				for (Entry<String, Type, Object> e : result) {
+					if (e.equals(entry) && (!(e.getValue().equals(entry.getValue()) && (e.getType().equals(entry.getType())))))
+						throw new IllegalStateException("Ambigous property definition for key: " + key);
+				}					
+			} else result.add(entry);
+		}
+	}
+
 	private Object castValue(Type type, String value) {
 		if (value == null || value.trim().isEmpty())
 			throw new RuntimeException("Property value is not allowed to be empty");
@@ -0,0 +1,157 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2016  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ * 
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.job;
+
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Executes {@link LongRunningTask tasks} with a bounded number of threads.</br>
+ * Waiting tasks are ordered by their {@link LongRunningTask.Priority priority} and, within the same priority, by the time they were scheduled.
+ * Idle threads are terminated after a short time, so an unused scheduler does not hold any threads.</br>
+ * The scheduler also records the number of tasks and their waiting and execution times.
+ */
+public class JobScheduler {
+
+	private static final long KEEP_ALIVE_TIME = 2;
+
+	private final AtomicInteger threadCounter = new AtomicInteger();
+
+	private final AtomicLong scheduledTasks = new AtomicLong();
+	private final AtomicLong finishedTasks = new AtomicLong();
+	private final AtomicLong failedTasks = new AtomicLong();
+	private final AtomicLong canceledTasks = new AtomicLong();
+	private final AtomicLong totalWaitingTime = new AtomicLong();
+	private final AtomicLong totalExecutionTime = new AtomicLong();
+
+	private final ThreadPoolExecutor executor;
+
+	/**
+	 * Creates a scheduler that uses one thread per available processor.
+	 */
+	public JobScheduler() {
+		this(Runtime.getRuntime().availableProcessors());
+	}
+
+	/**
+	 * @param numberOfThreads the maximum number of tasks that are executed in parallel
+	 */
+	public JobScheduler(int numberOfThreads) {
+		final int poolSize = Math.max(1, numberOfThreads);
+		executor = new ThreadPoolExecutor(poolSize, poolSize, KEEP_ALIVE_TIME, TimeUnit.SECONDS, new PriorityBlockingQueue<Runnable>(),
+				new ThreadFactory() {
+					@Override
+					public Thread newThread(Runnable r) {
+						return new Thread(r, "FeatureIDE Worker " + threadCounter.incrementAndGet());
+					}
+				});
+		executor.allowCoreThreadTimeOut(true);
+	}
+
+	void schedule(LongRunningTask<?> task) {
+		scheduledTasks.incrementAndGet();
+		executor.execute(task);
+	}
+
+	/**
+	 * Removes a task that was not started yet from the queue.
+	 */
+	void remove(LongRunningTask<?> task) {
+		executor.remove(task);
+	}
+
+	void taskFinished(LongRunningTask<?> task) {
+		switch (task.getStatus()) {
+		case OK:
+			finishedTasks.incrementAndGet();
+			break;
+		default:
+			if (task.isCanceled()) {
+				canceledTasks.incrementAndGet();
+			} else {
+				failedTasks.incrementAndGet();
+			}
+			break;
+		}
+		totalWaitingTime.addAndGet(task.getWaitingTime());
+		totalExecutionTime.addAndGet(task.getExecutionTime());
+	}
+
+	public int getMaximumNumberOfThreads() {
+		return executor.getMaximumPoolSize();
+	}
+
+	/**
+	 * @return the number of tasks that are currently executed by the threads of this scheduler
+	 */
+	public int getNumberOfActiveTasks() {
+		return executor.getActiveCount();
+	}
+
+	/**
+	 * @return the number of tasks that are waiting for execution
+	 */
+	public int getNumberOfWaitingTasks() {
+		return executor.getQueue().size();
+	}
+
+	public long getNumberOfScheduledTasks() {
+		return scheduledTasks.get();
+	}
+
+	public long getNumberOfFinishedTasks() {
+		return finishedTasks.get();
+	}
+
+	public long getNumberOfFailedTasks() {
+		return failedTasks.get();
+	}
+
+	public long getNumberOfCanceledTasks() {
+		return canceledTasks.get();
+	}
+
+	/**
+	 * @return the sum of the waiting times of all finished tasks in nanoseconds
+	 */
+	public long getTotalWaitingTime() {
+		return totalWaitingTime.get();
+	}
+
+	/**
+	 * @return the sum of the execution times of all finished tasks in nanoseconds
+	 */
+	public long getTotalExecutionTime() {
+		return totalExecutionTime.get();
+	}
+
+	/**
+	 * Stops accepting new tasks. Waiting tasks are still executed.
+	 */
+	public void shutdown() {
+		executor.shutdown();
+	}
+
+}
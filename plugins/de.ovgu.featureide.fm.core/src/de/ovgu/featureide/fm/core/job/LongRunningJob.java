@@ -36,6 +36,7 @@ public class LongRunningJob<T> extends AbstractJob<T> implements IRunner<T> {
 
 	private boolean stoppable;
 	private int cancelingTimeout = -1;
+	private LongRunningTask.Priority taskPriority = LongRunningTask.Priority.BACKGROUND;
 
 	public LongRunningJob(String name, LongRunningMethod<T> method) {
 		super(name, Job.LONG);
@@ -43,9 +44,14 @@ public class LongRunningJob<T> extends AbstractJob<T> implements IRunner<T> {
 	}
 
 	protected T work(IMonitor monitor) throws Exception {
-		final Executer<T> executer = stoppable ? new StoppableExecuter<>(method, cancelingTimeout) : new Executer<>(method);
-		methodResult = executer.execute(monitor);
-		return methodResult;
+		final LongRunningTask.Priority oldPriority = LongRunningTask.setInheritedPriority(taskPriority);
+		try {
+			final Executer<T> executer = stoppable ? new StoppableExecuter<>(method, cancelingTimeout) : new Executer<>(method);
+			methodResult = executer.execute(monitor);
+			return methodResult;
+		} finally {
+			LongRunningTask.setInheritedPriority(oldPriority);
+		}
 	}
 
 	public T getResults() {
@@ -76,4 +82,16 @@ public class LongRunningJob<T> extends AbstractJob<T> implements IRunner<T> {
 		this.cancelingTimeout = cancelingTimeout;
 	}
 
+	public LongRunningTask.Priority getTaskPriority() {
+		return taskPriority;
+	}
+
+	/**
+	 * Sets the priority of all {@link LongRunningTask tasks} that are created by this job.
+	 * Jobs that compute results the user is waiting for should use {@link LongRunningTask.Priority#INTERACTIVE}.
+	 */
+	public void setTaskPriority(LongRunningTask.Priority taskPriority) {
+		this.taskPriority = taskPriority;
+	}
+
 }
@@ -0,0 +1,299 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2016  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ * 
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.job;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import de.ovgu.featureide.fm.core.Logger;
+import de.ovgu.featureide.fm.core.functional.Functional.IConsumer;
+import de.ovgu.featureide.fm.core.job.monitor.IMonitor;
+import de.ovgu.featureide.fm.core.job.monitor.IMonitor.MethodCancelException;
+import de.ovgu.featureide.fm.core.job.monitor.NullMonitor;
+import de.ovgu.featureide.fm.core.job.util.JobFinishListener;
+
+/**
+ * Runner that executes a {@link LongRunningMethod} with the threads of a {@link JobScheduler}.</br>
+ * In contrast to a dedicated thread, no new thread is created for each method.
+ * If a running task {@link #join() waits} for another task that was not started yet, the other task is executed directly by the waiting thread.
+ * Thus, tasks that wait for their subtasks cannot block all threads of the scheduler.</br>
+ * Canceling a task cancels its {@link IMonitor monitor}. A task that was not started yet is not executed at all.
+ */
+public class LongRunningTask<T> implements IRunner<T>, Runnable, Comparable<LongRunningTask<?>> {
+
+	/**
+	 * The priority of a task. Interactive tasks are executed before all waiting background tasks.
+	 */
+	public static enum Priority {
+		INTERACTIVE, BACKGROUND
+	}
+
+	private static final AtomicLong sequenceCounter = new AtomicLong();
+
+	private static final ThreadLocal<LongRunningTask<?>> currentTask = new ThreadLocal<>();
+
+	private static final ThreadLocal<Priority> inheritedPriority = new ThreadLocal<>();
+
+	protected final List<JobFinishListener<T>> listenerList = new CopyOnWriteArrayList<>();
+
+	private final String name;
+	private final LongRunningMethod<T> method;
+	private final IMonitor monitor;
+	private final JobScheduler scheduler;
+	private final Priority priority;
+	private final long sequenceNumber = sequenceCounter.incrementAndGet();
+
+	private final AtomicBoolean scheduled = new AtomicBoolean(false);
+	private final AtomicBoolean started = new AtomicBoolean(false);
+	private final CountDownLatch finished = new CountDownLatch(1);
+
+	private int cancelingTimeout = -1;
+	private boolean stoppable;
+	private volatile boolean canceled = false;
+
+	private volatile T methodResult = null;
+	private volatile JobStatus status = JobStatus.NOT_STARTED;
+
+	private long scheduleTime;
+	private long waitingTime = 0;
+	private long executionTime = 0;
+
+	/**
+	 * Creates a new task. If this constructor is called during the execution of another task, the new task gets the priority of this task.
+	 * If it is called by a thread that has an {@link #setInheritedPriority(Priority) inherited priority}, the new task gets this priority.
+	 * Otherwise, it is a {@link Priority#BACKGROUND background} task.
+	 */
+	public LongRunningTask(String name, LongRunningMethod<T> method, IMonitor monitor, JobScheduler scheduler) {
+		this(name, method, monitor, scheduler, null);
+	}
+
+	public LongRunningTask(String name, LongRunningMethod<T> method, IMonitor monitor, JobScheduler scheduler, Priority priority) {
+		this.name = name;
+		this.method = method;
+		this.monitor = monitor != null ? monitor : new NullMonitor();
+		this.scheduler = scheduler;
+		if (priority == null) {
+			final LongRunningTask<?> parentTask = currentTask.get();
+			if (parentTask != null) {
+				this.priority = parentTask.priority;
+			} else {
+				final Priority threadPriority = inheritedPriority.get();
+				this.priority = threadPriority != null ? threadPriority : Priority.BACKGROUND;
+			}
+		} else {
+			this.priority = priority;
+		}
+	}
+
+	/**
+	 * Sets the priority of all tasks that are created by the current thread outside of another task (e.g., by an Eclipse job).
+	 * 
+	 * @param priority the new priority or {@code null} to create background tasks
+	 * @return the previous priority of the current thread
+	 */
+	static Priority setInheritedPriority(Priority priority) {
+		final Priority oldPriority = inheritedPriority.get();
+		inheritedPriority.set(priority);
+		return oldPriority;
+	}
+
+	@Override
+	public int compareTo(LongRunningTask<?> other) {
+		final int result = priority.compareTo(other.priority);
+		return result != 0 ? result : Long.compare(sequenceNumber, other.sequenceNumber);
+	}
+
+	@Override
+	public void schedule() {
+		if (scheduled.compareAndSet(false, true)) {
+			scheduleTime = System.nanoTime();
+			scheduler.schedule(this);
+		}
+	}
+
+	@Override
+	public void run() {
+		if (started.compareAndSet(false, true)) {
+			execute();
+		}
+	}
+
+	@Override
+	public void join() throws InterruptedException {
+		if (scheduled.get() && currentTask.get() != null && started.compareAndSet(false, true)) {
+			scheduler.remove(this);
+			execute();
+		} else if (scheduled.get() || started.get()) {
+			finished.await();
+		}
+	}
+
+	@Override
+	public boolean cancel() {
+		canceled = true;
+		monitor.cancel();
+		if (started.compareAndSet(false, true)) {
+			scheduler.remove(this);
+			status = JobStatus.FAILED;
+			finish();
+			return false;
+		}
+		return finished.getCount() > 0;
+	}
+
+	private void execute() {
+		final long startTime = System.nanoTime();
+		waitingTime = startTime - scheduleTime;
+		status = JobStatus.RUNNING;
+
+		final Thread thread = Thread.currentThread();
+		final String threadName = thread.getName();
+		final LongRunningTask<?> parentTask = currentTask.get();
+		currentTask.set(this);
+		if (name != null && !name.isEmpty()) {
+			thread.setName(name);
+		}
+		try {
+			final Executer<T> executer = stoppable ? new StoppableExecuter<>(method, cancelingTimeout) : new Executer<>(method);
+			methodResult = executer.execute(monitor);
+			status = JobStatus.OK;
+		} catch (MethodCancelException e) {
+			canceled = true;
+			status = JobStatus.FAILED;
+		} catch (Exception e) {
+			Logger.logError(e);
+			status = JobStatus.FAILED;
+		} finally {
+			thread.setName(threadName);
+			currentTask.set(parentTask);
+			executionTime = System.nanoTime() - startTime;
+			monitor.done();
+			finish();
+		}
+	}
+
+	private void finish() {
+		scheduler.taskFinished(this);
+		for (final JobFinishListener<T> listener : listenerList) {
+			try {
+				listener.jobFinished(this);
+			} catch (Throwable e) {
+				Logger.logError(e);
+			}
+		}
+		finished.countDown();
+	}
+
+	@Override
+	public void addJobFinishedListener(JobFinishListener<T> listener) {
+		if (!listenerList.contains(listener)) {
+			listenerList.add(listener);
+		}
+	}
+
+	@Override
+	public void removeJobFinishedListener(JobFinishListener<T> listener) {
+		listenerList.remove(listener);
+	}
+
+	@Override
+	public T getResults() {
+		return methodResult;
+	}
+
+	@Override
+	public JobStatus getStatus() {
+		return status;
+	}
+
+	@Override
+	public LongRunningMethod<T> getMethod() {
+		return method;
+	}
+
+	@Override
+	public Class<?> getImplementationClass() {
+		return method.getClass();
+	}
+
+	@Override
+	public void setIntermediateFunction(IConsumer<Object> intermediateFunction) {
+		monitor.setIntermediateFunction(intermediateFunction);
+	}
+
+	@Override
+	public int getCancelingTimeout() {
+		return cancelingTimeout;
+	}
+
+	@Override
+	public void setCancelingTimeout(int cancelingTimeout) {
+		this.cancelingTimeout = cancelingTimeout;
+	}
+
+	@Override
+	public boolean isStoppable() {
+		return stoppable;
+	}
+
+	@Override
+	public void setStoppable(boolean stoppable) {
+		this.stoppable = stoppable;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public Priority getPriority() {
+		return priority;
+	}
+
+	/**
+	 * @return {@code true} if the task was canceled before or during its execution
+	 */
+	public boolean isCanceled() {
+		return canceled;
+	}
+
+	/**
+	 * @return the time between scheduling and starting the task in nanoseconds
+	 */
+	public long getWaitingTime() {
+		return waitingTime;
+	}
+
+	/**
+	 * @return the execution time of the task in nanoseconds
+	 */
+	public long getExecutionTime() {
+		return executionTime;
+	}
+
+	@Override
+	public String toString() {
+		return "LongRunningTask [name=" + name + ", priority=" + priority + ", status=" + status + "]";
+	}
+
+}
@@ -33,6 +33,11 @@ public final class LongRunningWrapper {
 
 	public static LongRunningCore INSTANCE = new LongRunningCore();
 
+	/**
+	 * Executes all runners that are created by {@link #getThread(LongRunningMethod, String, IMonitor)}.
+	 */
+	public static JobScheduler SCHEDULER = new JobScheduler();
+
 	private LongRunningWrapper() {
 	}
 
@@ -74,7 +79,11 @@ public final class LongRunningWrapper {
 	}
 
 	public static <T> IRunner<T> getThread(LongRunningMethod<T> method, String name, IMonitor monitor) {
-		return new LongRunningThread<>(name, method, monitor);
+		return new LongRunningTask<>(name, method, monitor, SCHEDULER);
+	}
+
+	public static <T> IRunner<T> getThread(LongRunningMethod<T> method, String name, IMonitor monitor, LongRunningTask.Priority priority) {
+		return new LongRunningTask<>(name, method, monitor, SCHEDULER, priority);
 	}
 
 }
@@ -102,6 +102,108 @@ public abstract class Node {
 		return cnf;
 	}
 
+	/**
+	 * Prefix of the names of all auxiliary variables that are introduced by {@link #buildTseitinCNF(Node, Collection)}.
+	 */
+	public static final String AUXILIARY_VARIABLE_PREFIX = "__Aux_";
+
+	public static boolean isAuxiliaryVariable(Object var) {
+		return (var instanceof String) && ((String) var).startsWith(AUXILIARY_VARIABLE_PREFIX);
+	}
+
+	/**
+	 * Transforms the given node into an equisatisfiable CNF using the Plaisted-Greenbaum variant of the Tseitin transformation.</br>
+	 * In contrast to {@link #buildCNF(Node)}, conjunctions below a disjunction are not distributed, but replaced by a new auxiliary variable that implies
+	 * the conjunction. Thus, the size of the result is linear in the size of the negation normal form of the given node.
+	 * Parts of the formula that are already in CNF do not introduce any auxiliary variables.
+	 * The result is always in regular form (i.e., an {@link And} of {@link Or}s containing only {@link Literal}s).
+	 *
+	 * @param node the node to transform (is not modified)
+	 * @param auxiliaryVariables the names of all auxiliary variables created so far; new variables are numbered according to the size of this collection
+	 *            and are added to it
+	 * @return the equisatisfiable CNF
+	 *
+	 * @see #isAuxiliaryVariable(Object)
+	 */
+	public static Node buildTseitinCNF(Node node, Collection<String> auxiliaryVariables) {
+		Node nnf = node.eliminateNonCNFOperators();
+		nnf = deMorgan(nnf);
+		final List<Node> clauses = new ArrayList<>();
+		buildTseitinCNF_rec(nnf, clauses, auxiliaryVariables);
+		return new And(clauses.toArray(new Node[clauses.size()]));
+	}
+
+	private static void buildTseitinCNF_rec(Node node, List<Node> clauses, Collection<String> auxiliaryVariables) {
+		if (node instanceof Literal) {
+			clauses.add(new Or(node));
+		} else if (node instanceof Or) {
+			final List<Node> literals = new ArrayList<>();
+			if (collectTseitinDisjuncts(node, literals, clauses, auxiliaryVariables)) {
+				clauses.add(new Or(literals.toArray(new Node[literals.size()])));
+			}
+		} else {
+			for (Node child : node.getChildren()) {
+				buildTseitinCNF_rec(child, clauses, auxiliaryVariables);
+			}
+		}
+	}
+
+	/**
+	 * Collects the literals of the clause that represents the given disjunction.
+	 *
+	 * @return {@code false} if the disjunction is trivially satisfied (i.e., contains an empty conjunction), {@code true} otherwise
+	 */
+	private static boolean collectTseitinDisjuncts(Node or, List<Node> literals, List<Node> clauses, Collection<String> auxiliaryVariables) {
+		for (Node child : or.getChildren()) {
+			if (child instanceof Literal) {
+				literals.add(child);
+			} else if (child instanceof Or) {
+				if (!collectTseitinDisjuncts(child, literals, clauses, auxiliaryVariables)) {
+					return false;
+				}
+			} else {
+				final Node[] conjuncts = child.getChildren();
+				if (conjuncts.length == 0) {
+					return false;
+				} else if (conjuncts.length == 1) {
+					final Node conjunct = conjuncts[0];
+					if (conjunct instanceof Literal) {
+						literals.add(conjunct);
+					} else if (!collectTseitinDisjuncts(new Or(conjunct), literals, clauses, auxiliaryVariables)) {
+						return false;
+					}
+				} else {
+					final Literal auxiliaryLiteral = new Literal(AUXILIARY_VARIABLE_PREFIX + auxiliaryVariables.size());
+					auxiliaryVariables.add((String) auxiliaryLiteral.var);
+					addTseitinDefinition(auxiliaryLiteral, child, clauses, auxiliaryVariables);
+					literals.add(auxiliaryLiteral);
+				}
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Adds the clauses for the implication <i>auxiliaryLiteral &rArr; and</i>.
+	 * Due to the negation normal form, the reverse implication is not required for equisatisfiability.
+	 */
+	private static void addTseitinDefinition(Literal auxiliaryLiteral, Node and, List<Node> clauses, Collection<String> auxiliaryVariables) {
+		for (Node conjunct : and.getChildren()) {
+			if (conjunct instanceof And) {
+				addTseitinDefinition(auxiliaryLiteral, conjunct, clauses, auxiliaryVariables);
+			} else {
+				final List<Node> literals = new ArrayList<>();
+				literals.add(new Literal(auxiliaryLiteral.var, false));
+				if (conjunct instanceof Literal) {
+					literals.add(conjunct);
+				} else if (!collectTseitinDisjuncts(conjunct, literals, clauses, auxiliaryVariables)) {
+					continue;
+				}
+				clauses.add(new Or(literals.toArray(new Node[literals.size()])));
+			}
+		}
+	}
+
 	protected final Node eliminateNonCNFOperators() {
 		if (children != null) {
 			final Node[] newChildren = new Node[children.length];
@@ -31,6 +31,7 @@ import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
 
+import org.prop4j.solver.BackboneFinder;
 import org.sat4j.core.ConstrGroup;
 import org.sat4j.core.VecInt;
 import org.sat4j.minisat.SolverFactory;
@@ -51,6 +52,7 @@ import org.sat4j.tools.SolutionCounter;
 
 import de.ovgu.featureide.fm.core.Logger;
 import de.ovgu.featureide.fm.core.job.monitor.IMonitor;
+import de.ovgu.featureide.fm.core.job.monitor.NullMonitor;
 
 /**
  * A solver that computes if a given propositional node is satisfiable and
@@ -199,32 +201,32 @@ public class SatSolver {
 				backbone.push(getIntOfLiteral(tempNodes[i]));
 			}
 
-			final int[] model = solver.model();
+			int[] model = solver.model();
+			try {
+				if (tempNodes.length > 0 && solver.isSatisfiable(backbone)) {
+					model = solver.model();
+				}
+			} catch (TimeoutException e) {
+				Logger.logError(e);
+			}
+			final int[] candidates = new int[model.length];
 			for (int i = 0; i < model.length; i++) {
 				final int x = model[i];
 				if ((x * vt.factor) >= 0) {
-					backbone.push(-x);
-					try {
-						if (solver.isSatisfiable(backbone)) {
-							backbone.pop();
-						} else {
-							backbone.pop().push(x);
-						}
-					} catch (TimeoutException e) {
-						Logger.logError(e);
-						backbone.pop();
-					}
+					candidates[Math.abs(x) - 1] = x;
 				}
 			}
-			
-			for (int i = 0; i < tempNodes.length; i++) {
-				backbone.delete(i);
+			new BackboneFinder(solver, backbone).findBackbone(candidates, new NullMonitor());
+
+			final IVecInt knownValues = new VecInt(backbone.size() - tempNodes.length);
+			for (int i = tempNodes.length; i < backbone.size(); i++) {
+				knownValues.push(backbone.get(i));
 			}
-			return convertToNodes(backbone);
+			return convertToNodes(knownValues);
 		}
 		return Collections.emptyList();
 	}
-	
+
 	public void setDBSimplificationAllowed(boolean allowed) {
 		solver.setDBSimplificationAllowed(allowed);
 	}
@@ -39,6 +39,8 @@ public abstract class AbstractAnalysis<T> implements LongRunningMethod<T> {
 
 	protected int[] assumptions = null;
 
+	protected boolean timeoutOccurred = false;
+
 	public AbstractAnalysis(SatInstance satInstance) {
 		try {
 			this.solver = new BasicSolver(satInstance);
@@ -53,6 +55,7 @@ public abstract class AbstractAnalysis<T> implements LongRunningMethod<T> {
 
 	@Override
 	public final T execute(IMonitor monitor) throws Exception {
+		timeoutOccurred = false;
 		if (solver == null) {
 			return null;
 		}
@@ -73,6 +76,30 @@ public abstract class AbstractAnalysis<T> implements LongRunningMethod<T> {
 
 	protected abstract T analyze(IMonitor monitor) throws Exception;
 
+	/**
+	 * Finds a model like {@link ISatSolver#findModel()}, but remembers whether the solver timed out.
+	 * 
+	 * @return the model or {@code null} if there is none or the solver timed out
+	 */
+	protected int[] findModel() {
+		switch (solver.isSatisfiable()) {
+		case TRUE:
+			return solver.getModel();
+		case TIMEOUT:
+			timeoutOccurred = true;
+			return null;
+		default:
+			return null;
+		}
+	}
+
+	/**
+	 * @return {@code true} if a solver call of the last execution timed out, thus, the result may be incomplete and must not be cached
+	 */
+	public boolean isTimeoutOccurred() {
+		return timeoutOccurred;
+	}
+
 	public int[] getAssumptions() {
 		return assumptions;
 	}
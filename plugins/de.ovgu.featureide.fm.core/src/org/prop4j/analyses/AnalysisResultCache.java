@@ -0,0 +1,301 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2016  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ * 
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package org.prop4j.analyses;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.WeakHashMap;
+
+import org.prop4j.solver.SatInstance;
+
+import de.ovgu.featureide.fm.core.base.IFeatureModel;
+import de.ovgu.featureide.fm.core.base.event.FeatureIDEEvent;
+import de.ovgu.featureide.fm.core.base.event.IEventListener;
+
+/**
+ * Stores the results of analyses on a {@link SatInstance}, such that an analysis is not repeated for the same formula.</br>
+ * A result is identified by the {@link SatInstance#getFingerprint() fingerprint} of the formula, the name of the analysis, and a hash of its
+ * parameters. Thus, all feature models with the same CNF share their results (e.g., the same model opened in several editors or a model that
+ * is reopened or restored by an undo).
+ * If the cache exceeds its capacity, the least recently used results are removed.</br>
+ * Results are stored as arrays of literals, which can be saved with {@link de.ovgu.featureide.fm.core.io.AnalysisResultCacheFormat}.
+ * Results that were computed for a {@link #register(IFeatureModel, long) registered} feature model are removed as soon as the model fires an
+ * event that changes its formula.
+ */
+public class AnalysisResultCache {
+
+	/**
+	 * Identifies a result in the cache.
+	 */
+	public static final class Key {
+
+		private final long fingerprint;
+		private final String analysis;
+		private final long parameters;
+
+		public Key(long fingerprint, String analysis, long parameters) {
+			this.fingerprint = fingerprint;
+			this.analysis = analysis;
+			this.parameters = parameters;
+		}
+
+		public long getFingerprint() {
+			return fingerprint;
+		}
+
+		public String getAnalysis() {
+			return analysis;
+		}
+
+		public long getParameters() {
+			return parameters;
+		}
+
+		@Override
+		public int hashCode() {
+			return (int) (fingerprint ^ (fingerprint >>> 32)) * 31 * 31 + analysis.hashCode() * 31 + (int) (parameters ^ (parameters >>> 32));
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj) {
+				return true;
+			}
+			if (obj == null || getClass() != obj.getClass()) {
+				return false;
+			}
+			final Key other = (Key) obj;
+			return fingerprint == other.fingerprint && parameters == other.parameters && analysis.equals(other.analysis);
+		}
+
+		@Override
+		public String toString() {
+			return analysis + "[" + Long.toHexString(fingerprint) + ", " + Long.toHexString(parameters) + "]";
+		}
+
+	}
+
+	/**
+	 * Removes the results of a feature model, if the model changes its formula.
+	 */
+	private final class ModelListener implements IEventListener {
+
+		private final IFeatureModel featureModel;
+
+		private ModelListener(IFeatureModel featureModel) {
+			this.featureModel = featureModel;
+		}
+
+		@Override
+		public void propertyChange(FeatureIDEEvent event) {
+			switch (event.getEventType()) {
+			case CONSTRAINT_ADD:
+			case CONSTRAINT_DELETE:
+			case CONSTRAINT_MODIFY:
+			case GROUP_TYPE_CHANGED:
+			case MANDATORY_CHANGED:
+			case FEATURE_ADD:
+			case FEATURE_ADD_ABOVE:
+			case FEATURE_DELETE:
+			case FEATURE_NAME_CHANGED:
+			case ALL_FEATURES_CHANGED_NAME_TYPE:
+			case PARENT_CHANGED:
+			case CHILDREN_CHANGED:
+			case STRUCTURE_CHANGED:
+			case MODEL_DATA_CHANGED:
+			case MODEL_DATA_LOADED:
+				invalidate(featureModel);
+				break;
+			default:
+				break;
+			}
+		}
+
+	}
+
+	public static final String CORE_DEAD = "CoreDead";
+	public static final String VALID = "Valid";
+	public static final String IMPLICATION = "Implication";
+	public static final String BACKBONE = "Backbone";
+
+	public static final int DEFAULT_CAPACITY = 256;
+
+	private static final AnalysisResultCache INSTANCE = new AnalysisResultCache(DEFAULT_CAPACITY);
+
+	/**
+	 * @return the cache that is shared by all analyses
+	 */
+	public static AnalysisResultCache getInstance() {
+		return INSTANCE;
+	}
+
+	/**
+	 * Computes a hash value for a list of literal arrays (e.g., the parameters of an {@link ImplicationAnalysis}).
+	 */
+	public static long hash(List<int[]> literals) {
+		long hash = 17;
+		for (int[] array : literals) {
+			hash = (hash * 31) + array.length;
+			for (int literal : array) {
+				hash = (hash * 31) + literal;
+			}
+		}
+		return hash;
+	}
+
+	private final LinkedHashMap<Key, int[][]> results;
+	private final Map<IFeatureModel, Long> registeredModels = new WeakHashMap<>();
+
+	private int capacity;
+	private long hits = 0, misses = 0;
+
+	public AnalysisResultCache(int capacity) {
+		this.capacity = capacity;
+		this.results = new LinkedHashMap<Key, int[][]>(16, 0.75f, true) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Entry<Key, int[][]> eldest) {
+				return size() > AnalysisResultCache.this.capacity;
+			}
+		};
+	}
+
+	/**
+	 * Returns a stored result.
+	 * 
+	 * @param fingerprint the fingerprint of the formula
+	 * @param analysis the name of the analysis
+	 * @param parameters a hash value of the parameters of the analysis
+	 * @return the result or {@code null} if there is no such result
+	 */
+	public synchronized int[][] get(long fingerprint, String analysis, long parameters) {
+		final int[][] result = results.get(new Key(fingerprint, analysis, parameters));
+		if (result == null) {
+			misses++;
+		} else {
+			hits++;
+		}
+		return result;
+	}
+
+	public int[][] get(long fingerprint, String analysis) {
+		return get(fingerprint, analysis, 0);
+	}
+
+	/**
+	 * Stores a result. The arrays must not be modified afterwards.
+	 * 
+	 * @param fingerprint the fingerprint of the formula
+	 * @param analysis the name of the analysis
+	 * @param parameters a hash value of the parameters of the analysis
+	 * @param result the result
+	 */
+	public synchronized void put(long fingerprint, String analysis, long parameters, int[][] result) {
+		results.put(new Key(fingerprint, analysis, parameters), result);
+	}
+
+	public void put(long fingerprint, String analysis, int[][] result) {
+		put(fingerprint, analysis, 0, result);
+	}
+
+	/**
+	 * Assigns a formula to a feature model. If the feature model changes its formula, all results for the assigned formula are removed.
+	 * 
+	 * @param featureModel the feature model
+	 * @param fingerprint the fingerprint of the formula that was created from the feature model
+	 */
+	public synchronized void register(IFeatureModel featureModel, long fingerprint) {
+		if (!registeredModels.containsKey(featureModel)) {
+			featureModel.addListener(new ModelListener(featureModel));
+		}
+		registeredModels.put(featureModel, fingerprint);
+	}
+
+	/**
+	 * Removes all results for the formula of a {@link #register(IFeatureModel, long) registered} feature model.
+	 * 
+	 * @param featureModel the feature model
+	 */
+	public synchronized void invalidate(IFeatureModel featureModel) {
+		final Long fingerprint = registeredModels.get(featureModel);
+		if (fingerprint != null) {
+			registeredModels.put(featureModel, null);
+			invalidate(fingerprint);
+		}
+	}
+
+	/**
+	 * Removes all results for a formula.
+	 * 
+	 * @param fingerprint the fingerprint of the formula
+	 */
+	public synchronized void invalidate(long fingerprint) {
+		for (Iterator<Key> it = results.keySet().iterator(); it.hasNext();) {
+			if (it.next().fingerprint == fingerprint) {
+				it.remove();
+			}
+		}
+	}
+
+	public synchronized void clear() {
+		results.clear();
+	}
+
+	/**
+	 * @return all stored results from the least to the most recently used
+	 */
+	public synchronized List<Entry<Key, int[][]>> getEntries() {
+		return new ArrayList<>(results.entrySet());
+	}
+
+	public synchronized int size() {
+		return results.size();
+	}
+
+	public synchronized int getCapacity() {
+		return capacity;
+	}
+
+	public synchronized void setCapacity(int capacity) {
+		this.capacity = capacity;
+		if (results.size() > capacity) {
+			final Iterator<Key> it = results.keySet().iterator();
+			for (int i = results.size() - capacity; i > 0; i--) {
+				it.next();
+				it.remove();
+			}
+		}
+	}
+
+	public synchronized long getHits() {
+		return hits;
+	}
+
+	public synchronized long getMisses() {
+		return misses;
+	}
+
+}
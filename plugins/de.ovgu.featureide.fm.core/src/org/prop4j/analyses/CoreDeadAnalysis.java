@@ -20,12 +20,13 @@
  */
 package org.prop4j.analyses;
 
+import org.prop4j.solver.BackboneFinder;
 import org.prop4j.solver.FixedLiteralSelectionStrategy;
 import org.prop4j.solver.ISatSolver;
 import org.prop4j.solver.ISatSolver.SelectionStrategy;
-import org.sat4j.minisat.core.Solver;
 import org.prop4j.solver.SatInstance;
 import org.prop4j.solver.VarOrderHeap2;
+import org.sat4j.minisat.core.Solver;
 
 import de.ovgu.featureide.fm.core.job.monitor.IMonitor;
 
@@ -42,6 +43,8 @@ public class CoreDeadAnalysis extends AbstractAnalysis<int[]> {
 
 	private int[] features;
 
+	private int maxChunkSize = BackboneFinder.DEFAULT_CHUNK_SIZE;
+
 	public CoreDeadAnalysis(SatInstance satInstance) {
 		this(satInstance, null);
 	}
@@ -58,11 +61,11 @@ public class CoreDeadAnalysis extends AbstractAnalysis<int[]> {
 
 	public int[] analyze(IMonitor monitor) throws Exception {
 		solver.setSelectionStrategy(SelectionStrategy.POSITIVE);
-		int[] model1 = solver.findModel();
+		int[] model1 = findModel();
 
 		if (model1 != null) {
 			solver.setSelectionStrategy(SelectionStrategy.NEGATIVE);
-			int[] model2 = solver.findModel();
+			int[] model2 = findModel();
 
 			if (features != null) {
 				final int[] model3 = new int[model1.length];
@@ -86,26 +89,15 @@ public class CoreDeadAnalysis extends AbstractAnalysis<int[]> {
 															+ AConditionallyCoreDeadAnalysis.countNegative(model1))),
 											solver.getOrder()));
 
-			for (int i = 0; i < model1.length; i++) {
-				final int varX = model1[i];
-				if (varX != 0) {
-					solver.assignmentPush(-varX);
-					switch (solver.isSatisfiable()) {
-					case FALSE:
-						solver.assignmentReplaceLast(varX);
-						monitor.invoke(varX);
-						break;
-					case TIMEOUT:
-						solver.assignmentPop();
-						break;
-					case TRUE:
-						solver.assignmentPop();
-						SatInstance.updateModel(model1, solver.getModel());
-						solver.shuffleOrder();
-						break;
-					}
+			final BackboneFinder backboneFinder = new BackboneFinder(solver.getInternalSolver(), solver.getAssignment()) {
+				@Override
+				protected void modelFound(int[] model) {
+					solver.shuffleOrder();
 				}
-			}
+			};
+			backboneFinder.setMaxChunkSize(maxChunkSize);
+			backboneFinder.findBackbone(model1, monitor);
+			timeoutOccurred |= backboneFinder.isTimeoutOccurred();
 		}
 
 		return solver.getAssignmentArray(0, solver.getAssignment().size());
@@ -119,4 +111,17 @@ public class CoreDeadAnalysis extends AbstractAnalysis<int[]> {
 		this.features = features;
 	}
 
+	public int getMaxChunkSize() {
+		return maxChunkSize;
+	}
+
+	/**
+	 * Sets the maximal number of features that are tested with a single solver call (see {@link BackboneFinder#setMaxChunkSize(int)}).
+	 * 
+	 * @param maxChunkSize the maximal chunk size
+	 */
+	public void setMaxChunkSize(int maxChunkSize) {
+		this.maxChunkSize = maxChunkSize;
+	}
+
 }
@@ -20,12 +20,13 @@
  */
 package org.prop4j.analyses;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Deque;
 import java.util.LinkedList;
+import java.util.List;
 
-import org.prop4j.Literal;
-import org.prop4j.Node;
+import org.prop4j.solver.ClauseStore;
 import org.prop4j.solver.ISatSolver;
 import org.prop4j.solver.ISatSolver.SelectionStrategy;
 import org.prop4j.solver.SatInstance;
@@ -33,6 +34,7 @@ import org.prop4j.solver.SatInstance;
 import de.ovgu.featureide.fm.core.conf.AFeatureGraph;
 import de.ovgu.featureide.fm.core.conf.IFeatureGraph;
 import de.ovgu.featureide.fm.core.conf.MatrixFeatureGraph;
+import de.ovgu.featureide.fm.core.conf.SparseFeatureGraph;
 import de.ovgu.featureide.fm.core.job.monitor.IMonitor;
 
 /**
@@ -42,6 +44,15 @@ import de.ovgu.featureide.fm.core.job.monitor.IMonitor;
  */
 public class FGBuilder extends AbstractAnalysis<IFeatureGraph> {
 
+	/**
+	 * Default number of features from which on a {@link SparseFeatureGraph} is built instead of a {@link MatrixFeatureGraph}.
+	 */
+	public static final int DEFAULT_SPARSE_THRESHOLD = 2048;
+
+	private int sparseThreshold = DEFAULT_SPARSE_THRESHOLD;
+
+	private int numberOfThreads = 1;
+
 	private byte[] core = new byte[0];
 
 	private final Deque<Integer> parentStack = new LinkedList<>();
@@ -50,6 +61,7 @@ public class FGBuilder extends AbstractAnalysis<IFeatureGraph> {
 	private byte[] visited;
 	private boolean[] complete;
 	private int[] index;
+	private int[] indexToVariable;
 	private IFeatureGraph featureGraph;
 
 	public FGBuilder(ISatSolver solver) {
@@ -63,6 +75,7 @@ public class FGBuilder extends AbstractAnalysis<IFeatureGraph> {
 	@Override
 	public IFeatureGraph analyze(IMonitor monitor) throws Exception {
 		parentStack.clear();
+		monitor.setRemainingWork(5);
 
 		solver.initSolutionList(Integer.MAX_VALUE);
 		// Math.min(solver.getSatInstance().getNumberOfVariables(),
@@ -102,6 +115,7 @@ public class FGBuilder extends AbstractAnalysis<IFeatureGraph> {
 					}
 				}
 			}
+			monitor.step();
 
 			index = new int[model1.length];
 			int count = 0;
@@ -124,15 +138,26 @@ public class FGBuilder extends AbstractAnalysis<IFeatureGraph> {
 				}
 			}
 
+			indexToVariable = new int[index.length - count];
+			for (int i = 0; i < index.length; i++) {
+				if (index[i] >= 0) {
+					indexToVariable[index[i]] = i;
+				}
+			}
+
 			final SatInstance satInstance = solver.getSatInstance();
-			featureGraph = new MatrixFeatureGraph(satInstance, index);
+			if (indexToVariable.length >= sparseThreshold) {
+				featureGraph = new SparseFeatureGraph(satInstance, index);
+			} else {
+				featureGraph = new MatrixFeatureGraph(satInstance, index);
+			}
 
-			Node cnf = satInstance.getCnf();
-			outer: for (Node clause : cnf.getChildren()) {
-				final Node[] literals = clause.getChildren();
-				int childrenCount = literals.length;
+			final ClauseStore clauses = satInstance.getClauses();
+			final int[] literals = new int[clauses.getMaxClauseSize()];
+			outer: for (int c = 0; c < clauses.getNumberOfClauses(); c++) {
+				int childrenCount = clauses.copyClause(c, literals);
 				for (int i = 0; i < childrenCount; i++) {
-					final int var = satInstance.getSignedVariable((Literal) literals[i]);
+					final int var = literals[i];
 					final int coreB = var * core[Math.abs(var) - 1];
 					if (coreB > 0) {
 						continue outer;
@@ -141,23 +166,23 @@ public class FGBuilder extends AbstractAnalysis<IFeatureGraph> {
 							continue outer;
 						}
 						childrenCount--;
-						final Node temp = literals[i];
+						final int temp = literals[i];
 						literals[i] = literals[childrenCount];
 						literals[childrenCount] = temp;
 						i--;
 					}
 				}
 				if (childrenCount == 2) {
-					final int x = satInstance.getSignedVariable((Literal) literals[0]);
-					final int y = satInstance.getSignedVariable((Literal) literals[1]);
+					final int x = literals[0];
+					final int y = literals[1];
 					addRelation(x, y);
 				} else {
 					for (int i = 0; i < childrenCount - 1; i++) {
-						final int x = satInstance.getSignedVariable((Literal) literals[i]);
+						final int x = literals[i];
 						final int indexX = index[Math.abs(x) - 1];
 
 						for (int j = i + 1; j < childrenCount; j++) {
-							final int y = satInstance.getSignedVariable((Literal) literals[j]);
+							final int y = literals[j];
 							final int indexY = index[Math.abs(y) - 1];
 
 							if (x > 0) {
@@ -182,6 +207,8 @@ public class FGBuilder extends AbstractAnalysis<IFeatureGraph> {
 				}
 			}
 
+			monitor.step();
+
 			visited = new byte[featureGraph.getSize()];
 			complete = new boolean[featureGraph.getSize()];
 
@@ -201,16 +228,25 @@ public class FGBuilder extends AbstractAnalysis<IFeatureGraph> {
 				dfs(visited, complete, i, false);
 				complete[i] = true;
 			}
+			monitor.step();
 
-			Arrays.fill(recArray, (byte) 0);
-			for (int i = 0; i < model1.length; i++) {
-				if (core[i] == 0) {
-					parentStack.add((i + 1));
-					testVariable();
-					parentStack.add(-(i + 1));
-					testVariable();
+			if (numberOfThreads > 1) {
+				computeImplicationsInParallel(monitor.subTask(1));
+			} else {
+				final IMonitor subTask = monitor.subTask(1);
+				subTask.setRemainingWork(indexToVariable.length);
+				Arrays.fill(recArray, (byte) 0);
+				for (int i = 0; i < model1.length; i++) {
+					if (core[i] == 0) {
+						parentStack.add((i + 1));
+						testVariable();
+						parentStack.add(-(i + 1));
+						testVariable();
+						subTask.step();
+					}
 				}
 			}
+			monitor.checkCancel();
 
 			complete = new boolean[featureGraph.getSize()];
 			for (int i = 0; i < featureGraph.getSize(); i++) {
@@ -221,11 +257,78 @@ public class FGBuilder extends AbstractAnalysis<IFeatureGraph> {
 				complete[i] = true;
 			}
 
+			if (featureGraph instanceof SparseFeatureGraph) {
+				((SparseFeatureGraph) featureGraph).trimToSize();
+			}
+			monitor.step();
 			return featureGraph;
 		}
 		return null;
 	}
 
+	/**
+	 * Computes all strong edges with multiple worker threads (see {@link FGImplicationThread}).
+	 * The edges are added to the feature graph after all workers are finished.
+	 */
+	private void computeImplicationsInParallel(IMonitor monitor) {
+		final List<Integer> literals = new ArrayList<>(indexToVariable.length << 1);
+		for (int i = 0; i < core.length; i++) {
+			if (core[i] == 0) {
+				literals.add(i + 1);
+				literals.add(-(i + 1));
+			}
+		}
+		final FGImplicationThread worker = new FGImplicationThread(solver, featureGraph, index, indexToVariable, monitor);
+		worker.addObjects(literals);
+		worker.start(numberOfThreads);
+
+		for (Integer literal : literals) {
+			final int mx1 = literal;
+			final int[] implications = worker.getImplications(mx1);
+			if (implications != null) {
+				for (int my1 : implications) {
+					addRelation(-mx1, my1);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Checks whether a literal has to be tested for the implication of a connected feature.
+	 * 
+	 * @param edge the edge between the literal's variable and the connected feature
+	 * @param positive the sign of the literal
+	 */
+	static boolean isImplicationCandidate(byte edge, boolean positive) {
+		return AFeatureGraph.isWeakEdge(edge)
+				&& ((positive && !(AFeatureGraph.isEdge(edge, AFeatureGraph.EDGE_10Q) || AFeatureGraph.isEdge(edge, AFeatureGraph.EDGE_11Q)))
+						|| (!positive && !(AFeatureGraph.isEdge(edge, AFeatureGraph.EDGE_00Q) || AFeatureGraph.isEdge(edge, AFeatureGraph.EDGE_01Q))));
+	}
+
+	public int getNumberOfThreads() {
+		return numberOfThreads;
+	}
+
+	/**
+	 * Sets the number of threads that are used to compute the strong edges of the graph.
+	 * If set to 1 (default), the edges are computed sequentially.
+	 */
+	public void setNumberOfThreads(int numberOfThreads) {
+		this.numberOfThreads = numberOfThreads;
+	}
+
+	public int getSparseThreshold() {
+		return sparseThreshold;
+	}
+
+	/**
+	 * Sets the number of features from which on a {@link SparseFeatureGraph} is built.
+	 * Use 0 to always build a sparse graph and {@link Integer#MAX_VALUE} to always build a {@link MatrixFeatureGraph}.
+	 */
+	public void setSparseThreshold(int sparseThreshold) {
+		this.sparseThreshold = sparseThreshold;
+	}
+
 	private void addRelation(final int x, final int y) {
 		int indexX = index[Math.abs(x) - 1];
 		int indexY = index[Math.abs(y) - 1];
@@ -277,16 +380,10 @@ public class FGBuilder extends AbstractAnalysis<IFeatureGraph> {
 
 			int c = 0;
 
-			inner1: for (int j = i + 1; j < xModel1.length; j++) {
-				if (core[j] != 0) {
-					continue;
-				}
-				final byte b = getRelation(i, j);
-				if (AFeatureGraph.isWeakEdge(b) && ((positive && !(AFeatureGraph.isEdge(b, AFeatureGraph.EDGE_10Q)
-						|| AFeatureGraph.isEdge(b, AFeatureGraph.EDGE_11Q)))
-						|| (!positive && !(AFeatureGraph.isEdge(b, AFeatureGraph.EDGE_00Q)
-								|| AFeatureGraph.isEdge(b, AFeatureGraph.EDGE_01Q))))) {
-
+			final int indexX = index[i];
+			inner1: for (int k = featureGraph.getNextEdge(indexX, indexX); k >= 0; k = featureGraph.getNextEdge(indexX, k)) {
+				if (isImplicationCandidate(featureGraph.getEdge(indexX, k), positive)) {
+					final int j = indexToVariable[k];
 					final int my1 = xModel1[j];
 					for (int[] solution : solver.getSolutionList()) {
 						final int mxI = solution[i];
@@ -326,16 +423,12 @@ public class FGBuilder extends AbstractAnalysis<IFeatureGraph> {
 		parentStack.pop();
 	}
 
-	private byte getRelation(int indexX, int indexY) {
-		return featureGraph.getEdge(index[indexX], index[indexY]);
-	}
-
 	// visited: 0 not visited, 1 visited (unknown status), 2 visited (known
 	// status)
 	private void dfs(byte[] visited, boolean[] complete, int curFeature, boolean selected) {
 		visited[curFeature] = 5;
 
-		for (int j = 0; j < visited.length; j++) {
+		for (int j = featureGraph.getNextEdge(curFeature, -1); j >= 0; j = featureGraph.getNextEdge(curFeature, j)) {
 			final byte visit = visited[j];
 			if (visit < 5) {
 				final byte childSelected;
@@ -401,7 +494,7 @@ public class FGBuilder extends AbstractAnalysis<IFeatureGraph> {
 	private void dfs_rec(byte[] visited, boolean[] complete, int curFeature, int parentFeature, byte selected,
 			boolean parentSelected) {
 		final boolean incomplete = !complete[curFeature];
-		for (int j = 0; j < visited.length; j++) {
+		for (int j = featureGraph.getNextEdge(curFeature, -1); j >= 0; j = featureGraph.getNextEdge(curFeature, j)) {
 			final byte visit = visited[j];
 			byte childSelected = -1;
 
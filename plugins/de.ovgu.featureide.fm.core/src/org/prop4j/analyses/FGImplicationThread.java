@@ -0,0 +1,182 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2016  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ * 
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package org.prop4j.analyses;
+
+import java.util.Arrays;
+
+import org.prop4j.solver.ISatSolver;
+import org.prop4j.solver.ISatSolver.SelectionStrategy;
+
+import de.ovgu.featureide.fm.core.conf.IFeatureGraph;
+import de.ovgu.featureide.fm.core.conf.worker.base.AWorkerThread;
+import de.ovgu.featureide.fm.core.job.monitor.IMonitor;
+
+/**
+ * Computes the strong edges of a feature graph in parallel.</br>
+ * Each worker uses its own clone of the solver, which already contains the core and dead features as assumptions.
+ * For a given literal, a worker tests all features that are connected to it by a weak edge and collects all literals that are implied by it.
+ * The feature graph is only read during this phase.
+ * Results are written to a shared array by literal, so the outcome does not depend on the thread scheduling.
+ * 
+ * @see FGBuilder
+ */
+class FGImplicationThread extends AWorkerThread<Integer> {
+
+	private static class SharedObjects {
+		private final ISatSolver solver;
+		private final IFeatureGraph featureGraph;
+		private final int[] index;
+		private final int[] indexToVariable;
+		private final int[][] implications;
+
+		public SharedObjects(ISatSolver solver, IFeatureGraph featureGraph, int[] index, int[] indexToVariable) {
+			this.solver = solver;
+			this.featureGraph = featureGraph;
+			this.index = index;
+			this.indexToVariable = indexToVariable;
+			this.implications = new int[index.length << 1][];
+		}
+	}
+
+	private final SharedObjects sharedObjects;
+
+	private ISatSolver solver;
+	private int[] implied;
+
+	/**
+	 * @param solver the solver that is cloned for each worker (including its current assignment and solutions)
+	 * @param featureGraph the feature graph containing all weak edges
+	 * @param index the mapping from variables to internal indices of the feature graph
+	 * @param indexToVariable the mapping from internal indices to variables
+	 * @param monitor the monitor
+	 */
+	public FGImplicationThread(ISatSolver solver, IFeatureGraph featureGraph, int[] index, int[] indexToVariable, IMonitor monitor) {
+		super(monitor);
+		this.sharedObjects = new SharedObjects(solver, featureGraph, index, indexToVariable);
+	}
+
+	private FGImplicationThread(FGImplicationThread oldThread) {
+		super(oldThread);
+		this.sharedObjects = oldThread.sharedObjects;
+	}
+
+	/**
+	 * Returns the literals that are implied by the given literal.
+	 * 
+	 * @param literal the literal
+	 * @return the implied literals or {@code null}, if the literal was not processed
+	 */
+	public int[] getImplications(int literal) {
+		return sharedObjects.implications[getLiteralIndex(literal)];
+	}
+
+	private static int getLiteralIndex(int literal) {
+		return ((Math.abs(literal) - 1) << 1) + (literal > 0 ? 0 : 1);
+	}
+
+	@Override
+	protected boolean beforeWork() {
+		synchronized (sharedObjects) {
+			solver = sharedObjects.solver.clone();
+			solver.initSolutionList(Integer.MAX_VALUE);
+			for (int[] solution : sharedObjects.solver.getSolutionList()) {
+				solver.getSolutionList().add(solution);
+			}
+		}
+		solver.setSelectionStrategy(SelectionStrategy.POSITIVE);
+		implied = new int[sharedObjects.indexToVariable.length];
+		return super.beforeWork();
+	}
+
+	@Override
+	protected void afterWork(boolean success) {
+		solver = null;
+		implied = null;
+	}
+
+	@Override
+	protected void work(Integer literal) {
+		final int mx1 = literal;
+		final int i = Math.abs(mx1) - 1;
+		final boolean positive = mx1 > 0;
+
+		int[] xModel1 = null;
+		for (int[] solution : solver.getSolutionList()) {
+			if (mx1 == solution[i]) {
+				xModel1 = solution;
+				break;
+			}
+		}
+
+		solver.assignmentPush(mx1);
+
+		if (xModel1 == null) {
+			xModel1 = solver.findModel();
+			if (xModel1 == null) {
+				solver.assignmentPop();
+				sharedObjects.implications[getLiteralIndex(mx1)] = new int[0];
+				return;
+			}
+		}
+
+		final IFeatureGraph featureGraph = sharedObjects.featureGraph;
+		final int indexX = sharedObjects.index[i];
+		int impliedCount = 0;
+		int c = 0;
+
+		inner1: for (int k = featureGraph.getNextEdge(indexX, indexX); k >= 0; k = featureGraph.getNextEdge(indexX, k)) {
+			if (FGBuilder.isImplicationCandidate(featureGraph.getEdge(indexX, k), positive)) {
+				final int j = sharedObjects.indexToVariable[k];
+				final int my1 = xModel1[j];
+				for (int[] solution : solver.getSolutionList()) {
+					final int mxI = solution[i];
+					final int myI = solution[j];
+					if ((mx1 == mxI) && (my1 != myI)) {
+						continue inner1;
+					}
+				}
+
+				solver.assignmentPush(-my1);
+				solver.setSelectionStrategy((c++ % 2 != 0) ? SelectionStrategy.POSITIVE : SelectionStrategy.NEGATIVE);
+
+				switch (solver.isSatisfiable()) {
+				case FALSE:
+					implied[impliedCount++] = my1;
+					break;
+				case TIMEOUT:
+					break;
+				case TRUE:
+					solver.shuffleOrder();
+					break;
+				}
+				solver.assignmentPop();
+			}
+		}
+		solver.assignmentPop();
+		sharedObjects.implications[getLiteralIndex(mx1)] = Arrays.copyOf(implied, impliedCount);
+	}
+
+	@Override
+	protected AWorkerThread<Integer> newThread() {
+		return new FGImplicationThread(this);
+	}
+
+}
@@ -21,6 +21,7 @@
 package org.prop4j.analyses;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
@@ -53,9 +54,7 @@ import de.ovgu.featureide.fm.core.base.impl.FMFactoryManager;
 import de.ovgu.featureide.fm.core.editing.AdvancedNodeCreator;
 import de.ovgu.featureide.fm.core.editing.AdvancedNodeCreator.CNFType;
 import de.ovgu.featureide.fm.core.editing.AdvancedNodeCreator.ModelType;
-import de.ovgu.featureide.fm.core.explanations.DeadFeature;
-import de.ovgu.featureide.fm.core.explanations.FalseOptionalFeature;
-import de.ovgu.featureide.fm.core.explanations.RedundantConstraint;
+import de.ovgu.featureide.fm.core.explanations.Explainer;
 import de.ovgu.featureide.fm.core.filter.HiddenFeatureFilter;
 import de.ovgu.featureide.fm.core.functional.Functional;
 import de.ovgu.featureide.fm.core.job.LongRunningMethod;
@@ -112,13 +111,36 @@ public class FeatureModelAnalysis implements LongRunningMethod<HashMap<Object, O
 
 	public boolean calculateDeadConstraints = true;
 
+	/**
+	 * Defines whether redundant constraints should be pre-filtered in parallel.
+	 * The result is the same as for the sequential calculation.
+	 */
+	public boolean calculateRedundantConstraintsInParallel = false;
+
 	/**
 	 * Defines whether constraints that are tautologies should be calculated.
 	 */
 	public boolean calculateTautologyConstraints = true;
 
+	/**
+	 * Defines whether an {@link Explainer} should be created for the analyzed feature model.
+	 * The explanations itself are computed on demand.
+	 */
 	public boolean calculateExplanations = true;
 
+	/**
+	 * Defines whether the results for validity, core, dead, and false-optional features are taken from (and stored in) the
+	 * {@link AnalysisResultCache}.
+	 */
+	public boolean useResultCache = true;
+
+	/**
+	 * If set, validity, core, dead, and false-optional features are taken from this analysis instead of a new solver.
+	 */
+	private IncrementalFeatureModelAnalysis incrementalAnalysis = null;
+
+	private Explainer explainer = null;
+
 	private final HashMap<Object, Object> changedAttributes = new HashMap<>();
 
 	private boolean valid;
@@ -158,6 +180,10 @@ public class FeatureModelAnalysis implements LongRunningMethod<HashMap<Object, O
 		return calculateRedundantConstraints;
 	}
 
+	public boolean isCalculateRedundantConstraintsInParallel() {
+		return calculateRedundantConstraintsInParallel;
+	}
+
 	public boolean isCalculateTautologyConstraints() {
 		return calculateTautologyConstraints;
 	}
@@ -190,6 +216,10 @@ public class FeatureModelAnalysis implements LongRunningMethod<HashMap<Object, O
 		this.calculateRedundantConstraints = calculateRedundantConstraints;
 	}
 
+	public void setCalculateRedundantConstraintsInParallel(boolean calculateRedundantConstraintsInParallel) {
+		this.calculateRedundantConstraintsInParallel = calculateRedundantConstraintsInParallel;
+	}
+
 	public void setCalculateTautologyConstraints(boolean calculateTautologyConstraints) {
 		this.calculateTautologyConstraints = calculateTautologyConstraints;
 	}
@@ -206,6 +236,23 @@ public class FeatureModelAnalysis implements LongRunningMethod<HashMap<Object, O
 		this.calculateExplanations = calculateExplanations;
 	}
 
+	/**
+	 * Sets the incremental analysis that is used to compute validity, core, dead, and false-optional features.
+	 * The incremental analysis must listen to the changes of the analyzed feature model.
+	 * 
+	 * @param incrementalAnalysis the incremental analysis or {@code null} to compute all features from scratch
+	 */
+	public void setIncrementalAnalysis(IncrementalFeatureModelAnalysis incrementalAnalysis) {
+		this.incrementalAnalysis = incrementalAnalysis;
+	}
+
+	/**
+	 * @return the explainer for the analyzed feature model or {@code null} if {@link #calculateExplanations} was not set
+	 */
+	public Explainer getExplainer() {
+		return explainer;
+	}
+
 	/**
 	 * @return Hashmap: key entry is Feature/Constraint, value usually
 	 *         indicating the kind of attribute (non-Javadoc)
@@ -233,6 +280,8 @@ public class FeatureModelAnalysis implements LongRunningMethod<HashMap<Object, O
 
 		valid = true;
 
+		explainer = calculateExplanations ? new Explainer(fm) : null;
+
 		if (calculateFeatures) {
 			monitor.checkCancel();
 			updateFeatures();
@@ -254,19 +303,25 @@ public class FeatureModelAnalysis implements LongRunningMethod<HashMap<Object, O
 		}
 		monitor.step();
 
-		nodeCreator.setModelType(ModelType.All);
-		final SatInstance si = new SatInstance(nodeCreator.createNodes(), FeatureUtils.getFeatureNamesPreorder(fm));
-
-		checkValidity(si);
-		monitor.step();
+		if (incrementalAnalysis != null) {
+			checkFeaturesIncremental();
+		} else {
+			nodeCreator.setModelType(ModelType.All);
+			final SatInstance si = new SatInstance(nodeCreator.createNodes(), FeatureUtils.getFeatureNamesPreorder(fm));
 
-		if (valid) {
-			checkFeatureFalseOptional(features, si);
+			checkValidity(si);
 			monitor.step();
 
-			checkFeatureDead(si);
-			monitor.step();
+			if (valid) {
+				checkFeatureFalseOptional(features, si);
+				monitor.step();
+
+				checkFeatureDead(si);
+				monitor.step();
+			}
+		}
 
+		if (valid) {
 			checkFeatureHidden(features);
 			monitor.step();
 		}
@@ -349,13 +404,15 @@ public class FeatureModelAnalysis implements LongRunningMethod<HashMap<Object, O
 	 * Detects redundancy of a constraint by checking if the model without the new (possibly redundant) constraint
 	 * implies the model with the new constraint and the other way round. If this is the case, both models are
 	 * equivalent and the constraint is redundant.
-	 * If a redundant constraint has been detected, it is explained.
+	 * If a redundant constraint has been detected, it is registered at the {@link Explainer}.</br>
+	 * </br>
+	 * If {@link #calculateRedundantConstraintsInParallel} is set, all constraints are first checked in parallel against all other constraints
+	 * (see {@link RedundantConstraintThread}). Only the constraints that are implied by all other constraints are then checked sequentially.
 	 * 
 	 * @param constraint The constraint to check whether it is redundant
 	 */
 	private void checkConstraintRedundant(final List<IConstraint> constraints) throws ContradictionException {
 		if (calculateRedundantConstraints) {
-			final IFeatureModel clone = fm.clone();
 			nodeCreator.setModelType(ModelType.OnlyStructure);
 			final SatInstance si = new SatInstance(nodeCreator.createNodes(), FeatureUtils.getFeatureNamesPreorder(fm));
 			final ModifiableSolver redundantSat = new ModifiableSolver(si);
@@ -370,10 +427,13 @@ public class FeatureModelAnalysis implements LongRunningMethod<HashMap<Object, O
 			}
 			monitor.checkCancel();
 
+			final boolean[] candidates = calculateRedundantConstraintsInParallel ? getRedundancyCandidates(redundantSat, cnfNodes) : null;
+			monitor.checkCancel();
+
 			int i = -1;
 			for (IConstraint constraint : constraints) {
 				i++;
-				if (calculateRedundantConstraints) {
+				if (candidates == null || candidates[i]) {
 					boolean redundant = true;
 					boolean removedAtLeastOne = false;
 					for (IConstr cm : constraintMarkers.get(i)) {
@@ -396,17 +456,13 @@ public class FeatureModelAnalysis implements LongRunningMethod<HashMap<Object, O
 					}
 
 					if (redundant) {
-						clone.removeConstraint(constraint);
+						if (explainer != null) {
+							explainer.addRedundantConstraint(constraint);
+						}
 						if (checkConstraintTautology(constraint.getNode())) {
 							setConstraintAttribute(constraint, ConstraintAttribute.TAUTOLOGY);
 						} else {
 							setConstraintAttribute(constraint, ConstraintAttribute.REDUNDANT);
-
-							if (calculateExplanations) {
-								RedundantConstraint redundancy = new RedundantConstraint();
-								List<String> expl = redundancy.explain(clone, constraint); //store explanation for redundant constraint
-								redundantConstrExpl.put(FeatureUtils.getConstraintIndex(fm, constraint), expl);
-							}
 						}
 					}
 				}
@@ -422,6 +478,17 @@ public class FeatureModelAnalysis implements LongRunningMethod<HashMap<Object, O
 		}
 	}
 
+	private boolean[] getRedundancyCandidates(ModifiableSolver redundantSat, List<Node> cnfNodes) {
+		final List<Integer> indices = new ArrayList<>(cnfNodes.size());
+		for (int i = 0; i < cnfNodes.size(); i++) {
+			indices.add(i);
+		}
+		final RedundantConstraintThread worker = new RedundantConstraintThread(redundantSat, cnfNodes, monitor.subTask(0));
+		worker.addObjects(indices);
+		worker.start();
+		return worker.getCandidates();
+	}
+
 	private boolean checkConstraintTautology(Node constraintNode) {
 		return checkConstraintContradiction(makeRegular(new Not(constraintNode)));
 	}
@@ -454,38 +521,33 @@ public class FeatureModelAnalysis implements LongRunningMethod<HashMap<Object, O
 
 					if (checkConstraintContradiction(cnf)) {
 						setConstraintAttribute(constraint, ConstraintAttribute.UNSATISFIABLE);
-						if (calculateExplanations) {
-							explainVoidFM();
-						}
 					} else {
 						setConstraintAttribute(constraint, ConstraintAttribute.VOID_MODEL);
-						if (calculateExplanations) {
-							explainVoidFM();
-						}
 					}
 				} else {
 					setConstraintAttribute(constraint, ConstraintAttribute.UNSATISFIABLE);
-					if (calculateExplanations) {
-						explainVoidFM();
-					}
 				}
 			}
 			monitor.checkCancel();
 		}
 	}
 
-	// explain void feature model, treat root as dead feature
-	private void explainVoidFM() {
-		DeadFeature deadF = new DeadFeature();
-		List<String> expl = deadF.explain(fm, FeatureUtils.getRoot(fm), true);
-		deadFeatureExpl.put(FeatureUtils.getRoot(fm), expl);
-	}
-
 	private void checkFeatureDead(final SatInstance si) {
 		deadFeatures.clear();
 		coreFeatures.clear();
-		final int[] solution2 = LongRunningWrapper.runMethod(new CoreDeadAnalysis(si), monitor.subTask(0));
-		monitor.checkCancel();
+		final int[][] cachedSolution = getCachedResult(si, AnalysisResultCache.CORE_DEAD, 0);
+		final int[] solution2;
+		if (cachedSolution == null) {
+			final CoreDeadAnalysis analysis = new CoreDeadAnalysis(si);
+			solution2 = LongRunningWrapper.runMethod(analysis, monitor.subTask(0));
+			monitor.checkCancel();
+			// an incomplete result must not be served by the cache
+			if (solution2 != null && !analysis.isTimeoutOccurred()) {
+				putCachedResult(si, AnalysisResultCache.CORE_DEAD, 0, new int[][] { solution2 });
+			}
+		} else {
+			solution2 = cachedSolution[0];
+		}
 		for (int i = 0; i < solution2.length; i++) {
 			monitor.checkCancel();
 			final int var = solution2[i];
@@ -493,17 +555,26 @@ public class FeatureModelAnalysis implements LongRunningMethod<HashMap<Object, O
 			if (var < 0) {
 				setFeatureAttribute(feature, FeatureStatus.DEAD);
 				deadFeatures.add(feature);
+			} else {
+				coreFeatures.add(feature);
+			}
+		}
+	}
 
-				if (calculateExplanations) {
-					// explain dead features and remember explanation in map
-					DeadFeature deadF = new DeadFeature();
-					List<String> expl = deadF.explain(fm, feature, false);
-					deadFeatureExpl.put(feature, expl);
-
-				} else {
-					coreFeatures.add(feature);
-				}
+	private void checkFeaturesIncremental() {
+		LongRunningWrapper.runMethod(incrementalAnalysis, monitor.subTask(3));
+		monitor.checkCancel();
+		valid = incrementalAnalysis.isValid();
+		if (valid) {
+			falseOptionalFeatures.addAll(incrementalAnalysis.getFalseOptionalFeatures());
+			for (IFeature feature : falseOptionalFeatures) {
+				setFeatureAttribute(feature, FeatureStatus.FALSE_OPTIONAL);
+			}
+			deadFeatures.addAll(incrementalAnalysis.getDeadFeatures());
+			for (IFeature feature : deadFeatures) {
+				setFeatureAttribute(feature, FeatureStatus.DEAD);
 			}
+			coreFeatures.addAll(incrementalAnalysis.getCoreFeatures());
 		}
 	}
 
@@ -535,21 +606,25 @@ public class FeatureModelAnalysis implements LongRunningMethod<HashMap<Object, O
 				possibleFOFeatures.add(new int[] { -si.getVariable(parent.getName()), si.getVariable(feature.getName()) });
 			}
 		}
-		final List<int[]> solution3 = LongRunningWrapper.runMethod(new ImplicationAnalysis(si, possibleFOFeatures), monitor.subTask(0));
-		monitor.checkCancel();
+		final long parameters = AnalysisResultCache.hash(possibleFOFeatures);
+		final int[][] cachedSolution = getCachedResult(si, AnalysisResultCache.IMPLICATION, parameters);
+		final List<int[]> solution3;
+		if (cachedSolution == null) {
+			final ImplicationAnalysis analysis = new ImplicationAnalysis(si, possibleFOFeatures);
+			solution3 = LongRunningWrapper.runMethod(analysis, monitor.subTask(0));
+			monitor.checkCancel();
+			if (solution3 != null && !analysis.isTimeoutOccurred()) {
+				putCachedResult(si, AnalysisResultCache.IMPLICATION, parameters, solution3.toArray(new int[solution3.size()][]));
+			}
+		} else {
+			solution3 = Arrays.asList(cachedSolution);
+		}
 		falseOptionalFeatures.clear();
 		for (int[] pair : solution3) {
 			monitor.checkCancel();
 			final IFeature feature = fm.getFeature((CharSequence) si.getVariableObject(pair[1]));
 			setFeatureAttribute(feature, FeatureStatus.FALSE_OPTIONAL);
 			falseOptionalFeatures.add(feature);
-
-			if (calculateExplanations) {
-				// explain false optional features and remember explanation in map
-				FalseOptionalFeature falseOpts = new FalseOptionalFeature();
-				List<String> expl = falseOpts.explain(fm, feature);
-				falseOptFeatureExpl.put(feature, expl);
-			}
 		}
 	}
 
@@ -648,10 +723,32 @@ public class FeatureModelAnalysis implements LongRunningMethod<HashMap<Object, O
 	}
 
 	private void checkValidity(final SatInstance si) {
-		valid = LongRunningWrapper.runMethod(new ValidAnalysis(si)) != null;
+		if (useResultCache) {
+			AnalysisResultCache.getInstance().register(fm, si.getFingerprint());
+		}
+		if (getCachedResult(si, AnalysisResultCache.VALID, 0) != null) {
+			valid = true;
+		} else {
+			final int[] solution = LongRunningWrapper.runMethod(new ValidAnalysis(si));
+			valid = solution != null;
+			// only satisfiable formulas are stored, as a missing solution may also be caused by a timeout
+			if (valid) {
+				putCachedResult(si, AnalysisResultCache.VALID, 0, new int[][] { solution });
+			}
+		}
+	}
+
+	private int[][] getCachedResult(SatInstance si, String analysis, long parameters) {
+		return useResultCache ? AnalysisResultCache.getInstance().get(si.getFingerprint(), analysis, parameters) : null;
+	}
+
+	private void putCachedResult(SatInstance si, String analysis, long parameters, int[][] result) {
+		if (useResultCache) {
+			AnalysisResultCache.getInstance().put(si.getFingerprint(), analysis, parameters, result);
+		}
 	}
 
-	private Node makeRegular(Node node) {
+	static Node makeRegular(Node node) {
 		Node regularCNFNode = node.toCNF();
 		if (regularCNFNode instanceof And) {
 			final Node[] children = regularCNFNode.getChildren();
@@ -62,14 +62,14 @@ public class ImplicationAnalysis extends AbstractAnalysis<List<int[]>> {
 		solver.setSelectionStrategy(SelectionStrategy.POSITIVE);
 
 		monitor.checkCancel();
-		int[] model1 = solver.findModel();
+		int[] model1 = findModel();
 
 		if (model1 != null) {
 			solutionList.add(model1);
 			solver.setSelectionStrategy(SelectionStrategy.NEGATIVE);
 
 			monitor.checkCancel();
-			int[] model2 = solver.findModel();
+			int[] model2 = findModel();
 			solutionList.add(model2);
 
 			// if there are more negative than positive literals
@@ -95,6 +95,7 @@ public class ImplicationAnalysis extends AbstractAnalysis<List<int[]>> {
 					resultList.add(pair);
 					break;
 				case TIMEOUT:
+					timeoutOccurred = true;
 					break;
 				case TRUE:
 					solutionList.add(solver.getModel());
@@ -31,9 +31,8 @@ import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.Set;
 
-import org.prop4j.Literal;
-import org.prop4j.Node;
 import org.prop4j.analyses.ImplicationSetsAnalysis.Relationship;
+import org.prop4j.solver.ClauseStore;
 import org.prop4j.solver.ISatSolver;
 import org.prop4j.solver.ISatSolver.SelectionStrategy;
 import org.prop4j.solver.SatInstance;
@@ -176,11 +175,12 @@ public class ImplicationSetsAnalysis extends AbstractAnalysis<Set<Relationship>>
 			numVariables = model1.length;
 			combinations = new byte[numVariables * numVariables];
 
-			outer: for (Node clause : solver.getSatInstance().getCnf().getChildren()) {
-				final Node[] literals = clause.getChildren();
-				int childrenCount = literals.length;
+			final ClauseStore clauses = solver.getSatInstance().getClauses();
+			final int[] literals = new int[clauses.getMaxClauseSize()];
+			outer: for (int c = 0; c < clauses.getNumberOfClauses(); c++) {
+				int childrenCount = clauses.copyClause(c, literals);
 				for (int i = 0; i < childrenCount; i++) {
-					final int var = solver.getSatInstance().getSignedVariable((Literal) literals[i]);
+					final int var = literals[i];
 					final int coreB = var * core[Math.abs(var) - 1];
 					if (coreB > 0) {
 						continue outer;
@@ -189,15 +189,15 @@ public class ImplicationSetsAnalysis extends AbstractAnalysis<Set<Relationship>>
 							continue outer;
 						}
 						childrenCount--;
-						final Node temp = literals[i];
+						final int temp = literals[i];
 						literals[i] = literals[childrenCount];
 						literals[childrenCount] = temp;
 						i--;
 					}
 				}
 				if (childrenCount == 2) {
-					final int x = solver.getSatInstance().getSignedVariable((Literal) literals[0]);
-					final int y = solver.getSatInstance().getSignedVariable((Literal) literals[1]);
+					final int x = literals[0];
+					final int y = literals[1];
 					if (Math.abs(x) < Math.abs(y)) {
 						addRelation(-x, y);
 					} else {
@@ -205,9 +205,9 @@ public class ImplicationSetsAnalysis extends AbstractAnalysis<Set<Relationship>>
 					}
 				}
 				for (int i = 0; i < childrenCount - 1; i++) {
-					final int x = solver.getSatInstance().getVariable((Literal) literals[i]) - 1;
+					final int x = Math.abs(literals[i]) - 1;
 					for (int j = i + 1; j < childrenCount; j++) {
-						final int y = solver.getSatInstance().getVariable((Literal) literals[j]) - 1;
+						final int y = Math.abs(literals[j]) - 1;
 						combinations[x * numVariables + y] |= BIT_CHECK;
 						combinations[y * numVariables + x] |= BIT_CHECK;
 					}
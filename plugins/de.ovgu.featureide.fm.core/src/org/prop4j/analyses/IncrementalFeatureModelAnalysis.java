@@ -0,0 +1,473 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2016  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ * 
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package org.prop4j.analyses;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import org.prop4j.And;
+import org.prop4j.Literal;
+import org.prop4j.Or;
+import org.prop4j.solver.ModifiableSolver;
+import org.prop4j.solver.SatInstance;
+import org.sat4j.specs.ContradictionException;
+import org.sat4j.specs.IConstr;
+
+import de.ovgu.featureide.fm.core.FeatureStatus;
+import de.ovgu.featureide.fm.core.base.FeatureUtils;
+import de.ovgu.featureide.fm.core.base.IConstraint;
+import de.ovgu.featureide.fm.core.base.IFeature;
+import de.ovgu.featureide.fm.core.base.IFeatureModel;
+import de.ovgu.featureide.fm.core.base.IFeatureStructure;
+import de.ovgu.featureide.fm.core.base.event.FeatureIDEEvent;
+import de.ovgu.featureide.fm.core.base.event.IEventListener;
+import de.ovgu.featureide.fm.core.editing.AdvancedNodeCreator;
+import de.ovgu.featureide.fm.core.editing.AdvancedNodeCreator.CNFType;
+import de.ovgu.featureide.fm.core.job.LongRunningMethod;
+import de.ovgu.featureide.fm.core.job.LongRunningWrapper;
+import de.ovgu.featureide.fm.core.job.monitor.IMonitor;
+
+/**
+ * Incremental version of the feature part of {@link FeatureModelAnalysis}.</br>
+ * Keeps one solver for the whole lifetime of a feature model and listens to its {@link FeatureIDEEvent}s.
+ * For each edit only the clauses of the changed constraint or feature group are retracted and re-added.
+ * Afterwards, only those attributes are checked again, whose supporting models were invalidated by the edit:
+ * <ul>
+ * <li>If clauses were only added, core, dead, and false-optional features stay as they are and only the remaining features are checked.</li>
+ * <li>If clauses were only removed, all other features stay as they are and only core, dead, and false-optional features are checked.</li>
+ * </ul>
+ * Edits that change the set of variables (e.g., adding, removing, or renaming features) lead to a complete rebuild.</br>
+ * Events are only recorded when they are fired and are applied with the next call of {@link #execute(IMonitor)},
+ * so that listeners of the feature model are never blocked by a running analysis.
+ */
+public class IncrementalFeatureModelAnalysis implements LongRunningMethod<HashMap<Object, Object>>, IEventListener {
+
+	private final IFeatureModel fm;
+	private final AdvancedNodeCreator nodeCreator;
+
+	private final HashMap<IFeature, List<IConstr>> structureMarkers = new HashMap<>();
+	private final HashMap<IConstraint, List<IConstr>> constraintMarkers = new HashMap<>();
+
+	private final List<IFeature> coreFeatures = new ArrayList<>();
+	private final List<IFeature> deadFeatures = new ArrayList<>();
+	private final List<IFeature> falseOptionalFeatures = new ArrayList<>();
+	private final HashMap<IFeature, FeatureStatus> featureStates = new HashMap<>();
+
+	private ModifiableSolver solver = null;
+
+	/**
+	 * Contains the known value of each variable (positive = core, negative = dead, 0 = unknown).
+	 */
+	private int[] knownValues = new int[0];
+	private final Set<IFeature> falseOptionalSet = new HashSet<>();
+
+	private boolean valid = false;
+
+	/**
+	 * Events fired since the last call of {@link #execute(IMonitor)}.
+	 */
+	private final ConcurrentLinkedQueue<FeatureIDEEvent> pendingEvents = new ConcurrentLinkedQueue<>();
+	private volatile boolean rebuildRequested = false;
+
+	private boolean rebuild = true;
+	private boolean strengthened = false;
+	private boolean weakened = false;
+
+	public IncrementalFeatureModelAnalysis(IFeatureModel fm) {
+		this.fm = fm;
+
+		nodeCreator = new AdvancedNodeCreator(fm);
+		nodeCreator.setCnfType(CNFType.Regular);
+		nodeCreator.setIncludeBooleanValues(false);
+		nodeCreator.setUseOldNames(false);
+	}
+
+	public synchronized boolean isValid() {
+		return valid;
+	}
+
+	public synchronized List<IFeature> getCoreFeatures() {
+		return new ArrayList<>(coreFeatures);
+	}
+
+	public synchronized List<IFeature> getDeadFeatures() {
+		return new ArrayList<>(deadFeatures);
+	}
+
+	public synchronized List<IFeature> getFalseOptionalFeatures() {
+		return new ArrayList<>(falseOptionalFeatures);
+	}
+
+	/**
+	 * Forces a complete rebuild of the solver with the next call of {@link #execute(IMonitor)}.
+	 */
+	public void reset() {
+		rebuildRequested = true;
+	}
+
+	@Override
+	public void propertyChange(FeatureIDEEvent event) {
+		if (event.getEventType() == null) {
+			rebuildRequested = true;
+		} else {
+			pendingEvents.add(event);
+		}
+	}
+
+	/**
+	 * Applies all events that were fired since the last call of {@link #execute(IMonitor)} to the solver.
+	 */
+	private void applyPendingEvents() {
+		if (rebuildRequested) {
+			rebuildRequested = false;
+			rebuild = true;
+		}
+		final List<FeatureIDEEvent> events = new ArrayList<>();
+		for (FeatureIDEEvent event = pendingEvents.poll(); event != null; event = pendingEvents.poll()) {
+			events.add(event);
+		}
+		// events are applied to the current state of the model, which may already contain later structural changes
+		for (FeatureIDEEvent event : events) {
+			if (isStructuralChange(event)) {
+				rebuild = true;
+			}
+		}
+		for (FeatureIDEEvent event : events) {
+			if (rebuild) {
+				return;
+			}
+			applyEvent(event);
+		}
+	}
+
+	private boolean isStructuralChange(FeatureIDEEvent event) {
+		switch (event.getEventType()) {
+		case FEATURE_ADD:
+		case FEATURE_ADD_ABOVE:
+		case FEATURE_DELETE:
+		case FEATURE_NAME_CHANGED:
+		case PARENT_CHANGED:
+		case CHILDREN_CHANGED:
+		case STRUCTURE_CHANGED:
+		case MODEL_DATA_CHANGED:
+		case MODEL_DATA_LOADED:
+			return true;
+		default:
+			return false;
+		}
+	}
+
+	private void applyEvent(FeatureIDEEvent event) {
+		switch (event.getEventType()) {
+		case CONSTRAINT_ADD:
+			if (event.getNewValue() instanceof IConstraint) {
+				addConstraint((IConstraint) event.getNewValue());
+			} else {
+				rebuild = true;
+			}
+			break;
+		case CONSTRAINT_DELETE:
+			if (event.getOldValue() instanceof IConstraint) {
+				removeConstraint((IConstraint) event.getOldValue());
+			} else {
+				rebuild = true;
+			}
+			break;
+		case CONSTRAINT_MODIFY:
+			if (event.getSource() instanceof IConstraint) {
+				final IConstraint constraint = (IConstraint) event.getSource();
+				removeConstraint(constraint);
+				addConstraint(constraint);
+			} else {
+				rebuild = true;
+			}
+			break;
+		case GROUP_TYPE_CHANGED:
+			// feature structures also fire this event if their children change
+			if (event.getSource() instanceof IFeature) {
+				updateStructure((IFeature) event.getSource());
+			} else {
+				rebuild = true;
+			}
+			break;
+		case MANDATORY_CHANGED:
+			updateStructure(FeatureUtils.getParent(getFeature(event.getSource())));
+			break;
+		default:
+			break;
+		}
+	}
+
+	@Override
+	public synchronized HashMap<Object, Object> execute(IMonitor monitor) throws Exception {
+		monitor.setRemainingWork(4);
+		final HashMap<Object, Object> changedAttributes = new HashMap<>();
+
+		// put root always in so it will be refreshed (void/non-void)
+		changedAttributes.put(fm.getStructure().getRoot().getFeature(), FeatureStatus.NORMAL);
+
+		applyPendingEvents();
+		if (rebuild) {
+			init();
+		}
+		monitor.step();
+
+		if (strengthened || weakened) {
+			final boolean wasValid = valid;
+			valid = solver != null && solver.findModel() != null;
+			if (valid) {
+				if (!wasValid) {
+					strengthened = true;
+					weakened = true;
+				}
+				updateCoreDead(monitor.subTask(1));
+				updateFalseOptional(monitor.subTask(1));
+			} else {
+				knownValues = new int[knownValues.length];
+				falseOptionalSet.clear();
+				monitor.step();
+				monitor.step();
+			}
+			updateFeatureStates(changedAttributes);
+			monitor.step();
+			strengthened = false;
+			weakened = false;
+		}
+		return changedAttributes;
+	}
+
+	private void init() {
+		structureMarkers.clear();
+		constraintMarkers.clear();
+		featureStates.clear();
+		falseOptionalSet.clear();
+		strengthened = true;
+		weakened = true;
+		rebuild = false;
+
+		final List<String> featureNames = FeatureUtils.getFeatureNamesPreorder(fm);
+		knownValues = new int[featureNames.size()];
+		try {
+			solver = new ModifiableSolver(new SatInstance(new And(), featureNames));
+			final IFeature root = FeatureUtils.getRoot(fm);
+			if (root != null) {
+				solver.addClauses(new And(new Or(new Literal(root.getName()))));
+			}
+			for (IFeature feature : fm.getFeatures()) {
+				structureMarkers.put(feature, solver.addClauses(new And(nodeCreator.createStructuralNodes(feature))));
+			}
+			for (IConstraint constraint : fm.getConstraints()) {
+				constraintMarkers.put(constraint, solver.addClauses(FeatureModelAnalysis.makeRegular(constraint.getNode())));
+			}
+		} catch (ContradictionException e) {
+			solver = null;
+			rebuild = true;
+		}
+	}
+
+	private void addConstraint(IConstraint constraint) {
+		try {
+			constraintMarkers.put(constraint, solver.addClauses(FeatureModelAnalysis.makeRegular(constraint.getNode())));
+			strengthened = true;
+		} catch (ContradictionException e) {
+			rebuild = true;
+		}
+	}
+
+	private void removeConstraint(IConstraint constraint) {
+		if (!removeMarkers(constraintMarkers.remove(constraint))) {
+			rebuild = true;
+		}
+	}
+
+	private void updateStructure(IFeature feature) {
+		if (feature == null || !removeMarkers(structureMarkers.remove(feature))) {
+			rebuild = true;
+			return;
+		}
+		try {
+			structureMarkers.put(feature, solver.addClauses(new And(nodeCreator.createStructuralNodes(feature))));
+			strengthened = true;
+		} catch (ContradictionException e) {
+			rebuild = true;
+		}
+	}
+
+	/**
+	 * Retracts the given clauses from the solver.
+	 * 
+	 * @return {@code false} if the clauses cannot be retracted safely (i.e., unit clauses, which are part of the solver's trail), {@code true} otherwise.
+	 */
+	private boolean removeMarkers(List<IConstr> markers) {
+		if (markers == null) {
+			return false;
+		}
+		for (IConstr constr : markers) {
+			if (constr == null || constr.size() < 2) {
+				return false;
+			}
+		}
+		for (IConstr constr : markers) {
+			solver.removeConstraint(constr);
+		}
+		weakened = true;
+		return true;
+	}
+
+	private IFeature getFeature(Object source) {
+		if (source instanceof IFeature) {
+			return (IFeature) source;
+		} else if (source instanceof IFeatureStructure) {
+			return ((IFeatureStructure) source).getFeature();
+		}
+		return null;
+	}
+
+	private void updateCoreDead(IMonitor monitor) {
+		final int[] candidates;
+		final int[] assumptions;
+		if (strengthened && !weakened) {
+			// previously core and dead features remain core and dead
+			assumptions = getVariables(true);
+			candidates = getVariables(false);
+		} else if (weakened && !strengthened) {
+			// previously variable features remain variable
+			assumptions = new int[0];
+			candidates = getVariables(true);
+		} else {
+			assumptions = new int[0];
+			candidates = new int[knownValues.length];
+			for (int i = 0; i < candidates.length; i++) {
+				candidates[i] = i + 1;
+			}
+		}
+
+		for (int var : candidates) {
+			knownValues[Math.abs(var) - 1] = 0;
+		}
+		if (candidates.length > 0) {
+			final CoreDeadAnalysis analysis = new CoreDeadAnalysis(solver, getAbsoluteVariables(candidates));
+			analysis.setAssumptions(assumptions);
+			final int[] result = LongRunningWrapper.runMethod(analysis, monitor);
+			if (result != null) {
+				for (int var : result) {
+					knownValues[Math.abs(var) - 1] = var;
+				}
+			}
+		} else {
+			monitor.done();
+		}
+	}
+
+	private void updateFalseOptional(IMonitor monitor) {
+		final SatInstance si = solver.getSatInstance();
+		final boolean checkNew = strengthened;
+		final boolean checkOld = weakened;
+		if (checkOld && checkNew) {
+			falseOptionalSet.clear();
+		}
+
+		final List<int[]> possibleFOFeatures = new ArrayList<>();
+		for (IFeature feature : fm.getFeatures()) {
+			final IFeature parent = FeatureUtils.getParent(feature);
+			if (parent != null && (!feature.getStructure().isMandatorySet() || !parent.getStructure().isAnd())) {
+				final boolean wasFalseOptional = falseOptionalSet.contains(feature);
+				if ((wasFalseOptional && checkOld) || (!wasFalseOptional && checkNew)) {
+					falseOptionalSet.remove(feature);
+					possibleFOFeatures.add(new int[] { -si.getVariable(parent.getName()), si.getVariable(feature.getName()) });
+				}
+			}
+		}
+
+		if (!possibleFOFeatures.isEmpty()) {
+			final List<int[]> result = LongRunningWrapper.runMethod(new ImplicationAnalysis(solver, possibleFOFeatures), monitor);
+			if (result != null) {
+				for (int[] pair : result) {
+					falseOptionalSet.add(fm.getFeature((CharSequence) si.getVariableObject(pair[1])));
+				}
+			}
+		} else {
+			monitor.done();
+		}
+	}
+
+	private void updateFeatureStates(HashMap<Object, Object> changedAttributes) {
+		final SatInstance si = solver != null ? solver.getSatInstance() : null;
+		coreFeatures.clear();
+		deadFeatures.clear();
+		falseOptionalFeatures.clear();
+
+		for (IFeature feature : fm.getFeatures()) {
+			FeatureStatus newStatus = FeatureStatus.NORMAL;
+			if (valid) {
+				if (falseOptionalSet.contains(feature)) {
+					falseOptionalFeatures.add(feature);
+					newStatus = FeatureStatus.FALSE_OPTIONAL;
+				}
+				final int value = knownValues[si.getVariable(feature.getName()) - 1];
+				if (value < 0) {
+					deadFeatures.add(feature);
+					newStatus = FeatureStatus.DEAD;
+				} else if (value > 0) {
+					coreFeatures.add(feature);
+				}
+			}
+			if (featureStates.put(feature, newStatus) != newStatus) {
+				changedAttributes.put(feature, newStatus);
+				feature.getProperty().setFeatureStatus(newStatus, false);
+			}
+		}
+	}
+
+	private int[] getVariables(boolean known) {
+		int count = 0;
+		for (int i = 0; i < knownValues.length; i++) {
+			if ((knownValues[i] != 0) == known) {
+				count++;
+			}
+		}
+		final int[] result = new int[count];
+		count = 0;
+		for (int i = 0; i < knownValues.length; i++) {
+			if (knownValues[i] != 0) {
+				if (known) {
+					result[count++] = knownValues[i];
+				}
+			} else if (!known) {
+				result[count++] = i + 1;
+			}
+		}
+		return result;
+	}
+
+	private static int[] getAbsoluteVariables(int[] literals) {
+		final int[] result = new int[literals.length];
+		for (int i = 0; i < literals.length; i++) {
+			result[i] = Math.abs(literals[i]);
+		}
+		return result;
+	}
+
+}
@@ -0,0 +1,158 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2016  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ * 
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package org.prop4j.analyses;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.prop4j.Node;
+import org.prop4j.solver.ModifiableSolver;
+import org.prop4j.solver.SatInstance;
+import org.sat4j.specs.ContradictionException;
+import org.sat4j.specs.IConstr;
+
+import de.ovgu.featureide.fm.core.Logger;
+import de.ovgu.featureide.fm.core.conf.worker.base.AWorkerThread;
+import de.ovgu.featureide.fm.core.job.monitor.IMonitor;
+
+/**
+ * Pre-filters redundant constraints in parallel.</br>
+ * Each worker uses its own clone of the solver containing all constraints and checks, whether a constraint is implied by all other constraints.
+ * A constraint that is not implied by all other constraints can never be redundant, which is why the sequential check in
+ * {@link FeatureModelAnalysis} only needs to examine the remaining candidates.
+ * Results are written to a shared array by constraint index, so the outcome does not depend on the thread scheduling.
+ */
+class RedundantConstraintThread extends AWorkerThread<Integer> {
+
+	private static class SharedObjects {
+		private final ModifiableSolver solver;
+		private final List<Node> cnfNodes;
+		private final boolean[] candidates;
+
+		public SharedObjects(ModifiableSolver solver, List<Node> cnfNodes) {
+			this.solver = solver;
+			this.cnfNodes = cnfNodes;
+			this.candidates = new boolean[cnfNodes.size()];
+		}
+	}
+
+	private final SharedObjects sharedObjects;
+
+	private ModifiableSolver solver;
+	private List<List<IConstr>> constraintMarkers;
+
+	/**
+	 * @param solver the solver that is cloned for each worker (a clone contains only the clauses of the solver's {@link SatInstance})
+	 * @param cnfNodes the regular cnf of each constraint
+	 * @param monitor the monitor
+	 */
+	public RedundantConstraintThread(ModifiableSolver solver, List<Node> cnfNodes, IMonitor monitor) {
+		super(monitor);
+		this.sharedObjects = new SharedObjects(solver, cnfNodes);
+	}
+
+	private RedundantConstraintThread(RedundantConstraintThread oldThread) {
+		super(oldThread);
+		this.sharedObjects = oldThread.sharedObjects;
+	}
+
+	/**
+	 * @return for each constraint, whether it is implied by all other constraints (and, therefore, possibly redundant)
+	 */
+	public boolean[] getCandidates() {
+		return sharedObjects.candidates;
+	}
+
+	@Override
+	protected boolean beforeWork() {
+		solver = sharedObjects.solver.clone();
+		constraintMarkers = new ArrayList<>(sharedObjects.cnfNodes.size());
+		try {
+			for (Node cnf : sharedObjects.cnfNodes) {
+				constraintMarkers.add(solver.addClauses(cnf));
+			}
+		} catch (ContradictionException e) {
+			Logger.logError(e);
+			return false;
+		}
+		return super.beforeWork();
+	}
+
+	@Override
+	protected void afterWork(boolean success) {
+		if (!success) {
+			// without a working solver every constraint has to be checked sequentially
+			for (int i = 0; i < sharedObjects.candidates.length; i++) {
+				sharedObjects.candidates[i] = true;
+			}
+		}
+		solver = null;
+		constraintMarkers = null;
+	}
+
+	@Override
+	protected void work(Integer index) {
+		final int i = index;
+		sharedObjects.candidates[i] = isImpliedByOthers(i);
+	}
+
+	private boolean isImpliedByOthers(int i) {
+		final List<IConstr> markers = constraintMarkers.get(i);
+		for (IConstr cm : markers) {
+			// unit clauses cannot be removed safely, so the sequential check has to decide
+			if (cm != null && cm.size() < 2) {
+				return true;
+			}
+		}
+
+		boolean removedAtLeastOne = false;
+		for (IConstr cm : markers) {
+			if (cm != null) {
+				removedAtLeastOne = true;
+				solver.removeConstraint(cm);
+			}
+		}
+		if (!removedAtLeastOne) {
+			return true;
+		}
+
+		boolean implied = true;
+		final Node constraintNode = sharedObjects.cnfNodes.get(i);
+		for (Node clause : constraintNode.getChildren()) {
+			if (!solver.isImplied(clause.getChildren())) {
+				implied = false;
+				break;
+			}
+		}
+		try {
+			constraintMarkers.set(i, solver.addClauses(constraintNode));
+		} catch (ContradictionException e) {
+			Logger.logError(e);
+		}
+		return implied;
+	}
+
+	@Override
+	protected AWorkerThread<Integer> newThread() {
+		return new RedundantConstraintThread(this);
+	}
+
+}
@@ -0,0 +1,557 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2016  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ * 
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package org.prop4j.analyses;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.prop4j.solver.BackboneFinder;
+import org.prop4j.solver.ISatSolver;
+import org.prop4j.solver.ISatSolver.SatResult;
+import org.prop4j.solver.SatInstance;
+import org.sat4j.specs.IVecInt;
+import org.sat4j.specs.IteratorInt;
+
+import de.ovgu.featureide.fm.core.Logger;
+import de.ovgu.featureide.fm.core.job.monitor.IMonitor;
+
+/**
+ * Creates a sample that covers all valid t-wise interactions (t = 1 to 4) of the features.</br>
+ * </br>
+ * The interactions are enumerated one after another. An interaction that is not covered yet is added to the first partial configuration that is
+ * still satisfiable with it. If there is none, a new partial configuration is started. For each partial configuration, a model is kept, such that
+ * many interactions can be added without calling a solver. Otherwise, the candidates are tested by multiple solvers in parallel.</br>
+ * Instead of storing the coverage for each interaction, the generator stores a bitset for each literal, which contains the configurations that
+ * contain the literal. An interaction is covered iff the intersection of the bitsets of its literals is not empty. Thus, the memory only grows with
+ * the number of variables and configurations.</br>
+ * Configurations are completed and put into the {@link #q queue} as soon as all variables are fixed or too many configurations are open, so
+ * consumers can start before the sampling is finished.
+ */
+public class TWiseConfigurationGenerator extends PairWiseConfigurationGenerator {
+
+	public static final int MAX_T = 4;
+
+	public static final int DEFAULT_MAX_OPEN_CONFIGURATIONS = 64;
+
+	/**
+	 * A configuration that is not completed yet.
+	 */
+	private static class PartialConfiguration {
+		private final int index;
+		/**
+		 * The fixed value for each variable ({@code 1}, {@code -1}, or {@code 0}).
+		 */
+		private final byte[] assignment;
+		private int[] literals;
+		private int numberOfLiterals = 0;
+		private int[] model;
+
+		public PartialConfiguration(int index, int numberOfVariables, int[] model) {
+			this.index = index;
+			this.assignment = new byte[numberOfVariables + 1];
+			this.literals = new int[8];
+			this.model = model;
+		}
+
+		public boolean contradicts(int[] interaction) {
+			for (int literal : interaction) {
+				if (assignment[Math.abs(literal)] == (literal > 0 ? -1 : 1)) {
+					return true;
+				}
+			}
+			return false;
+		}
+
+		public boolean isContainedInModel(int[] interaction) {
+			for (int literal : interaction) {
+				if (model[Math.abs(literal) - 1] != literal) {
+					return false;
+				}
+			}
+			return true;
+		}
+	}
+
+	private final int t;
+	private int numberOfThreads = 1;
+	private int maxOpenConfigurations = DEFAULT_MAX_OPEN_CONFIGURATIONS;
+
+	private int numberOfVariables;
+	private int baseAssignment;
+	private int[] variables;
+	private ISatSolver[] solvers;
+	private ExecutorService executor;
+
+	private final LinkedList<PartialConfiguration> openConfigurations = new LinkedList<>();
+	private int numberOfConfigurations;
+	private boolean limitReached;
+
+	/**
+	 * The number of interactions that could be neither covered nor proven invalid, because the solver timed out.
+	 */
+	private int numberOfUncoveredInteractions;
+
+	/**
+	 * For each literal (at index {@link #getLiteralIndex(int)}), the configurations that contain it.
+	 */
+	private long[][] literalBits;
+	private int words;
+	private long[][] prefixBits;
+	private boolean bitsChanged;
+
+	/**
+	 * Invalid interactions with less than t literals, encoded with {@link #getKey(int[], int)}.
+	 */
+	private final Set<Long> invalidInteractions = new HashSet<>();
+
+	/**
+	 * @param satInstance the formula
+	 * @param t the strength of the interactions (1 to {@link #MAX_T})
+	 * @param maxNumber the maximum number of configurations
+	 */
+	public TWiseConfigurationGenerator(SatInstance satInstance, int t, int maxNumber) {
+		super(satInstance, maxNumber);
+		if (t < 1 || t > MAX_T) {
+			throw new IllegalArgumentException("t must be between 1 and " + MAX_T + " (was " + t + ").");
+		}
+		this.t = t;
+	}
+
+	public int getT() {
+		return t;
+	}
+
+	public int getNumberOfThreads() {
+		return numberOfThreads;
+	}
+
+	/**
+	 * @param numberOfThreads the number of solvers that test candidate configurations in parallel
+	 */
+	public void setNumberOfThreads(int numberOfThreads) {
+		this.numberOfThreads = Math.max(1, numberOfThreads);
+	}
+
+	/**
+	 * @return the number of interactions of the last run that are not covered by the sample, because the solver timed out
+	 */
+	public int getNumberOfUncoveredInteractions() {
+		return numberOfUncoveredInteractions;
+	}
+
+	public int getMaxOpenConfigurations() {
+		return maxOpenConfigurations;
+	}
+
+	/**
+	 * @param maxOpenConfigurations the maximum number of partial configurations. If exceeded, the oldest one is completed. Higher values lead to
+	 *            smaller samples, lower values lead to earlier results.
+	 */
+	public void setMaxOpenConfigurations(int maxOpenConfigurations) {
+		this.maxOpenConfigurations = Math.max(1, maxOpenConfigurations);
+	}
+
+	@Override
+	public List<List<String>> analyze(IMonitor monitor) throws Exception {
+		if (maxNumber <= 0) {
+			return getConfigurations();
+		}
+		time = System.nanoTime();
+		synchronized (tempConfigurationList) {
+			tempConfigurationList.clear();
+		}
+
+		final int[] firstModel = solver.findModel();
+		if (firstModel == null) {
+			return getConfigurations();
+		}
+		numberOfVariables = solver.getSatInstance().getNumberOfVariables();
+		baseAssignment = solver.getAssignment().size();
+		variables = findVariables(firstModel, monitor);
+
+		words = 1;
+		literalBits = new long[numberOfVariables << 1][words];
+		prefixBits = new long[MAX_T][words];
+		openConfigurations.clear();
+		numberOfConfigurations = 0;
+		numberOfUncoveredInteractions = 0;
+		limitReached = false;
+
+		solvers = new ISatSolver[numberOfThreads];
+		solvers[0] = solver;
+		for (int i = 1; i < numberOfThreads; i++) {
+			solvers[i] = solver.clone();
+		}
+		executor = (numberOfThreads > 1) ? Executors.newFixedThreadPool(numberOfThreads - 1) : null;
+		try {
+			final int strength = Math.min(t, variables.length);
+			if (strength == 0) {
+				addConfiguration(new int[0], toModel(firstModel));
+			} else {
+				monitor.setRemainingWork(variables.length - strength + 1);
+				coverInteractions(new int[strength], 0, 0, monitor);
+			}
+			while (!openConfigurations.isEmpty()) {
+				complete(openConfigurations.getFirst());
+			}
+			if (numberOfUncoveredInteractions > 0) {
+				Logger.logWarning(numberOfUncoveredInteractions + " interactions are not covered by the " + t + "-wise sample due to solver timeouts.");
+			}
+		} finally {
+			if (executor != null) {
+				executor.shutdownNow();
+				executor = null;
+			}
+			solvers = null;
+		}
+		return getConfigurations();
+	}
+
+	/**
+	 * @return all variables of features that are neither core nor dead
+	 */
+	private int[] findVariables(int[] firstModel, IMonitor monitor) {
+		final int numberOfFeatureVariables = solver.getSatInstance().getNumberOfFeatureVariables();
+		final int[] candidates = new int[numberOfVariables];
+		for (int literal : firstModel) {
+			if (Math.abs(literal) <= numberOfFeatureVariables) {
+				candidates[Math.abs(literal) - 1] = literal;
+			}
+		}
+		final IVecInt assignment = solver.getAssignment();
+		new BackboneFinder(solver.getInternalSolver(), assignment).findBackbone(candidates, monitor.subTask(0));
+		final boolean[] fixed = new boolean[numberOfVariables + 1];
+		for (IteratorInt it = assignment.iterator(); it.hasNext();) {
+			fixed[Math.abs(it.next())] = true;
+		}
+		solver.assignmentClear(baseAssignment);
+
+		final int[] result = new int[numberOfFeatureVariables];
+		int size = 0;
+		for (int variable = 1; variable <= numberOfFeatureVariables; variable++) {
+			if (!fixed[variable]) {
+				result[size++] = variable;
+			}
+		}
+		return Arrays.copyOf(result, size);
+	}
+
+	/**
+	 * Enumerates all interactions and adds each uncovered interaction to a configuration.
+	 * The intersection of the bitsets of the first literals is stored in {@link #prefixBits} for each level.
+	 */
+	private void coverInteractions(int[] interaction, int level, int start, IMonitor monitor) {
+		final int lastLevel = interaction.length - 1;
+		for (int i = start, end = variables.length - lastLevel + level; i < end; i++) {
+			if (level == 0) {
+				monitor.checkCancel();
+			}
+			for (int sign = -1; sign <= 1; sign += 2) {
+				interaction[level] = sign * variables[i];
+				if (bitsChanged) {
+					for (int j = 0; j < level; j++) {
+						updatePrefix(interaction, j);
+					}
+					bitsChanged = false;
+				}
+				updatePrefix(interaction, level);
+				if (level < lastLevel) {
+					coverInteractions(interaction, level + 1, i + 1, monitor);
+				} else if (isEmpty(prefixBits[level])) {
+					coverInteraction(interaction);
+				}
+				if (limitReached) {
+					return;
+				}
+			}
+			if (level == 0) {
+				monitor.step();
+			}
+		}
+	}
+
+	private void updatePrefix(int[] interaction, int level) {
+		final long[] bits = literalBits[getLiteralIndex(interaction[level])];
+		final long[] prefix = prefixBits[level];
+		if (level == 0) {
+			System.arraycopy(bits, 0, prefix, 0, words);
+		} else {
+			final long[] lastPrefix = prefixBits[level - 1];
+			for (int i = 0; i < words; i++) {
+				prefix[i] = lastPrefix[i] & bits[i];
+			}
+		}
+	}
+
+	private void coverInteraction(int[] interaction) {
+		if (isKnownInvalid(interaction)) {
+			return;
+		}
+
+		final List<PartialConfiguration> candidates = new ArrayList<>(openConfigurations.size());
+		for (PartialConfiguration configuration : openConfigurations) {
+			if (!configuration.contradicts(interaction)) {
+				if (configuration.isContainedInModel(interaction)) {
+					addLiterals(configuration, interaction);
+					return;
+				}
+				candidates.add(configuration);
+			}
+		}
+
+		for (int i = 0; i < candidates.size(); i += numberOfThreads) {
+			final List<PartialConfiguration> wave = candidates.subList(i, Math.min(i + numberOfThreads, candidates.size()));
+			final int[][] models = testCandidates(wave, interaction);
+			for (int j = 0; j < models.length; j++) {
+				if (models[j] != null) {
+					final PartialConfiguration configuration = wave.get(j);
+					configuration.model = models[j];
+					addLiterals(configuration, interaction);
+					return;
+				}
+			}
+		}
+
+		final ISatSolver mainSolver = solvers[0];
+		for (int literal : interaction) {
+			mainSolver.assignmentPush(literal);
+		}
+		try {
+			switch (mainSolver.isSatisfiable()) {
+			case FALSE:
+				addInvalidInteraction(mainSolver.getInternalSolver().unsatExplanation());
+				break;
+			case TIMEOUT:
+				numberOfUncoveredInteractions++;
+				break;
+			case TRUE:
+				if (numberOfConfigurations < maxNumber) {
+					addConfiguration(interaction, toModel(mainSolver.getModel()));
+				} else {
+					limitReached = true;
+				}
+				break;
+			}
+		} finally {
+			mainSolver.assignmentClear(baseAssignment);
+		}
+	}
+
+	/**
+	 * Tests whether the given configurations remain satisfiable with the interaction. Each configuration is tested by its own solver.
+	 * 
+	 * @return for each configuration a new model or {@code null}
+	 */
+	private int[][] testCandidates(final List<PartialConfiguration> wave, final int[] interaction) {
+		final int[][] models = new int[wave.size()][];
+		if (wave.size() == 1) {
+			models[0] = testCandidate(solvers[0], wave.get(0), interaction);
+			return models;
+		}
+		final List<Future<int[]>> futures = new ArrayList<>(wave.size() - 1);
+		for (int i = 1; i < wave.size(); i++) {
+			final ISatSolver workerSolver = solvers[i];
+			final PartialConfiguration configuration = wave.get(i);
+			futures.add(executor.submit(new Callable<int[]>() {
+				@Override
+				public int[] call() {
+					return testCandidate(workerSolver, configuration, interaction);
+				}
+			}));
+		}
+		models[0] = testCandidate(solvers[0], wave.get(0), interaction);
+		for (int i = 1; i < wave.size(); i++) {
+			try {
+				models[i] = futures.get(i - 1).get();
+			} catch (Exception e) {
+				throw new RuntimeException(e);
+			}
+		}
+		return models;
+	}
+
+	private int[] testCandidate(ISatSolver candidateSolver, PartialConfiguration configuration, int[] interaction) {
+		for (int i = 0; i < configuration.numberOfLiterals; i++) {
+			candidateSolver.assignmentPush(configuration.literals[i]);
+		}
+		for (int literal : interaction) {
+			if (configuration.assignment[Math.abs(literal)] == 0) {
+				candidateSolver.assignmentPush(literal);
+			}
+		}
+		try {
+			return candidateSolver.isSatisfiable() == SatResult.TRUE ? toModel(candidateSolver.getModel()) : null;
+		} finally {
+			candidateSolver.assignmentClear(baseAssignment);
+		}
+	}
+
+	private void addConfiguration(int[] interaction, int[] model) {
+		final PartialConfiguration configuration = new PartialConfiguration(numberOfConfigurations++, numberOfVariables, model);
+		if (numberOfConfigurations > (words << 6)) {
+			words <<= 1;
+			for (int i = 0; i < literalBits.length; i++) {
+				literalBits[i] = Arrays.copyOf(literalBits[i], words);
+			}
+			for (int i = 0; i < prefixBits.length; i++) {
+				prefixBits[i] = new long[words];
+			}
+		}
+		openConfigurations.add(configuration);
+		addLiterals(configuration, interaction);
+		if (openConfigurations.size() > maxOpenConfigurations) {
+			complete(openConfigurations.getFirst());
+		}
+	}
+
+	private void addLiterals(PartialConfiguration configuration, int[] interaction) {
+		for (int literal : interaction) {
+			final int variable = Math.abs(literal);
+			if (configuration.assignment[variable] == 0) {
+				configuration.assignment[variable] = (byte) (literal > 0 ? 1 : -1);
+				if (configuration.numberOfLiterals == configuration.literals.length) {
+					configuration.literals = Arrays.copyOf(configuration.literals, configuration.numberOfLiterals << 1);
+				}
+				configuration.literals[configuration.numberOfLiterals++] = literal;
+				setBit(literal, configuration.index);
+			}
+		}
+		if (configuration.numberOfLiterals == variables.length) {
+			complete(configuration);
+		}
+	}
+
+	/**
+	 * Fixes all remaining variables of a configuration according to its model and puts it into the queue.
+	 */
+	private void complete(PartialConfiguration configuration) {
+		for (int variable : variables) {
+			if (configuration.assignment[variable] == 0) {
+				setBit(configuration.model[variable - 1], configuration.index);
+			}
+		}
+		for (Iterator<PartialConfiguration> it = openConfigurations.iterator(); it.hasNext();) {
+			if (it.next() == configuration) {
+				it.remove();
+				break;
+			}
+		}
+
+		final Configuration config = new Configuration(configuration.model, 0, 0);
+		config.time = System.nanoTime() - time;
+		q.offer(config);
+		synchronized (tempConfigurationList) {
+			tempConfigurationList.add(config);
+		}
+		time = System.nanoTime();
+	}
+
+	private void setBit(int literal, int index) {
+		literalBits[getLiteralIndex(literal)][index >> 6] |= 1L << index;
+		bitsChanged = true;
+	}
+
+	private boolean isKnownInvalid(int[] interaction) {
+		if (invalidInteractions.isEmpty()) {
+			return false;
+		}
+		final int[] subset = new int[interaction.length];
+		for (int mask = 1, end = (1 << interaction.length) - 1; mask < end; mask++) {
+			int size = 0;
+			for (int i = 0; i < interaction.length; i++) {
+				if ((mask & (1 << i)) != 0) {
+					subset[size++] = interaction[i];
+				}
+			}
+			if (size > 1 && invalidInteractions.contains(getKey(subset, size))) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Remembers the literals of an unsatisfiable core, if it is smaller than t.
+	 */
+	private void addInvalidInteraction(IVecInt explanation) {
+		if (explanation != null && explanation.size() > 1 && explanation.size() < t) {
+			final int[] literals = new int[explanation.size()];
+			int size = 0;
+			for (IteratorInt it = explanation.iterator(); it.hasNext();) {
+				literals[size++] = it.next();
+			}
+			invalidInteractions.add(getKey(literals, size));
+		}
+	}
+
+	/**
+	 * @return a unique key for the given literals (in any order)
+	 */
+	private long getKey(int[] literals, int size) {
+		final int[] indices = new int[size];
+		for (int i = 0; i < size; i++) {
+			indices[i] = getLiteralIndex(literals[i]);
+		}
+		Arrays.sort(indices);
+		long key = 0;
+		for (int index : indices) {
+			key = (key << 21) | (index + 1);
+		}
+		return key;
+	}
+
+	private static int getLiteralIndex(int literal) {
+		return literal > 0 ? ((literal - 1) << 1) + 1 : (-literal - 1) << 1;
+	}
+
+	private boolean isEmpty(long[] bits) {
+		for (int i = 0; i < words; i++) {
+			if (bits[i] != 0) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * @return a model with the literal of variable {@code i + 1} at index {@code i}
+	 */
+	private int[] toModel(int[] solverModel) {
+		final int[] model = new int[numberOfVariables];
+		for (int i = 0; i < numberOfVariables; i++) {
+			model[i] = -(i + 1);
+		}
+		for (int literal : solverModel) {
+			model[Math.abs(literal) - 1] = literal;
+		}
+		return model;
+	}
+
+}
@@ -0,0 +1,114 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2016  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ * 
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package org.prop4j.analyses;
+
+import java.math.BigInteger;
+import java.util.BitSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import org.prop4j.solver.DDNNF;
+import org.prop4j.solver.DDNNFCompiler;
+import org.prop4j.solver.SatInstance;
+import org.sat4j.specs.TimeoutException;
+
+import de.ovgu.featureide.fm.core.Logger;
+import de.ovgu.featureide.fm.core.job.monitor.IMonitor;
+
+/**
+ * Finds distinct solutions of propositional formulas uniformly at random.</br>
+ * The formula is compiled into a {@link DDNNF} once, afterwards each solution is drawn in linear time in the size of the d-DNNF.
+ * If the compilation exceeds the {@link #setCompilationTimeout(long) timeout}, the solutions are created by the {@link RandomConfigurationGenerator
+ * solver based approach}, which is not uniform.
+ */
+public class UniformRandomConfigurationGenerator extends RandomConfigurationGenerator {
+
+	public static final long DEFAULT_COMPILATION_TIMEOUT = 60000;
+
+	private final int maxValue;
+
+	private long compilationTimeout = DEFAULT_COMPILATION_TIMEOUT;
+	private Random random = new Random();
+
+	public UniformRandomConfigurationGenerator(SatInstance satInstance, int maxValue) {
+		super(satInstance, maxValue);
+		this.maxValue = maxValue;
+	}
+
+	public long getCompilationTimeout() {
+		return compilationTimeout;
+	}
+
+	/**
+	 * @param compilationTimeout the maximum time for compiling the formula in milliseconds ({@code 0} for no limit)
+	 */
+	public void setCompilationTimeout(long compilationTimeout) {
+		this.compilationTimeout = compilationTimeout;
+	}
+
+	public void setRandom(Random random) {
+		this.random = random;
+	}
+
+	@Override
+	public List<List<String>> analyze(IMonitor monitor) throws Exception {
+		final DDNNFCompiler compiler = new DDNNFCompiler(solver.getSatInstance());
+		compiler.setTimeout(compilationTimeout);
+		final DDNNF ddnnf;
+		try {
+			ddnnf = compiler.execute(monitor);
+		} catch (TimeoutException e) {
+			Logger.logWarning("Compilation of the formula timed out, falling back to non-uniform random sampling.");
+			return super.analyze(monitor);
+		}
+
+		time = System.nanoTime();
+		final DDNNF.Sampler sampler = ddnnf.getSampler(solver.getAssignmentArray(0, solver.getAssignment().size()), random);
+		final BigInteger numberOfModels = sampler.getNumberOfModels();
+		final int numberOfSamples = (numberOfModels.bitLength() < Integer.SIZE) ? Math.min(maxValue, numberOfModels.intValue()) : maxValue;
+
+		final Set<BitSet> samples = new HashSet<>();
+		while (samples.size() < numberOfSamples) {
+			monitor.checkCancel();
+			final int[] model = sampler.next();
+			final BitSet selection = new BitSet(model.length);
+			for (int literal : model) {
+				if (literal > 0) {
+					selection.set(literal);
+				}
+			}
+			if (samples.add(selection)) {
+				final Configuration config = new Configuration(model, 0, 0);
+				config.time = System.nanoTime() - time;
+				q.offer(config);
+				synchronized (tempConfigurationList) {
+					tempConfigurationList.add(config);
+				}
+				time = System.nanoTime();
+			}
+		}
+
+		return getConfigurations();
+	}
+
+}
@@ -0,0 +1,165 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2016  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ * 
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package org.prop4j.solver;
+
+import org.sat4j.specs.ISolver;
+import org.sat4j.specs.IVecInt;
+import org.sat4j.specs.IteratorInt;
+import org.sat4j.specs.TimeoutException;
+
+import de.ovgu.featureide.fm.core.Logger;
+import de.ovgu.featureide.fm.core.job.monitor.IMonitor;
+
+/**
+ * Computes the backbone (i.e., all literals that are implied by the formula) for a set of candidate literals.</br>
+ * Instead of testing each candidate separately, the negations of a whole chunk of candidates are assumed at once.
+ * If the solver finds a model, it rules out all candidates of the chunk (and possibly many more) with a single call.
+ * Otherwise, the unsatisfiable core in terms of assumptions is used to identify a backbone literal.
+ * The chunk size adapts to the results, such that the number of solver calls approaches the number of backbone literals.
+ */
+public class BackboneFinder {
+
+	public static final int DEFAULT_CHUNK_SIZE = 64;
+
+	private final ISolver solver;
+	private final IVecInt assumptions;
+
+	private int maxChunkSize = DEFAULT_CHUNK_SIZE;
+	private boolean timeoutOccurred = false;
+
+	/**
+	 * @param solver the solver containing the formula
+	 * @param assumptions the current assumptions; found backbone literals are pushed onto this vector
+	 */
+	public BackboneFinder(ISolver solver, IVecInt assumptions) {
+		this.solver = solver;
+		this.assumptions = assumptions;
+	}
+
+	/**
+	 * Tests all candidate literals.
+	 * Every found backbone literal is pushed onto the assumptions and passed to {@link IMonitor#invoke(Object)}.
+	 * 
+	 * @param candidates a (partial) model of the formula, i.e., at index {@code i} either {@code 0} or a literal of variable {@code i + 1}.
+	 *            The array is modified during the computation and contains only zeros afterwards.
+	 * @param monitor the monitor
+	 */
+	public void findBackbone(int[] candidates, IMonitor monitor) {
+		timeoutOccurred = false;
+		int chunkSize = maxChunkSize;
+		int start = 0;
+		while (true) {
+			monitor.checkCancel();
+			while (start < candidates.length && candidates[start] == 0) {
+				start++;
+			}
+			if (start == candidates.length) {
+				return;
+			}
+
+			final int assumptionSize = assumptions.size();
+			for (int i = start; i < candidates.length && (assumptions.size() - assumptionSize) < chunkSize; i++) {
+				final int candidate = candidates[i];
+				if (candidate != 0) {
+					assumptions.push(-candidate);
+				}
+			}
+			final int count = assumptions.size() - assumptionSize;
+
+			try {
+				if (solver.isSatisfiable(assumptions, false)) {
+					assumptions.shrinkTo(assumptionSize);
+					final int[] model = solver.model();
+					SatInstance.updateModel(candidates, model);
+					modelFound(model);
+					chunkSize = Math.min(chunkSize << 1, maxChunkSize);
+				} else if (count == 1) {
+					final int backboneLiteral = -assumptions.last();
+					assumptions.pop().push(backboneLiteral);
+					candidates[Math.abs(backboneLiteral) - 1] = 0;
+					monitor.invoke(backboneLiteral);
+				} else {
+					int coreSize = 0;
+					int coreLiteral = 0;
+					final IVecInt explanation = solver.unsatExplanation();
+					if (explanation != null) {
+						for (IteratorInt it = explanation.iterator(); it.hasNext();) {
+							final int literal = it.next();
+							if (candidates[Math.abs(literal) - 1] == -literal) {
+								coreSize++;
+								coreLiteral = -literal;
+							}
+						}
+					}
+					assumptions.shrinkTo(assumptionSize);
+					if (coreSize == 1) {
+						assumptions.push(coreLiteral);
+						candidates[Math.abs(coreLiteral) - 1] = 0;
+						monitor.invoke(coreLiteral);
+					} else {
+						chunkSize = Math.max(1, (coreSize > 0 ? Math.min(coreSize, count) : count) >> 1);
+					}
+				}
+			} catch (TimeoutException e) {
+				Logger.logError(e);
+				timeoutOccurred = true;
+				assumptions.shrinkTo(assumptionSize);
+				if (count == 1) {
+					candidates[start] = 0;
+				} else {
+					chunkSize = 1;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Is called for each model that is found during the computation.
+	 * Can be overridden to change the solver's order, such that subsequent models are more diverse.
+	 * 
+	 * @param model the found model
+	 */
+	protected void modelFound(int[] model) {
+	}
+
+	/**
+	 * @return {@code true} if a solver call of the last computation timed out. In this case, the candidate was dropped, thus, the found backbone
+	 *         may be incomplete.
+	 */
+	public boolean isTimeoutOccurred() {
+		return timeoutOccurred;
+	}
+
+	public int getMaxChunkSize() {
+		return maxChunkSize;
+	}
+
+	/**
+	 * Sets the maximal number of candidates that are tested with a single solver call.
+	 * A value of {@code 1} results in the classic algorithm, which tests every candidate separately.
+	 * 
+	 * @param maxChunkSize the maximal chunk size (at least 1)
+	 */
+	public void setMaxChunkSize(int maxChunkSize) {
+		this.maxChunkSize = Math.max(1, maxChunkSize);
+	}
+
+}
@@ -85,8 +85,7 @@ public class BasicSolver implements ISatSolver {
 
 	private void addVariables() throws ContradictionException {
 		solver.newVar(satInstance.getNumberOfVariables());
-		solver.setExpectedNumberOfClauses(satInstance.getCnf().getChildren().length);
-		addCNF(satInstance.getCnf().getChildren());
+		satInstance.getClauses().addTo(solver);
 		fixOrder();
 		solver.getOrder().init();
 	}
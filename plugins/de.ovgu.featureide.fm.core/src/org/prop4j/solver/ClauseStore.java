@@ -0,0 +1,118 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2016  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ * 
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package org.prop4j.solver;
+
+import java.util.Arrays;
+
+import org.sat4j.core.VecInt;
+import org.sat4j.specs.ContradictionException;
+import org.sat4j.specs.ISolver;
+
+/**
+ * Compact, read-only representation of a formula in CNF.</br>
+ * All literals of all clauses are stored in one flat array, the start of each clause is stored in a second array.
+ * Literals are represented as signed integers with respect to the variable mapping of a {@link SatInstance}.</br>
+ * Since instances of this class are immutable, they can safely be shared between multiple solvers and threads.
+ */
+public class ClauseStore {
+
+	private final int[] literals;
+	private final int[] offsets;
+	private final int maxClauseSize;
+
+	/**
+	 * @param literals the literals of all clauses
+	 * @param offsets the index of the first literal of each clause within {@code literals}, followed by the total number of literals
+	 */
+	public ClauseStore(int[] literals, int[] offsets) {
+		this.literals = literals;
+		this.offsets = offsets;
+
+		int maxClauseSize = 0;
+		for (int i = 1; i < offsets.length; i++) {
+			maxClauseSize = Math.max(maxClauseSize, offsets[i] - offsets[i - 1]);
+		}
+		this.maxClauseSize = maxClauseSize;
+	}
+
+	public int getNumberOfClauses() {
+		return offsets.length - 1;
+	}
+
+	public int getNumberOfLiterals() {
+		return offsets[offsets.length - 1];
+	}
+
+	public int getMaxClauseSize() {
+		return maxClauseSize;
+	}
+
+	public int getClauseSize(int clauseIndex) {
+		return offsets[clauseIndex + 1] - offsets[clauseIndex];
+	}
+
+	public int getLiteral(int clauseIndex, int literalIndex) {
+		return literals[offsets[clauseIndex] + literalIndex];
+	}
+
+	/**
+	 * @param clauseIndex the index of the clause
+	 * @return a new array containing the literals of the clause
+	 */
+	public int[] getClause(int clauseIndex) {
+		return Arrays.copyOfRange(literals, offsets[clauseIndex], offsets[clauseIndex + 1]);
+	}
+
+	/**
+	 * Copies the literals of a clause into the given array, which must be at least of size {@link #getMaxClauseSize()}.
+	 * 
+	 * @param clauseIndex the index of the clause
+	 * @param clause the destination array
+	 * @return the number of copied literals
+	 */
+	public int copyClause(int clauseIndex, int[] clause) {
+		final int start = offsets[clauseIndex];
+		final int size = offsets[clauseIndex + 1] - start;
+		System.arraycopy(literals, start, clause, 0, size);
+		return size;
+	}
+
+	/**
+	 * Adds all clauses to the given solver.
+	 * A single buffer is reused for all clauses, as Sat4J copies the literals of each added clause.
+	 * 
+	 * @param solver the solver
+	 * @throws ContradictionException if the clauses are trivially unsatisfiable
+	 */
+	public void addTo(ISolver solver) throws ContradictionException {
+		final int numberOfClauses = getNumberOfClauses();
+		solver.setExpectedNumberOfClauses(numberOfClauses);
+		final VecInt clause = new VecInt(maxClauseSize);
+		for (int i = 0; i < numberOfClauses; i++) {
+			clause.clear();
+			for (int j = offsets[i], end = offsets[i + 1]; j < end; j++) {
+				clause.unsafePush(literals[j]);
+			}
+			solver.addClause(clause);
+		}
+	}
+
+}
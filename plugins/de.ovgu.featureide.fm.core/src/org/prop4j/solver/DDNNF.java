@@ -0,0 +1,324 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2016  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ * 
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package org.prop4j.solver;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * A propositional formula in smooth deterministic decomposable negation normal form (d-DNNF), as created by {@link DDNNFCompiler}.</br>
+ * The children of an and-node share no variables, the children of an or-node contradict each other, and all children of an or-node contain the
+ * same variables. Therefore, the number of models of the formula (also with respect to a partial assignment) can be computed in linear time.</br>
+ * Nodes are stored in topological order, the root node is the last one. Instances of this class are immutable.
+ */
+public class DDNNF {
+
+	/**
+	 * Draws models of the formula uniformly at random.
+	 * Each or-node chooses one of its children with a probability proportional to the child's number of models.
+	 * The counts are computed once, so each model is drawn in linear time in the size of the formula.
+	 */
+	public class Sampler {
+
+		private final byte[] assignment;
+		private final BigInteger[] counts;
+		private final Random random;
+		private final int[] stack = new int[types.length];
+
+		private Sampler(byte[] assignment, Random random) {
+			this.assignment = assignment;
+			this.counts = (assignment != null) ? evaluate(assignment) : null;
+			this.random = random;
+		}
+
+		/**
+		 * @return the number of models from which the samples are drawn
+		 */
+		public BigInteger getNumberOfModels() {
+			return (counts != null) ? counts[counts.length - 1] : BigInteger.ZERO;
+		}
+
+		/**
+		 * @return a model with the literal of variable {@code i + 1} at index {@code i} or {@code null} if there is no model
+		 */
+		public int[] next() {
+			if (getNumberOfModels().signum() == 0) {
+				return null;
+			}
+			final int[] model = new int[numberOfVariables];
+			int stackSize = 0;
+			stack[stackSize++] = types.length - 1;
+			while (stackSize > 0) {
+				final int node = stack[--stackSize];
+				switch (types[node]) {
+				case LITERAL:
+					final int literal = values[node];
+					model[Math.abs(literal) - 1] = literal;
+					break;
+				case FREE:
+					final int variable = values[node];
+					final byte value = assignment[variable];
+					model[variable - 1] = (value > 0 || (value == 0 && random.nextBoolean())) ? variable : -variable;
+					break;
+				case AND:
+					for (int child : children[node]) {
+						stack[stackSize++] = child;
+					}
+					break;
+				case OR:
+					BigInteger choice = nextBigInteger(counts[node]);
+					for (int child : children[node]) {
+						choice = choice.subtract(counts[child]);
+						if (choice.signum() < 0) {
+							stack[stackSize++] = child;
+							break;
+						}
+					}
+					break;
+				default:
+					break;
+				}
+			}
+			return model;
+		}
+
+		/**
+		 * @return a random number between {@code 0} (inclusive) and {@code bound} (exclusive)
+		 */
+		private BigInteger nextBigInteger(BigInteger bound) {
+			if (bound.bitLength() < Long.SIZE - 1) {
+				final long longBound = bound.longValue();
+				long bits, result;
+				do {
+					bits = random.nextLong() >>> 1;
+					result = bits % longBound;
+				} while (bits - result + (longBound - 1) < 0);
+				return BigInteger.valueOf(result);
+			}
+			BigInteger result;
+			do {
+				result = new BigInteger(bound.bitLength(), random);
+			} while (result.compareTo(bound) >= 0);
+			return result;
+		}
+	}
+
+	static final byte TRUE = 0, FALSE = 1, LITERAL = 2, FREE = 3, AND = 4, OR = 5;
+
+	private static final BigInteger TWO = BigInteger.valueOf(2);
+
+	private final int numberOfVariables;
+	private final byte[] types;
+	/**
+	 * The literal of a {@link #LITERAL} node or the variable of a {@link #FREE} node (i.e., a node representing {@code x or -x}).
+	 */
+	private final int[] values;
+	private final int[][] children;
+
+	DDNNF(int numberOfVariables, byte[] types, int[] values, int[][] children) {
+		this.numberOfVariables = numberOfVariables;
+		this.types = types;
+		this.values = values;
+		this.children = children;
+	}
+
+	public int getNumberOfVariables() {
+		return numberOfVariables;
+	}
+
+	public int getNumberOfNodes() {
+		return types.length;
+	}
+
+	public int getNumberOfEdges() {
+		int numberOfEdges = 0;
+		for (int[] nodeChildren : children) {
+			if (nodeChildren != null) {
+				numberOfEdges += nodeChildren.length;
+			}
+		}
+		return numberOfEdges;
+	}
+
+	/**
+	 * @return the number of models of the formula
+	 */
+	public BigInteger countModels() {
+		return countModels(new int[0]);
+	}
+
+	/**
+	 * Counts the models of the formula that contain all given literals.
+	 * 
+	 * @param assumptions the literals ({@code 0} entries are ignored)
+	 * @return the number of models
+	 */
+	public BigInteger countModels(int[] assumptions) {
+		final byte[] assignment = getAssignment(assumptions);
+		if (assignment == null) {
+			return BigInteger.ZERO;
+		}
+		final BigInteger[] counts = evaluate(assignment);
+		return counts[counts.length - 1];
+	}
+
+	/**
+	 * Counts for each variable the models of the formula that contain all given literals and the positive literal of the variable.
+	 * The result is computed with one pass in each direction over all nodes and thus takes the same time as two calls of
+	 * {@link #countModels(int[])}.
+	 * 
+	 * @param assumptions the literals ({@code 0} entries are ignored)
+	 * @return the number of models for each variable (at index {@code variable - 1})
+	 */
+	public BigInteger[] countSelections(int[] assumptions) {
+		final BigInteger[] selections = new BigInteger[numberOfVariables];
+		Arrays.fill(selections, BigInteger.ZERO);
+
+		final byte[] assignment = getAssignment(assumptions);
+		if (assignment == null) {
+			return selections;
+		}
+		final BigInteger[] counts = evaluate(assignment);
+
+		// partial derivative of the root with respect to each node
+		final BigInteger[] derivatives = new BigInteger[types.length];
+		Arrays.fill(derivatives, BigInteger.ZERO);
+		derivatives[types.length - 1] = BigInteger.ONE;
+		for (int i = types.length - 1; i >= 0; i--) {
+			final BigInteger derivative = derivatives[i];
+			if (derivative.signum() == 0) {
+				continue;
+			}
+			final int[] nodeChildren = children[i];
+			switch (types[i]) {
+			case OR:
+				for (int child : nodeChildren) {
+					derivatives[child] = derivatives[child].add(derivative);
+				}
+				break;
+			case AND:
+				final BigInteger[] suffixProducts = new BigInteger[nodeChildren.length + 1];
+				suffixProducts[nodeChildren.length] = BigInteger.ONE;
+				for (int j = nodeChildren.length - 1; j >= 0; j--) {
+					suffixProducts[j] = suffixProducts[j + 1].multiply(counts[nodeChildren[j]]);
+				}
+				BigInteger prefixProduct = derivative;
+				for (int j = 0; j < nodeChildren.length; j++) {
+					final int child = nodeChildren[j];
+					derivatives[child] = derivatives[child].add(prefixProduct.multiply(suffixProducts[j + 1]));
+					prefixProduct = prefixProduct.multiply(counts[child]);
+				}
+				break;
+			case LITERAL:
+				final int literal = values[i];
+				if (literal > 0 && assignment[literal] >= 0) {
+					selections[literal - 1] = selections[literal - 1].add(derivative);
+				}
+				break;
+			case FREE:
+				final int variable = values[i];
+				if (assignment[variable] >= 0) {
+					selections[variable - 1] = selections[variable - 1].add(derivative);
+				}
+				break;
+			default:
+				break;
+			}
+		}
+		return selections;
+	}
+
+	/**
+	 * Creates a sampler for the models of the formula that contain all given literals.
+	 * 
+	 * @param assumptions the literals ({@code 0} entries are ignored)
+	 * @param random the source of randomness
+	 * @return the sampler
+	 */
+	public Sampler getSampler(int[] assumptions, Random random) {
+		return new Sampler(getAssignment(assumptions), random);
+	}
+
+	/**
+	 * @return the assignment for each variable ({@code 1}, {@code -1}, or {@code 0}) or {@code null} if the literals contradict each other
+	 */
+	private byte[] getAssignment(int[] assumptions) {
+		final byte[] assignment = new byte[numberOfVariables + 1];
+		for (int literal : assumptions) {
+			if (literal != 0) {
+				final int variable = Math.abs(literal);
+				final byte value = (byte) (literal > 0 ? 1 : -1);
+				if (assignment[variable] == -value) {
+					return null;
+				}
+				assignment[variable] = value;
+			}
+		}
+		return assignment;
+	}
+
+	/**
+	 * @return the number of models of each node with respect to the given assignment
+	 */
+	private BigInteger[] evaluate(byte[] assignment) {
+		final BigInteger[] counts = new BigInteger[types.length];
+		for (int i = 0; i < types.length; i++) {
+			switch (types[i]) {
+			case TRUE:
+				counts[i] = BigInteger.ONE;
+				break;
+			case FALSE:
+				counts[i] = BigInteger.ZERO;
+				break;
+			case LITERAL:
+				final int literal = values[i];
+				final byte value = assignment[Math.abs(literal)];
+				counts[i] = (value == 0 || (value > 0) == (literal > 0)) ? BigInteger.ONE : BigInteger.ZERO;
+				break;
+			case FREE:
+				counts[i] = assignment[values[i]] == 0 ? TWO : BigInteger.ONE;
+				break;
+			case AND:
+				BigInteger product = BigInteger.ONE;
+				for (int child : children[i]) {
+					product = product.multiply(counts[child]);
+					if (product.signum() == 0) {
+						break;
+					}
+				}
+				counts[i] = product;
+				break;
+			case OR:
+				BigInteger sum = BigInteger.ZERO;
+				for (int child : children[i]) {
+					sum = sum.add(counts[child]);
+				}
+				counts[i] = sum;
+				break;
+			default:
+				throw new IllegalStateException();
+			}
+		}
+		return counts;
+	}
+
+}
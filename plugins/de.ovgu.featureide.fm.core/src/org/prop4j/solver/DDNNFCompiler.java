@@ -0,0 +1,459 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2016  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ * 
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package org.prop4j.solver;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+
+import org.sat4j.specs.TimeoutException;
+
+import de.ovgu.featureide.fm.core.job.LongRunningMethod;
+import de.ovgu.featureide.fm.core.job.monitor.IMonitor;
+
+/**
+ * Compiles the formula of a {@link SatInstance} into a {@link DDNNF}.</br>
+ * The compiler performs an exhaustive DPLL search with unit propagation. After each decision, the remaining clauses are split into independent
+ * components, which are compiled separately. Each compiled component is cached, such that equal components are compiled only once. The trace
+ * of the search forms the d-DNNF, whose size is roughly the number of visited components.</br>
+ * The depth of the recursion is bounded by the number of decisions on a path, which is small for feature models, but may exceed the stack size
+ * for large formulas without structure.
+ */
+public class DDNNFCompiler implements LongRunningMethod<DDNNF> {
+
+	/**
+	 * Identifies a component by its variables and the indices of its clauses.
+	 */
+	private static final class ComponentKey {
+		private final int[] key;
+		private final int hashCode;
+
+		ComponentKey(int[] key) {
+			this.key = key;
+			this.hashCode = Arrays.hashCode(key);
+		}
+
+		@Override
+		public int hashCode() {
+			return hashCode;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			return (obj instanceof ComponentKey) && Arrays.equals(key, ((ComponentKey) obj).key);
+		}
+	}
+
+	private final int numberOfVariables;
+	private final int[][] clauses;
+	/**
+	 * The indices of all clauses containing a literal (at index {@code literal + numberOfVariables}).
+	 */
+	private final int[][] occurrences;
+
+	private long timeout = 0;
+
+	private byte[] assignment;
+	private int[] trail;
+	private int trailSize;
+
+	private int[] variableStamps;
+	private int[] clauseStamps;
+	private int stamp;
+	private int[] variableQueue;
+	private int[] clauseList;
+	private int[] occurrenceCounter;
+
+	private byte[] types;
+	private int[] values;
+	private int[][] children;
+	private int numberOfNodes;
+	private int[] literalNodes;
+	private int[] freeNodes;
+	private int trueNode, falseNode;
+
+	private HashMap<ComponentKey, Integer> cache;
+	private long endTime;
+	private IMonitor monitor;
+
+	public DDNNFCompiler(SatInstance satInstance) {
+		this.numberOfVariables = satInstance.getNumberOfVariables();
+		final ClauseStore clauseStore = satInstance.getClauses();
+		final int numberOfClauses = clauseStore.getNumberOfClauses();
+
+		final List<int[]> clauseList = new ArrayList<>(numberOfClauses);
+		final int[] occurrenceCounts = new int[2 * numberOfVariables + 1];
+		clauseLoop: for (int i = 0; i < numberOfClauses; i++) {
+			final int[] clause = clauseStore.getClause(i);
+			Arrays.sort(clause);
+			int size = 0;
+			for (int j = 0; j < clause.length; j++) {
+				final int literal = clause[j];
+				if (size > 0 && clause[size - 1] == literal) {
+					continue;
+				}
+				if (Arrays.binarySearch(clause, 0, j, -literal) >= 0 || Arrays.binarySearch(clause, j + 1, clause.length, -literal) >= 0) {
+					// tautology
+					continue clauseLoop;
+				}
+				clause[size++] = literal;
+			}
+			final int[] newClause = Arrays.copyOf(clause, size);
+			for (int literal : newClause) {
+				occurrenceCounts[literal + numberOfVariables]++;
+			}
+			clauseList.add(newClause);
+		}
+		this.clauses = clauseList.toArray(new int[clauseList.size()][]);
+
+		this.occurrences = new int[occurrenceCounts.length][];
+		for (int i = 0; i < occurrenceCounts.length; i++) {
+			occurrences[i] = new int[occurrenceCounts[i]];
+			occurrenceCounts[i] = 0;
+		}
+		for (int i = 0; i < clauses.length; i++) {
+			for (int literal : clauses[i]) {
+				final int index = literal + numberOfVariables;
+				occurrences[index][occurrenceCounts[index]++] = i;
+			}
+		}
+	}
+
+	public long getTimeout() {
+		return timeout;
+	}
+
+	/**
+	 * @param timeout the maximum time for the compilation in milliseconds ({@code 0} for no limit)
+	 */
+	public void setTimeout(long timeout) {
+		this.timeout = timeout;
+	}
+
+	/**
+	 * @throws TimeoutException if the compilation takes longer than the {@link #setTimeout(long) timeout}
+	 */
+	@Override
+	public DDNNF execute(IMonitor monitor) throws TimeoutException {
+		this.monitor = monitor;
+		this.endTime = (timeout > 0) ? System.currentTimeMillis() + timeout : Long.MAX_VALUE;
+
+		assignment = new byte[numberOfVariables + 1];
+		trail = new int[numberOfVariables];
+		trailSize = 0;
+		variableStamps = new int[numberOfVariables + 1];
+		clauseStamps = new int[clauses.length];
+		stamp = 0;
+		variableQueue = new int[numberOfVariables];
+		clauseList = new int[clauses.length];
+		occurrenceCounter = new int[numberOfVariables + 1];
+
+		types = new byte[Math.max(16, 2 * numberOfVariables)];
+		values = new int[types.length];
+		children = new int[types.length][];
+		numberOfNodes = 0;
+		literalNodes = new int[2 * numberOfVariables + 1];
+		Arrays.fill(literalNodes, -1);
+		freeNodes = new int[numberOfVariables + 1];
+		Arrays.fill(freeNodes, -1);
+		trueNode = newNode(DDNNF.TRUE, 0, null);
+		falseNode = newNode(DDNNF.FALSE, 0, null);
+		cache = new HashMap<>();
+
+		try {
+			boolean contradiction = false;
+			for (int[] clause : clauses) {
+				if (clause.length == 0) {
+					contradiction = true;
+				} else if (clause.length == 1) {
+					final int literal = clause[0];
+					final int value = value(literal);
+					if (value < 0 || (value == 0 && !assign(literal))) {
+						contradiction = true;
+					}
+				}
+				if (contradiction) {
+					break;
+				}
+			}
+
+			final int root;
+			if (contradiction) {
+				root = falseNode;
+			} else {
+				final int[] allVariables = new int[numberOfVariables];
+				for (int i = 0; i < numberOfVariables; i++) {
+					allVariables[i] = i + 1;
+				}
+				root = compileBranch(allVariables, 0);
+			}
+			// the root must be the last node
+			newNode(DDNNF.AND, 0, new int[] { root });
+			return new DDNNF(numberOfVariables, Arrays.copyOf(types, numberOfNodes), Arrays.copyOf(values, numberOfNodes),
+					Arrays.copyOf(children, numberOfNodes));
+		} finally {
+			assignment = null;
+			trail = null;
+			variableStamps = null;
+			clauseStamps = null;
+			variableQueue = null;
+			clauseList = null;
+			occurrenceCounter = null;
+			types = null;
+			values = null;
+			children = null;
+			cache = null;
+			this.monitor = null;
+		}
+	}
+
+	/**
+	 * Compiles a component, i.e., a set of unassigned variables and the unsatisfied clauses containing them.
+	 * 
+	 * @param variables the variables of the component in ascending order
+	 * @param componentClauses the indices of the clauses of the component in ascending order
+	 * @return the index of the resulting node
+	 */
+	private int compileComponent(int[] variables, int[] componentClauses) throws TimeoutException {
+		monitor.checkCancel();
+		if (System.currentTimeMillis() > endTime) {
+			throw new TimeoutException();
+		}
+
+		// the number of variables separates the variables from the clauses, otherwise, different components could have the same key
+		final int[] key = new int[1 + variables.length + componentClauses.length];
+		key[0] = variables.length;
+		System.arraycopy(variables, 0, key, 1, variables.length);
+		System.arraycopy(componentClauses, 0, key, 1 + variables.length, componentClauses.length);
+		final ComponentKey componentKey = new ComponentKey(key);
+		final Integer cachedNode = cache.get(componentKey);
+		if (cachedNode != null) {
+			return cachedNode;
+		}
+
+		// decide on the variable that occurs most often in the component
+		for (int clauseIndex : componentClauses) {
+			for (int literal : clauses[clauseIndex]) {
+				occurrenceCounter[Math.abs(literal)]++;
+			}
+		}
+		int decisionVariable = variables[0];
+		for (int variable : variables) {
+			if (occurrenceCounter[variable] > occurrenceCounter[decisionVariable]) {
+				decisionVariable = variable;
+			}
+		}
+		for (int clauseIndex : componentClauses) {
+			for (int literal : clauses[clauseIndex]) {
+				occurrenceCounter[Math.abs(literal)] = 0;
+			}
+		}
+
+		final int positiveNode = compileDecision(variables, decisionVariable);
+		final int negativeNode = compileDecision(variables, -decisionVariable);
+
+		final int node;
+		if (positiveNode == falseNode) {
+			node = negativeNode;
+		} else if (negativeNode == falseNode) {
+			node = positiveNode;
+		} else {
+			node = newNode(DDNNF.OR, 0, new int[] { positiveNode, negativeNode });
+		}
+		cache.put(componentKey, node);
+		return node;
+	}
+
+	private int compileDecision(int[] variables, int literal) throws TimeoutException {
+		final int trailStart = trailSize;
+		try {
+			return assign(literal) ? compileBranch(variables, trailStart) : falseNode;
+		} finally {
+			undo(trailStart);
+		}
+	}
+
+	/**
+	 * Creates an and-node for all literals assigned since {@code trailStart}, all unconstrained variables, and all remaining components.
+	 * 
+	 * @param variables the variables of the current component
+	 * @param trailStart the start of the current decision on the trail
+	 * @return the index of the resulting node
+	 */
+	private int compileBranch(int[] variables, int trailStart) throws TimeoutException {
+		final List<int[]> components = new ArrayList<>();
+		final List<Integer> nodes = new ArrayList<>();
+		for (int i = trailStart; i < trailSize; i++) {
+			nodes.add(getLiteralNode(trail[i]));
+		}
+
+		stamp++;
+		for (int startVariable : variables) {
+			if (assignment[startVariable] != 0 || variableStamps[startVariable] == stamp) {
+				continue;
+			}
+			// collect all variables and clauses connected to the variable
+			variableStamps[startVariable] = stamp;
+			variableQueue[0] = startVariable;
+			int queueSize = 1;
+			int clauseCount = 0;
+			for (int i = 0; i < queueSize; i++) {
+				final int variable = variableQueue[i];
+				for (int sign = -1; sign <= 1; sign += 2) {
+					for (int clauseIndex : occurrences[sign * variable + numberOfVariables]) {
+						if (clauseStamps[clauseIndex] != stamp) {
+							clauseStamps[clauseIndex] = stamp;
+							final int[] clause = clauses[clauseIndex];
+							if (!isSatisfied(clause)) {
+								clauseList[clauseCount++] = clauseIndex;
+								for (int clauseLiteral : clause) {
+									final int clauseVariable = Math.abs(clauseLiteral);
+									if (assignment[clauseVariable] == 0 && variableStamps[clauseVariable] != stamp) {
+										variableStamps[clauseVariable] = stamp;
+										variableQueue[queueSize++] = clauseVariable;
+									}
+								}
+							}
+						}
+					}
+				}
+			}
+			if (clauseCount == 0) {
+				nodes.add(getFreeNode(startVariable));
+			} else {
+				final int[] componentVariables = Arrays.copyOf(variableQueue, queueSize);
+				final int[] componentClauses = Arrays.copyOf(clauseList, clauseCount);
+				Arrays.sort(componentVariables);
+				Arrays.sort(componentClauses);
+				components.add(componentVariables);
+				components.add(componentClauses);
+			}
+		}
+
+		for (int i = 0; i < components.size(); i += 2) {
+			final int componentNode = compileComponent(components.get(i), components.get(i + 1));
+			if (componentNode == falseNode) {
+				return falseNode;
+			}
+			nodes.add(componentNode);
+		}
+
+		switch (nodes.size()) {
+		case 0:
+			return trueNode;
+		case 1:
+			return nodes.get(0);
+		default:
+			final int[] nodeChildren = new int[nodes.size()];
+			for (int i = 0; i < nodeChildren.length; i++) {
+				nodeChildren[i] = nodes.get(i);
+			}
+			return newNode(DDNNF.AND, 0, nodeChildren);
+		}
+	}
+
+	/**
+	 * Assigns a literal and propagates all resulting unit clauses.
+	 * 
+	 * @return {@code false} if a conflict occurred
+	 */
+	private boolean assign(int literal) {
+		int queueStart = trailSize;
+		setValue(literal);
+		while (queueStart < trailSize) {
+			final int assignedLiteral = trail[queueStart++];
+			clauseLoop: for (int clauseIndex : occurrences[numberOfVariables - assignedLiteral]) {
+				int unassignedLiteral = 0;
+				for (int clauseLiteral : clauses[clauseIndex]) {
+					final int value = value(clauseLiteral);
+					if (value > 0) {
+						continue clauseLoop;
+					} else if (value == 0) {
+						if (unassignedLiteral != 0) {
+							continue clauseLoop;
+						}
+						unassignedLiteral = clauseLiteral;
+					}
+				}
+				if (unassignedLiteral == 0) {
+					return false;
+				}
+				setValue(unassignedLiteral);
+			}
+		}
+		return true;
+	}
+
+	private void setValue(int literal) {
+		assignment[Math.abs(literal)] = (byte) (literal > 0 ? 1 : -1);
+		trail[trailSize++] = literal;
+	}
+
+	private void undo(int trailStart) {
+		while (trailSize > trailStart) {
+			assignment[Math.abs(trail[--trailSize])] = 0;
+		}
+	}
+
+	private int value(int literal) {
+		final byte value = assignment[Math.abs(literal)];
+		return literal > 0 ? value : -value;
+	}
+
+	private boolean isSatisfied(int[] clause) {
+		for (int literal : clause) {
+			if (value(literal) > 0) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private int getLiteralNode(int literal) {
+		final int index = literal + numberOfVariables;
+		if (literalNodes[index] < 0) {
+			literalNodes[index] = newNode(DDNNF.LITERAL, literal, null);
+		}
+		return literalNodes[index];
+	}
+
+	private int getFreeNode(int variable) {
+		if (freeNodes[variable] < 0) {
+			freeNodes[variable] = newNode(DDNNF.FREE, variable, null);
+		}
+		return freeNodes[variable];
+	}
+
+	private int newNode(byte type, int value, int[] nodeChildren) {
+		if (numberOfNodes == types.length) {
+			final int newLength = types.length << 1;
+			types = Arrays.copyOf(types, newLength);
+			values = Arrays.copyOf(values, newLength);
+			children = Arrays.copyOf(children, newLength);
+		}
+		types[numberOfNodes] = type;
+		values[numberOfNodes] = value;
+		children[numberOfNodes] = nodeChildren;
+		return numberOfNodes++;
+	}
+
+}
@@ -0,0 +1,241 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2016  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ * 
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package org.prop4j.solver;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.prop4j.Literal;
+import org.prop4j.Node;
+import org.sat4j.core.VecInt;
+import org.sat4j.minisat.SolverFactory;
+import org.sat4j.specs.ContradictionException;
+import org.sat4j.specs.ISolver;
+import org.sat4j.specs.IVecInt;
+import org.sat4j.specs.IteratorInt;
+import org.sat4j.specs.TimeoutException;
+
+import de.ovgu.featureide.fm.core.Logger;
+
+/**
+ * Finds minimal unsatisfiable subsets (MUS) of groups of clauses.</br>
+ * All groups are loaded into a single solver. Each clause of a group is extended by the negated selector variable of the group, such that a
+ * group is only enabled if its selector is assumed to be true. A MUS is computed with the QuickXplain algorithm, starting with the unsatisfiable
+ * core that is returned by the solver.
+ */
+public class MUSFinder {
+
+	public static final int DEFAULT_TIMEOUT = 1000;
+
+	private final Map<Object, Integer> variables = new HashMap<>();
+	private final List<int[][]> groups = new ArrayList<>();
+
+	private ISolver solver = null;
+	private int timeout = DEFAULT_TIMEOUT;
+
+	/**
+	 * Adds a group of clauses. Groups cannot be added after the first call of {@link #findMUS(int[], int[])}.
+	 * 
+	 * @param cnf the clauses in regular CNF (i.e., an {@link org.prop4j.And And} of {@link org.prop4j.Or Ors} of {@link Literal Literals})
+	 * @return the index of the group
+	 */
+	public int addGroup(Node cnf) {
+		if (solver != null) {
+			throw new IllegalStateException("Groups cannot be added after the solver was created.");
+		}
+		final Node[] clauses = cnf.getChildren();
+		final int[][] group = new int[clauses.length][];
+		for (int i = 0; i < clauses.length; i++) {
+			final Node[] literals = clauses[i].getChildren();
+			final int[] clause = new int[literals.length];
+			for (int j = 0; j < literals.length; j++) {
+				clause[j] = getLiteral((Literal) literals[j], true);
+			}
+			group[i] = clause;
+		}
+		groups.add(group);
+		return groups.size() - 1;
+	}
+
+	public int getNumberOfGroups() {
+		return groups.size();
+	}
+
+	/**
+	 * @param literal the literal
+	 * @return the literal as integer or {@code 0} if its variable does not occur in any group
+	 */
+	public int getLiteral(Literal literal) {
+		return getLiteral(literal, false);
+	}
+
+	private int getLiteral(Literal literal, boolean create) {
+		Integer variable = variables.get(literal.var);
+		if (variable == null) {
+			if (!create) {
+				return 0;
+			}
+			variable = variables.size() + 1;
+			variables.put(literal.var, variable);
+		}
+		return literal.positive ? variable : -variable;
+	}
+
+	public int getTimeout() {
+		return timeout;
+	}
+
+	/**
+	 * @param timeout the timeout for each solver call in milliseconds
+	 */
+	public void setTimeout(int timeout) {
+		this.timeout = timeout;
+	}
+
+	/**
+	 * Computes a minimal subset of the given groups that is unsatisfiable together with the assumptions.
+	 * 
+	 * @param assumptions literals that are always assumed (see {@link #getLiteral(Literal)})
+	 * @param groupIndices the groups that may be used
+	 * @return the sorted indices of the groups in the MUS or {@code null} if the groups are satisfiable with the assumptions (or if the solver
+	 *         timed out)
+	 */
+	public synchronized int[] findMUS(int[] assumptions, int[] groupIndices) {
+		if (solver == null) {
+			initSolver();
+		}
+		final int numberOfVariables = variables.size();
+		final VecInt background = new VecInt(assumptions);
+		final VecInt all = new VecInt(assumptions);
+		for (int group : groupIndices) {
+			all.push(numberOfVariables + 1 + group);
+		}
+		try {
+			if (solver.isSatisfiable(all)) {
+				return null;
+			}
+		} catch (TimeoutException e) {
+			Logger.logError(e);
+			return null;
+		}
+
+		// start with the unsatisfiable core
+		final IVecInt explanation = solver.unsatExplanation();
+		final int[] candidates;
+		if (explanation != null) {
+			final boolean[] inCore = new boolean[groups.size()];
+			for (IteratorInt it = explanation.iterator(); it.hasNext();) {
+				final int literal = it.next();
+				if (literal > numberOfVariables) {
+					inCore[literal - numberOfVariables - 1] = true;
+				}
+			}
+			int size = 0;
+			final int[] coreGroups = new int[groupIndices.length];
+			for (int group : groupIndices) {
+				if (inCore[group]) {
+					coreGroups[size++] = numberOfVariables + 1 + group;
+				}
+			}
+			candidates = Arrays.copyOf(coreGroups, size);
+		} else {
+			candidates = Arrays.copyOfRange(all.toArray(), assumptions.length, all.size());
+		}
+
+		final VecInt mus = new VecInt();
+		if (candidates.length > 0) {
+			quickXplain(background, false, candidates, 0, candidates.length, mus);
+		}
+		final int[] result = new int[mus.size()];
+		for (int i = 0; i < result.length; i++) {
+			result[i] = mus.get(i) - numberOfVariables - 1;
+		}
+		Arrays.sort(result);
+		return result;
+	}
+
+	/**
+	 * QuickXplain: adds a minimal subset of {@code candidates[from, to)} to {@code mus}, that is unsatisfiable together with the background.
+	 * 
+	 * @param background the assumed selectors and literals
+	 * @param hasDelta whether the last call added selectors to the background
+	 */
+	private void quickXplain(VecInt background, boolean hasDelta, int[] candidates, int from, int to, VecInt mus) {
+		if (hasDelta && !isSatisfiable(background)) {
+			return;
+		}
+		if (to - from == 1) {
+			mus.push(candidates[from]);
+			return;
+		}
+		final int middle = (from + to) >>> 1;
+		final int backgroundSize = background.size();
+
+		for (int i = from; i < middle; i++) {
+			background.push(candidates[i]);
+		}
+		final int musSize = mus.size();
+		quickXplain(background, true, candidates, middle, to, mus);
+		background.shrinkTo(backgroundSize);
+
+		for (int i = musSize; i < mus.size(); i++) {
+			background.push(mus.get(i));
+		}
+		quickXplain(background, mus.size() > musSize, candidates, from, middle, mus);
+		background.shrinkTo(backgroundSize);
+	}
+
+	/**
+	 * @return {@code true} if satisfiable or if the solver timed out
+	 */
+	private boolean isSatisfiable(IVecInt assumptions) {
+		try {
+			return solver.isSatisfiable(assumptions);
+		} catch (TimeoutException e) {
+			Logger.logError(e);
+			return true;
+		}
+	}
+
+	private void initSolver() {
+		final int numberOfVariables = variables.size();
+		solver = SolverFactory.newDefault();
+		solver.setTimeoutMs(timeout);
+		solver.newVar(numberOfVariables + groups.size());
+		for (int i = 0; i < groups.size(); i++) {
+			final int selector = numberOfVariables + 1 + i;
+			for (int[] clause : groups.get(i)) {
+				final int[] guardedClause = Arrays.copyOf(clause, clause.length + 1);
+				guardedClause[clause.length] = -selector;
+				try {
+					solver.addClause(new VecInt(guardedClause));
+				} catch (ContradictionException e) {
+					// cannot happen, because the selector is not assigned
+					Logger.logError(e);
+				}
+			}
+		}
+	}
+
+}
@@ -20,6 +20,10 @@
  */
 package org.prop4j.solver;
 
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
@@ -28,8 +32,10 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 
+import org.prop4j.And;
 import org.prop4j.Literal;
 import org.prop4j.Node;
+import org.prop4j.Or;
 import org.sat4j.specs.IVecInt;
 import org.sat4j.specs.IteratorInt;
 
@@ -75,25 +81,127 @@ public class SatInstance {
 
 	protected final HashMap<Object, Integer> varToInt = new HashMap<>();
 	protected final Object[] intToVar;
-	protected final Node cnf;
+
+	/**
+	 * The clauses of the formula.
+	 * The formula is not stored as a {@link Node} tree, but is only created on demand by {@link #getCnf()}.
+	 */
+	protected final ClauseStore clauses;
+
+	/**
+	 * The number of variables that are not {@link Node#isAuxiliaryVariable(Object) auxiliary}.
+	 * Auxiliary variables are always mapped to the indices greater than this number.
+	 */
+	protected final int numberOfFeatureVariables;
+
+	/**
+	 * The variables and clauses do not change after the construction, thus, the fingerprint is computed only once (see {@link #getFingerprint()}).
+	 */
+	private long fingerprint;
+	private volatile boolean fingerprintComputed = false;
 
 	public SatInstance(Node root, Collection<?> featureList) {
-		this.intToVar = new Object[featureList.size() + 1];
-		this.cnf = root;
+		this(root, null, featureList);
+	}
+
+	public SatInstance(Node root) {
+		this(root, getDistinctVariableObjects(root));
+	}
+
+	/**
+	 * Creates a new instance for already converted clauses.
+	 * 
+	 * @param clauses the clauses
+	 * @param variableList the variables in the order that was used to convert the clauses (including auxiliary variables)
+	 */
+	public SatInstance(ClauseStore clauses, Collection<?> variableList) {
+		this(null, clauses, variableList);
+	}
+
+	private SatInstance(Node root, ClauseStore clauses, Collection<?> featureList) {
+		final List<Object> variables = new ArrayList<>(featureList.size());
+		final List<Object> auxiliaryVariables = new ArrayList<>();
 
-		int index = 0;
 		for (Object feature : featureList) {
 			final String name = feature.toString();
 			if (name == null) {
 				throw new RuntimeException();
 			}
+			if (Node.isAuxiliaryVariable(name)) {
+				auxiliaryVariables.add(name);
+			} else {
+				variables.add(name);
+			}
+		}
+		this.numberOfFeatureVariables = variables.size();
+		variables.addAll(auxiliaryVariables);
+		if (root != null) {
+			final Set<Object> knownVariables = new HashSet<>(auxiliaryVariables);
+			collectAuxiliaryVariables(root, knownVariables, variables);
+		}
+
+		this.intToVar = new Object[variables.size() + 1];
+		int index = 0;
+		for (Object name : variables) {
 			varToInt.put(name, ++index);
 			intToVar[index] = name;
 		}
+
+		if (clauses != null) {
+			this.clauses = clauses;
+		} else if (root != null) {
+			this.clauses = createClauseStore(root);
+		} else {
+			this.clauses = new ClauseStore(new int[0], new int[] { 0 });
+		}
 	}
 
-	public SatInstance(Node root) {
-		this(root, getDistinctVariableObjects(root));
+	/**
+	 * Converts the given CNF into a {@link ClauseStore}.
+	 * Besides regular CNFs, also compact CNFs are supported (i.e., a single clause or literal or conjunctions containing literals).
+	 */
+	private ClauseStore createClauseStore(Node cnf) {
+		final Node[] clauseNodes = (cnf instanceof And) ? cnf.getChildren() : new Node[] { cnf };
+		int numberOfLiterals = 0;
+		for (Node clause : clauseNodes) {
+			numberOfLiterals += (clause instanceof Literal) ? 1 : clause.getChildren().length;
+		}
+
+		final int[] literals = new int[numberOfLiterals];
+		final int[] offsets = new int[clauseNodes.length + 1];
+		int literalIndex = 0;
+		for (int i = 0; i < clauseNodes.length; i++) {
+			offsets[i] = literalIndex;
+			final Node clause = clauseNodes[i];
+			if (clause instanceof Literal) {
+				literals[literalIndex++] = getSignedVariable((Literal) clause);
+			} else {
+				for (Node literal : clause.getChildren()) {
+					literals[literalIndex++] = getSignedVariable((Literal) literal);
+				}
+			}
+		}
+		offsets[clauseNodes.length] = literalIndex;
+		return new ClauseStore(literals, offsets);
+	}
+
+	/**
+	 * Collects auxiliary variables that are contained in the formula, but not in the given feature list.
+	 */
+	private static void collectAuxiliaryVariables(Node node, Set<Object> knownVariables, List<Object> variables) {
+		if (node instanceof Literal) {
+			final Object var = ((Literal) node).var;
+			if (Node.isAuxiliaryVariable(var) && knownVariables.add(var)) {
+				variables.add(var);
+			}
+		} else {
+			final Node[] children = node.getChildren();
+			if (children != null) {
+				for (Node child : children) {
+					collectAuxiliaryVariables(child, knownVariables, variables);
+				}
+			}
+		}
 	}
 
 	public static Set<Object> getDistinctVariableObjects(Node cnf) {
@@ -114,6 +222,9 @@ public class SatInstance {
 	public List<String> convertToString(int[] model, boolean includePositive, boolean includeNegative) {
 		final List<String> resultList = new ArrayList<>();
 		for (int var : model) {
+			if (isAuxiliaryVariable(var)) {
+				continue;
+			}
 			if (var > 0) {
 				if (includePositive) {
 					resultList.add(intToVar[Math.abs(var)].toString());
@@ -155,7 +266,9 @@ public class SatInstance {
 	public List<Literal> convertToLiterals(int[] model) {
 		final List<Literal> resultList = new ArrayList<>();
 		for (int var : model) {
-			resultList.add(new Literal(intToVar[Math.abs(var)], (var > 0)));
+			if (!isAuxiliaryVariable(var)) {
+				resultList.add(new Literal(intToVar[Math.abs(var)], (var > 0)));
+			}
 		}
 		return resultList;
 	}
@@ -168,19 +281,142 @@ public class SatInstance {
 		final List<String> resultList = new ArrayList<>(model.size());
 		final IteratorInt modelIt = model.iterator();
 		while (modelIt.hasNext()) {
-			resultList.add(intToVar[Math.abs(modelIt.next())].toString());
+			final int var = modelIt.next();
+			if (!isAuxiliaryVariable(var)) {
+				resultList.add(intToVar[Math.abs(var)].toString());
+			}
 		}
 		return resultList;
 	}
 
+	/**
+	 * Creates a new {@link Node} tree from the stored clauses.</br>
+	 * <b>This is expensive:</b> the tree is not cached, so each call allocates one {@link Or} and one {@link Literal} per clause and literal again.
+	 * Analyses should use {@link #getClauses()}, which does not create any new objects.
+	 * Callers that only need single clauses should use {@link #getClause(int)}.
+	 * 
+	 * @return the formula as regular CNF
+	 */
 	public Node getCnf() {
-		return cnf;
+		final Node[] clauseNodes = new Node[clauses.getNumberOfClauses()];
+		for (int i = 0; i < clauseNodes.length; i++) {
+			clauseNodes[i] = getClause(i);
+		}
+		return new And(clauseNodes);
+	}
+
+	/**
+	 * Creates a new {@link Node} for a single stored clause.
+	 * 
+	 * @param index the index of the clause
+	 * @return the clause as {@link Or} of literals
+	 */
+	public Node getClause(int index) {
+		final Node[] literals = new Node[clauses.getClauseSize(index)];
+		for (int j = 0; j < literals.length; j++) {
+			literals[j] = getLiteral(clauses.getLiteral(index, j));
+		}
+		return new Or(literals);
+	}
+
+	public ClauseStore getClauses() {
+		return clauses;
+	}
+
+	/**
+	 * Computes a hash value of the formula that depends only on the variable names, their order, and the clauses.
+	 * Thus, it can be used to check whether data that was computed for a formula (e.g., a persisted feature graph or analysis result) is still valid.
+	 * The hash value consists of the first 64 bits of a SHA-256 digest, such that different formulas are practically never mapped to the same value.
+	 * 
+	 * @return the fingerprint of this instance
+	 */
+	public long getFingerprint() {
+		if (!fingerprintComputed) {
+			fingerprint = computeFingerprint();
+			fingerprintComputed = true;
+		}
+		return fingerprint;
+	}
+
+	private long computeFingerprint() {
+		final MessageDigest digest;
+		try {
+			digest = MessageDigest.getInstance("SHA-256");
+		} catch (NoSuchAlgorithmException e) {
+			// every Java platform supports SHA-256
+			throw new RuntimeException(e);
+		}
+		final ByteBuffer buffer = ByteBuffer.allocate(1 << 13);
+
+		updateDigest(digest, buffer, intToVar.length - 1);
+		for (int i = 1; i < intToVar.length; i++) {
+			final byte[] name = intToVar[i].toString().getBytes(StandardCharsets.UTF_8);
+			updateDigest(digest, buffer, name.length);
+			if (buffer.remaining() < name.length) {
+				flushDigest(digest, buffer);
+				digest.update(name);
+			} else {
+				buffer.put(name);
+			}
+		}
+		final int numberOfClauses = clauses.getNumberOfClauses();
+		updateDigest(digest, buffer, numberOfClauses);
+		for (int i = 0; i < numberOfClauses; i++) {
+			final int clauseSize = clauses.getClauseSize(i);
+			updateDigest(digest, buffer, clauseSize);
+			for (int j = 0; j < clauseSize; j++) {
+				updateDigest(digest, buffer, clauses.getLiteral(i, j));
+			}
+		}
+		flushDigest(digest, buffer);
+		return ByteBuffer.wrap(digest.digest()).getLong();
+	}
+
+	private static void updateDigest(MessageDigest digest, ByteBuffer buffer, int value) {
+		if (buffer.remaining() < 4) {
+			flushDigest(digest, buffer);
+		}
+		buffer.putInt(value);
+	}
+
+	private static void flushDigest(MessageDigest digest, ByteBuffer buffer) {
+		buffer.flip();
+		digest.update(buffer);
+		buffer.clear();
 	}
 
 	public int getNumberOfVariables() {
 		return intToVar.length - 1;
 	}
 
+	/**
+	 * @return the number of variables without auxiliary variables
+	 */
+	public int getNumberOfFeatureVariables() {
+		return numberOfFeatureVariables;
+	}
+
+	public boolean isAuxiliaryVariable(int x) {
+		return Math.abs(x) > numberOfFeatureVariables;
+	}
+
+	/**
+	 * Removes all auxiliary variables from the given model.
+	 * 
+	 * @param model a (partial) model containing feature and auxiliary variables
+	 * @return a new array containing only the literals of feature variables
+	 */
+	public int[] removeAuxiliaryVariables(int[] model) {
+		final int[] featureModel = new int[model.length];
+		int i = 0;
+		for (int var : model) {
+			if (!isAuxiliaryVariable(var)) {
+				featureModel[i++] = var;
+			}
+		}
+		return i == model.length ? featureModel : Arrays.copyOf(featureModel, i);
+	}
+
 	public Literal getLiteral(final int x) {
 		return new Literal(intToVar[Math.abs(x)], x > 0);
 	}
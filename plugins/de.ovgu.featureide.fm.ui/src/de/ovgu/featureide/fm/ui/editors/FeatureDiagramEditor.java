@@ -90,6 +90,7 @@ import de.ovgu.featureide.fm.core.io.manager.FileHandler;
 import de.ovgu.featureide.fm.core.io.manager.FileManagerMap;
 import de.ovgu.featureide.fm.core.job.LongRunningJob;
 import de.ovgu.featureide.fm.core.job.LongRunningMethod;
+import de.ovgu.featureide.fm.core.job.LongRunningTask;
 import de.ovgu.featureide.fm.core.job.monitor.IMonitor;
 import de.ovgu.featureide.fm.ui.FMUIPlugin;
 import de.ovgu.featureide.fm.ui.editors.elements.GraphicalFeatureModel;
@@ -663,7 +664,7 @@ public class FeatureDiagramEditor extends ScrollingGraphicalViewer implements GU
 					}
 					waiting = false;
 				}
-				analyzeJob = new LongRunningJob<>(ANALYZE_FEATURE_MODEL, new LongRunningMethod<Boolean>() {
+				final LongRunningJob<Boolean> job = new LongRunningJob<>(ANALYZE_FEATURE_MODEL, new LongRunningMethod<Boolean>() {
 					@Override
 					public Boolean execute(IMonitor monitor) throws Exception {
 						if (waiting) {
@@ -689,7 +690,9 @@ public class FeatureDiagramEditor extends ScrollingGraphicalViewer implements GU
 						return true;
 					}
 				});
-				analyzeJob.setPriority(Job.LONG);
+				job.setPriority(Job.LONG);
+				job.setTaskPriority(LongRunningTask.Priority.INTERACTIVE);
+				analyzeJob = job;
 				analyzeJob.schedule();
 				return Status.OK_STATUS;
 			}
@@ -158,6 +158,7 @@ public class FeatureModelEditor extends MultiPageEditorPart implements IEventLis
 		if (diagramEditor != null) {
 			diagramEditor.dispose();
 			featureModel.removeListener(diagramEditor);
+			featureModel.getAnalyser().setIncremental(false);
 			fmManager.removeListener(this);
 		}
 		super.dispose();
@@ -471,6 +472,7 @@ public class FeatureModelEditor extends MultiPageEditorPart implements IEventLis
 	void createDiagramPage() {
 		diagramEditor = new FeatureDiagramEditor(this, getContainer());
 		featureModel.addListener(diagramEditor);
+		featureModel.getAnalyser().setIncremental(true);
 		diagramEditor.setIndex(addPage(diagramEditor.getControl()));
 		setPageText(getDiagramEditorIndex(), diagramEditor.getPageText());
 		diagramEditor.initEditor();
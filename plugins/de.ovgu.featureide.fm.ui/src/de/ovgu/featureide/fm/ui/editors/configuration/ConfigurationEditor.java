@@ -23,6 +23,7 @@ package de.ovgu.featureide.fm.ui.editors.configuration;
 import static de.ovgu.featureide.fm.core.localization.StringTable.SELECT_THE_CORRESPONDING_FEATUREMODEL_;
 
 import java.io.File;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.ArrayList;
@@ -65,9 +66,10 @@ import de.ovgu.featureide.fm.core.base.event.FeatureIDEEvent.EventType;
 import de.ovgu.featureide.fm.core.base.event.IEventListener;
 import de.ovgu.featureide.fm.core.conf.ConfigurationFG;
 import de.ovgu.featureide.fm.core.conf.IFeatureGraph;
-import de.ovgu.featureide.fm.core.conf.MatrixFeatureGraph;
+import de.ovgu.featureide.fm.core.conf.SparseFeatureGraph;
 import de.ovgu.featureide.fm.core.configuration.Configuration;
 import de.ovgu.featureide.fm.core.configuration.ConfigurationMatrix;
+import de.ovgu.featureide.fm.core.editing.AdvancedNodeCreator;
 import de.ovgu.featureide.fm.core.io.FeatureGraphFormat;
 import de.ovgu.featureide.fm.core.io.Problem;
 import de.ovgu.featureide.fm.core.io.ProblemList;
@@ -77,6 +79,7 @@ import de.ovgu.featureide.fm.core.io.manager.FileHandler;
 import de.ovgu.featureide.fm.core.io.manager.FileManagerMap;
 import de.ovgu.featureide.fm.core.job.IJob;
 import de.ovgu.featureide.fm.core.job.LongRunningJob;
+import de.ovgu.featureide.fm.core.job.LongRunningTask;
 import de.ovgu.featureide.fm.core.job.LongRunningWrapper;
 import de.ovgu.featureide.fm.core.job.util.JobFinishListener;
 import de.ovgu.featureide.fm.ui.FMUIPlugin;
@@ -270,6 +273,7 @@ public class ConfigurationEditor extends MultiPageEditorPart implements GUIDefau
 		if (!configurationManager.editObject().getPropagator().isLoaded()) {
 			final Display currentDisplay = Display.getCurrent();
 			LongRunningJob<Void> configJob = new LongRunningJob<>("Load Propagator", configurationManager.editObject().getPropagator().load());
+			configJob.setTaskPriority(LongRunningTask.Priority.INTERACTIVE);
 			configJob.addJobFinishedListener(new JobFinishListener<Void>() {
 				@Override
 				public void jobFinished(IJob<Void> finishedJob) {
@@ -287,9 +291,14 @@ public class ConfigurationEditor extends MultiPageEditorPart implements GUIDefau
 	}
 	
 	private IFeatureGraph loadFeatureGraph(IPath file) {
-		final IFeatureGraph featureGraph = new MatrixFeatureGraph();
+		final Path path = Paths.get(file.toFile().toURI());
+		if (!Files.exists(path)) {
+			return null;
+		}
+		final SparseFeatureGraph featureGraph = new SparseFeatureGraph();
+		// the sat instance of the current model is used to detect an outdated feature graph
+		featureGraph.setSatInstance(AdvancedNodeCreator.createSatInstance(featureModelManager.getObject()));
 		final FeatureGraphFormat format = new FeatureGraphFormat();
-		Path path = Paths.get(file.toFile().toURI());
 		if (FileHandler.load(path, featureGraph, format).containsError()) {
 			return null;
 		} else {
@@ -103,6 +103,7 @@ import de.ovgu.featureide.fm.core.job.IJob;
 import de.ovgu.featureide.fm.core.job.IJob.JobStatus;
 import de.ovgu.featureide.fm.core.job.LongRunningJob;
 import de.ovgu.featureide.fm.core.job.LongRunningMethod;
+import de.ovgu.featureide.fm.core.job.LongRunningTask;
 import de.ovgu.featureide.fm.core.job.util.JobFinishListener;
 import de.ovgu.featureide.fm.ui.FMUIPlugin;
 import de.ovgu.featureide.fm.ui.editors.configuration.IConfigurationEditor.EXPAND_ALGORITHM;
@@ -1016,6 +1017,7 @@ public abstract class ConfigurationTreeEditorPage extends EditorPart implements
 		final LongRunningMethod<List<String>> update = configurationEditor.getConfiguration().getPropagator()
 				.update(redundantManual, feature.getFeature().getName());
 		final LongRunningJob<List<String>> job = new LongRunningJob<>("", update);
+		job.setTaskPriority(LongRunningTask.Priority.INTERACTIVE);
 		job.setIntermediateFunction(new IConsumer<Object>() {
 			@Override
 			public void invoke(Object t) {
@@ -41,7 +41,6 @@ import org.eclipse.draw2d.geometry.Point;
 import org.eclipse.draw2d.geometry.Rectangle;
 import org.prop4j.NodeWriter;
 
-import de.ovgu.featureide.fm.core.base.FeatureUtils;
 import de.ovgu.featureide.fm.core.base.IConstraint;
 import de.ovgu.featureide.fm.core.base.IFeature;
 import de.ovgu.featureide.fm.ui.editors.IGraphicalConstraint;
@@ -136,8 +135,7 @@ public class ConstraintFigure extends Figure implements GUIDefaults {
 			break;
 		case REDUNDANT:
 			setBackgroundColor(FMPropertyManager.getWarningColor());
-			List<String> explanationRedundant = constraint.getFeatureModel().getAnalyser().redundantConstrExpl
-					.get(FeatureUtils.getConstraintIndex(constraint.getFeatureModel(), constraint));
+			List<String> explanationRedundant = constraint.getFeatureModel().getAnalyser().getRedundantConstraintExplanation(constraint);
 			Panel panelRedundant = new Panel();
 			panelRedundant.setLayoutManager(new ToolbarLayout(false));
 			panelRedundant.add(new Label(REDUNDANCE));
@@ -147,8 +145,7 @@ public class ConstraintFigure extends Figure implements GUIDefaults {
 			setBackgroundColor(FMPropertyManager.getWarningColor());
 			setBorder(FMPropertyManager.getImplicitConstraintBorder());
 			// set tooltip with explanation for redundant constraint
-			List<String> explanationImplicit = constraint.getFeatureModel().getAnalyser().redundantConstrExpl
-					.get(FeatureUtils.getConstraintIndex(constraint.getFeatureModel(), constraint));
+			List<String> explanationImplicit = constraint.getFeatureModel().getAnalyser().getRedundantConstraintExplanation(constraint);
 			explanationImplicit = explanationImplicit != null ? explanationImplicit : Collections.<String> emptyList();
 
 			// replace "redundant" with "transitive" in explanation if constraint represents an implicit dependency
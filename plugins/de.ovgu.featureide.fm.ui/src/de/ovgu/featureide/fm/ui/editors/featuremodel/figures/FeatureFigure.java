@@ -163,7 +163,7 @@ public class FeatureFigure extends Figure implements GUIDefaults {
 			if (feature.getStructure().isRoot() && !analyser.valid()) {
 				setBackgroundColor(FMPropertyManager.getDeadFeatureBackgroundColor());
 				setBorder(FMPropertyManager.getDeadFeatureBorder(this.feature.isConstraintSelected()));
-				explanation = analyser.deadFeatureExpl.get(feature); // get explanation for void feature model
+				explanation = analyser.getDeadFeatureExplanation(feature); // get explanation for void feature model
 			//	toolTip.append(VOID);
 			} else {
 				if (feature.getStructure().isConcrete()) {
@@ -192,14 +192,14 @@ public class FeatureFigure extends Figure implements GUIDefaults {
 					if (analyser.valid()) {
 						setBackgroundColor(FMPropertyManager.getDeadFeatureBackgroundColor());
 						setBorder(FMPropertyManager.getDeadFeatureBorder(this.feature.isConstraintSelected()));
-						explanation = analyser.deadFeatureExpl.get(feature); // get explanation for dead feature
+						explanation = analyser.getDeadFeatureExplanation(feature); // get explanation for dead feature
 					//	toolTip.append(DEAD);
 					}
 					break;
 				case FALSE_OPTIONAL:
 					setBackgroundColor(FMPropertyManager.getWarningColor());
 					setBorder(FMPropertyManager.getConcreteFeatureBorder(this.feature.isConstraintSelected()));
-					explanation = analyser.falseOptFeatureExpl.get(feature); // get explanation for false optional feature
+					explanation = analyser.getFalseOptionalFeatureExplanation(feature); // get explanation for false optional feature
 			//		toolTip.append(FALSE_OPTIONAL);
 					break;
 				case INDETERMINATE_HIDDEN:
@@ -34,7 +34,7 @@ import de.ovgu.featureide.fm.core.FeatureModelAnalyzer;
 import de.ovgu.featureide.fm.core.base.FeatureUtils;
 import de.ovgu.featureide.fm.core.base.IConstraint;
 import de.ovgu.featureide.fm.core.base.IFeatureModel;
-import de.ovgu.featureide.fm.core.explanations.RedundantConstraint;
+import de.ovgu.featureide.fm.core.explanations.Explainer;
 import de.ovgu.featureide.fm.ui.editors.FeatureDiagramEditor;
 import de.ovgu.featureide.fm.ui.editors.FeatureModelEditor;
 import de.ovgu.featureide.fm.ui.editors.IGraphicalConstraint;
@@ -132,8 +132,9 @@ public class SubtreeDependencyPage extends AbstractWizardPage {
 	 */
 	private void explainImplicitConstraints(FeatureModelAnalyzer analyzer, IGraphicalFeatureModel graphicalFeatModel) {
 		// iterate implicit constraints and generate explanations 
+		final Explainer explainer = new Explainer(completeFm);
 		for (IConstraint redundantC : getImplicitConstraints()) {
-			List<String> expl = new RedundantConstraint().explain(completeFm, redundantC);
+			List<String> expl = explainer.explainRedundantConstraint(redundantC);
 			subtreeModel.getAnalyser().redundantConstrExpl.put(FeatureUtils.getConstraintIndex(subtreeModel, redundantC), expl);
 			redundantC.setConstraintAttribute(ConstraintAttribute.IMPLICIT, false);
 			
@@ -0,0 +1,257 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2016  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ * 
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.ui.actions.generator;
+
+import static de.ovgu.featureide.fm.core.localization.StringTable.ERROR_IN_CONFIGURATION;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import de.ovgu.featureide.ui.UIPlugin;
+
+/**
+ * A stage of the build pipeline of the {@link ConfigurationBuilder}.<br>
+ * The threads of a stage take configurations from a bounded queue, process them and pass them to the queue of the next stage.
+ * If the next stage is busy, its full queue blocks the threads of this stage until the build is canceled.<br>
+ * If all threads of a stage end before they have taken all configurations (e.g., because of an error), the build is canceled, as the
+ * remaining configurations cannot be processed anymore.
+ * 
+ * @see Generator
+ * @see JavaCompiler
+ * @see TestRunner
+ */
+public abstract class BuildStage implements IConfigurationBuilderBasics {
+
+	/**
+	 * The time in milliseconds after which a waiting thread checks whether the build was canceled.
+	 */
+	private static final long TIMEOUT = 100;
+
+	/**
+	 * The builder containing this stage
+	 */
+	final ConfigurationBuilder builder;
+
+	private final String name;
+
+	private final int numberOfThreads;
+
+	private final List<Thread> threads;
+
+	private final AtomicInteger runningThreads;
+
+	private final BlockingQueue<BuilderConfiguration> queue;
+
+	/**
+	 * Marks that no more configurations will be passed to the queue.
+	 */
+	private volatile boolean closed = false;
+
+	/**
+	 * Marks that a thread of this stage has taken all configurations.
+	 */
+	private volatile boolean finished = false;
+
+	private BuildStage next = null;
+
+	/**
+	 * @param builder The {@link ConfigurationBuilder} containing the stage
+	 * @param name The name of the threads
+	 * @param numberOfThreads The number of configurations that are processed in parallel
+	 */
+	public BuildStage(ConfigurationBuilder builder, String name, int numberOfThreads) {
+		this.builder = builder;
+		this.name = name;
+		this.numberOfThreads = Math.max(1, numberOfThreads);
+		threads = new ArrayList<>(this.numberOfThreads);
+		runningThreads = new AtomicInteger(this.numberOfThreads);
+		queue = new ArrayBlockingQueue<>(2 * this.numberOfThreads);
+	}
+
+	/**
+	 * Sets the stage that processes the configurations after this stage.
+	 * 
+	 * @param next The next stage or <code>null</code> if the configurations are built after this stage
+	 */
+	public void setNext(BuildStage next) {
+		this.next = next;
+	}
+
+	/**
+	 * @return The stage that processes the configurations after this stage or <code>null</code>
+	 */
+	BuildStage getNext() {
+		return next;
+	}
+
+	/**
+	 * Processes the given configuration.
+	 * 
+	 * @param configuration The configuration
+	 * @throws Exception if the configuration cannot be processed, the configuration is not passed to the next stage
+	 */
+	protected abstract void process(BuilderConfiguration configuration) throws Exception;
+
+	/**
+	 * Gets the next configuration to process. Waits until a configuration is available.
+	 * 
+	 * @return The configuration or <code>null</code> if there are no more configurations or the build is canceled
+	 * @throws InterruptedException if the build is canceled
+	 */
+	protected BuilderConfiguration take() throws InterruptedException {
+		while (!isCanceled()) {
+			final BuilderConfiguration configuration = queue.poll(TIMEOUT, TimeUnit.MILLISECONDS);
+			if (configuration != null) {
+				return configuration;
+			}
+			// all configurations are passed to the queue before it is closed
+			if (closed && queue.isEmpty()) {
+				return null;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Passes the given configuration to this stage. Waits while the queue is full.
+	 * 
+	 * @param configuration The configuration
+	 * @return <code>false</code> if the build was canceled before the configuration could be passed
+	 * @throws InterruptedException if the build is canceled
+	 */
+	boolean put(BuilderConfiguration configuration) throws InterruptedException {
+		while (!queue.offer(configuration, TIMEOUT, TimeUnit.MILLISECONDS)) {
+			if (isCanceled()) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Notification that no more configurations will be passed to this stage.
+	 */
+	void close() {
+		closed = true;
+	}
+
+	/**
+	 * Starts the threads of this stage.
+	 */
+	public void start() {
+		for (int i = 0; i < numberOfThreads; i++) {
+			final Thread thread = new Thread(name + " " + i) {
+				@Override
+				public void run() {
+					work();
+				}
+			};
+			threads.add(thread);
+			thread.start();
+		}
+	}
+
+	/**
+	 * Waits until all threads of this stage have finished.
+	 */
+	public void join() throws InterruptedException {
+		for (Thread thread : threads) {
+			thread.join();
+		}
+	}
+
+	/**
+	 * Interrupts all threads of this stage.
+	 */
+	public void cancel() {
+		for (Thread thread : threads) {
+			thread.interrupt();
+		}
+	}
+
+	/**
+	 * @return <code>true</code> if the build was canceled
+	 */
+	boolean isCanceled() {
+		return builder.cancelGeneratorJobs;
+	}
+
+	/**
+	 * Cancels the whole build.
+	 */
+	void cancelBuild() {
+		builder.cancelGenerationJobs();
+	}
+
+	/**
+	 * Notification that the given configuration has left the pipeline.
+	 */
+	void built(BuilderConfiguration configuration) {
+		builder.builtConfiguration();
+	}
+
+	/**
+	 * Handles an exception thrown while processing the given configuration.
+	 */
+	void handleError(BuilderConfiguration configuration, Exception e) {
+		UIPlugin.getDefault().logError(ERROR_IN_CONFIGURATION + configuration, e);
+	}
+
+	private void work() {
+		try {
+			for (BuilderConfiguration configuration = take(); configuration != null; configuration = take()) {
+				boolean processed = false;
+				try {
+					process(configuration);
+					processed = true;
+				} catch (InterruptedException e) {
+					throw e;
+				} catch (Exception e) {
+					handleError(configuration, e);
+				}
+				if (processed && next != null) {
+					if (!next.put(configuration)) {
+						return;
+					}
+				} else {
+					built(configuration);
+				}
+			}
+			finished = !isCanceled();
+		} catch (InterruptedException e) {
+			// the build was canceled
+		} finally {
+			if (runningThreads.decrementAndGet() == 0 && !isCanceled()) {
+				if (!finished) {
+					// the threads ended unexpectedly, so the remaining configurations would block the previous stage
+					cancelBuild();
+				} else if (next != null) {
+					next.close();
+				}
+			}
+		}
+	}
+
+}
@@ -0,0 +1,124 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2016  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ * 
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.ui.actions.generator;
+
+import static de.ovgu.featureide.fm.core.localization.StringTable.RESTRICTION;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.eclipse.jdt.core.compiler.CharOperation;
+import org.eclipse.jdt.internal.compiler.batch.FileSystem;
+import org.eclipse.jdt.internal.compiler.env.NameEnvironmentAnswer;
+import org.eclipse.jdt.internal.compiler.util.Util;
+
+/**
+ * The classpath of all products of one build.<br>
+ * The libraries are opened once and the found types are cached, thus the
+ * {@link JavaCompiler} can share this environment between all products and threads.
+ * 
+ * @see ConfigurationBuilder
+ */
+@SuppressWarnings(RESTRICTION)
+public class ClasspathEnvironment extends FileSystem {
+
+	private final ConcurrentHashMap<String, NameEnvironmentAnswer> types = new ConcurrentHashMap<>();
+	private final Set<String> missingTypes = Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+	private final ConcurrentHashMap<String, Boolean> packages = new ConcurrentHashMap<>();
+
+	/**
+	 * @param classpath The paths of the libraries and class folders, the
+	 *            libraries of the running VM are added in front of them
+	 */
+	public ClasspathEnvironment(List<String> classpath) {
+		super(getClasspaths(classpath), null, false);
+	}
+
+	private static Classpath[] getClasspaths(List<String> classpath) {
+		final List<Classpath> classpaths = new ArrayList<>();
+		Util.collectRunningVMBootclasspath(classpaths);
+		for (String path : classpath) {
+			final Classpath entry = FileSystem.getClasspath(path, null, null);
+			if (entry != null) {
+				classpaths.add(entry);
+			}
+		}
+		return classpaths.toArray(new Classpath[classpaths.size()]);
+	}
+
+	@Override
+	public NameEnvironmentAnswer findType(char[][] compoundName) {
+		final String key = CharOperation.toString(compoundName);
+		NameEnvironmentAnswer answer = types.get(key);
+		if (answer == null && !missingTypes.contains(key)) {
+			synchronized (this) {
+				answer = super.findType(compoundName);
+			}
+			if (answer != null) {
+				types.put(key, answer);
+			} else {
+				missingTypes.add(key);
+			}
+		}
+		return answer;
+	}
+
+	@Override
+	public NameEnvironmentAnswer findType(char[] typeName, char[][] packageName) {
+		return findType(CharOperation.arrayConcat(packageName, typeName));
+	}
+
+	@Override
+	public boolean isPackage(char[][] compoundName, char[] packageName) {
+		final String key = CharOperation.toString(CharOperation.arrayConcat(compoundName, packageName));
+		Boolean isPackage = packages.get(key);
+		if (isPackage == null) {
+			synchronized (this) {
+				isPackage = super.isPackage(compoundName, packageName);
+			}
+			packages.put(key, isPackage);
+		}
+		return isPackage;
+	}
+
+	/**
+	 * Does nothing, as the environment is used by further compilations.
+	 * 
+	 * @see #dispose()
+	 */
+	@Override
+	public void cleanup() {
+	}
+
+	/**
+	 * Closes all libraries, when the build has finished.
+	 */
+	public synchronized void dispose() {
+		super.cleanup();
+		types.clear();
+		missingTypes.clear();
+		packages.clear();
+	}
+
+}
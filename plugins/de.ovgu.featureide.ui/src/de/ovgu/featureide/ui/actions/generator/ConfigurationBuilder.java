@@ -25,9 +25,9 @@ import static de.ovgu.featureide.fm.core.localization.StringTable.INCLING;
 import static de.ovgu.featureide.fm.core.localization.StringTable.OF;
 import static de.ovgu.featureide.fm.core.localization.StringTable.RESTRICTION;
 
-import java.security.KeyStore.Builder;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 import javax.annotation.CheckForNull;
 
@@ -38,6 +38,8 @@ import org.eclipse.core.resources.ResourcesPlugin;
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Platform;
+import org.eclipse.core.runtime.QualifiedName;
 import org.eclipse.core.runtime.Status;
 import org.eclipse.core.runtime.SubMonitor;
 import org.eclipse.core.runtime.jobs.Job;
@@ -47,10 +49,10 @@ import org.eclipse.jdt.internal.core.JavaProject;
 
 import de.ovgu.featureide.core.IFeatureProject;
 import de.ovgu.featureide.fm.core.base.IFeatureModel;
-import de.ovgu.featureide.fm.core.job.IJob.JobStatus;
 import de.ovgu.featureide.fm.core.job.IRunner;
 import de.ovgu.featureide.fm.core.job.LongRunningWrapper;
 import de.ovgu.featureide.fm.core.job.monitor.IMonitor;
+import de.ovgu.featureide.fm.core.job.monitor.IMonitor.MethodCancelException;
 import de.ovgu.featureide.fm.core.job.monitor.ProgressMonitor;
 import de.ovgu.featureide.fm.core.localization.StringTable;
 import de.ovgu.featureide.ui.UIPlugin;
@@ -97,9 +99,9 @@ public class ConfigurationBuilder implements IConfigurationBuilderBasics {
 	public boolean counting = true;
 
 	/**
-	 * Saves the classpath entry for compilation.
+	 * Saves the classpath for compilation, it is shared by all compilers.
 	 */
-	String classpath = "";
+	ClasspathEnvironment classpath;
 
 	/**
 	 * This folder is used for compilation.
@@ -120,7 +122,7 @@ public class ConfigurationBuilder implements IConfigurationBuilderBasics {
 	/**
 	 * This flag indicates that all jobs should be aborted.
 	 */
-	boolean cancelGeneratorJobs = false;
+	volatile boolean cancelGeneratorJobs = false;
 
 	/**
 	 * Saves the time of start.
@@ -141,9 +143,20 @@ public class ConfigurationBuilder implements IConfigurationBuilderBasics {
 	BuildType buildType;
 
 	/**
-	 * This list contains all {@link Generator} jobs.
+	 * The maximal number of configurations that are buffered before they are composed.
 	 */
-	final List<Generator> generatorJobs = new ArrayList<>();
+	private static final int BUFFER_SIZE = 5000;
+
+	private static final boolean JUNIT_INSTALLED = Platform.getBundle("org.junit") != null;
+
+	/**
+	 * This list contains the stages of the build pipeline in the order of their execution.
+	 * 
+	 * @see Generator
+	 * @see JavaCompiler
+	 * @see TestRunner
+	 */
+	final List<BuildStage> stages = new CopyOnWriteArrayList<>();
 
 	public AbstractConfigurationSorter sorter;
 
@@ -154,23 +167,46 @@ public class ConfigurationBuilder implements IConfigurationBuilderBasics {
 	private AConfigurationGenerator configurationBuilder;
 
 	/**
-	 * Gets the first entry of configurations or <code>null</code> if there is
-	 * none.
+	 * Gets the first entry of configurations. Waits until the configurations
+	 * are sorted and a configuration is available.
 	 * 
-	 * @return The first entry
+	 * @return The first entry or <code>null</code> if there are no more
+	 *         configurations or the build is canceled
+	 * @throws InterruptedException
 	 */
 	@CheckForNull
-	public synchronized BuilderConfiguration getConfiguration() {
-		return sorter.getConfiguration();
+	public synchronized BuilderConfiguration getConfiguration() throws InterruptedException {
+		while (!cancelGeneratorJobs) {
+			if (sorter.isSorted() && sorter.getBufferSize() != 0) {
+				final BuilderConfiguration configuration = sorter.getConfiguration();
+				notifyAll();
+				return configuration;
+			}
+			if (finish) {
+				return null;
+			}
+			wait();
+		}
+		return null;
 	}
 
 	/**
-	 * Adds the given configuration to configurations.
+	 * Adds the given configuration to configurations. Waits while the buffer
+	 * of sorted configurations is full.
 	 * 
 	 * @param configuration
 	 */
 	public synchronized void addConfiguration(BuilderConfiguration configuration) {
+		try {
+			while (sorter.isSorted() && sorter.getBufferSize() >= BUFFER_SIZE && !cancelGeneratorJobs) {
+				wait();
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return;
+		}
 		sorter.addConfiguration(configuration);
+		notifyAll();
 	}
 
 	// TODO revise long parameter list
@@ -253,7 +289,7 @@ public class ConfigurationBuilder implements IConfigurationBuilderBasics {
 			break;
 		case T_WISE:
 			if (algorithm.equals(INCLING)) {
-				configurationBuilder = new IncLingConfigurationGenerator(this, featureModel, featureProject);
+				configurationBuilder = new IncLingConfigurationGenerator(this, featureModel, featureProject, t);
 			} else {
 				configurationBuilder = new SPLCAToolConfigurationGenerator(this, featureModel, featureProject, algorithm, t);
 			}
@@ -285,19 +321,7 @@ public class ConfigurationBuilder implements IConfigurationBuilderBasics {
 
 					time = System.currentTimeMillis();
 
-					if (featureProject.getComposer().canGeneratInParallelJobs()) {
-						if (buildType != BuildType.ALL_CURRENT) {
-							newgeneratorJobs(Runtime.getRuntime().availableProcessors() * 2);
-						} else {
-							int contJobs = Runtime.getRuntime().availableProcessors() * 2;
-							if (configurationNumber < contJobs) {
-								contJobs = (int) configurationNumber;
-							}
-							newgeneratorJobs(contJobs);
-						}
-					} else {
-						newgeneratorJobs(1);
-					}
+					createStages(featureProject);
 					configurationBuilderJob = LongRunningWrapper.getRunner(configurationBuilder, "Create Configurations " + id++);
 					configurationBuilderJob.schedule();
 
@@ -310,39 +334,40 @@ public class ConfigurationBuilder implements IConfigurationBuilderBasics {
 						}
 					}
 				} finally {
-					configurationBuilderJob.cancel();
+					if (configurationBuilderJob != null) {
+						configurationBuilderJob.cancel();
+					}
 					cancelGenerationJobs();
-					for (Thread g : generatorJobs) {
-						g.interrupt();
+					if (classpath != null) {
+						// the libraries are closed after the running compilations have finished
+						try {
+							for (BuildStage stage : stages) {
+								stage.join();
+							}
+						} catch (InterruptedException e) {
+							LOGGER.logError(e);
+						}
+						classpath.dispose();
 					}
 					monitor.done();
 				}
 				return Status.OK_STATUS;
 			}
 
+			@Override
+			protected void canceling() {
+				cancelGenerationJobs();
+				if (configurationBuilderJob != null) {
+					configurationBuilderJob.cancel();
+				}
+			}
+
 			private void showStatistics(IProgressMonitor monitor) {
 				try {
-					while (configurationBuilderJob.getStatus() == JobStatus.NOT_STARTED) {
-						try {
-							Thread.sleep(150);
-						} catch (InterruptedException e) {
-							LOGGER.logError(e);
-						}
-					}
-					while (configurationBuilderJob.getStatus() == JobStatus.RUNNING) {
-						monitor.setTaskName(getTaskName());
-						if (monitor.isCanceled()) {
-							cancelGenerationJobs();
-							configurationBuilderJob.cancel();
-							return;
-						}
-						try {
-							Thread.sleep(150);
-						} catch (InterruptedException e) {
-							LOGGER.logError(e);
-						}
+					configurationBuilderJob.join();
+					if (cancelGeneratorJobs) {
+						return;
 					}
-					System.err.println(configurationBuilderJob.getStatus());
 
 					if (!sorter.isSorted()) {
 						final IMonitor workMonitor = new ProgressMonitor(getTaskName(), monitor);
@@ -351,29 +376,12 @@ public class ConfigurationBuilder implements IConfigurationBuilderBasics {
 					finish();
 
 					((SubMonitor) monitor).setWorkRemaining((int) configurationNumber - built);
-					while (!generatorJobs.isEmpty()) {
-						try {
-							if (monitor.isCanceled()) {
-								cancelGenerationJobs();
-								break;
-							}
-								final Generator generator = generatorJobs.get(0);
-								if (generator == null) {
-									// generator can never be null, however see #416
-									generatorJobs.remove(0);
-								} else if (generator.getState() == Thread.State.TERMINATED) {
-								generatorJobs.remove(generator);
-								if (sorter.getBufferSize() != 0) {
-									createNewGenerator(generator.nr);
-								}
-							}
-							monitor.setTaskName(getTaskName());
-							Thread.sleep(150);
-						} catch (InterruptedException e) {
-							LOGGER.logError(e);
-						} catch (IndexOutOfBoundsException e) {
-							// nothing here
-						}
+					monitor.setTaskName(getTaskName());
+					for (BuildStage stage : stages) {
+						stage.join();
+					}
+					if (cancelGeneratorJobs) {
+						return;
 					}
 
 					long duration = System.currentTimeMillis() - time;
@@ -386,8 +394,10 @@ public class ConfigurationBuilder implements IConfigurationBuilderBasics {
 						built = (int) configurationNumber;
 					}
 					LOGGER.logInfo(built + (configurationNumber != 0 ? OF + configurationNumber : "") + " configurations built in " + t);
-				} finally {
-					generatorJobs.clear();
+				} catch (InterruptedException e) {
+					LOGGER.logError(e);
+				} catch (MethodCancelException e) {
+					// the build was canceled
 				}
 			}
 
@@ -480,18 +490,18 @@ public class ConfigurationBuilder implements IConfigurationBuilderBasics {
 	 * Sets the java classPath for compiling.
 	 */
 	private void setClassPath() {
-		String sep = System.getProperty("path.separator");
+		final List<String> classpathEntries = new ArrayList<>();
 		try {
 			JavaProject proj = new JavaProject(featureProject.getProject(), null);
 			IJavaElement[] elements = proj.getChildren();
 			for (IJavaElement e : elements) {
 				String path = e.getPath().toOSString();
 				if (e.getPath().isAbsolute()) {
-					classpath += sep + "\"" + path + "\"";
+					classpathEntries.add(path);
 				} else {
 				IResource resource = e.getResource();
 				if (resource != null && "jar".equals(resource.getFileExtension())) {
-						classpath += sep + "\"" + resource.getLocation().toOSString() + "\"";
+						classpathEntries.add(resource.getLocation().toOSString());
 					} else {
 						UIPlugin.getDefault().logWarning("ClassPath element " + e.toString() + " is missing.");
 					}
@@ -500,55 +510,95 @@ public class ConfigurationBuilder implements IConfigurationBuilderBasics {
 		} catch (JavaModelException e) {
 
 		}
-		classpath = classpath.length() > 0 ? classpath.substring(1) : classpath;
+		classpath = new ClasspathEnvironment(classpathEntries);
 	}
 
 	/**
-	 * Creates new {@link Generator}s
+	 * Creates and starts the stages of the build pipeline.<br>
+	 * Configurations are composed by the {@link Generator}, compiled by the {@link JavaCompiler}
+	 * and tested by the {@link TestRunner}, each stage with its own number of threads.
 	 * 
-	 * @param count
-	 *            The amount of Generators that will be created.
+	 * @param featureProject The feature project
 	 */
-	private void newgeneratorJobs(int count) {
-		if (count < 1) {
-			return;
+	private void createStages(IFeatureProject featureProject) {
+		final int processors = Runtime.getRuntime().availableProcessors();
+		int compositionThreads = 1;
+		if (featureProject.getComposer().canGeneratInParallelJobs()) {
+			compositionThreads = getNumberOfThreads(COMPOSITION_THREADS, processors);
+			if (buildType == BuildType.ALL_CURRENT && configurationNumber < compositionThreads) {
+				compositionThreads = (int) configurationNumber;
+			}
 		}
+		stages.add(new Generator(this, compositionThreads));
 
-		if (count == 1) {
-			createNewGenerator(0);
-			return;
+		if (!createNewProjects) {
+			try {
+				if (featureProject.getProject().hasNature(Generator.JAVA_NATURE)) {
+					stages.add(new JavaCompiler(this, getNumberOfThreads(COMPILATION_THREADS, processors)));
+					if (runTests && JUNIT_INSTALLED) {
+						stages.add(new TestRunner(this, testResults, getNumberOfThreads(TEST_THREADS, processors)));
+					}
+				}
+			} catch (CoreException e) {
+				LOGGER.logError(e);
+			}
 		}
 
-		for (; count > 0; count--) {
-			createNewGenerator(count);
+		for (int i = 1; i < stages.size(); i++) {
+			stages.get(i - 1).setNext(stages.get(i));
+		}
+		for (BuildStage stage : stages) {
+			stage.start();
 		}
 	}
 
 	/**
-	 * Created a new {@link Generator} with the given number
+	 * Gets the number of threads of a stage as defined at the workspace.
 	 * 
-	 * @param nr
+	 * @param key The key of the persistent property
+	 * @param defaultValue The number used if the property is not defined
+	 * @return The number of threads
+	 */
+	private static int getNumberOfThreads(QualifiedName key, int defaultValue) {
+		try {
+			final String value = ResourcesPlugin.getWorkspace().getRoot().getPersistentProperty(key);
+			if (value != null) {
+				return Math.max(1, Integer.parseInt(value));
+			}
+		} catch (CoreException | NumberFormatException e) {
+			LOGGER.logError(e);
+		}
+		return defaultValue;
+	}
+
+	/**
+	 * @return The folder for the binary files of the given configuration
 	 */
-	void createNewGenerator(int nr) {
-		Generator g = new Generator(nr, this);
-		generatorJobs.add(g);
-		g.start();
+	IFolder getBinFolder(BuilderConfiguration configuration) {
+		return tmp.getFolder(configuration.getName());
 	}
 
 	/**
-	 * This is called if the main job is canceled and all {@link Builder} and
+	 * This is called if the main job is canceled and all {@link Generator} and
 	 * {@link JavaCompiler} should finish.
 	 */
 	public void cancelGenerationJobs() {
 		cancelGeneratorJobs = true;
+		synchronized (this) {
+			notifyAll();
+		}
+		for (BuildStage stage : stages) {
+			stage.cancel();
+		}
 	}
 
 	/**
 	 * This is called if the main job has finished and no more configurations
 	 * will be added.
 	 */
-	public void finish() {
+	public synchronized void finish() {
 		finish = true;
+		notifyAll();
 	}
 
 	/**
@@ -67,6 +67,13 @@ public interface IConfigurationBuilderBasics {
 			IConfigurationBuilderBasics.class.getName() + "#Test");
 	QualifiedName MAX = new QualifiedName(IConfigurationBuilderBasics.class.getName() + "#MaxConf", 
 			IConfigurationBuilderBasics.class.getName() + "#MaxConf");
+	/** Saves the number of threads of the build stages, the number of processors is used by default. **/
+	QualifiedName COMPOSITION_THREADS = new QualifiedName(IConfigurationBuilderBasics.class.getName() + "#CompositionThreads", 
+			IConfigurationBuilderBasics.class.getName() + "#CompositionThreads");
+	QualifiedName COMPILATION_THREADS = new QualifiedName(IConfigurationBuilderBasics.class.getName() + "#CompilationThreads", 
+			IConfigurationBuilderBasics.class.getName() + "#CompilationThreads");
+	QualifiedName TEST_THREADS = new QualifiedName(IConfigurationBuilderBasics.class.getName() + "#TestThreads", 
+			IConfigurationBuilderBasics.class.getName() + "#TestThreads");
 	String TRUE = "true";
 	String FALSE = "false";
 	
@@ -110,4 +117,5 @@ public interface IConfigurationBuilderBasics {
 	int ICPL_MAX = 3;
 	int CASA_MAX = 6;
 	int MASK_MAX = 2;
+	int INCLING_MAX = 4;
 }
@@ -20,62 +20,54 @@
  */
 package de.ovgu.featureide.ui.actions.generator;
 
-import static de.ovgu.featureide.fm.core.localization.StringTable.CANNOT_FIND_SYMBOL;
 import static de.ovgu.featureide.fm.core.localization.StringTable.COMPILER;
-import static de.ovgu.featureide.fm.core.localization.StringTable.SYMBOL;
+import static de.ovgu.featureide.fm.core.localization.StringTable.RESTRICTION;
 
+import java.io.File;
 import java.io.IOException;
-import java.io.PrintWriter;
-import java.io.StringWriter;
-import java.util.AbstractList;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.LinkedList;
-import java.util.Scanner;
-import java.util.TreeMap;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 
 import org.eclipse.core.resources.IFile;
 import org.eclipse.core.resources.IFolder;
 import org.eclipse.core.resources.IMarker;
 import org.eclipse.core.resources.IResource;
 import org.eclipse.core.runtime.CoreException;
-import org.eclipse.core.runtime.jobs.Job;
-import org.eclipse.jdt.core.compiler.batch.BatchCompiler;
+import org.eclipse.jdt.core.compiler.CategorizedProblem;
+import org.eclipse.jdt.internal.compiler.ClassFile;
+import org.eclipse.jdt.internal.compiler.CompilationResult;
+import org.eclipse.jdt.internal.compiler.Compiler;
+import org.eclipse.jdt.internal.compiler.DefaultErrorHandlingPolicies;
+import org.eclipse.jdt.internal.compiler.ICompilerRequestor;
+import org.eclipse.jdt.internal.compiler.batch.CompilationUnit;
+import org.eclipse.jdt.internal.compiler.env.ICompilationUnit;
+import org.eclipse.jdt.internal.compiler.impl.CompilerOptions;
+import org.eclipse.jdt.internal.compiler.problem.DefaultProblemFactory;
 
 import de.ovgu.featureide.ui.UIPlugin;
 
 /**
- * This {@link Job} compiles all configurations of the corresponding {@link Generator}
+ * This stage compiles all configurations of the corresponding {@link ConfigurationBuilder}.<br>
+ * The sources are compiled in memory against the {@link ClasspathEnvironment} of the builder.
+ * Class files are only written if they are needed by the following stage.
  * 
  * @author Jens Meinicke
  */
-public class JavaCompiler implements IConfigurationBuilderBasics {
-
-	private final Generator generator;
-
-	/**
-	 * The parent folder of the generated variants
-	 */
-	final IFolder tmp;
-	
+@SuppressWarnings(RESTRICTION)
+public class JavaCompiler extends BuildStage {
 
 	/**
 	 * 
-	 * @param nr The number of the compiler
-	 * @param generator The generator holding this compiler
+	 * @param builder The {@link ConfigurationBuilder} containing the compiler
+	 * @param numberOfThreads The number of configurations that are compiled in parallel
 	 */
-	public JavaCompiler(int nr, Generator generator) {
-		this.generator = generator;
-
-		tmp = generator.builder.tmp.getFolder(COMPILER + nr);
-		if (!tmp.exists()) {
-			try {
-				tmp.create(true, true, null);
-			} catch (CoreException e) {
-				UIPlugin.getDefault().logError(e);
-			}
-		}
-		
+	public JavaCompiler(ConfigurationBuilder builder, int numberOfThreads) {
+		super(builder, COMPILER, numberOfThreads);
 	}
 
 	/**
@@ -84,167 +76,139 @@ public class JavaCompiler implements IConfigurationBuilderBasics {
 	 * @param configuration The configuration to build
 	 * @throws CoreException 
 	 */
-	protected void compile(BuilderConfiguration configuration) throws CoreException {
+	@Override
+	protected void process(BuilderConfiguration configuration) throws CoreException {
 		try {
-			generator.builder.folder.getFolder(configuration.getName()).refreshLocal(IResource.DEPTH_INFINITE, null);
+			builder.folder.getFolder(configuration.getName()).refreshLocal(IResource.DEPTH_INFINITE, null);
 		} catch (CoreException e) {
 			UIPlugin.getDefault().logError(e);
 		}
-		for (IResource file : tmp.members()) {
-			file.delete(true, null);
+		final IFolder binFolder;
+		if (getNext() != null) {
+			binFolder = builder.getBinFolder(configuration);
+			if (binFolder.exists()) {
+				binFolder.delete(true, null);
+			}
+			binFolder.create(true, true, null);
+		} else {
+			binFolder = null;
 		}
-		compile(configuration.getName());
+		compile(configuration.getName(), binFolder);
 	}
 
 	/**
 	 * Compiles the built configuration to create error markers.
-	 * The binary files will be placed into an temporary folder.
 	 * 
 	 * @param confName
+	 * @param binFolder The folder for the binary files or <code>null</code> if they are not needed
 	 */
-	private void compile(String confName) {
-		LinkedList<IFile> files = getJavaFiles(generator.builder.folder.getFolder(confName));
-		final LinkedList<String> options = new LinkedList<>();
+	private void compile(String confName, IFolder binFolder) {
+		final LinkedList<IFile> files = getJavaFiles(builder.folder.getFolder(confName));
+		final Map<String, IFile> sourceFiles = new HashMap<>();
+		final ICompilationUnit[] units = new ICompilationUnit[files.size()];
+		int i = 0;
 		for (IFile file : files) {
-			options.add(setupPath(file));
+			final String fileName = file.getLocation().toOSString();
+			sourceFiles.put(fileName, file);
+			String encoding = null;
+			try {
+				encoding = file.getCharset();
+			} catch (CoreException e) {
+				UIPlugin.getDefault().logError(e);
+			}
+			units[i++] = new CompilationUnit(null, fileName, encoding);
 		}
-		options.add("-g");
-		options.add("-Xlint");
-		options.add("-source");
-		options.add("1.7");
-		options.add("-d");
-		options.add(setupPath(tmp.getRawLocation().toOSString()));
-		options.add("-classpath");
-		options.add(generator.builder.classpath);
 
-		String output = process(options);
-		LinkedList<IFile> errorFiles = parseJavacOutput(output, files, confName);
+		final List<CompilationResult> results = new ArrayList<>();
+		final ICompilerRequestor requestor = new ICompilerRequestor() {
+			@Override
+			public void acceptResult(CompilationResult result) {
+				results.add(result);
+			}
+		};
+		final Compiler compiler = new Compiler(builder.classpath, DefaultErrorHandlingPolicies.proceedWithAllProblems(), getCompilerOptions(), requestor,
+				new DefaultProblemFactory(Locale.getDefault()));
+		compiler.compile(units);
+
+		final LinkedList<IFile> errorFiles = new LinkedList<>();
+		for (CompilationResult result : results) {
+			if (binFolder != null) {
+				writeClassFiles(result, binFolder);
+			}
+			createMarkers(result, sourceFiles, confName, errorFiles);
+		}
 		for (IFile file : errorFiles) {
-			generator.builder.featureProject.getComposer().postCompile(null, file);
+			builder.featureProject.getComposer().postCompile(null, file);
 		}
 	}
 
 	/**
-	 * Adds quotation marks to the path name if it contains white spaces.
+	 * @return The options of the compiler, corresponding to <code>-g -source 1.7</code>
 	 */
-	private String setupPath(IFile file) {
-		return setupPath(file.getRawLocation().toOSString());
+	private static CompilerOptions getCompilerOptions() {
+		final Map<String, String> settings = new HashMap<>();
+		settings.put(CompilerOptions.OPTION_Source, CompilerOptions.VERSION_1_7);
+		settings.put(CompilerOptions.OPTION_Compliance, CompilerOptions.VERSION_1_7);
+		settings.put(CompilerOptions.OPTION_TargetPlatform, CompilerOptions.VERSION_1_7);
+		settings.put(CompilerOptions.OPTION_LineNumberAttribute, CompilerOptions.GENERATE);
+		settings.put(CompilerOptions.OPTION_LocalVariableAttribute, CompilerOptions.GENERATE);
+		settings.put(CompilerOptions.OPTION_SourceFileAttribute, CompilerOptions.GENERATE);
+		return new CompilerOptions(settings);
 	}
-	
+
 	/**
-	 * Adds quotation marks to the path name if it contains white spaces.
+	 * Writes the class files of the given result into the given folder.
 	 */
-	private String setupPath(String location) {
-		return location.contains(" ") ? "\"" + location + "\"" : location;
-	}
-
-	private String process(AbstractList<String> command) {
-		final StringBuilder sb = new StringBuilder();
-		for (String string : command) {
-			sb.append(string);
-			sb.append(' ');
-		}
-
-		String output = null;
-		try (StringWriter writer = new StringWriter()) {
-			final String params = sb.toString();
-			
-			BatchCompiler.compile(params, new PrintWriter(System.out), new PrintWriter(writer), null);
-			output = writer.toString();
-		} catch (IOException e) {
-			UIPlugin.getDefault().logError(e);
+	private void writeClassFiles(CompilationResult result, IFolder binFolder) {
+		final File binDirectory = binFolder.getLocation().toFile();
+		for (ClassFile classFile : result.getClassFiles()) {
+			final File file = new File(binDirectory, new String(classFile.fileName()) + ".class");
+			try {
+				file.getParentFile().mkdirs();
+				Files.write(file.toPath(), classFile.getBytes());
+			} catch (IOException e) {
+				UIPlugin.getDefault().logError(e);
+			}
 		}
-		return output;
 	}
 
 	/**
-	 * Generates the problem markers from the given compiler output.
+	 * Generates the problem markers from the problems of the given result.
 	 * 
-	 * @param output The output from the compiler
-	 * @param files The compiled files
+	 * @param result The result of a compilation unit
+	 * @param sourceFiles The compiled files by their location
 	 * @param configurationName Name of the actual configuration
-	 * @return
+	 * @param errorFiles The files with problem markers
 	 */
-	public LinkedList<IFile> parseJavacOutput(String output, LinkedList<IFile> files, String configurationName) {
-		LinkedList<IFile> errorFiles = new LinkedList<IFile>();
-		if (output.isEmpty()) {
-			return errorFiles;
+	private void createMarkers(CompilationResult result, Map<String, IFile> sourceFiles, String configurationName, List<IFile> errorFiles) {
+		final CategorizedProblem[] problems = result.getProblems();
+		if (problems == null) {
+			return;
 		}
-		TreeMap<String, IFile> sourcePaths = new TreeMap<>();
-		for (IFile file : files)
-			sourcePaths.put(file.getLocation().toOSString(), file);
-
-		try (Scanner scanner = new Scanner(output)) {
-			String currentLine;
-			while (scanner.hasNextLine()) {
-				currentLine = scanner.nextLine();
-				// \S*\s(\w+)\sin\s(\w:[\w,\\,.,\s]*.java)\s[(]at line (\d+)[)]
-				Pattern pattern = Pattern.compile("\\S*\\s(\\w+)\\sin\\s(\\S.*[.]java)\\s[(]at line (\\d+)[)]");
-				Matcher matcher = pattern.matcher(currentLine);
-				if (!matcher.find()) {
-					continue;
-				}
-				try {
-					boolean contains = sourcePaths.containsKey(matcher.group(2));
-					if (!contains) {
-						continue;
-					}
-				} catch (Exception e) {
-					UIPlugin.getDefault().logError(e);
-					continue;
-				}
-				final boolean warning = "WARNING".equals(matcher.group(1));
-				IFile currentFile = sourcePaths.get(matcher.group(2));
-				int line = Integer.parseInt(matcher.group(3));
-				// get error message in from the next lines
-				while (scanner.hasNextLine()) {
-					currentLine = scanner.nextLine();
-					Pattern messagePattern = Pattern.compile("\\w.*");
-					Matcher m = messagePattern.matcher(currentLine);
-					boolean found = m.matches();
-					if (found) {
-						break;
-					}
-				}
-
-				String errorMessage = currentLine;
-				//			if (CANNOT_FIND_SYMBOL.equals(errorMessage)) {
-				//				errorMessage = parseCannotFindSymbolMessage(scanner);
-				//			}
-				if (errorMessage.contains(ERROR_IGNOR_RAW_TYPE) || errorMessage.contains(ERROR_IGNOR_CAST) || errorMessage.contains(ERROR_IGNOR_SERIIZABLE)
-						|| (errorMessage.contains(ERROR_IGNOR_UNUSED_IMPORT) && !errorMessage.contains("cannot be resolved")) || errorMessage.contains(ERROR_IGNOR_DEPRECATION)) {
-					continue;
-				}
-				if (!errorFiles.contains(currentFile)) {
-					errorFiles.add(currentFile);
-				}
-				IMarker newMarker;
-				newMarker = currentFile.createMarker(PROBLEM_MARKER);
+		for (CategorizedProblem problem : problems) {
+			final IFile currentFile = sourceFiles.get(new String(problem.getOriginatingFileName()));
+			if (currentFile == null) {
+				continue;
+			}
+			final String errorMessage = problem.getMessage();
+			if (errorMessage.contains(ERROR_IGNOR_RAW_TYPE) || errorMessage.contains(ERROR_IGNOR_CAST) || errorMessage.contains(ERROR_IGNOR_SERIIZABLE)
+					|| (errorMessage.contains(ERROR_IGNOR_UNUSED_IMPORT) && !errorMessage.contains("cannot be resolved")) || errorMessage.contains(ERROR_IGNOR_DEPRECATION)) {
+				continue;
+			}
+			if (!errorFiles.contains(currentFile)) {
+				errorFiles.add(currentFile);
+			}
+			try {
+				final IMarker newMarker = currentFile.createMarker(PROBLEM_MARKER);
 				if (newMarker.exists()) {
-					newMarker.setAttribute(IMarker.LINE_NUMBER, line);
+					newMarker.setAttribute(IMarker.LINE_NUMBER, problem.getSourceLineNumber());
 					newMarker.setAttribute(IMarker.MESSAGE, configurationName + " " + errorMessage);
-					newMarker.setAttribute(IMarker.SEVERITY, warning ? IMarker.SEVERITY_WARNING : IMarker.SEVERITY_ERROR);
+					newMarker.setAttribute(IMarker.SEVERITY, problem.isError() ? IMarker.SEVERITY_ERROR : IMarker.SEVERITY_WARNING);
 				}
-			}
-		} catch (CoreException e) {
-			UIPlugin.getDefault().logError(e);
-		}
-
-		return errorFiles;
-	}
-
-	@SuppressWarnings("unused")
-	private String parseCannotFindSymbolMessage(Scanner scanner) {
-		while (scanner.hasNextLine()) {
-			String currentLine = scanner.nextLine();
-			if (currentLine.startsWith(SYMBOL)) {
-				String[] tokens = currentLine.split(": ");
-				if (tokens.length == 2)
-					return CANNOT_FIND_SYMBOL + ": " + tokens[1];
-				break;
+			} catch (CoreException e) {
+				UIPlugin.getDefault().logError(e);
 			}
 		}
-		return CANNOT_FIND_SYMBOL;
 	}
 
 	/**
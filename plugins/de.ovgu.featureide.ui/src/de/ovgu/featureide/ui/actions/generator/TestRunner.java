@@ -72,27 +72,39 @@ import de.ovgu.featureide.ui.actions.generator.IConfigurationBuilderBasics.Build
  * @author Jens Meinicke
  */
 @SuppressWarnings(RESTRICTION)
-public class TestRunner {
+public class TestRunner extends BuildStage {
 
 	private static final Object KEY = new Object();
 	private final TestResults testResults;
 	private static final UIPlugin LOGGER = UIPlugin.getDefault();
 	int compiled = 0;
 
-	private final IFolder tmp;
-	private final ConfigurationBuilder builder;
-
-	public TestRunner(IFolder tmp, TestResults testResults, final ConfigurationBuilder builder) {
-		this.tmp = tmp;
+	/**
+	 * @param builder The {@link ConfigurationBuilder} containing the test runner
+	 * @param testResults The results of all tests
+	 * @param numberOfThreads The number of configurations that are tested in parallel
+	 */
+	public TestRunner(final ConfigurationBuilder builder, TestResults testResults, int numberOfThreads) {
+		super(builder, "TestRunner", numberOfThreads);
 		this.testResults = testResults;
-		this.builder = builder;
-
 	}
 
+	/**
+	 * Runs the tests of the given compiled configuration and deletes its binary files.
+	 */
+	@Override
+	protected void process(BuilderConfiguration configuration) throws CoreException {
+		final IFolder binFolder = builder.getBinFolder(configuration);
+		try {
+			runTests(configuration, binFolder);
+		} finally {
+			binFolder.delete(true, null);
+		}
+	}
 
 	@SuppressWarnings(RESOURCE)
-	public void runTests(final BuilderConfiguration configuration) {
-		URL[] url = getURLs();
+	public void runTests(final BuilderConfiguration configuration, final IFolder tmp) {
+		URL[] url = getURLs(tmp);
 		URLClassLoader classLoader = new URLClassLoader(url, Thread.currentThread().getContextClassLoader());
 		for (final String file : getFiles(tmp)) {
 			try {
@@ -164,7 +176,7 @@ public class TestRunner {
 
 	}
 
-	private URL[] getURLs() {
+	private URL[] getURLs(IFolder tmp) {
 		ArrayList<URL> urls = new ArrayList<>();
 		try {
 			URL url = tmp.getLocationURI().toURL();
@@ -81,12 +81,6 @@ public class AllConfigrationsGenerator extends AConfigurationGenerator {
 	private Node rootNode;
 	private LinkedList<Node> children;
 	
-
-	/**
-	 * The max size of <code>>configurations</code>
-	 */
-	private int maxBufferSize = 5000;
-	
 	@Override
 	public Void execute(IMonitor monitor) throws Exception {
 		try {
@@ -173,24 +167,6 @@ public class AllConfigrationsGenerator extends AConfigurationGenerator {
 				}
 
 				addConfiguration(configuration);
-
-				if (builder.sorter.getBufferSize() >= maxBufferSize) {
-					synchronized (this) {
-						while (builder.sorter.getBufferSize() >= maxBufferSize) {
-							try {
-								monitor.checkCancel();
-							} catch (MethodCancelException e) {
-								number.cancel();
-								return;
-							}
-							try {
-								wait(1000);
-							} catch (InterruptedException e) {
-								UIPlugin.getDefault().logError(e);
-							}
-						}
-					}
-				}
 			}
 			return;
 		}
@@ -24,6 +24,7 @@ import java.util.List;
 
 import org.prop4j.Node;
 import org.prop4j.analyses.PairWiseConfigurationGenerator;
+import org.prop4j.analyses.TWiseConfigurationGenerator;
 import org.prop4j.solver.SatInstance;
 
 import de.ovgu.featureide.core.IFeatureProject;
@@ -38,15 +39,24 @@ import de.ovgu.featureide.ui.actions.generator.ConfigurationBuilder;
 
 /**
  * Executed the IncLing pairwise sorting algorithm to create configurations.
+ * For higher interactions, the {@link TWiseConfigurationGenerator} is used.
  * 
  * @see PairWiseConfigurationGenerator
+ * @see TWiseConfigurationGenerator
  * 
  * @author Jens Meinicke
  */
 public class IncLingConfigurationGenerator extends AConfigurationGenerator {
 
+	private final int t;
+
 	public IncLingConfigurationGenerator(ConfigurationBuilder builder, IFeatureModel featureModel, IFeatureProject featureProject) {
+		this(builder, featureModel, featureProject, 2);
+	}
+
+	public IncLingConfigurationGenerator(ConfigurationBuilder builder, IFeatureModel featureModel, IFeatureProject featureProject, int t) {
 		super(builder, featureModel, featureProject);
+		this.t = t;
 	}
 
 	@Override
@@ -67,6 +77,11 @@ public class IncLingConfigurationGenerator extends AConfigurationGenerator {
 	}
 
 	protected PairWiseConfigurationGenerator getGenerator(SatInstance solver, int solutionCount) {
+		if (t > 2) {
+			final TWiseConfigurationGenerator generator = new TWiseConfigurationGenerator(solver, t, solutionCount);
+			generator.setNumberOfThreads(Runtime.getRuntime().availableProcessors());
+			return generator;
+		}
 		return new PairWiseConfigurationGenerator(solver, solutionCount);
 	}
 
@@ -21,7 +21,7 @@
 package de.ovgu.featureide.ui.actions.generator.configuration;
 
 import org.prop4j.analyses.PairWiseConfigurationGenerator;
-import org.prop4j.analyses.RandomConfigurationGenerator;
+import org.prop4j.analyses.UniformRandomConfigurationGenerator;
 import org.prop4j.solver.SatInstance;
 
 import de.ovgu.featureide.core.IFeatureProject;
@@ -31,7 +31,7 @@ import de.ovgu.featureide.ui.actions.generator.ConfigurationBuilder;
 /**
  * Creates random configurations.
  * 
- * @see RandomConfigurationGenerator
+ * @see UniformRandomConfigurationGenerator
  * 
  * @author Jens Meinicke
  */
@@ -43,7 +43,7 @@ public class RandConfigurationGenerator extends IncLingConfigurationGenerator {
 
 	@Override
 	protected PairWiseConfigurationGenerator getGenerator(SatInstance satInstance, int solutionCount) {
-		return new RandomConfigurationGenerator(satInstance, solutionCount);
+		return new UniformRandomConfigurationGenerator(satInstance, solutionCount);
 	}
 
 }
@@ -92,14 +92,6 @@ public class ColorAnnotation extends Annotation {
 		return position;
 	}
 	
-	public void updateOffset(int deltaOffset) {
-		position.offset += deltaOffset;
-	}
-	
-	public void updateLength(int deltaLength) {
-		position.length += deltaLength;
-	}
-	
 	public String getId() {
 		return Integer.toString(id);
 	}
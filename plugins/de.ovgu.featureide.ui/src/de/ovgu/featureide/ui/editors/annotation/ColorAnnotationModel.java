@@ -24,9 +24,13 @@ import static de.ovgu.featureide.fm.core.localization.StringTable.CANT_CONNECT_T
 import static de.ovgu.featureide.fm.core.localization.StringTable.CANT_DISCONNECT_FROM_DIFFERENT_DOCUMENT_;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.ListIterator;
@@ -82,13 +86,24 @@ public final class ColorAnnotationModel implements IAnnotationModel {
 
 	private static boolean highlighting = true;
 
-	/** List of current ColorAnnotations */
-	private List<ColorAnnotation> annotations = new ArrayList<ColorAnnotation>(32);
+	/** Set of current ColorAnnotations, their positions are updated by the document while connected */
+	private Set<ColorAnnotation> annotations = new LinkedHashSet<ColorAnnotation>(32);
 	private HashMap<Integer, Position> annotatedPositions = new HashMap<Integer, Position>();
 
 	private HashMap<Integer, FSTDirective> directiveMap = new HashMap<Integer, FSTDirective>();
 	private LinkedList<FSTDirective> validDirectiveList = new LinkedList<FSTDirective>();
 
+	/** Line annotations (image, highlight) of each directive indexed by the line relative to its start line */
+	private IdentityHashMap<FSTDirective, ArrayList<ColorAnnotation[]>> lineAnnotations = new IdentityHashMap<FSTDirective, ArrayList<ColorAnnotation[]>>();
+	/** Overview ruler annotations of each directive */
+	private IdentityHashMap<FSTDirective, ArrayList<ColorAnnotation>> overviewAnnotations = new IdentityHashMap<FSTDirective, ArrayList<ColorAnnotation>>();
+
+	/**
+	 * Index of the directives, if they are consistent with the document.
+	 * Only then the directives can be updated incrementally.
+	 */
+	private DirectiveIndex directiveIndex = null;
+
 	/** List of registered IAnnotationModelListener */
 	private Set<IAnnotationModelListener> annotationModelListeners = new HashSet<IAnnotationModelListener>(2);
 
@@ -98,23 +113,39 @@ public final class ColorAnnotationModel implements IAnnotationModel {
 	private final IFile file;
 
 	private int openConnections = 0;
-	private int docLines, docLength;
+	private int docLines;
+
+	/** First and last line of the document, which are replaced by the current change */
+	private int changedLine = -1, changedLastLine = -1;
 
 	private IDocumentListener documentListener = new IDocumentListener() {
 		@Override
 		public void documentChanged(DocumentEvent event) {
 			IDocument newDoc = event.getDocument();
-			if (docLines != newDoc.getNumberOfLines()) {
+			if (directiveIndex != null && changedLine >= 0) {
+				final String text = event.getText();
+				try {
+					final int newLastLine = newDoc.getLineOfOffset(event.getOffset() + (text == null ? 0 : text.length()));
+					if (!updateDirectives(changedLine, changedLastLine, newLastLine)) {
+						updateAnnotations(false);
+					}
+				} catch (BadLocationException e) {
+					updateAnnotations(false);
+				}
+			} else if (docLines != newDoc.getNumberOfLines()) {
 				updateAnnotations(false);
-				docLines = newDoc.getNumberOfLines();
-				docLength = newDoc.getLength();
-			} else {
-				changeAnnotations(event.getOffset(), newDoc.getLength());
 			}
+			docLines = newDoc.getNumberOfLines();
 		}
 
 		@Override
 		public void documentAboutToBeChanged(DocumentEvent event) {
+			try {
+				changedLine = document.getLineOfOffset(event.getOffset());
+				changedLastLine = document.getLineOfOffset(event.getOffset() + event.getLength());
+			} catch (BadLocationException e) {
+				changedLine = -1;
+			}
 		}
 	};
 
@@ -125,7 +156,6 @@ public final class ColorAnnotationModel implements IAnnotationModel {
 		composer = project.getComposer();
 
 		docLines = document.getNumberOfLines();
-		docLength = document.getLength();
 
 		updateAnnotations(true);
 
@@ -213,31 +243,138 @@ public final class ColorAnnotationModel implements IAnnotationModel {
 	}
 
 	/**
-	 * This method is called, when the document is changed,
-	 * but the number of lines stays the same.
-	 * 
-	 * It updates the offset and length of annotations,
-	 * with an offset greater than the CHANGE_OFFSET.
-	 * 
-	 * @param offset the change offset
-	 * @param newLength the length of the changed document
+	 * This method is called, when the document is changed
+	 * and the directives are consistent with the document.
+	 *
+	 * The lines from <code>line</code> to <code>oldLastLine</code> have been replaced by the lines
+	 * from <code>line</code> to <code>newLastLine</code>.
+	 * If neither the old nor the new lines contain a directive, only the annotations of these lines are created again.
+	 * Otherwise, only the top-level directives intersecting the lines are parsed again.
+	 * The positions of all other annotations are updated by the document.
+	 *
+	 * @return <code>false</code> if the directives have been changed and all annotations have to be updated
 	 */
-	private void changeAnnotations(int offset, int newLength) {
-		AnnotationModelEvent modelEvent = new AnnotationModelEvent(this);
+	private boolean updateDirectives(int line, int oldLastLine, int newLastLine) {
+		final AnnotationModelEvent event = new AnnotationModelEvent(this);
+		final int lineDelta = newLastLine - oldLastLine;
+		try {
+			if (!directiveIndex.containsBoundary(line, oldLastLine) && !containsDirective(line, oldLastLine, newLastLine)) {
+				// annotations of short lines in front of the changed lines may reach into them
+				final int firstLine = Math.max(0, line - directiveIndex.getMaxDepth() - 1);
+				final List<FSTDirective> changedDirectives = directiveIndex.getDirectives(firstLine, oldLastLine);
+				directiveIndex.shift(oldLastLine, lineDelta);
+				for (FSTDirective directive : changedDirectives) {
+					updateLineAnnotations(event, directive, line, oldLastLine, newLastLine);
+				}
+				return true;
+			}
 
-		for (ColorAnnotation annotation : annotations) {
-			Position pos = annotation.getPosition();
-			if (pos.getOffset() > offset) {
-				annotation.updateOffset(newLength - docLength);
-				modelEvent.annotationChanged(annotation);
-			} else if (pos.includes(offset)) {
-				annotation.updateLength(newLength - docLength);
-				modelEvent.annotationChanged(annotation);
+			final int[] region = directiveIndex.getRegion(line, oldLastLine);
+			final int lastLine = Math.min(region[1], docLines - 1);
+			final LinkedList<FSTDirective> newDirectives = getNewDirectives(null, region[0], lastLine + lineDelta);
+			if (newDirectives == null || !DirectiveIndex.isClosed(newDirectives)) {
+				return false;
 			}
+
+			final List<FSTDirective> oldDirectiveList = directiveIndex.getRegionDirectives(region[0], lastLine);
+			final List<FSTDirective> newDirectiveList = DirectiveIndex.getAllDirectives(newDirectives);
+			if (oldDirectiveList.size() != newDirectiveList.size()) {
+				return false;
+			}
+			for (int i = 0; i < oldDirectiveList.size(); i++) {
+				final FSTDirective oldDir = oldDirectiveList.get(i);
+				final FSTDirective newDir = newDirectiveList.get(i);
+				if (newDir.getCommand() != oldDir.getCommand() || !newDir.getFeatureNames().equals(oldDir.getFeatureNames())) {
+					return false;
+				}
+			}
+
+			directiveIndex.shift(lastLine, lineDelta);
+			final int lineOffset = region[0] - 1;
+			for (int i = 0; i < oldDirectiveList.size(); i++) {
+				final FSTDirective oldDir = oldDirectiveList.get(i);
+				final FSTDirective newDir = newDirectiveList.get(i);
+				oldDir.setStartLine(newDir.getStartLine() + lineOffset, newDir.getStartOffset());
+				oldDir.setEndLine(newDir.getEndLine() == 0 ? 0 : newDir.getEndLine() + lineOffset, newDir.getEndLength());
+			}
+			directiveIndex.update();
+
+			for (FSTDirective directive : oldDirectiveList) {
+				if (lineAnnotations.containsKey(directive)) {
+					removeAnnotations(event, directive);
+					createAnnotations(event, directive);
+				}
+			}
+			return true;
+		} catch (BadLocationException e) {
+			LogService.getInstance().log(LogLevel.DEBUG, e.getMessage());
+			return false;
+		} finally {
+			fireModelChanged(event);
+		}
+	}
+
+	/**
+	 * Checks whether the given lines of the changed document contain a directive.
+	 * The lines are parsed after an opening directive, such that also closing directives are found.
+	 */
+	private boolean containsDirective(int line, int oldLastLine, int newLastLine) throws BadLocationException {
+		final FSTDirective opener = directiveIndex.getOpener();
+		if (opener == null) {
+			return true;
+		}
+		int openerLine = opener.getStartLine();
+		if (openerLine > oldLastLine) {
+			openerLine += newLastLine - oldLastLine;
 		}
-		docLength = newLength;
+		final String openerText = document.get(document.getLineOffset(openerLine), document.getLineLength(openerLine));
 
-		fireModelChanged(modelEvent);
+		final LinkedList<FSTDirective> directives = getNewDirectives(openerText, line, newLastLine);
+		return directives == null || directives.size() != 1 || directives.getFirst().hasChildren() || directives.getFirst().getEndLine() != 0;
+	}
+
+	/**
+	 * Creates the line annotations of a directive for the changed lines again.
+	 * The overview ruler annotations of the directive are created again as they may span over the changed lines.
+	 */
+	private void updateLineAnnotations(AnnotationModelEvent event, FSTDirective directive, int line, int oldLastLine, int newLastLine)
+			throws BadLocationException {
+		final ArrayList<ColorAnnotation[]> directiveLineAnnotations = lineAnnotations.get(directive);
+		if (directiveLineAnnotations == null) {
+			return;
+		}
+		final int startline = directive.getStartLine();
+		final int endline = getLastChildLine(directive, directive.getEndLine());
+
+		// annotations of short lines are moved by one character per parent and may reach into the changed lines
+		int depth = 0;
+		for (FSTDirective parent = directive.getParent(); parent != null; parent = parent.getParent()) {
+			depth++;
+		}
+		line = Math.max(startline, line - depth - 1);
+
+		final int size = directiveLineAnnotations.size();
+		final List<ColorAnnotation[]> changedLineAnnotations = directiveLineAnnotations.subList(Math.min(line - startline, size),
+				Math.min(oldLastLine - startline + 1, size));
+		for (ColorAnnotation[] annotationsAtLine : changedLineAnnotations) {
+			removeLineAnnotations(event, annotationsAtLine);
+		}
+		changedLineAnnotations.clear();
+
+		final int lastLine = Math.min(newLastLine, endline);
+		if (line <= lastLine) {
+			final List<ColorAnnotation[]> newLineAnnotations = new ArrayList<ColorAnnotation[]>(lastLine - line + 1);
+			for (int i = line; i <= lastLine; i++) {
+				newLineAnnotations.add(createLineAnnotations(event, directive, i, endline));
+			}
+			changedLineAnnotations.addAll(newLineAnnotations);
+		}
+
+		for (ColorAnnotation annotation : overviewAnnotations.get(directive)) {
+			removeColorAnnotation(event, annotation);
+		}
+		overviewAnnotations.get(directive).clear();
+		createOverViewRulers(event, directive, endline);
 	}
 
 	/**
@@ -251,6 +388,7 @@ public final class ColorAnnotationModel implements IAnnotationModel {
 	 *            false: only gets new FSTDirectives
 	 */
 	private void updateAnnotations(boolean createNew) {
+		directiveIndex = null;
 		if (!annotations.isEmpty()) {
 			clear();
 		}
@@ -276,7 +414,9 @@ public final class ColorAnnotationModel implements IAnnotationModel {
 			}
 			if (!directiveMap.isEmpty()) {
 				annotatedPositions.clear();
-				updateDirectives();
+				if (updateDirectives() && DirectiveIndex.isClosed(directiveMap.values())) {
+					directiveIndex = new DirectiveIndex(directiveMap.values());
+				}
 				createAnnotations();
 			}
 
@@ -289,9 +429,14 @@ public final class ColorAnnotationModel implements IAnnotationModel {
 	private void clear() {
 		AnnotationModelEvent event = new AnnotationModelEvent(this);
 		for (final ColorAnnotation ca : annotations) {
+			if (openConnections > 0) {
+				document.removePosition(ca.getPosition());
+			}
 			event.annotationRemoved(ca, ca.getPosition());
 		}
 		annotations.clear();
+		lineAnnotations.clear();
+		overviewAnnotations.clear();
 
 		fireModelChanged(event);
 	}
@@ -318,8 +463,10 @@ public final class ColorAnnotationModel implements IAnnotationModel {
 			for (FSTRole role : fstFeature.getRoles()) {
 				if (file.equals(role.getFile())) {
 					for (FSTDirective dir : role.getDirectives()) {
-						directiveMap.put(dir.getId(), dir);
-						validDirectiveList.add(dir);
+						// directives with several features belong to several roles
+						if (directiveMap.put(dir.getId(), dir) != dir) {
+							validDirectiveList.add(dir);
+						}
 					}
 				}
 			}
@@ -330,10 +477,11 @@ public final class ColorAnnotationModel implements IAnnotationModel {
 	 * Assigns the mapped colors to the FSTDirectives
 	 * from the changed document.
 	 * 
-	 * @return the directive list
+	 * @return <code>true</code> if each mapped directive has been found in the changed document
 	 */
-	private void updateDirectives() {
+	private boolean updateDirectives() {
 		ListIterator<FSTDirective> newDirIt = getNewDirectives().listIterator(0);
+		int count = 0;
 
 		while (newDirIt.hasNext()) {
 			FSTDirective newDir = newDirIt.next();
@@ -343,9 +491,10 @@ public final class ColorAnnotationModel implements IAnnotationModel {
 
 				oldDir.setStartLine(newDir.getStartLine(), newDir.getStartOffset());
 				oldDir.setEndLine(newDir.getEndLine(), newDir.getEndLength());
+				count++;
 			} else {
 				directiveMap.clear();
-				return;
+				return false;
 			}
 
 			if (newDir.hasChildren()) {
@@ -355,6 +504,7 @@ public final class ColorAnnotationModel implements IAnnotationModel {
 				}
 			}
 		}
+		return count == directiveMap.size();
 	}
 
 	/**
@@ -374,6 +524,33 @@ public final class ColorAnnotationModel implements IAnnotationModel {
 		return composer.buildModelDirectivesForFile(lines);
 	}
 
+	/**
+	 * Retrieves the FSTDirectives from a section of the changed document.
+	 * The section is preceded by an empty line and the given opening line.
+	 * Thus, without opening line, the line numbers of the directives are relative to the line before <code>firstLine</code>.
+	 *
+	 * @param openingLine an additional line in front of the section or <code>null</code>
+	 * @return the directives or <code>null</code> if the section cannot be parsed on its own
+	 */
+	private LinkedList<FSTDirective> getNewDirectives(String openingLine, int firstLine, int lastLine) throws BadLocationException {
+		Vector<String> lines = new Vector<String>(lastLine - firstLine + 3);
+		lines.add("");
+		if (openingLine != null) {
+			lines.add(openingLine);
+		}
+		for (int i = firstLine; i <= lastLine; i++) {
+			lines.add(document.get(document.getLineOffset(i), document.getLineLength(i)));
+		}
+
+		try {
+			return composer.buildModelDirectivesForFile(lines);
+		} catch (RuntimeException e) {
+			// some preprocessors fail on sections with unbalanced directives
+			LogService.getInstance().log(LogLevel.DEBUG, e.getMessage());
+			return null;
+		}
+	}
+
 	/**
 	 * Creates Annotations for FOP
 	 */
@@ -426,8 +603,7 @@ public final class ColorAnnotationModel implements IAnnotationModel {
 							Position position = new Position(document.getLineOffset(line), 1);
 							ColorAnnotation cafh = new ColorAnnotation(color, position, ColorAnnotation.TYPE_IMAGE);
 							cafh.setText(fstFeature.getName());
-							annotations.add(cafh);
-							event.annotationAdded(cafh);
+							addColorAnnotation(event, cafh);
 						}
 					}
 				}
@@ -457,21 +633,18 @@ public final class ColorAnnotationModel implements IAnnotationModel {
 			Position methodposition = new Position(document.getLineOffset(line), document.getLineLength(line));
 			ColorAnnotation cafh = new ColorAnnotation(m.getRole().getFeature().getColor(), methodposition, ColorAnnotation.TYPE_IMAGE);
 			cafh.setText(m.getRole().getFeature().getName());
-			annotations.add(cafh);
-			event.annotationAdded(cafh);
+			addColorAnnotation(event, cafh);
 		}
 		Position methodposition = new Position(lineOffset, length);
 		// bar at the right of the editor
 		ColorAnnotation cafho = new ColorAnnotation(m.getRole().getFeature().getColor(), methodposition, ColorAnnotation.TYPE_OVERVIEW);
 		cafho.setText(m.getRole().getFeature().getName());
-		annotations.add(cafho);
-		event.annotationAdded(cafho);
+		addColorAnnotation(event, cafho);
 		if (highlighting) {
 			//background colors
-			ColorAnnotation cafhh = new ColorAnnotation(m.getRole().getFeature().getColor(), methodposition, ColorAnnotation.TYPE_HIGHLIGHT);
+			ColorAnnotation cafhh = new ColorAnnotation(m.getRole().getFeature().getColor(), new Position(lineOffset, length), ColorAnnotation.TYPE_HIGHLIGHT);
 			cafhh.setText(fstFeature.getName());
-			annotations.add(cafhh);
-			event.annotationAdded(cafhh);
+			addColorAnnotation(event, cafhh);
 		}
 	}
 
@@ -519,84 +692,139 @@ public final class ColorAnnotationModel implements IAnnotationModel {
 			if (directive == null) {
 				continue;
 			}
-			try {
-				int startline = directive.getStartLine();
-				int endline = getLastChildLine(directive, directive.getEndLine());
-				final int color = directive.getColor();
-				int overViewStartOffset = document.getLineOffset(startline);
-				int overViewLength = 0;
-				for (int line = startline; line <= endline; line++) {
-						int length = document.getLineLength(line);
-						if (line < endline || directive.getEndLength() > 0) {
-						int lineOffset = document.getLineOffset(line);
-
-						if (line == directive.getEndLine()) {
-							length = directive.getEndLength();
-						}
-						if (line == startline) {
-							lineOffset += directive.getStartOffset();
-							length -= directive.getStartOffset();
-						}
+			createAnnotations(event, directive);
+		}
 
-						if (hasChildAtLine(directive, line)) {
-							length = 1;
-						}
+		fireModelChanged(event);
+	}
 
-						if (overViewStartOffset != -1 && hasChildAtLineWithColor(directive, line)) {
-							Position overViewPos = new Position(overViewStartOffset, overViewLength);
-							createOverViewRuler(event, directive, color, overViewPos);
-							overViewStartOffset = -1;
-							overViewLength = 0;
-						} else if (!hasChildAtLineWithColor(directive, line)) {
-							if (overViewStartOffset == -1) {
-								overViewStartOffset = document.getLineOffset(line);
-							}
-							overViewLength += document.getLineLength(line);
-						}
+	/**
+	 * Creates the color annotations of the given FSTDirective.
+	 */
+	private void createAnnotations(AnnotationModelEvent event, FSTDirective directive) {
+		final ArrayList<ColorAnnotation[]> directiveLineAnnotations = new ArrayList<ColorAnnotation[]>();
+		lineAnnotations.put(directive, directiveLineAnnotations);
+		overviewAnnotations.put(directive, new ArrayList<ColorAnnotation>());
+		try {
+			int startline = directive.getStartLine();
+			int endline = getLastChildLine(directive, directive.getEndLine());
+			for (int line = startline; line <= endline; line++) {
+				directiveLineAnnotations.add(createLineAnnotations(event, directive, line, endline));
+			}
+			createOverViewRulers(event, directive, endline);
+		} catch (BadLocationException e) {
+			LogService.getInstance().log(LogLevel.DEBUG, e.getMessage());
+		}
+	}
 
-						FSTDirective parent = directive.getParent();
-						while (parent != null) {
-							lineOffset++;
-							if (length > 1) {
-								length--;
-							}
-							parent = parent.getParent();
-						}
-						Position newPos = new Position(lineOffset, length);
-
-						if (!hasChildAtLine(directive, line)) {
-							// bar at the left of the editor
-							ColorAnnotation ca = new ColorAnnotation(color, newPos, ColorAnnotation.TYPE_IMAGE);
-							ca.setText(directive.toString());
-							annotations.add(ca);
-							event.annotationAdded(ca);
-						}
-						if (!hasChildAtLine(directive, line)) {
-							// bar at the right of the editor
+	/**
+	 * Creates the annotations of the given FSTDirective at one line.
+	 * 
+	 * @return the image and the highlight annotation, both may be <code>null</code>
+	 */
+	private ColorAnnotation[] createLineAnnotations(AnnotationModelEvent event, FSTDirective directive, int line, int endline)
+			throws BadLocationException {
+		final ColorAnnotation[] annotationsAtLine = new ColorAnnotation[2];
+		if (line < endline || directive.getEndLength() > 0) {
+			final int color = directive.getColor();
+			int length = document.getLineLength(line);
+			int lineOffset = document.getLineOffset(line);
+
+			if (line == directive.getEndLine()) {
+				length = directive.getEndLength();
+			}
+			if (line == directive.getStartLine()) {
+				lineOffset += directive.getStartOffset();
+				length -= directive.getStartOffset();
+			}
 
-						}
-						if (highlighting) {
-							// background colors
-							ColorAnnotation ca = new ColorAnnotation(color, newPos, ColorAnnotation.TYPE_HIGHLIGHT);
-							ca.setText(directive.toDependencyString());
-							annotations.add(ca);
-							event.annotationAdded(ca);
-						}
-					}
+			final boolean hasChildAtLine = hasChildAtLine(directive, line);
+			if (hasChildAtLine) {
+				length = 1;
+			}
 
+			FSTDirective parent = directive.getParent();
+			while (parent != null) {
+				lineOffset++;
+				if (length > 1) {
+					length--;
 				}
-				if (overViewStartOffset != -1) {
-					Position overViewPos = new Position(overViewStartOffset, overViewLength);
-					createOverViewRuler(event, directive, color, overViewPos);
-					overViewStartOffset = -1;
-					overViewLength = 0;
-				}
-			} catch (BadLocationException e) {
-				LogService.getInstance().log(LogLevel.DEBUG, e.getMessage());
+				parent = parent.getParent();
+			}
+
+			if (!hasChildAtLine) {
+				// bar at the left of the editor
+				ColorAnnotation ca = new ColorAnnotation(color, new Position(lineOffset, length), ColorAnnotation.TYPE_IMAGE);
+				ca.setText(directive.toString());
+				addColorAnnotation(event, ca);
+				annotationsAtLine[0] = ca;
+			}
+			if (highlighting) {
+				// background colors
+				ColorAnnotation ca = new ColorAnnotation(color, new Position(lineOffset, length), ColorAnnotation.TYPE_HIGHLIGHT);
+				ca.setText(directive.toDependencyString());
+				addColorAnnotation(event, ca);
+				annotationsAtLine[1] = ca;
 			}
 		}
+		return annotationsAtLine;
+	}
 
-		fireModelChanged(event);
+	/**
+	 * Creates the overview ruler annotations of the given FSTDirective.
+	 * Each annotation covers consecutive lines without a child <b>with a color</b>.
+	 */
+	private void createOverViewRulers(AnnotationModelEvent event, FSTDirective directive, int endline) throws BadLocationException {
+		final int startline = directive.getStartLine();
+		final int lastLine = directive.getEndLength() > 0 ? endline : endline - 1;
+
+		final List<int[]> childLines = new ArrayList<int[]>();
+		collectChildLinesWithColor(directive, startline, lastLine, childLines);
+		Collections.sort(childLines, new Comparator<int[]>() {
+			@Override
+			public int compare(int[] o1, int[] o2) {
+				return o1[0] - o2[0];
+			}
+		});
+
+		boolean first = true;
+		int line = startline;
+		for (int i = 0; i < childLines.size();) {
+			final int childStart = childLines.get(i)[0];
+			int childEnd = childLines.get(i)[1];
+			for (i++; i < childLines.size() && childLines.get(i)[0] <= childEnd + 1; i++) {
+				childEnd = Math.max(childEnd, childLines.get(i)[1]);
+			}
+			if (first || childStart > line) {
+				createOverViewRuler(event, directive, line, childStart - 1);
+			}
+			first = false;
+			line = childEnd + 1;
+		}
+		if (first || line <= lastLine) {
+			createOverViewRuler(event, directive, line, lastLine);
+		}
+	}
+
+	private void collectChildLinesWithColor(FSTDirective directive, int startline, int lastLine, List<int[]> childLines) {
+		for (FSTDirective child : directive.getChildren()) {
+			final int start = Math.max(child.getStartLine(), startline);
+			final int end = Math.min(child.getEndLine(), lastLine);
+			if (start <= end && child.getColor() != FeatureColor.NO_COLOR.getValue()) {
+				childLines.add(new int[] { start, end });
+			}
+			collectChildLinesWithColor(child, startline, lastLine, childLines);
+		}
+	}
+
+	/**
+	 * Creates a new overview ruler annotation for the given lines.
+	 * If there are no lines, the annotation is empty and located at the first line.
+	 */
+	private void createOverViewRuler(AnnotationModelEvent event, FSTDirective directive, int firstLine, int lastLine) throws BadLocationException {
+		final int offset = document.getLineOffset(firstLine);
+		final int length = lastLine >= firstLine ? document.getLineOffset(lastLine) + document.getLineLength(lastLine) - offset : 0;
+		createOverViewRuler(event, directive, directive.getColor(), new Position(offset, length));
 	}
 
 	/**
@@ -606,19 +834,51 @@ public final class ColorAnnotationModel implements IAnnotationModel {
 	private void createOverViewRuler(AnnotationModelEvent event, FSTDirective directive, final int color, Position newPos) {
 		ColorAnnotation ca = new ColorAnnotation(color, newPos, ColorAnnotation.TYPE_OVERVIEW);
 		ca.setText(directive.toString());
-		annotations.add(ca);
-		event.annotationAdded(ca);
+		addColorAnnotation(event, ca);
+		overviewAnnotations.get(directive).add(ca);
 	}
 
 	/**
-	 * Returns whether the given annotation has a child <b>with a color</b> at the given line.
-	 * 
-	 * @param directive The directive
-	 * @param line The line
-	 * @return <code>true</code> if there is a child at the line
+	 * Removes all color annotations of the given FSTDirective.
+	 */
+	private void removeAnnotations(AnnotationModelEvent event, FSTDirective directive) {
+		for (ColorAnnotation[] annotationsAtLine : lineAnnotations.remove(directive)) {
+			removeLineAnnotations(event, annotationsAtLine);
+		}
+		for (ColorAnnotation annotation : overviewAnnotations.remove(directive)) {
+			removeColorAnnotation(event, annotation);
+		}
+	}
+
+	private void removeLineAnnotations(AnnotationModelEvent event, ColorAnnotation[] annotationsAtLine) {
+		for (ColorAnnotation annotation : annotationsAtLine) {
+			if (annotation != null) {
+				removeColorAnnotation(event, annotation);
+			}
+		}
+	}
+
+	/**
+	 * Adds an annotation and registers its position at the document, which keeps the position up to date.
 	 */
-	private boolean hasChildAtLineWithColor(FSTDirective directive, int line) {
-		return hasChildAtLine(directive, line, true);
+	private void addColorAnnotation(AnnotationModelEvent event, ColorAnnotation annotation) {
+		annotations.add(annotation);
+		if (openConnections > 0) {
+			try {
+				document.addPosition(annotation.getPosition());
+			} catch (BadLocationException e) {
+				LogService.getInstance().log(LogLevel.DEBUG, e.getMessage());
+			}
+		}
+		event.annotationAdded(annotation);
+	}
+
+	private void removeColorAnnotation(AnnotationModelEvent event, ColorAnnotation annotation) {
+		annotations.remove(annotation);
+		if (openConnections > 0) {
+			document.removePosition(annotation.getPosition());
+		}
+		event.annotationRemoved(annotation, annotation.getPosition());
 	}
 
 	/**
@@ -0,0 +1,316 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2016  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ * 
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.ui.editors.annotation;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.LinkedList;
+import java.util.List;
+
+import de.ovgu.featureide.core.fstmodel.preprocessor.FSTDirective;
+import de.ovgu.featureide.core.fstmodel.preprocessor.FSTDirectiveCommand;
+
+/**
+ * Line based index of the {@link FSTDirective directives} of one document.<br>
+ * Top-level directives are sorted by their start line together with the maximal last line of all preceding ones.
+ * Thus, the directives intersecting a line range are found by a binary search followed by a descent into the
+ * children of the intersecting directives.
+ * 
+ * @see ColorAnnotationModel
+ */
+final class DirectiveIndex {
+
+	private static final Comparator<FSTDirective> ID_COMPARATOR = new Comparator<FSTDirective>() {
+		@Override
+		public int compare(FSTDirective o1, FSTDirective o2) {
+			return o1.getId() - o2.getId();
+		}
+	};
+
+	/** All directives in the order of their ids, which is the order of their occurrence. */
+	private final ArrayList<FSTDirective> directives;
+	private final ArrayList<FSTDirective> topLevelDirectives = new ArrayList<>();
+	private final IdentityHashMap<FSTDirective, Integer> lastLines = new IdentityHashMap<>();
+
+	private int[] startLines;
+	private int[] maxLastLines;
+	private int[] boundaries;
+	private FSTDirective opener;
+	private int maxDepth;
+
+	public DirectiveIndex(Collection<FSTDirective> directives) {
+		this.directives = new ArrayList<>(directives);
+		Collections.sort(this.directives, ID_COMPARATOR);
+		for (FSTDirective directive : this.directives) {
+			if (directive.getParent() == null) {
+				topLevelDirectives.add(directive);
+			}
+		}
+		update();
+	}
+
+	/**
+	 * Rebuilds the index after the lines of the directives have been changed.
+	 */
+	public void update() {
+		lastLines.clear();
+		opener = null;
+
+		final int size = topLevelDirectives.size();
+		startLines = new int[size];
+		maxLastLines = new int[size];
+		int maxLastLine = -1;
+		for (int i = 0; i < size; i++) {
+			final FSTDirective directive = topLevelDirectives.get(i);
+			startLines[i] = directive.getStartLine();
+			maxLastLine = Math.max(maxLastLine, computeLastLine(directive, i == size - 1));
+			maxLastLines[i] = maxLastLine;
+		}
+
+		boundaries = new int[2 * directives.size()];
+		maxDepth = 0;
+		int i = 0;
+		for (FSTDirective directive : directives) {
+			boundaries[i++] = directive.getStartLine();
+			boundaries[i++] = directive.getEndLine();
+			if (opener == null && isOpener(directive)) {
+				opener = directive;
+			}
+			int depth = 0;
+			for (FSTDirective parent = directive.getParent(); parent != null; parent = parent.getParent()) {
+				depth++;
+			}
+			maxDepth = Math.max(maxDepth, depth);
+		}
+		Arrays.sort(boundaries);
+	}
+
+	/**
+	 * Moves all directive lines behind the given line.
+	 * 
+	 * @param line the last line that is not moved
+	 * @param lineDelta the number of inserted (positive) or removed (negative) lines
+	 */
+	public void shift(int line, int lineDelta) {
+		if (lineDelta == 0) {
+			return;
+		}
+		for (FSTDirective directive : directives) {
+			if (directive.getStartLine() > line) {
+				directive.setStartLine(directive.getStartLine() + lineDelta, directive.getStartOffset());
+			}
+			if (directive.getEndLine() > line) {
+				directive.setEndLine(directive.getEndLine() + lineDelta, directive.getEndLength());
+			}
+		}
+		update();
+	}
+
+	/**
+	 * @return <code>true</code> if a directive starts or ends within the given lines
+	 */
+	public boolean containsBoundary(int firstLine, int lastLine) {
+		int index = Arrays.binarySearch(boundaries, firstLine);
+		if (index >= 0) {
+			return true;
+		}
+		index = -index - 1;
+		return index < boundaries.length && boundaries[index] <= lastLine;
+	}
+
+	/**
+	 * @return the first directive that opens a block and can be used to test whether lines close a directive
+	 */
+	public FSTDirective getOpener() {
+		return opener;
+	}
+
+	/**
+	 * @return the maximal number of parents of a directive
+	 */
+	public int getMaxDepth() {
+		return maxDepth;
+	}
+
+	/**
+	 * Returns the last line that belongs to the given directive including the lines of its children.
+	 * 
+	 * @return the last line or {@link Integer#MAX_VALUE} if the directive is not closed
+	 */
+	public int getLastLine(FSTDirective directive) {
+		final Integer lastLine = lastLines.get(directive);
+		return lastLine != null ? lastLine : directive.getEndLine();
+	}
+
+	/**
+	 * @return all directives in the order of their occurrence, whose lines intersect the given lines
+	 */
+	public List<FSTDirective> getDirectives(int firstLine, int lastLine) {
+		final List<FSTDirective> result = new ArrayList<>();
+		for (int i = getLastTopLevelIndex(lastLine); i >= 0 && maxLastLines[i] >= firstLine; i--) {
+			final FSTDirective directive = topLevelDirectives.get(i);
+			if (getLastLine(directive) >= firstLine) {
+				collectDirectives(directive, firstLine, lastLine, result);
+			}
+		}
+		Collections.sort(result, ID_COMPARATOR);
+		return result;
+	}
+
+	private void collectDirectives(FSTDirective directive, int firstLine, int lastLine, List<FSTDirective> result) {
+		result.add(directive);
+		for (FSTDirective child : directive.getChildrenList()) {
+			if (child.getStartLine() <= lastLine && getLastLine(child) >= firstLine) {
+				collectDirectives(child, firstLine, lastLine, result);
+			}
+		}
+	}
+
+	/**
+	 * Extends the given lines to the top-level directives intersecting them.
+	 * At the borders of the returned range no directive is open.
+	 * 
+	 * @return the first and the last line of the range, the last line is {@link Integer#MAX_VALUE} if the range
+	 *         reaches the end of the document
+	 */
+	public int[] getRegion(int firstLine, int lastLine) {
+		boolean changed = true;
+		while (changed) {
+			changed = false;
+			for (int i = getLastTopLevelIndex(lastLine); i >= 0 && maxLastLines[i] >= firstLine; i--) {
+				final FSTDirective directive = topLevelDirectives.get(i);
+				final int directiveLastLine = getLastLine(directive);
+				if (directiveLastLine >= firstLine) {
+					if (directive.getStartLine() < firstLine) {
+						firstLine = directive.getStartLine();
+						changed = true;
+					}
+					if (directiveLastLine > lastLine) {
+						lastLine = directiveLastLine;
+						changed = true;
+					}
+				}
+			}
+		}
+		return new int[] { firstLine, lastLine };
+	}
+
+	/**
+	 * @return all directives in the order of their occurrence, whose top-level directive starts within the given lines
+	 */
+	public List<FSTDirective> getRegionDirectives(int firstLine, int lastLine) {
+		final List<FSTDirective> result = new ArrayList<>();
+		for (int i = getFirstTopLevelIndex(firstLine); i < startLines.length && startLines[i] <= lastLine; i++) {
+			collectAll(topLevelDirectives.get(i), result);
+		}
+		return result;
+	}
+
+	private int getFirstTopLevelIndex(int line) {
+		int low = 0, high = startLines.length;
+		while (low < high) {
+			final int mid = (low + high) >>> 1;
+			if (startLines[mid] < line) {
+				low = mid + 1;
+			} else {
+				high = mid;
+			}
+		}
+		return low;
+	}
+
+	private int getLastTopLevelIndex(int line) {
+		return getFirstTopLevelIndex(line == Integer.MAX_VALUE ? line : line + 1) - 1;
+	}
+
+	private int computeLastLine(FSTDirective directive, boolean lastSibling) {
+		int lastLine;
+		if (lastSibling && isPushed(directive) && directive.getEndLine() == 0) {
+			lastLine = Integer.MAX_VALUE;
+		} else {
+			lastLine = directive.getEndLine();
+		}
+		final LinkedList<FSTDirective> children = directive.getChildrenList();
+		for (FSTDirective child : children) {
+			final int childLastLine = computeLastLine(child, lastSibling && child == children.getLast());
+			lastLine = Math.max(lastLine, Math.max(child.getEndLength() > 0 ? child.getEndLine() + 1 : child.getEndLine(), childLastLine));
+		}
+		lastLines.put(directive, lastLine);
+		return lastLine;
+	}
+
+	/**
+	 * @return all given directives and their children in the order of their occurrence
+	 */
+	public static List<FSTDirective> getAllDirectives(List<FSTDirective> directives) {
+		final List<FSTDirective> result = new ArrayList<>();
+		for (FSTDirective directive : directives) {
+			collectAll(directive, result);
+		}
+		return result;
+	}
+
+	private static void collectAll(FSTDirective directive, List<FSTDirective> result) {
+		result.add(directive);
+		for (FSTDirective child : directive.getChildrenList()) {
+			collectAll(child, result);
+		}
+	}
+
+	/**
+	 * Checks whether all given directives and their children are closed. The range of an unclosed directive depends on
+	 * the length of the document, thus it cannot be updated locally.
+	 * 
+	 * @param directives the directives to check
+	 */
+	public static boolean isClosed(Collection<FSTDirective> directives) {
+		for (FSTDirective directive : directives) {
+			if (isPushed(directive) && (directive.getEndLine() == 0 || directive.getCommand() == FSTDirectiveCommand.CONDITION)) {
+				return false;
+			}
+			if (!isClosed(directive.getChildrenList())) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static boolean isPushed(FSTDirective directive) {
+		return directive.getCommand() != FSTDirectiveCommand.DEFINE && directive.getCommand() != FSTDirectiveCommand.UNDEFINE;
+	}
+
+	private static boolean isOpener(FSTDirective directive) {
+		switch (directive.getCommand()) {
+		case IF:
+		case IF_NOT:
+		case IFDEF:
+		case IFNDEF:
+			return true;
+		default:
+			return false;
+		}
+	}
+
+}
@@ -50,7 +50,9 @@ public class BuildFeatureGraphHandler extends AFeatureProjectHandler {
 	protected void endAction() {
 		for (IFeatureProject project : projectList) {
 			final Path path = Paths.get(project.getProject().getFile("model.fg").getLocationURI());
-			final IRunner<IFeatureGraph> runner = LongRunningWrapper.getRunner(new FGBuilder(AdvancedNodeCreator.createSatInstance(project.getFeatureModel())));
+			final FGBuilder builder = new FGBuilder(AdvancedNodeCreator.createSatInstance(project.getFeatureModel()));
+			builder.setNumberOfThreads(Runtime.getRuntime().availableProcessors());
+			final IRunner<IFeatureGraph> runner = LongRunningWrapper.getRunner(builder);
 			runner.addJobFinishedListener(new JobFinishListener<IFeatureGraph>() {
 				@Override
 				public void jobFinished(IJob<IFeatureGraph> finishedJob) {
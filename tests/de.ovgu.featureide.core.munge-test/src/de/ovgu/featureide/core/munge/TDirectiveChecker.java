@@ -0,0 +1,160 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2016  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ * 
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.core.munge;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+import org.prop4j.And;
+import org.prop4j.Equals;
+import org.prop4j.Implies;
+import org.prop4j.Literal;
+import org.prop4j.Node;
+import org.prop4j.Not;
+import org.prop4j.Or;
+import org.prop4j.SatSolver;
+import org.sat4j.specs.TimeoutException;
+
+import de.ovgu.featureide.core.builder.preprocessor.DirectiveChecker;
+import de.ovgu.featureide.core.builder.preprocessor.PPComposerExtensionClass;
+import de.ovgu.featureide.fm.core.base.FeatureUtils;
+import de.ovgu.featureide.fm.core.base.IFeatureModel;
+import de.ovgu.featureide.fm.core.editing.AdvancedNodeCreator;
+import de.ovgu.featureide.fm.core.editing.AdvancedNodeCreator.CNFType;
+import de.ovgu.featureide.fm.core.functional.Functional;
+import de.ovgu.featureide.fm.core.io.manager.FeatureModelManager;
+
+/**
+ * Compares the results of {@link DirectiveChecker} with a separate {@link SatSolver} for each expression.
+ */
+public class TDirectiveChecker {
+
+	private static final String MODEL_PATH_REMOTE = "/home/itidbrun/TeamCity/buildAgent/work/featureide/tests/de.ovgu.featureide.core.munge-test/src/models/";
+	private static final String MODEL_PATH_LOCAL_CLASS_PATH = "models";
+
+	private static final int NUMBER_OF_EXPRESSIONS = 500;
+
+	static IFeatureModel loadFeatureModel(String name) {
+		File folder = new File(MODEL_PATH_REMOTE);
+		if (!folder.canRead()) {
+			folder = new File(ClassLoader.getSystemResource(MODEL_PATH_LOCAL_CLASS_PATH).getPath());
+		}
+		return FeatureModelManager.readFromFile(new File(folder, name).toPath());
+	}
+
+	static Node createExpression(Random random, List<String> variables, int depth) {
+		if (depth == 0 || random.nextInt(4) == 0) {
+			return new Literal(variables.get(random.nextInt(variables.size())));
+		}
+		switch (random.nextInt(5)) {
+		case 0:
+			return new Not(createExpression(random, variables, depth - 1));
+		case 1:
+			return new And(createExpression(random, variables, depth - 1), createExpression(random, variables, depth - 1));
+		case 2:
+			return new Or(createExpression(random, variables, depth - 1), createExpression(random, variables, depth - 1));
+		case 3:
+			return new Implies(createExpression(random, variables, depth - 1), createExpression(random, variables, depth - 1));
+		default:
+			return new Equals(createExpression(random, variables, depth - 1), createExpression(random, variables, depth - 1));
+		}
+	}
+
+	/**
+	 * The previous implementation of {@link PPComposerExtensionClass#isContradictionOrTautology(Node, boolean)}.
+	 */
+	private static int getStatus(Node featureModel, Node expression, boolean withModel) throws TimeoutException {
+		final Node contradictionNode = (withModel && featureModel != null) ? new And(featureModel.clone(), expression.clone()) : expression.clone();
+		final Node tautologyNode = new Not((withModel && featureModel != null) ? new Implies(featureModel.clone(), expression.clone()) : expression.clone());
+		if (!new SatSolver(contradictionNode, 1000).isSatisfiable()) {
+			return PPComposerExtensionClass.SAT_CONTRADICTION;
+		} else if (!new SatSolver(tautologyNode, 1000).isSatisfiable()) {
+			return PPComposerExtensionClass.SAT_TAUTOLOGY;
+		}
+		return PPComposerExtensionClass.SAT_NONE;
+	}
+
+	/**
+	 * The previous implementation of the redundancy check in {@link PPComposerExtensionClass}.
+	 */
+	private static boolean isRedundant(Node featureModel, Node expression, Node context) throws TimeoutException {
+		final Node node = new And(new And(featureModel.clone(), context.clone()), new Not(expression.clone()));
+		return !new SatSolver(node, 1000).isSatisfiable();
+	}
+
+	@Test
+	public void testWithoutModel() throws TimeoutException {
+		final Random random = new Random(0);
+		final List<String> variables = Arrays.asList("A", "B", "C", "D");
+		final DirectiveChecker checker = new DirectiveChecker(null);
+		for (int i = 0; i < NUMBER_OF_EXPRESSIONS; i++) {
+			final Node expression = createExpression(random, variables, 3);
+			assertEquals(expression.toString(), getStatus(null, expression, false), checker.getStatus(expression, false));
+			assertEquals(expression.toString(), getStatus(null, expression, true), checker.getStatus(expression, true));
+		}
+	}
+
+	@Test
+	public void testWithModel() throws TimeoutException {
+		final IFeatureModel fm = loadFeatureModel("gpl.xml");
+		final List<String> variables = Functional.toList(FeatureUtils.extractFeatureNames(fm.getFeatures()));
+		final Node featureModel = AdvancedNodeCreator.createNodes(fm);
+		final AdvancedNodeCreator nodeCreator = new AdvancedNodeCreator(fm);
+		nodeCreator.setCnfType(CNFType.Regular);
+		final DirectiveChecker checker = new DirectiveChecker(nodeCreator.createNodes());
+
+		final Random random = new Random(0);
+		for (int i = 0; i < NUMBER_OF_EXPRESSIONS; i++) {
+			final Node expression = createExpression(random, variables, 2);
+			final Node context = createExpression(random, variables, 1);
+			assertEquals(expression.toString(), getStatus(featureModel, expression, true), checker.getStatus(expression, true));
+			assertEquals(expression.toString(), getStatus(featureModel, expression, false), checker.getStatus(expression, false));
+			assertEquals(context + " => " + expression, isRedundant(featureModel, expression, context), checker.isRedundant(expression, context));
+		}
+	}
+
+	@Test
+	public void testCache() throws TimeoutException {
+		final IFeatureModel fm = loadFeatureModel("gpl.xml");
+		final AdvancedNodeCreator nodeCreator = new AdvancedNodeCreator(fm);
+		nodeCreator.setCnfType(CNFType.Regular);
+		final DirectiveChecker checker = new DirectiveChecker(nodeCreator.createNodes());
+
+		// BFS and DFS are alternatives
+		final Node expression = new Implies(new Literal("BFS"), new Not(new Literal("DFS")));
+		final Node context = new Literal("BFS");
+		for (int i = 0; i < 2; i++) {
+			assertEquals(PPComposerExtensionClass.SAT_TAUTOLOGY, checker.getStatus(expression, true));
+			assertEquals(PPComposerExtensionClass.SAT_NONE, checker.getStatus(expression, false));
+			assertTrue(checker.isRedundant(new Not(new Literal("DFS")), context));
+			assertFalse(checker.isRedundant(new Literal("DFS"), context));
+			checker.clearCache();
+		}
+	}
+
+}
@@ -0,0 +1,287 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2016  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ * 
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.core.munge;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IMarker;
+import org.eclipse.core.resources.IResource;
+import org.junit.Test;
+import org.prop4j.Node;
+
+import de.ovgu.featureide.core.IFeatureProject;
+import de.ovgu.featureide.core.builder.preprocessor.PPComposerExtensionClass;
+import de.ovgu.featureide.core.builder.preprocessor.PreprocessorFileCache.Marker;
+import de.ovgu.featureide.fm.core.base.FeatureUtils;
+import de.ovgu.featureide.fm.core.base.IFeatureModel;
+import de.ovgu.featureide.fm.core.functional.Functional;
+import de.ovgu.featureide.munge.MungePreprocessor;
+
+/**
+ * Tests the batches of the {@link PPComposerExtensionClass}, i.e., checking the directives of several files concurrently, collecting their
+ * builder markers, and restoring unchanged files from the cache.
+ */
+public class TPreprocessorBatch {
+
+	private static final int NUMBER_OF_FILES = 32;
+	private static final int NUMBER_OF_EXPRESSIONS = 20;
+
+	/**
+	 * Checks the expressions of each file like the directives of a source file within a batch, but without a workspace.
+	 */
+	private static class TestPreprocessor extends MungePreprocessor {
+
+		private final List<String> projectMarkers = Collections.synchronizedList(new ArrayList<String>());
+		private final AtomicInteger checkedFiles = new AtomicInteger();
+		private final List<Map<IResource, List<Marker>>> batches = Collections.synchronizedList(new ArrayList<Map<IResource, List<Marker>>>());
+
+		private class CheckingWorker extends FileWorker {
+
+			private final Map<IFile, List<Node>> expressions;
+			private final CheckState state = new CheckState();
+
+			private CheckingWorker(Map<IFile, List<Node>> expressions) {
+				this.expressions = expressions;
+			}
+
+			@Override
+			protected FileWorker newWorker() {
+				return new CheckingWorker(expressions);
+			}
+
+			@Override
+			protected void work(IFile file) {
+				final List<Node> fileExpressions = expressions.get(file);
+				final List<String> lines = new ArrayList<>();
+				for (Node expression : fileExpressions) {
+					lines.add(expression.toString());
+				}
+				final long hash = getFileHash(lines, false);
+				if (restoreFromCache(file, hash)) {
+					return;
+				}
+				checkedFiles.incrementAndGet();
+
+				state.reset();
+				int lineNumber = 1;
+				for (Node expression : fileExpressions) {
+					checkExpressions(expression, lineNumber++, file, state);
+					// the previous two expressions are the context of the next one
+					state.expressionStack.push(expression);
+					if (state.expressionStack.size() > 2) {
+						state.expressionStack.remove(0);
+					}
+				}
+				storeInCache(file, hash);
+			}
+
+		}
+
+		private TestPreprocessor(final IFeatureModel featureModel) {
+			featureProject = (IFeatureProject) Proxy.newProxyInstance(IFeatureProject.class.getClassLoader(), new Class<?>[] { IFeatureProject.class },
+					new InvocationHandler() {
+						@Override
+						public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+							switch (method.getName()) {
+							case "getFeatureModel":
+								return featureModel;
+							case "createBuilderMarker":
+								projectMarkers.add((String) args[1]);
+								return null;
+							case "equals":
+								return proxy == args[0];
+							case "hashCode":
+								return System.identityHashCode(proxy);
+							default:
+								throw new UnsupportedOperationException(method.getName());
+							}
+						}
+					});
+			prepareFullBuild(null);
+		}
+
+		@Override
+		protected void updateFiles(Collection<IFile> files, boolean deleteAllMarkers, Collection<IFile> changedFiles, Map<IResource, List<Marker>> markers) {
+			final Map<IResource, List<Marker>> updatedMarkers = new HashMap<>();
+			for (Map.Entry<IResource, List<Marker>> entry : markers.entrySet()) {
+				updatedMarkers.put(entry.getKey(), new ArrayList<>(entry.getValue()));
+			}
+			batches.add(updatedMarkers);
+		}
+
+		private Map<IResource, List<Marker>> check(Map<IFile, List<Node>> expressions, boolean concurrent) {
+			checkedFiles.set(0);
+			usedFeatures.clear();
+			beginBatch();
+			try {
+				final CheckingWorker worker = new CheckingWorker(expressions);
+				if (concurrent) {
+					processFiles(expressions.keySet(), worker);
+				} else {
+					for (IFile file : expressions.keySet()) {
+						worker.work(file);
+					}
+				}
+			} finally {
+				endBatch(expressions.keySet(), false, Collections.<IFile> emptyList());
+			}
+			return batches.get(batches.size() - 1);
+		}
+
+		private void startBatch() {
+			beginBatch();
+		}
+
+		private void finishBatch(Collection<IFile> files) {
+			endBatch(files, false, Collections.<IFile> emptyList());
+		}
+
+		private void createMarker(IFile file, String message, int lineNumber, int severity) {
+			createBuilderMarker(file, message, lineNumber, severity);
+		}
+
+		private Set<String> getUsedFeatures() {
+			return new HashSet<>(usedFeatures);
+		}
+
+		private int getCachedFiles() {
+			return fileCache.size();
+		}
+
+	}
+
+	private static final IFeatureModel FEATURE_MODEL = TDirectiveChecker.loadFeatureModel("gpl.xml");
+
+	private static Map<IFile, List<Node>> createExpressions(long seed) {
+		final Random random = new Random(seed);
+		final List<String> features = Functional.toList(FeatureUtils.extractFeatureNames(FEATURE_MODEL.getFeatures()));
+		final Map<IFile, List<Node>> expressions = new LinkedHashMap<>();
+		for (int i = 0; i < NUMBER_OF_FILES; i++) {
+			final List<Node> fileExpressions = new ArrayList<>();
+			for (int j = 0; j < NUMBER_OF_EXPRESSIONS; j++) {
+				fileExpressions.add(TDirectiveChecker.createExpression(random, features, 2));
+			}
+			expressions.put(TPreprocessorFileCache.createFile("/project/src/File" + i + ".java"), fileExpressions);
+		}
+		return expressions;
+	}
+
+	@Test
+	public void testConcurrentCheck() {
+		final Map<IFile, List<Node>> expressions = createExpressions(0);
+
+		final TestPreprocessor sequential = new TestPreprocessor(FEATURE_MODEL);
+		final Map<IResource, List<Marker>> expectedMarkers = sequential.check(expressions, false);
+		assertFalse(expectedMarkers.isEmpty());
+
+		final TestPreprocessor concurrent = new TestPreprocessor(FEATURE_MODEL);
+		assertEquals(expectedMarkers, concurrent.check(expressions, true));
+		assertEquals(NUMBER_OF_FILES, concurrent.checkedFiles.get());
+		assertEquals(sequential.getUsedFeatures(), concurrent.getUsedFeatures());
+		assertTrue(concurrent.projectMarkers.isEmpty());
+	}
+
+	@Test
+	public void testCache() {
+		final Map<IFile, List<Node>> expressions = createExpressions(1);
+		final TestPreprocessor preprocessor = new TestPreprocessor(FEATURE_MODEL);
+		final Map<IResource, List<Marker>> expectedMarkers = preprocessor.check(expressions, true);
+		final Set<String> expectedFeatures = preprocessor.getUsedFeatures();
+		assertEquals(NUMBER_OF_FILES, preprocessor.checkedFiles.get());
+		assertEquals(NUMBER_OF_FILES, preprocessor.getCachedFiles());
+
+		// nothing changed, thus, all results are restored from the cache
+		assertEquals(expectedMarkers, preprocessor.check(expressions, true));
+		assertEquals(0, preprocessor.checkedFiles.get());
+		assertEquals(expectedFeatures, preprocessor.getUsedFeatures());
+
+		// only the changed file is checked again
+		final IFile changedFile = expressions.keySet().iterator().next();
+		final List<Node> changedExpressions = new ArrayList<>(expressions.get(changedFile));
+		Collections.reverse(changedExpressions);
+		expressions.put(changedFile, changedExpressions);
+		final Map<IResource, List<Marker>> changedMarkers = preprocessor.check(expressions, true);
+		assertEquals(1, preprocessor.checkedFiles.get());
+		assertEquals(NUMBER_OF_FILES, preprocessor.getCachedFiles());
+		assertEquals(new TestPreprocessor(FEATURE_MODEL).check(expressions, false), changedMarkers);
+	}
+
+	@Test
+	public void testBatch() throws InterruptedException {
+		final TestPreprocessor preprocessor = new TestPreprocessor(FEATURE_MODEL);
+		final IFile file = TPreprocessorFileCache.createFile("/project/src/A.java");
+
+		// without a batch, markers are created immediately
+		preprocessor.createMarker(file, "outside", 1, IMarker.SEVERITY_WARNING);
+		assertEquals(Arrays.asList("outside"), preprocessor.projectMarkers);
+
+		preprocessor.startBatch();
+		final CountDownLatch secondBatch = new CountDownLatch(1);
+		final Thread thread = new Thread(new Runnable() {
+			@Override
+			public void run() {
+				preprocessor.startBatch();
+				secondBatch.countDown();
+				preprocessor.finishBatch(Collections.<IFile> emptyList());
+			}
+		});
+		try {
+			thread.start();
+			preprocessor.createMarker(file, "inside", 2, IMarker.SEVERITY_WARNING);
+			preprocessor.createMarker(file, "inside", 3, IMarker.SEVERITY_ERROR);
+			assertEquals(1, preprocessor.projectMarkers.size());
+			// only one batch can be active at a time
+			assertFalse(secondBatch.await(100, TimeUnit.MILLISECONDS));
+		} finally {
+			preprocessor.finishBatch(Arrays.asList(file));
+		}
+		assertTrue(secondBatch.await(10, TimeUnit.SECONDS));
+		thread.join();
+
+		assertEquals(2, preprocessor.batches.size());
+		assertEquals(Arrays.asList(new Marker("inside", 2, IMarker.SEVERITY_WARNING), new Marker("inside", 3, IMarker.SEVERITY_ERROR)),
+				preprocessor.batches.get(0).get(file));
+		assertTrue(preprocessor.batches.get(1).isEmpty());
+		assertEquals(1, preprocessor.projectMarkers.size());
+	}
+
+}
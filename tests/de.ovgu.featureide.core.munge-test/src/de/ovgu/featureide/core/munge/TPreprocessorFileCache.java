@@ -0,0 +1,153 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2016  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ * 
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.core.munge;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IMarker;
+import org.eclipse.core.runtime.Path;
+import org.junit.Test;
+
+import de.ovgu.featureide.core.builder.preprocessor.PreprocessorFileCache;
+import de.ovgu.featureide.core.builder.preprocessor.PreprocessorFileCache.Entry;
+import de.ovgu.featureide.core.builder.preprocessor.PreprocessorFileCache.Marker;
+
+/**
+ * Tests the hash values and the entries of the {@link PreprocessorFileCache}.
+ */
+public class TPreprocessorFileCache {
+
+	/**
+	 * Creates a file that only provides its path, which is sufficient for the cache and the batches of the preprocessors.
+	 */
+	static IFile createFile(final String path) {
+		return (IFile) Proxy.newProxyInstance(IFile.class.getClassLoader(), new Class<?>[] { IFile.class }, new InvocationHandler() {
+			@Override
+			public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+				switch (method.getName()) {
+				case "getFullPath":
+					return new Path(path);
+				case "getName":
+					return new Path(path).lastSegment();
+				case "exists":
+					return true;
+				case "equals":
+					return proxy == args[0];
+				case "hashCode":
+					return System.identityHashCode(proxy);
+				case "toString":
+					return path;
+				default:
+					throw new UnsupportedOperationException(method.getName());
+				}
+			}
+		});
+	}
+
+	@Test
+	public void testHash() {
+		final List<String> lines = Arrays.asList("//#if A", "int x;", "//#endif");
+		assertEquals(PreprocessorFileCache.hash(0, lines), PreprocessorFileCache.hash(0, Arrays.asList("//#if A", "int x;", "//#endif")));
+		assertTrue(PreprocessorFileCache.hash(0, lines) != PreprocessorFileCache.hash(1, lines));
+		assertTrue(PreprocessorFileCache.hash(0, lines) != PreprocessorFileCache.hash(0, Arrays.asList("//#if B", "int x;", "//#endif")));
+		assertTrue(PreprocessorFileCache.hash(0, lines) != PreprocessorFileCache.hash(0, Arrays.asList("//#endif", "int x;", "//#if A")));
+
+		// the separation of the lines is part of the hash value
+		assertTrue(PreprocessorFileCache.hash(0, Arrays.asList("a", "b")) != PreprocessorFileCache.hash(0, Arrays.asList("ab")));
+		assertTrue(PreprocessorFileCache.hash(0, Arrays.asList("a", "")) != PreprocessorFileCache.hash(0, Arrays.asList("a")));
+		assertTrue(PreprocessorFileCache.hash(0, "") != PreprocessorFileCache.hash(0, (String) null));
+		assertTrue(PreprocessorFileCache.hash(0, "null") != PreprocessorFileCache.hash(0, (String) null));
+		assertEquals(PreprocessorFileCache.hash(PreprocessorFileCache.hash(0, "a"), "b"), PreprocessorFileCache.hash(0, Arrays.asList("a", "b")));
+	}
+
+	@Test
+	public void testMarker() {
+		final Marker marker = new Marker("message", 3, IMarker.SEVERITY_WARNING);
+		assertEquals(marker, new Marker("message", 3, IMarker.SEVERITY_WARNING));
+		assertEquals(marker.hashCode(), new Marker("message", 3, IMarker.SEVERITY_WARNING).hashCode());
+		assertEquals(new Marker(null, 3, IMarker.SEVERITY_WARNING), new Marker(null, 3, IMarker.SEVERITY_WARNING));
+		assertFalse(marker.equals(new Marker("other", 3, IMarker.SEVERITY_WARNING)));
+		assertFalse(marker.equals(new Marker("message", 4, IMarker.SEVERITY_WARNING)));
+		assertFalse(marker.equals(new Marker("message", 3, IMarker.SEVERITY_ERROR)));
+		assertFalse(marker.equals(new Marker(null, 3, IMarker.SEVERITY_WARNING)));
+		assertFalse(new Marker(null, 3, IMarker.SEVERITY_WARNING).equals(marker));
+	}
+
+	@Test
+	public void testEntries() {
+		final PreprocessorFileCache cache = new PreprocessorFileCache();
+		final IFile file = createFile("/project/src/A.java");
+		final Set<String> usedFeatures = new HashSet<>(Arrays.asList("A", "B"));
+		final List<Marker> markers = Arrays.asList(new Marker("message", 1, IMarker.SEVERITY_WARNING));
+
+		assertNull(cache.get(file, 42));
+		cache.put(file, 42, usedFeatures, markers);
+		assertEquals(1, cache.size());
+
+		// the file is identified by its path, not by the instance
+		final Entry entry = cache.get(createFile("/project/src/A.java"), 42);
+		assertNotNull(entry);
+		assertEquals(42, entry.getHash());
+		assertEquals(usedFeatures, entry.getUsedFeatures());
+		assertEquals(markers, entry.getMarkers());
+
+		assertNull(cache.get(file, 43));
+		assertNull(cache.get(createFile("/project/src/B.java"), 42));
+
+		// a changed hash value replaces the entry
+		cache.put(file, 43, Collections.<String> emptySet(), Collections.<Marker> emptyList());
+		assertEquals(1, cache.size());
+		assertNull(cache.get(file, 42));
+		assertEquals(Collections.emptySet(), cache.get(file, 43).getUsedFeatures());
+
+		cache.put(createFile("/project/src/B.java"), 42, usedFeatures, markers);
+		assertEquals(2, cache.size());
+		cache.remove(file);
+		assertEquals(1, cache.size());
+		assertNull(cache.get(file, 43));
+		assertNotNull(cache.get(createFile("/project/src/B.java"), 42));
+		cache.clear();
+		assertEquals(0, cache.size());
+	}
+
+	@Test(expected = UnsupportedOperationException.class)
+	public void testEntryIsUnmodifiable() {
+		final PreprocessorFileCache cache = new PreprocessorFileCache();
+		final IFile file = createFile("/project/src/A.java");
+		cache.put(file, 42, new HashSet<>(Arrays.asList("A")), Arrays.asList(new Marker("message", 1, IMarker.SEVERITY_WARNING)));
+		cache.get(file, 42).getUsedFeatures().add("B");
+	}
+
+}
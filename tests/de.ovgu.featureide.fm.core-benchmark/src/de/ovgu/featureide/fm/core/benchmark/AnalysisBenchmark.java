@@ -0,0 +1,108 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2016  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ * 
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.benchmark;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.prop4j.analyses.AtomicSetAnalysis;
+import org.prop4j.analyses.CoreDeadAnalysis;
+import org.prop4j.analyses.FeatureModelAnalysis;
+import org.prop4j.analyses.PairWiseConfigurationGenerator;
+import org.prop4j.solver.BasicSolver;
+import org.prop4j.solver.ISatSolver;
+import org.prop4j.solver.SatInstance;
+
+import de.ovgu.featureide.fm.core.base.IFeatureModel;
+import de.ovgu.featureide.fm.core.editing.AdvancedNodeCreator;
+import de.ovgu.featureide.fm.core.job.monitor.NullMonitor;
+
+/**
+ * Measures the analyses on feature models, i.e., the complete {@link FeatureModelAnalysis} and the single SAT based analyses on a given {@link SatInstance}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(2)
+@State(Scope.Benchmark)
+public class AnalysisBenchmark {
+
+	@Param({ "benchmarkFeatureModels/100-100.xml", "benchmarkFeatureModels/200-100.xml", "benchmarkFeatureModels/500-101.xml",
+			"benchmarkFeatureModels/berkeley_db_model.xml", "splotmodels/REAL-FM-4.xml", "splotmodels/model_20110704_328391695.xml" })
+	public String model;
+
+	@Param({ "10" })
+	public int maxConfigurations;
+
+	private IFeatureModel featureModel;
+	private SatInstance satInstance;
+
+	@Setup(Level.Trial)
+	public void setup() {
+		featureModel = BenchmarkModels.load(model);
+		satInstance = AdvancedNodeCreator.createSatInstance(featureModel);
+	}
+
+	@Benchmark
+	public HashMap<Object, Object> featureModelAnalysis() throws Exception {
+		final FeatureModelAnalysis analysis = new FeatureModelAnalysis(featureModel);
+		// otherwise, all invocations except the first one would only measure cache hits
+		analysis.useResultCache = false;
+		return analysis.execute(new NullMonitor());
+	}
+
+	@Benchmark
+	public SatInstance createSatInstance() {
+		return AdvancedNodeCreator.createSatInstance(featureModel);
+	}
+
+	@Benchmark
+	public int[] coreDeadAnalysis() throws Exception {
+		return new CoreDeadAnalysis(satInstance).execute(new NullMonitor());
+	}
+
+	@Benchmark
+	public List<int[]> atomicSetAnalysis() throws Exception {
+		final BasicSolver solver = new BasicSolver(satInstance);
+		solver.initSolutionList(Math.min(satInstance.getNumberOfVariables(), ISatSolver.MAX_SOLUTION_BUFFER));
+		return new AtomicSetAnalysis(solver).execute(new NullMonitor());
+	}
+
+	@Benchmark
+	public List<List<String>> pairWiseConfigurations() throws Exception {
+		return new PairWiseConfigurationGenerator(satInstance, maxConfigurations).execute(new NullMonitor());
+	}
+
+}
@@ -0,0 +1,81 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2016  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ * 
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.benchmark;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import de.ovgu.featureide.fm.core.base.IFeatureModel;
+import de.ovgu.featureide.fm.core.base.impl.FMFactoryManager;
+import de.ovgu.featureide.fm.core.io.FileSystem;
+import de.ovgu.featureide.fm.core.io.IFeatureModelFormat;
+import de.ovgu.featureide.fm.core.io.ProblemList;
+import de.ovgu.featureide.fm.core.io.manager.FileHandler;
+import de.ovgu.featureide.fm.core.io.sxfm.SXFMFormat;
+import de.ovgu.featureide.fm.core.io.xml.XmlFeatureModelFormat;
+
+/**
+ * Provides the feature models of the test project as input for the benchmarks.<br>
+ * Models are given relative to the directory in the system property {@value #MODEL_DIRECTORY_PROPERTY}
+ * (default: the source folder of <i>de.ovgu.featureide.fm.core-test</i>).
+ * Models within the folder <i>splotmodels</i> are read with the {@link SXFMFormat}, all other models with the {@link XmlFeatureModelFormat}.
+ */
+public final class BenchmarkModels {
+
+	public static final String MODEL_DIRECTORY_PROPERTY = "featureide.benchmark.models";
+
+	private static final String DEFAULT_MODEL_DIRECTORY = "../de.ovgu.featureide.fm.core-test/src";
+
+	private static final String SPLOT_DIRECTORY = "splotmodels";
+
+	private BenchmarkModels() {
+	}
+
+	public static Path getPath(String model) {
+		return Paths.get(System.getProperty(MODEL_DIRECTORY_PROPERTY, DEFAULT_MODEL_DIRECTORY), model);
+	}
+
+	public static IFeatureModelFormat getFormat(String model) {
+		return model.startsWith(SPLOT_DIRECTORY) ? new SXFMFormat() : new XmlFeatureModelFormat();
+	}
+
+	public static IFeatureModel load(String model) {
+		return load(model, FMFactoryManager.getFactory().createFeatureModel());
+	}
+
+	public static IFeatureModel load(String model, IFeatureModel featureModel) {
+		final ProblemList problems = FileHandler.load(getPath(model), featureModel, getFormat(model));
+		if (problems.containsError()) {
+			throw new IllegalArgumentException("Could not read " + model + ": " + problems.getErrors());
+		}
+		return featureModel;
+	}
+
+	public static String read(String model) {
+		try {
+			return FileSystem.readtoString(getPath(model));
+		} catch (IOException e) {
+			throw new IllegalArgumentException("Could not read " + model, e);
+		}
+	}
+
+}
@@ -0,0 +1,112 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2016  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ * 
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.prop4j.analyses.AnalysisResultCache;
+
+import de.ovgu.featureide.fm.core.base.IFeatureModel;
+import de.ovgu.featureide.fm.core.configuration.Configuration;
+import de.ovgu.featureide.fm.core.configuration.IConfigurationPropagator;
+import de.ovgu.featureide.fm.core.configuration.SelectableFeature;
+import de.ovgu.featureide.fm.core.configuration.Selection;
+import de.ovgu.featureide.fm.core.job.monitor.NullMonitor;
+
+/**
+ * Measures the {@link IConfigurationPropagator} on a partial configuration.
+ * Every n-th feature that is not decided by the propagation is selected manually during the setup.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(2)
+@State(Scope.Benchmark)
+public class PropagationBenchmark {
+
+	/**
+	 * Clears the {@link AnalysisResultCache} before each invocation, as the propagator would otherwise load the backbone of the feature model
+	 * from the cache.
+	 */
+	@State(Scope.Thread)
+	public static class EmptyResultCache {
+
+		@Setup(Level.Invocation)
+		public void clear() {
+			AnalysisResultCache.getInstance().clear();
+		}
+
+	}
+
+	@Param({ "benchmarkFeatureModels/100-100.xml", "benchmarkFeatureModels/500-101.xml", "benchmarkFeatureModels/1000-100.xml",
+			"benchmarkFeatureModels/berkeley_db_model.xml", "splotmodels/REAL-FM-4.xml", "splotmodels/model_20110704_328391695.xml" })
+	public String model;
+
+	@Param({ "10" })
+	public int selectionStep;
+
+	private IFeatureModel featureModel;
+	private Configuration configuration;
+
+	@Setup(Level.Trial)
+	public void setup() {
+		featureModel = BenchmarkModels.load(model);
+		configuration = new Configuration(featureModel);
+
+		final List<SelectableFeature> features = configuration.getFeatures();
+		for (int i = 0; i < features.size(); i += selectionStep) {
+			final SelectableFeature feature = features.get(i);
+			if (feature.getSelection() == Selection.UNDEFINED) {
+				configuration.setManual(feature, Selection.SELECTED);
+			}
+		}
+	}
+
+	@Benchmark
+	public Void load(EmptyResultCache emptyResultCache) throws Exception {
+		return new Configuration(featureModel, Configuration.PARAM_LAZY | Configuration.PARAM_PROPAGATE).getPropagator().load().execute(new NullMonitor());
+	}
+
+	@Benchmark
+	public List<String> update() throws Exception {
+		return configuration.getPropagator().update(false, null).execute(new NullMonitor());
+	}
+
+	@Benchmark
+	public Boolean canBeValid() throws Exception {
+		return configuration.getPropagator().canBeValid().execute(new NullMonitor());
+	}
+
+}
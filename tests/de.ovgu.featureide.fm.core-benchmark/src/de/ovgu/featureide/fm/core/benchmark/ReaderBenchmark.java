@@ -0,0 +1,138 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2016  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ * 
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.benchmark;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import de.ovgu.featureide.fm.core.base.IFeatureModel;
+import de.ovgu.featureide.fm.core.base.impl.ExtendedFeatureModelFactory;
+import de.ovgu.featureide.fm.core.base.impl.FMFactoryManager;
+import de.ovgu.featureide.fm.core.io.ProblemList;
+import de.ovgu.featureide.fm.core.io.manager.FileHandler;
+import de.ovgu.featureide.fm.core.io.sxfm.SXFMFormat;
+import de.ovgu.featureide.fm.core.io.velvet.VelvetFeatureModelFormat;
+import de.ovgu.featureide.fm.core.io.xml.XmlFeatureModelFormat;
+
+/**
+ * Measures the readers for the XML, SXFM, and Velvet feature model formats.
+ * The model files are held in memory, such that only parsing and the creation of the feature model is measured.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(2)
+public class ReaderBenchmark {
+
+	@State(Scope.Benchmark)
+	public static class XmlModel {
+
+		@Param({ "benchmarkFeatureModels/100-100.xml", "benchmarkFeatureModels/500-101.xml", "benchmarkFeatureModels/1000-100.xml",
+				"benchmarkFeatureModels/berkeley_db_model.xml" })
+		public String model;
+
+		private byte[] content;
+
+		@Setup(Level.Trial)
+		public void setup() {
+			content = BenchmarkModels.read(model).getBytes(StandardCharsets.UTF_8);
+		}
+
+	}
+
+	@State(Scope.Benchmark)
+	public static class SxfmModel {
+
+		@Param({ "splotmodels/REAL-FM-4.xml", "splotmodels/model_20110704_328391695.xml", "splotmodels/arcade_game_pl_fm.xml" })
+		public String model;
+
+		private String content;
+
+		@Setup(Level.Trial)
+		public void setup() {
+			content = BenchmarkModels.read(model);
+		}
+
+	}
+
+	/**
+	 * There are no Velvet models in the test project, so the source is created by writing a model of another format.
+	 * The model is loaded as extended feature model, because the writer only handles extended features. The reader is used in API mode, as there is no workspace to resolve imported models.
+	 */
+	@State(Scope.Benchmark)
+	public static class VelvetModel {
+
+		@Param({ "benchmarkFeatureModels/100-100.xml", "benchmarkFeatureModels/500-101.xml", "benchmarkFeatureModels/berkeley_db_model.xml" })
+		public String model;
+
+		private String content;
+
+		@Setup(Level.Trial)
+		public void setup() {
+			VelvetFeatureModelFormat.IS_USED_AS_API = true;
+			content = new VelvetFeatureModelFormat().write(BenchmarkModels.load(model, ExtendedFeatureModelFactory.getInstance().createFeatureModel()));
+		}
+
+	}
+
+	@Benchmark
+	public IFeatureModel readXml(XmlModel source) {
+		final IFeatureModel featureModel = FMFactoryManager.getFactory().createFeatureModel();
+		check(FileHandler.load(new ByteArrayInputStream(source.content), featureModel, new XmlFeatureModelFormat()));
+		return featureModel;
+	}
+
+	@Benchmark
+	public IFeatureModel readSxfm(SxfmModel source) {
+		final IFeatureModel featureModel = FMFactoryManager.getFactory().createFeatureModel();
+		check(new SXFMFormat().read(featureModel, source.content));
+		return featureModel;
+	}
+
+	@Benchmark
+	public IFeatureModel readVelvet(VelvetModel source) {
+		final IFeatureModel featureModel = ExtendedFeatureModelFactory.getInstance().createFeatureModel();
+		check(new VelvetFeatureModelFormat().read(featureModel, source.content));
+		return featureModel;
+	}
+
+	private static void check(ProblemList problems) {
+		if (problems.containsError()) {
+			throw new IllegalStateException(problems.getErrors().toString());
+		}
+	}
+
+}
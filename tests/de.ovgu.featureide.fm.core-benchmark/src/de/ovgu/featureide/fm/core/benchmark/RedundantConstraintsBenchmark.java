@@ -0,0 +1,81 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2016  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ * 
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.prop4j.analyses.FeatureModelAnalysis;
+
+import de.ovgu.featureide.fm.core.base.IFeatureModel;
+
+/**
+ * Measures the detection of redundant constraints by the {@link FeatureModelAnalysis}, either sequentially or with a parallel pre-filter that
+ * uses a thread per available processor (see {@link FeatureModelAnalysis#setCalculateRedundantConstraintsInParallel(boolean)}).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Benchmark)
+public class RedundantConstraintsBenchmark {
+
+	@Param({ "benchmarkFeatureModels/100-100.xml", "benchmarkFeatureModels/200-100.xml", "benchmarkFeatureModels/500-101.xml",
+			"benchmarkFeatureModels/1000-100.xml", "benchmarkFeatureModels/berkeley_db_model.xml", "benchmarkFeatureModels/berkeley_db_model2.xml" })
+	public String model;
+
+	@Param({ "false", "true" })
+	public boolean parallel;
+
+	private IFeatureModel featureModel;
+
+	@Setup(Level.Trial)
+	public void setup() {
+		featureModel = BenchmarkModels.load(model);
+	}
+
+	@Benchmark
+	public IFeatureModel redundantConstraints() {
+		final FeatureModelAnalysis analysis = new FeatureModelAnalysis(featureModel);
+		// the validity of the model would otherwise be taken from the cache after the first invocation
+		analysis.useResultCache = false;
+		analysis.setCalculateFeatures(false);
+		analysis.setCalculateExplanations(false);
+		analysis.setCalculateDeadConstraints(false);
+		analysis.setCalculateFOConstraints(false);
+		analysis.setCalculateRedundantConstraintsInParallel(parallel);
+		analysis.updateConstraints();
+		return featureModel;
+	}
+
+}
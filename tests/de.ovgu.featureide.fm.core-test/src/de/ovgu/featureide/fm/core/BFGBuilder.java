@@ -0,0 +1,77 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2016  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ * 
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+import org.prop4j.analyses.FGBuilder;
+import org.prop4j.solver.SatInstance;
+
+import de.ovgu.featureide.common.Commons;
+import de.ovgu.featureide.fm.core.base.IFeatureModel;
+import de.ovgu.featureide.fm.core.conf.IFeatureGraph;
+import de.ovgu.featureide.fm.core.editing.AdvancedNodeCreator;
+import de.ovgu.featureide.fm.core.job.LongRunningWrapper;
+
+/**
+ * Compares the sequential and the parallel construction of feature graphs in {@link FGBuilder}.
+ * Both modes must build exactly the same feature graph.
+ * Their run times are compared by the <i>FGBuilderBenchmark</i> of <i>de.ovgu.featureide.fm.core-benchmark</i>.
+ */
+public class BFGBuilder {
+
+	private static final String[] MODELS = { "10-100.xml", "20-100.xml", "50-100.xml", "100-100.xml", "200-100.xml", "500-101.xml", "berkeley_db_model.xml",
+			"berkeley_db_model2.xml" };
+
+	private static final int NUMBER_OF_THREADS = Math.max(2, Runtime.getRuntime().availableProcessors());
+
+	@Test
+	public void BCompareSequentialAndParallel() {
+		for (String modelName : MODELS) {
+			final IFeatureModel fm = Commons.loadFeatureModelFromFile(modelName, Commons.FEATURE_MODEL_BENCHMARK_PATH_REMOTE,
+					Commons.FEATURE_MODEL_BENCHMARK_PATH_LOCAL_CLASS_PATH);
+			final SatInstance satInstance = AdvancedNodeCreator.createSatInstance(fm);
+
+			final IFeatureGraph sequentialResult = build(satInstance, 1);
+			final IFeatureGraph parallelResult = build(satInstance, NUMBER_OF_THREADS);
+			compare(modelName, sequentialResult, parallelResult);
+		}
+	}
+
+	private static IFeatureGraph build(SatInstance satInstance, int numberOfThreads) {
+		final FGBuilder builder = new FGBuilder(satInstance);
+		builder.setNumberOfThreads(numberOfThreads);
+		return LongRunningWrapper.runMethod(builder);
+	}
+
+	private static void compare(String modelName, IFeatureGraph expected, IFeatureGraph actual) {
+		assertEquals(modelName, expected.getSize(), actual.getSize());
+		assertArrayEquals(modelName, expected.getIndex(), actual.getIndex());
+		for (int i = 0; i < expected.getSize(); i++) {
+			for (int j = 0; j < expected.getSize(); j++) {
+				assertEquals(modelName, expected.getEdge(i, j), actual.getEdge(i, j));
+			}
+		}
+	}
+
+}
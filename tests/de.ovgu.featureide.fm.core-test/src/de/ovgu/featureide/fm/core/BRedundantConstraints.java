@@ -0,0 +1,73 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2016  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ * 
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+import org.prop4j.analyses.FeatureModelAnalysis;
+
+import de.ovgu.featureide.common.Commons;
+import de.ovgu.featureide.fm.core.base.IConstraint;
+import de.ovgu.featureide.fm.core.base.IFeatureModel;
+
+/**
+ * Compares the sequential and the parallel calculation of redundant constraints in {@link FeatureModelAnalysis}.
+ * Both modes must mark exactly the same constraints as redundant or tautology.
+ * Their run times are compared by the <i>RedundantConstraintsBenchmark</i> of <i>de.ovgu.featureide.fm.core-benchmark</i>.
+ */
+public class BRedundantConstraints {
+
+	private static final String[] MODELS = { "10-100.xml", "20-100.xml", "50-100.xml", "100-100.xml", "200-100.xml", "500-101.xml", "berkeley_db_model.xml",
+			"berkeley_db_model2.xml" };
+
+	@Test
+	public void BCompareSequentialAndParallel() {
+		for (String modelName : MODELS) {
+			final IFeatureModel fm = Commons.loadFeatureModelFromFile(modelName, Commons.FEATURE_MODEL_BENCHMARK_PATH_REMOTE,
+					Commons.FEATURE_MODEL_BENCHMARK_PATH_LOCAL_CLASS_PATH);
+
+			final List<ConstraintAttribute> sequentialResult = analyze(fm, false);
+			final List<ConstraintAttribute> parallelResult = analyze(fm, true);
+			assertEquals(modelName, sequentialResult, parallelResult);
+		}
+	}
+
+	private static List<ConstraintAttribute> analyze(IFeatureModel fm, boolean parallel) {
+		final FeatureModelAnalysis analysis = new FeatureModelAnalysis(fm);
+		analysis.setCalculateFeatures(false);
+		analysis.setCalculateExplanations(false);
+		analysis.setCalculateDeadConstraints(false);
+		analysis.setCalculateFOConstraints(false);
+		analysis.setCalculateRedundantConstraintsInParallel(parallel);
+		analysis.updateConstraints();
+
+		final List<ConstraintAttribute> result = new ArrayList<>();
+		for (IConstraint constraint : fm.getConstraints()) {
+			result.add(constraint.getConstraintAttribute());
+		}
+		return result;
+	}
+
+}
@@ -0,0 +1,97 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2016  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ * 
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+import org.prop4j.And;
+import org.prop4j.Literal;
+import org.prop4j.Node;
+import org.prop4j.SatSolver;
+import org.sat4j.specs.TimeoutException;
+
+import de.ovgu.featureide.common.Commons;
+import de.ovgu.featureide.fm.core.base.IFeature;
+import de.ovgu.featureide.fm.core.base.IFeatureModel;
+import de.ovgu.featureide.fm.core.editing.AdvancedNodeCreator;
+
+/**
+ * Tests for {@link FeatureDependencies}.
+ * Compares the dependencies with the results of a separate solver call for each pair of features.
+ */
+public class TFeatureDependencies {
+
+	private static final String MODEL_PATH_REMOTE = "/home/itidbrun/TeamCity/buildAgent/work/featureide/tests/de.ovgu.featureide.fm.core-test/src/analyzefeaturemodels/";
+	private static final String MODEL_PATH_LOCAL_CLASS_PATH = "analyzefeaturemodels";
+
+	@Test
+	public void testDependencies() throws TimeoutException {
+		for (int i = 1; i <= 8; i++) {
+			final IFeatureModel fm = Commons.loadFeatureModelFromFile("test_" + i + ".xml", MODEL_PATH_REMOTE, MODEL_PATH_LOCAL_CLASS_PATH);
+			compare(fm, new FeatureDependencies(fm));
+		}
+	}
+
+	@Test
+	public void testLazyDependencies() throws TimeoutException {
+		final IFeatureModel fm = Commons.loadFeatureModelFromFile("berkeley_db_model.xml", Commons.FEATURE_MODEL_BENCHMARK_PATH_REMOTE,
+				Commons.FEATURE_MODEL_BENCHMARK_PATH_LOCAL_CLASS_PATH);
+		final FeatureDependencies dependencies = new FeatureDependencies(fm, false);
+		final Node cnf = AdvancedNodeCreator.createCNF(fm);
+		int count = 0;
+		for (IFeature feature : fm.getFeatures()) {
+			if (count++ % 10 == 0) {
+				final SatSolver solver = new SatSolver(new And(cnf.clone(), new Literal(feature.getName())), 2500);
+				for (IFeature other : fm.getFeatures()) {
+					if (other != feature) {
+						final boolean always = !solver.isSatisfiable(new Literal[] { new Literal(other.getName(), false) });
+						assertEquals(always, dependencies.isAlways(feature, other));
+						assertEquals(always, dependencies.getImpliedFeatures(feature).contains(other));
+					}
+				}
+			}
+		}
+	}
+
+	private static void compare(IFeatureModel fm, FeatureDependencies dependencies) throws TimeoutException {
+		final Node cnf = AdvancedNodeCreator.createCNF(fm);
+		for (IFeature feature : fm.getFeatures()) {
+			final SatSolver solver = new SatSolver(new And(cnf.clone(), new Literal(feature.getName())), 2500);
+			int numberOfOthers = 0;
+			for (IFeature other : fm.getFeatures()) {
+				if (other != feature) {
+					numberOfOthers++;
+					if (!solver.isSatisfiable(new Literal[] { new Literal(other.getName(), false) })) {
+						assertTrue(dependencies.always(feature).contains(other));
+					} else if (!solver.isSatisfiable(new Literal[] { new Literal(other.getName(), true) })) {
+						assertTrue(dependencies.never(feature).contains(other));
+					} else {
+						assertTrue(dependencies.maybe(feature).contains(other));
+					}
+				}
+			}
+			assertEquals(numberOfOthers, dependencies.always(feature).size() + dependencies.never(feature).size() + dependencies.maybe(feature).size());
+		}
+	}
+
+}
@@ -0,0 +1,206 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2016  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ * 
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+
+import org.junit.Test;
+import org.prop4j.analyses.FeatureModelAnalysis;
+import org.prop4j.analyses.IncrementalFeatureModelAnalysis;
+
+import de.ovgu.featureide.common.Commons;
+import de.ovgu.featureide.fm.core.base.IConstraint;
+import de.ovgu.featureide.fm.core.base.IFeature;
+import de.ovgu.featureide.fm.core.base.IFeatureModel;
+import de.ovgu.featureide.fm.core.base.event.FeatureIDEEvent;
+import de.ovgu.featureide.fm.core.base.event.FeatureIDEEvent.EventType;
+import de.ovgu.featureide.fm.core.job.LongRunningWrapper;
+
+/**
+ * Tests for {@link IncrementalFeatureModelAnalysis}.
+ * Compares the incremental results with the results of a complete {@link FeatureModelAnalysis} after each edit.
+ */
+public class TIncrementalFeatureModelAnalysis {
+
+	private static final String MODEL_PATH_REMOTE = "/home/itidbrun/TeamCity/buildAgent/work/featureide/tests/de.ovgu.featureide.fm.core-test/src/analyzefeaturemodels/";
+	private static final String MODEL_PATH_LOCAL_CLASS_PATH = "analyzefeaturemodels";
+
+	@Test
+	public void testRemoveAndAddConstraints() {
+		for (int i = 1; i <= 8; i++) {
+			final IFeatureModel fm = Commons.loadFeatureModelFromFile("test_" + i + ".xml", MODEL_PATH_REMOTE, MODEL_PATH_LOCAL_CLASS_PATH);
+			final IncrementalFeatureModelAnalysis incrementalAnalysis = new IncrementalFeatureModelAnalysis(fm);
+			fm.addListener(incrementalAnalysis);
+			compare(fm, incrementalAnalysis);
+
+			final List<IConstraint> constraints = new ArrayList<>(fm.getConstraints());
+			for (IConstraint constraint : constraints) {
+				fm.removeConstraint(constraint);
+				fm.fireEvent(new FeatureIDEEvent(fm, EventType.CONSTRAINT_DELETE, constraint, null));
+				compare(fm, incrementalAnalysis);
+			}
+			for (IConstraint constraint : constraints) {
+				fm.addConstraint(constraint);
+				fm.fireEvent(new FeatureIDEEvent(fm, EventType.CONSTRAINT_ADD, null, constraint));
+				compare(fm, incrementalAnalysis);
+			}
+		}
+	}
+
+	@Test
+	public void testModifyConstraints() {
+		for (int i = 1; i <= 8; i++) {
+			final IFeatureModel fm = Commons.loadFeatureModelFromFile("test_" + i + ".xml", MODEL_PATH_REMOTE, MODEL_PATH_LOCAL_CLASS_PATH);
+			final IncrementalFeatureModelAnalysis incrementalAnalysis = new IncrementalFeatureModelAnalysis(fm);
+			fm.addListener(incrementalAnalysis);
+			compare(fm, incrementalAnalysis);
+
+			final List<IConstraint> constraints = fm.getConstraints();
+			for (int j = 1; j < constraints.size(); j++) {
+				final IConstraint constraint = constraints.get(j);
+				constraint.setNode(constraints.get(j - 1).getNode().clone());
+				fm.fireEvent(new FeatureIDEEvent(constraint, EventType.CONSTRAINT_MODIFY));
+				compare(fm, incrementalAnalysis);
+			}
+		}
+	}
+
+	@Test
+	public void testPendingEvents() {
+		for (int i = 1; i <= 8; i++) {
+			final IFeatureModel fm = Commons.loadFeatureModelFromFile("test_" + i + ".xml", MODEL_PATH_REMOTE, MODEL_PATH_LOCAL_CLASS_PATH);
+			final IncrementalFeatureModelAnalysis incrementalAnalysis = new IncrementalFeatureModelAnalysis(fm);
+			fm.addListener(incrementalAnalysis);
+			compare(fm, incrementalAnalysis);
+
+			final List<IConstraint> constraints = new ArrayList<>(fm.getConstraints());
+			for (IConstraint constraint : constraints) {
+				fm.removeConstraint(constraint);
+				fm.fireEvent(new FeatureIDEEvent(fm, EventType.CONSTRAINT_DELETE, constraint, null));
+			}
+			compare(fm, incrementalAnalysis);
+			for (IConstraint constraint : constraints) {
+				fm.addConstraint(constraint);
+				fm.fireEvent(new FeatureIDEEvent(fm, EventType.CONSTRAINT_ADD, null, constraint));
+			}
+			compare(fm, incrementalAnalysis);
+		}
+	}
+
+	@Test
+	public void testEventWithoutType() {
+		for (int i = 1; i <= 8; i++) {
+			final IFeatureModel fm = Commons.loadFeatureModelFromFile("test_" + i + ".xml", MODEL_PATH_REMOTE, MODEL_PATH_LOCAL_CLASS_PATH);
+			final IncrementalFeatureModelAnalysis incrementalAnalysis = new IncrementalFeatureModelAnalysis(fm);
+			fm.addListener(incrementalAnalysis);
+			compare(fm, incrementalAnalysis);
+
+			// operations fire events without a type after arbitrary changes
+			for (IConstraint constraint : new ArrayList<>(fm.getConstraints())) {
+				fm.removeConstraint(constraint);
+			}
+			fm.fireEvent(new FeatureIDEEvent(fm, null, null, null));
+			compare(fm, incrementalAnalysis);
+		}
+	}
+
+	@Test
+	public void testAnalyzerWithHiddenFeatures() {
+		final IFeatureModel fm = Commons.loadFeatureModelFromFile("test_4.xml", MODEL_PATH_REMOTE, MODEL_PATH_LOCAL_CLASS_PATH);
+		assertTrue(fm.getStructure().hasHidden());
+		final FeatureModelAnalyzer analyzer = fm.getAnalyser();
+		analyzer.setIncremental(true);
+		assertTrue(analyzer.isIncremental());
+		compare(fm);
+
+		for (IFeature feature : fm.getFeatures()) {
+			if (!feature.getStructure().isRoot()) {
+				feature.getStructure().setHidden(!feature.getStructure().isHidden());
+				compare(fm);
+			}
+		}
+
+		final List<IConstraint> constraints = new ArrayList<>(fm.getConstraints());
+		for (IConstraint constraint : constraints) {
+			fm.removeConstraint(constraint);
+			fm.fireEvent(new FeatureIDEEvent(fm, EventType.CONSTRAINT_DELETE, constraint, null));
+			compare(fm);
+		}
+
+		analyzer.setIncremental(false);
+		assertFalse(analyzer.isIncremental());
+	}
+
+	/**
+	 * Compares the feature states set by the incremental {@link FeatureModelAnalyzer} with the states of a complete analysis.
+	 */
+	private static void compare(IFeatureModel fm) {
+		final FeatureModelAnalyzer analyzer = fm.getAnalyser();
+		analyzer.analyzeFeatureModel(null);
+		final boolean incrementalValid = analyzer.valid();
+		final HashSet<IFeature> incrementalCore = new HashSet<>(analyzer.getCachedCoreFeatures());
+		final HashMap<IFeature, FeatureStatus> incrementalStates = getFeatureStates(fm);
+
+		final FeatureModelAnalysis analysis = new FeatureModelAnalysis(fm);
+		analysis.setCalculateConstraints(false);
+		analysis.setCalculateExplanations(false);
+		analysis.useResultCache = false;
+		LongRunningWrapper.runMethod(analysis);
+
+		assertEquals(analysis.isValid(), incrementalValid);
+		if (analysis.isValid()) {
+			assertEquals(new HashSet<>(analysis.getCoreFeatures()), incrementalCore);
+		}
+		assertEquals(getFeatureStates(fm), incrementalStates);
+	}
+
+	private static HashMap<IFeature, FeatureStatus> getFeatureStates(IFeatureModel fm) {
+		final HashMap<IFeature, FeatureStatus> states = new HashMap<>();
+		for (IFeature feature : fm.getFeatures()) {
+			states.put(feature, feature.getProperty().getFeatureStatus());
+		}
+		return states;
+	}
+
+	private static void compare(IFeatureModel fm, IncrementalFeatureModelAnalysis incrementalAnalysis) {
+		LongRunningWrapper.runMethod(incrementalAnalysis);
+
+		final FeatureModelAnalysis analysis = new FeatureModelAnalysis(fm);
+		analysis.setCalculateConstraints(false);
+		analysis.setCalculateExplanations(false);
+		analysis.updateFeatures();
+
+		assertEquals(analysis.isValid(), incrementalAnalysis.isValid());
+		if (analysis.isValid()) {
+			assertEquals(new HashSet<>(analysis.getCoreFeatures()), new HashSet<>(incrementalAnalysis.getCoreFeatures()));
+			assertEquals(new HashSet<>(analysis.getDeadFeatures()), new HashSet<>(incrementalAnalysis.getDeadFeatures()));
+			assertEquals(new HashSet<>(analysis.getFalseOptionalFeatures()), new HashSet<>(incrementalAnalysis.getFalseOptionalFeatures()));
+		}
+	}
+
+}
@@ -0,0 +1,115 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2016  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ * 
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.conf;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.util.Random;
+
+import org.junit.Test;
+import org.prop4j.analyses.FGBuilder;
+import org.prop4j.solver.SatInstance;
+
+import de.ovgu.featureide.common.Commons;
+import de.ovgu.featureide.fm.core.base.IFeatureModel;
+import de.ovgu.featureide.fm.core.editing.AdvancedNodeCreator;
+import de.ovgu.featureide.fm.core.job.LongRunningWrapper;
+
+/**
+ * Tests for {@link SparseFeatureGraph}.
+ * Compares the sparse graph with a {@link MatrixFeatureGraph}.
+ */
+public class TSparseFeatureGraph {
+
+	private static final String MODEL_PATH_REMOTE = "/home/itidbrun/TeamCity/buildAgent/work/featureide/tests/de.ovgu.featureide.fm.core-test/src/analyzefeaturemodels/";
+	private static final String MODEL_PATH_LOCAL_CLASS_PATH = "analyzefeaturemodels";
+
+	private static final byte[] EDGE_TYPES = { AFeatureGraph.EDGE_NONE, AFeatureGraph.EDGE_00Q, AFeatureGraph.EDGE_00, AFeatureGraph.EDGE_01Q,
+			AFeatureGraph.EDGE_01, AFeatureGraph.EDGE_10Q, AFeatureGraph.EDGE_10, AFeatureGraph.EDGE_11Q, AFeatureGraph.EDGE_11 };
+
+	@Test
+	public void testSetEdge() {
+		final int size = 50;
+		final int[] index = new int[size];
+		for (int i = 0; i < size; i++) {
+			index[i] = i;
+		}
+		final MatrixFeatureGraph matrixGraph = new MatrixFeatureGraph(null, index);
+		final SparseFeatureGraph sparseGraph = new SparseFeatureGraph(null, index);
+
+		final Random random = new Random(0);
+		for (int k = 0; k < 20000; k++) {
+			final int from = random.nextInt(size);
+			final int to = random.nextInt(size);
+			byte edgeType = EDGE_TYPES[random.nextInt(EDGE_TYPES.length)];
+			// avoid contradicting strong edges
+			final byte oldEdge = matrixGraph.getEdge(from, to);
+			if ((edgeType == AFeatureGraph.EDGE_00 && AFeatureGraph.isEdge(oldEdge, AFeatureGraph.EDGE_01))
+					|| (edgeType == AFeatureGraph.EDGE_01 && AFeatureGraph.isEdge(oldEdge, AFeatureGraph.EDGE_00))
+					|| (edgeType == AFeatureGraph.EDGE_10 && AFeatureGraph.isEdge(oldEdge, AFeatureGraph.EDGE_11))
+					|| (edgeType == AFeatureGraph.EDGE_11 && AFeatureGraph.isEdge(oldEdge, AFeatureGraph.EDGE_10))) {
+				edgeType = AFeatureGraph.EDGE_NONE;
+			}
+			assertEquals(matrixGraph.setEdge(from, to, edgeType), sparseGraph.setEdge(from, to, edgeType));
+		}
+		compare(matrixGraph, sparseGraph);
+
+		sparseGraph.trimToSize();
+		compare(matrixGraph, sparseGraph);
+	}
+
+	@Test
+	public void testFGBuilder() {
+		for (int i = 1; i <= 8; i++) {
+			final IFeatureModel fm = Commons.loadFeatureModelFromFile("test_" + i + ".xml", MODEL_PATH_REMOTE, MODEL_PATH_LOCAL_CLASS_PATH);
+			final SatInstance satInstance = AdvancedNodeCreator.createSatInstance(fm);
+
+			final FGBuilder matrixBuilder = new FGBuilder(satInstance);
+			matrixBuilder.setSparseThreshold(Integer.MAX_VALUE);
+			final IFeatureGraph matrixGraph = LongRunningWrapper.runMethod(matrixBuilder);
+
+			final FGBuilder sparseBuilder = new FGBuilder(satInstance);
+			sparseBuilder.setSparseThreshold(0);
+			final IFeatureGraph sparseGraph = LongRunningWrapper.runMethod(sparseBuilder);
+
+			assertEquals(MatrixFeatureGraph.class, matrixGraph.getClass());
+			assertEquals(SparseFeatureGraph.class, sparseGraph.getClass());
+			compare(matrixGraph, sparseGraph);
+		}
+	}
+
+	private static void compare(IFeatureGraph expected, IFeatureGraph actual) {
+		assertEquals(expected.getSize(), actual.getSize());
+		assertArrayEquals(expected.getIndex(), actual.getIndex());
+		for (int i = 0; i < expected.getSize(); i++) {
+			for (int j = 0; j < expected.getSize(); j++) {
+				assertEquals(expected.getEdge(i, j), actual.getEdge(i, j));
+				assertEquals(expected.getValue(i, j, true), actual.getValue(i, j, true));
+				assertEquals(expected.getValue(i, j, false), actual.getValue(i, j, false));
+			}
+			for (int j = -1; j < expected.getSize(); j++) {
+				assertEquals(expected.getNextEdge(i, j), actual.getNextEdge(i, j));
+			}
+		}
+	}
+
+}
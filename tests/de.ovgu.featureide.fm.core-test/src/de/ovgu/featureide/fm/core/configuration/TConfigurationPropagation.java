@@ -0,0 +1,82 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2016  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ * 
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.configuration;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+import de.ovgu.featureide.common.Commons;
+import de.ovgu.featureide.fm.core.base.IFeatureModel;
+
+/**
+ * Tests the incremental propagation of a configuration.
+ */
+public class TConfigurationPropagation {
+
+	private static final IFeatureModel FM = Commons.loadFeatureModelFromFile("berkeley_db_model.xml", Commons.FEATURE_MODEL_BENCHMARK_PATH_REMOTE,
+			Commons.FEATURE_MODEL_BENCHMARK_PATH_LOCAL_CLASS_PATH);
+
+	@Test
+	public void testIncrementalPropagation() {
+		testIncrementalPropagation(true);
+	}
+
+	@Test
+	public void testIncrementalPropagationWithAbstractFeatures() {
+		testIncrementalPropagation(false);
+	}
+
+	/**
+	 * Selects and deselects random features of one configuration and compares the propagated values with a new configuration after each step.
+	 */
+	private void testIncrementalPropagation(boolean ignoreAbstractFeatures) {
+		final Random random = new Random(0);
+		final Configuration configuration = new Configuration(FM, true, ignoreAbstractFeatures);
+		final List<SelectableFeature> features = configuration.getFeatures();
+		for (int i = 0; i < 30; i++) {
+			final SelectableFeature feature = features.get(random.nextInt(features.size()));
+			if (feature.getManual() != Selection.UNDEFINED) {
+				feature.setManual(Selection.UNDEFINED);
+			} else if (feature.getAutomatic() == Selection.UNDEFINED) {
+				feature.setManual(random.nextBoolean() ? Selection.SELECTED : Selection.UNSELECTED);
+			} else {
+				continue;
+			}
+			configuration.update(false, feature.getName());
+
+			final Configuration newConfiguration = new Configuration(FM, true, ignoreAbstractFeatures);
+			for (SelectableFeature oldFeature : features) {
+				newConfiguration.getSelectablefeature(oldFeature.getName()).setManual(oldFeature.getManual());
+			}
+			newConfiguration.update(false, null);
+
+			for (SelectableFeature oldFeature : features) {
+				final SelectableFeature newFeature = newConfiguration.getSelectablefeature(oldFeature.getName());
+				assertEquals(oldFeature.getName(), newFeature.getAutomatic(), oldFeature.getAutomatic());
+			}
+		}
+	}
+
+}
@@ -22,6 +22,8 @@ package de.ovgu.featureide.fm.core.configuration;
 
 import static org.junit.Assert.assertEquals;
 
+import java.math.BigInteger;
+
 import org.junit.Test;
 
 import de.ovgu.featureide.fm.core.base.IFeatureModel;
@@ -183,6 +185,21 @@ public class TNumberOfConfigurations extends AbstractConfigurationTest {
 		assertEquals(2, c.number());
 	}
 	
+	@Test
+	public void testExactNumber() {
+		final StringBuilder xml = new StringBuilder("<and mandatory=\"true\" name=\"S\">");
+		for (int i = 0; i < 70; i++) {
+			xml.append("<feature name=\"F" + i + "\"/>");
+		}
+		xml.append("</and>");
+		IFeatureModel fm = loadXML(xml.toString(), "<rule><imp><var>F0</var><var>F1</var></imp></rule>");
+		Configuration c = new Configuration(fm);
+		assertEquals(BigInteger.valueOf(3).shiftLeft(68), c.exactNumber());
+		assertEquals(Long.MIN_VALUE, c.number());
+		c.setManual("F0", Selection.SELECTED);
+		assertEquals(BigInteger.ONE.shiftLeft(68), c.exactNumber());
+	}
+
 	@Test
 	public void testWithSimplePositiveConstraint() {
 		IFeatureModel fm = loadXML(
@@ -0,0 +1,183 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2016  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ * 
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.explanations;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+import org.prop4j.And;
+import org.prop4j.Implies;
+import org.prop4j.Literal;
+import org.prop4j.Node;
+import org.prop4j.RandomCNF;
+import org.prop4j.SatSolver;
+import org.prop4j.solver.MUSFinder;
+import org.sat4j.specs.TimeoutException;
+
+import de.ovgu.featureide.common.Commons;
+import de.ovgu.featureide.fm.core.ConstraintAttribute;
+import de.ovgu.featureide.fm.core.FeatureModelAnalyzer;
+import de.ovgu.featureide.fm.core.base.IConstraint;
+import de.ovgu.featureide.fm.core.base.IFeature;
+import de.ovgu.featureide.fm.core.base.IFeatureModel;
+import de.ovgu.featureide.fm.core.base.IFeatureModelFactory;
+import de.ovgu.featureide.fm.core.base.impl.FMFactoryManager;
+
+/**
+ * Tests for {@link Explainer} and {@link MUSFinder}.
+ */
+public class TExplainer {
+
+	private static final String MODEL_PATH_REMOTE = "/home/itidbrun/TeamCity/buildAgent/work/featureide/tests/de.ovgu.featureide.fm.core-test/src/analyzefeaturemodels/";
+	private static final String MODEL_PATH_LOCAL_CLASS_PATH = "analyzefeaturemodels";
+
+	@Test
+	public void testMinimalUnsatisfiableSubsets() throws TimeoutException {
+		final Random random = new Random(42);
+		final int numberOfVariables = 8;
+		for (int round = 0; round < 50; round++) {
+			final List<Node> groups = new ArrayList<>();
+			final MUSFinder finder = new MUSFinder();
+			for (int i = 0; i < 40; i++) {
+				final Node clause = RandomCNF.createClause(random, numberOfVariables);
+				groups.add(clause);
+				finder.addGroup(new And(clause));
+			}
+			final int[] allGroups = new int[groups.size()];
+			for (int i = 0; i < allGroups.length; i++) {
+				allGroups[i] = i;
+			}
+
+			final int[] mus = finder.findMUS(new int[0], allGroups);
+			if (!isSatisfiable(groups, allGroups, -1)) {
+				assertNotNull(mus);
+				assertFalse(isSatisfiable(groups, mus, -1));
+				for (int i = 0; i < mus.length; i++) {
+					assertTrue(isSatisfiable(groups, mus, i));
+				}
+			} else {
+				assertNull(mus);
+			}
+		}
+	}
+
+	private static boolean isSatisfiable(List<Node> groups, int[] selection, int skip) throws TimeoutException {
+		final List<Node> clauses = new ArrayList<>();
+		for (int i = 0; i < selection.length; i++) {
+			if (i != skip) {
+				clauses.add(groups.get(selection[i]).clone());
+			}
+		}
+		return clauses.isEmpty() || new SatSolver(new And(clauses), 2500).isSatisfiable();
+	}
+
+	@Test
+	public void testExplanations() {
+		for (int i = 1; i <= 8; i++) {
+			final IFeatureModel fm = Commons.loadFeatureModelFromFile("test_" + i + ".xml", MODEL_PATH_REMOTE, MODEL_PATH_LOCAL_CLASS_PATH);
+			final FeatureModelAnalyzer analyzer = fm.getAnalyser();
+			analyzer.analyzeFeatureModel(null);
+
+			if (!analyzer.valid()) {
+				checkExplanation(analyzer.getDeadFeatureExplanation(fm.getStructure().getRoot().getFeature()), "void");
+			} else {
+				for (IFeature feature : analyzer.getDeadFeatures()) {
+					checkExplanation(analyzer.getDeadFeatureExplanation(feature), "dead");
+				}
+				for (IFeature feature : analyzer.getFalseOptionalFeatures()) {
+					checkExplanation(analyzer.getFalseOptionalFeatureExplanation(feature), "false-optional");
+				}
+				for (IConstraint constraint : fm.getConstraints()) {
+					if (constraint.getConstraintAttribute() == ConstraintAttribute.REDUNDANT) {
+						checkExplanation(analyzer.getRedundantConstraintExplanation(constraint), "redundant");
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * An explainer that is created after the analysis must not use constraints that were marked as redundant before.
+	 */
+	@Test
+	public void testLazyRedundantConstraintExplanations() {
+		for (int i = 1; i <= 8; i++) {
+			compareLazyExplanations(Commons.loadFeatureModelFromFile("test_" + i + ".xml", MODEL_PATH_REMOTE, MODEL_PATH_LOCAL_CLASS_PATH));
+		}
+
+		// the first two constraints are redundant, the second one must be explained by the third one only
+		final IFeatureModelFactory factory = FMFactoryManager.getFactory();
+		final IFeatureModel fm = factory.createFeatureModel();
+		final IFeature root = factory.createFeature(fm, "root");
+		fm.addFeature(root);
+		fm.getStructure().setRoot(root.getStructure());
+		for (String name : new String[] { "A", "B" }) {
+			final IFeature feature = factory.createFeature(fm, name);
+			feature.getStructure().setMandatory(false);
+			fm.addFeature(feature);
+			root.getStructure().addChild(feature.getStructure());
+		}
+		for (int i = 0; i < 3; i++) {
+			fm.addConstraint(factory.createConstraint(fm, new Implies(new Literal("A"), new Literal("B"))));
+		}
+		assertEquals(2, compareLazyExplanations(fm));
+	}
+
+	private static int compareLazyExplanations(IFeatureModel fm) {
+		final FeatureModelAnalyzer analyzer = fm.getAnalyser();
+		analyzer.analyzeFeatureModel(null);
+		final List<List<String>> explanations = getRedundantConstraintExplanations(fm);
+
+		// discards the explainer of the analysis
+		analyzer.updateConstraints();
+		assertEquals(explanations, getRedundantConstraintExplanations(fm));
+		return explanations.size();
+	}
+
+	private static List<List<String>> getRedundantConstraintExplanations(IFeatureModel fm) {
+		final List<List<String>> explanations = new ArrayList<>();
+		for (IConstraint constraint : fm.getConstraints()) {
+			if (constraint.getConstraintAttribute() == ConstraintAttribute.REDUNDANT) {
+				explanations.add(fm.getAnalyser().getRedundantConstraintExplanation(constraint));
+			}
+		}
+		return explanations;
+	}
+
+	private static void checkExplanation(List<String> explanation, String defect) {
+		assertTrue(explanation.size() > 1);
+		assertTrue(explanation.get(0).contains(defect));
+		for (String part : explanation.subList(1, explanation.size())) {
+			final String[] weight = part.substring(part.lastIndexOf('$') + 1).split("/");
+			final int occurrences = Integer.parseInt(weight[0]);
+			assertTrue(occurrences >= 1 && occurrences <= Integer.parseInt(weight[1]));
+		}
+	}
+
+}
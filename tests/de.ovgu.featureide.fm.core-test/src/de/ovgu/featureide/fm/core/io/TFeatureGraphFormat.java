@@ -0,0 +1,147 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2016  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ * 
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.io;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.Test;
+import org.prop4j.analyses.FGBuilder;
+import org.prop4j.solver.SatInstance;
+
+import de.ovgu.featureide.common.Commons;
+import de.ovgu.featureide.fm.core.base.IFeatureModel;
+import de.ovgu.featureide.fm.core.conf.IFeatureGraph;
+import de.ovgu.featureide.fm.core.conf.MatrixFeatureGraph;
+import de.ovgu.featureide.fm.core.editing.AdvancedNodeCreator;
+import de.ovgu.featureide.fm.core.io.manager.SimpleFileHandler;
+import de.ovgu.featureide.fm.core.job.LongRunningWrapper;
+
+/**
+ * Tests for {@link FeatureGraphFormat}.
+ */
+public class TFeatureGraphFormat {
+
+	private static final String MODEL_PATH_REMOTE = "/home/itidbrun/TeamCity/buildAgent/work/featureide/tests/de.ovgu.featureide.fm.core-test/src/analyzefeaturemodels/";
+	private static final String MODEL_PATH_LOCAL_CLASS_PATH = "analyzefeaturemodels";
+
+	@Test
+	public void testReadWrite() throws IOException {
+		for (int i = 1; i <= 8; i++) {
+			final IFeatureGraph featureGraph = buildFeatureGraph("test_" + i + ".xml");
+			final FeatureGraphFormat format = new FeatureGraphFormat();
+
+			final ByteArrayOutputStream out = new ByteArrayOutputStream();
+			format.write(featureGraph, out);
+
+			final IFeatureGraph readGraph = new MatrixFeatureGraph();
+			assertFalse(format.read(readGraph, ByteBuffer.wrap(out.toByteArray())).containsError());
+			compare(featureGraph, readGraph);
+
+			final IFeatureGraph readStringGraph = new MatrixFeatureGraph();
+			assertFalse(format.read(readStringGraph, format.write(featureGraph)).containsError());
+			compare(featureGraph, readStringGraph);
+		}
+	}
+
+	@Test
+	public void testFingerprint() throws IOException {
+		final IFeatureGraph featureGraph = buildFeatureGraph("test_1.xml");
+		final FeatureGraphFormat format = new FeatureGraphFormat();
+		final ByteArrayOutputStream out = new ByteArrayOutputStream();
+		format.write(featureGraph, out);
+		final byte[] content = out.toByteArray();
+
+		final MatrixFeatureGraph matchingGraph = new MatrixFeatureGraph();
+		matchingGraph.setSatInstance(featureGraph.getSatInstance());
+		assertFalse(format.read(matchingGraph, ByteBuffer.wrap(content)).containsError());
+
+		final MatrixFeatureGraph outdatedGraph = new MatrixFeatureGraph();
+		outdatedGraph.setSatInstance(createSatInstance("test_2.xml"));
+		assertTrue(format.read(outdatedGraph, ByteBuffer.wrap(content)).containsError());
+	}
+
+	@Test
+	public void testFileHandler() throws IOException {
+		final IFeatureGraph featureGraph = buildFeatureGraph("test_1.xml");
+		final Path file = Files.createTempFile("feature_graph", ".bin");
+		try {
+			assertTrue(new SimpleFileHandler<>(file, featureGraph, new FeatureGraphFormat()).write());
+
+			final IFeatureGraph readGraph = new MatrixFeatureGraph();
+			assertTrue(new SimpleFileHandler<>(file, readGraph, new FeatureGraphFormat()).read());
+			compare(featureGraph, readGraph);
+
+			final IFeatureGraph readStreamGraph = new MatrixFeatureGraph();
+			final SimpleFileHandler<IFeatureGraph> streamHandler = new SimpleFileHandler<>(file, readStreamGraph, new FeatureGraphFormat());
+			try (InputStream in = new FileInputStream(file.toFile())) {
+				streamHandler.read(in);
+			}
+			assertFalse(streamHandler.getLastProblems().containsError());
+			compare(featureGraph, readStreamGraph);
+		} finally {
+			Files.delete(file);
+		}
+	}
+
+	@Test
+	public void testChecksum() throws IOException {
+		final IFeatureGraph featureGraph = buildFeatureGraph("test_1.xml");
+		final FeatureGraphFormat format = new FeatureGraphFormat();
+		final ByteArrayOutputStream out = new ByteArrayOutputStream();
+		format.write(featureGraph, out);
+		final byte[] content = out.toByteArray();
+		content[content.length / 2] ^= 0x10;
+
+		assertTrue(format.read(new MatrixFeatureGraph(), ByteBuffer.wrap(content)).containsError());
+	}
+
+	private static SatInstance createSatInstance(String modelName) {
+		final IFeatureModel fm = Commons.loadFeatureModelFromFile(modelName, MODEL_PATH_REMOTE, MODEL_PATH_LOCAL_CLASS_PATH);
+		return AdvancedNodeCreator.createSatInstance(fm);
+	}
+
+	private static IFeatureGraph buildFeatureGraph(String modelName) {
+		return LongRunningWrapper.runMethod(new FGBuilder(createSatInstance(modelName)));
+	}
+
+	private static void compare(IFeatureGraph expected, IFeatureGraph actual) {
+		assertEquals(expected.getSize(), actual.getSize());
+		assertArrayEquals(expected.getIndex(), actual.getIndex());
+		assertEquals(expected.getSatInstance().getFingerprint(), actual.getSatInstance().getFingerprint());
+		for (int i = 0; i < expected.getSize(); i++) {
+			for (int j = 0; j < expected.getSize(); j++) {
+				assertEquals(expected.getEdge(i, j), actual.getEdge(i, j));
+			}
+		}
+	}
+
+}
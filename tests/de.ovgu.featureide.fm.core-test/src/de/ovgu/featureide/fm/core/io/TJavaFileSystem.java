@@ -0,0 +1,209 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2016  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ * 
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.io;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.Test;
+
+import de.ovgu.featureide.fm.core.io.FileSystem.AtomicOutputStream;
+
+/**
+ * Tests the streams of {@link JavaFileSystem}.
+ */
+public class TJavaFileSystem {
+
+	private static byte[] readAll(InputStream in, int bufferSize) throws IOException {
+		final ByteArrayOutputStream out = new ByteArrayOutputStream();
+		if (bufferSize == 0) {
+			int b;
+			while ((b = in.read()) >= 0) {
+				out.write(b);
+			}
+		} else {
+			final byte[] buffer = new byte[bufferSize];
+			int length;
+			while ((length = in.read(buffer)) >= 0) {
+				out.write(buffer, 0, length);
+			}
+		}
+		return out.toByteArray();
+	}
+
+	@Test
+	public void testStreams() throws IOException {
+		final JavaFileSystem fileSystem = new JavaFileSystem();
+		final byte[] content = new byte[100000];
+		new Random(0).nextBytes(content);
+
+		final Path file = Files.createTempFile("file_system", ".bin");
+		try {
+			try (AtomicOutputStream out = fileSystem.getOutputStream(file)) {
+				out.write(content);
+				out.commit();
+			}
+			assertArrayEquals(content, fileSystem.read(file));
+
+			for (int bufferSize : new int[] { 0, 1, 1000, 1 << 20 }) {
+				try (InputStream in = fileSystem.getInputStream(file)) {
+					assertEquals(content.length, in.available());
+					assertArrayEquals(content, readAll(in, bufferSize));
+				}
+			}
+
+			try (AtomicOutputStream out = fileSystem.getOutputStream(file)) {
+				out.commit();
+			}
+			try (InputStream in = fileSystem.getInputStream(file)) {
+				assertEquals(-1, in.read());
+			}
+		} finally {
+			Files.delete(file);
+		}
+	}
+
+	@Test
+	public void testAtomicWrite() throws IOException {
+		final JavaFileSystem fileSystem = new JavaFileSystem();
+		final byte[] oldContent = "old".getBytes(StandardCharsets.UTF_8);
+		final byte[] newContent = "new".getBytes(StandardCharsets.UTF_8);
+
+		final Path directory = Files.createTempDirectory("file_system");
+		final Path file = directory.resolve("file.txt");
+		try {
+			fileSystem.write(file, oldContent);
+			assertArrayEquals(oldContent, fileSystem.read(file));
+
+			try (AtomicOutputStream out = fileSystem.getOutputStream(file)) {
+				out.write(newContent);
+			}
+			assertArrayEquals(oldContent, fileSystem.read(file));
+			assertDirectoryContains(directory, file);
+
+			try (AtomicOutputStream out = fileSystem.getOutputStream(file)) {
+				out.write(newContent);
+				throw new IOException();
+			} catch (IOException e) {
+			}
+			assertArrayEquals(oldContent, fileSystem.read(file));
+			assertDirectoryContains(directory, file);
+
+			try (AtomicOutputStream out = fileSystem.getOutputStream(file)) {
+				out.write(newContent);
+				out.commit();
+			}
+			assertArrayEquals(newContent, fileSystem.read(file));
+			assertDirectoryContains(directory, file);
+		} finally {
+			Files.deleteIfExists(file);
+			Files.delete(directory);
+		}
+	}
+
+	@Test
+	public void testSymbolicLink() throws IOException {
+		final JavaFileSystem fileSystem = new JavaFileSystem();
+		final byte[] writeContent = "write".getBytes(StandardCharsets.UTF_8);
+		final byte[] streamContent = "stream".getBytes(StandardCharsets.UTF_8);
+
+		final Path directory = Files.createTempDirectory("file_system");
+		final Path file = directory.resolve("file.txt");
+		final Path link = directory.resolve("link.txt");
+		try {
+			fileSystem.write(file, "old".getBytes(StandardCharsets.UTF_8));
+			try {
+				Files.createSymbolicLink(link, file.getFileName());
+			} catch (UnsupportedOperationException | IOException e) {
+				// the file system does not support symbolic links
+				return;
+			}
+
+			fileSystem.write(link, writeContent);
+			assertTrue(Files.isSymbolicLink(link));
+			assertArrayEquals(writeContent, fileSystem.read(file));
+
+			try (AtomicOutputStream out = fileSystem.getOutputStream(link)) {
+				out.write(streamContent);
+				out.commit();
+			}
+			assertTrue(Files.isSymbolicLink(link));
+			assertArrayEquals(streamContent, fileSystem.read(file));
+		} finally {
+			Files.deleteIfExists(link);
+			Files.deleteIfExists(file);
+			Files.delete(directory);
+		}
+	}
+
+	@Test
+	public void testPermissions() throws IOException {
+		final JavaFileSystem fileSystem = new JavaFileSystem();
+		final Path file = Files.createTempFile("file_system", ".txt");
+		try {
+			if (Files.getFileAttributeView(file, PosixFileAttributeView.class) == null) {
+				// the file system does not support POSIX permissions
+				return;
+			}
+			final Set<PosixFilePermission> permissions = PosixFilePermissions.fromString("rw-r-----");
+			Files.setPosixFilePermissions(file, permissions);
+
+			fileSystem.write(file, "write".getBytes(StandardCharsets.UTF_8));
+			assertEquals(permissions, Files.getPosixFilePermissions(file));
+
+			try (AtomicOutputStream out = fileSystem.getOutputStream(file)) {
+				out.write("stream".getBytes(StandardCharsets.UTF_8));
+				out.commit();
+			}
+			assertEquals(permissions, Files.getPosixFilePermissions(file));
+		} finally {
+			Files.delete(file);
+		}
+	}
+
+	private static void assertDirectoryContains(Path directory, Path file) throws IOException {
+		final List<Path> files = new ArrayList<>();
+		try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory)) {
+			for (Path path : stream) {
+				files.add(path);
+			}
+		}
+		assertEquals(Arrays.asList(file), files);
+	}
+
+}
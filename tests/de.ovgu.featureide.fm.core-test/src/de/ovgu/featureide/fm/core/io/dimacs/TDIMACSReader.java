@@ -0,0 +1,113 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2016  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ * 
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.io.dimacs;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.Charset;
+
+import org.junit.Test;
+import org.prop4j.Literal;
+import org.prop4j.Node;
+import org.prop4j.Or;
+import org.prop4j.solver.ClauseStore;
+import org.prop4j.solver.SatInstance;
+
+import de.ovgu.featureide.fm.core.base.IFeatureModel;
+import de.ovgu.featureide.fm.core.base.impl.FMFactoryManager;
+import de.ovgu.featureide.fm.core.io.ProblemList;
+import de.ovgu.featureide.fm.core.io.UnsupportedModelException;
+
+/**
+ * Tests the {@link DIMACSReader} and its use in {@link DIMACSFormat}.
+ */
+public class TDIMACSReader {
+
+	private static SatInstance read(String source) throws IOException, UnsupportedModelException {
+		return new DIMACSReader(new ByteArrayInputStream(source.getBytes(Charset.forName("UTF-8")))).read();
+	}
+
+	@Test
+	public void testNamedVariables() throws Exception {
+		final SatInstance satInstance = read("c 1 A\nc 2 B b\nc 3 C\np cnf 3 3\n1 -2 0\n-3\n 2 0 3 0\n");
+		assertEquals(3, satInstance.getNumberOfVariables());
+		assertEquals(3, satInstance.getNumberOfFeatureVariables());
+		assertEquals("B b", satInstance.getVariableObject(2));
+
+		final ClauseStore clauses = satInstance.getClauses();
+		assertEquals(3, clauses.getNumberOfClauses());
+		assertArrayEquals(new int[] { 1, -2 }, clauses.getClause(0));
+		assertArrayEquals(new int[] { -3, 2 }, clauses.getClause(1));
+		assertArrayEquals(new int[] { 3 }, clauses.getClause(2));
+	}
+
+	@Test
+	public void testUnnamedVariables() throws Exception {
+		final SatInstance satInstance = read("c 1 A\nc 3 C\np cnf 3 2\n1 2 0\n-2 3 0\n%\n0\n");
+		assertEquals(3, satInstance.getNumberOfVariables());
+		assertEquals(2, satInstance.getNumberOfFeatureVariables());
+		assertEquals("C", satInstance.getVariableObject(2));
+		assertTrue(Node.isAuxiliaryVariable(satInstance.getVariableObject(3)));
+
+		final ClauseStore clauses = satInstance.getClauses();
+		assertEquals(2, clauses.getNumberOfClauses());
+		assertArrayEquals(new int[] { 1, 3 }, clauses.getClause(0));
+		assertArrayEquals(new int[] { -3, 2 }, clauses.getClause(1));
+
+		final SatInstance plain = read("p cnf 2 1\n1 -2");
+		assertEquals(2, plain.getNumberOfFeatureVariables());
+		assertEquals("2", plain.getVariableObject(2));
+		assertArrayEquals(new int[] { 1, -2 }, plain.getClauses().getClause(0));
+	}
+
+	@Test
+	public void testErrors() throws Exception {
+		try {
+			read("p cnf 2 2\n1 2 0\n1 x 0\n");
+			fail();
+		} catch (UnsupportedModelException e) {
+			assertEquals(3, e.lineNumber);
+		}
+		try {
+			read("p sat 2 2\n");
+			fail();
+		} catch (UnsupportedModelException e) {
+			assertEquals(1, e.lineNumber);
+		}
+	}
+
+	@Test
+	public void testFeatureModel() throws Exception {
+		final IFeatureModel fm = FMFactoryManager.getFactory().createFeatureModel();
+		final ProblemList problems = new DIMACSFormat().read(fm, "c 1 A\nc 2 B\np cnf 3 2\n-1 3 0\n-3 2 0\n");
+		assertFalse(problems.containsError());
+		assertEquals(3, fm.getNumberOfFeatures());
+		assertEquals(1, fm.getConstraintCount());
+		assertEquals(new Or(new Literal("A", false), new Literal("B")), fm.getConstraints().get(0).getNode());
+	}
+
+}
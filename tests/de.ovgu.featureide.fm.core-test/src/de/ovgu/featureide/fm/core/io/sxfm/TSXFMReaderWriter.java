@@ -20,6 +20,7 @@
  */
 package de.ovgu.featureide.fm.core.io.sxfm;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 
 import org.junit.Test;
@@ -28,8 +29,11 @@ import org.prop4j.Node;
 import org.prop4j.Not;
 import org.prop4j.Or;
 
+import de.ovgu.featureide.fm.core.base.FeatureUtils;
 import de.ovgu.featureide.fm.core.base.IConstraint;
 import de.ovgu.featureide.fm.core.base.IFeatureModel;
+import de.ovgu.featureide.fm.core.base.impl.FMFactoryManager;
+import de.ovgu.featureide.fm.core.functional.Functional;
 import de.ovgu.featureide.fm.core.io.IFeatureModelFormat;
 import de.ovgu.featureide.fm.core.io.TAbstractFeatureModelReaderWriter;
 import de.ovgu.featureide.fm.core.io.UnsupportedModelException;
@@ -59,6 +63,21 @@ public class TSXFMReaderWriter extends TAbstractFeatureModelReaderWriter {
 
 	}
 
+	/**
+	 * The format has to work on the model passed to read and write and must not keep state between two reads.
+	 */
+	@Test
+	public void testReuseFormat() {
+		final IFeatureModelFormat format = getFormat();
+		final String source = format.write(origFm);
+		for (int i = 0; i < 2; i++) {
+			final IFeatureModel fm = FMFactoryManager.getFactory().createFeatureModel();
+			format.read(fm, source);
+			assertEquals(failureMessage, origFm.getNumberOfFeatures(), fm.getNumberOfFeatures());
+			assertTrue(failureMessage, Functional.equals(origFm.getFeatures(), fm.getFeatures(), FeatureUtils.GET_FEATURE_NAME));
+		}
+	}
+
 	@Test
 	public void testPropNodes() {
 		for (IConstraint constraint : newFm.getConstraints()) {
@@ -0,0 +1,138 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2016  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ * 
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.io.xml;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+
+import org.junit.Test;
+
+import de.ovgu.featureide.fm.core.base.IFeature;
+import de.ovgu.featureide.fm.core.base.IFeatureModel;
+import de.ovgu.featureide.fm.core.base.IPropertyContainer.Entry;
+import de.ovgu.featureide.fm.core.base.IPropertyContainer.Type;
+import de.ovgu.featureide.fm.core.base.impl.FMFactoryManager;
+import de.ovgu.featureide.fm.core.io.FileSystem;
+import de.ovgu.featureide.fm.core.io.ProblemList;
+import de.ovgu.featureide.fm.core.io.manager.FileHandler;
+
+/**
+ * Tests the streaming read and write of {@link XmlFeatureModelFormat}.
+ */
+public class TXmlFeatureModelFormat {
+
+	private static final String MODEL = "<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"no\"?>\n" //
+			+ "<featureModel>\n" //
+			+ "	<struct>\n" //
+			+ "		<and abstract=\"true\" mandatory=\"true\" name=\"Root\">\n" //
+			+ "			<feature name=\"A\"/>\n" //
+			+ "			<feature name=\"B\"/>\n" //
+			+ "		</and>\n" //
+			+ "	</struct>\n" //
+			+ "	<constraints>\n" //
+			+ "		<rule>\n" //
+			+ "			<imp>\n" //
+			+ "				<var>A</var>\n" //
+			+ "				<var>B</var>\n" //
+			+ "			</imp>\n" //
+			+ "		</rule>\n" //
+			+ "	</constraints>\n" //
+			+ "</featureModel>\n";
+
+	private static IFeatureModel read(String source, ProblemList problems) {
+		final IFeatureModel fm = FMFactoryManager.getFactory().createFeatureModel();
+		problems.addAll(new XmlFeatureModelFormat().read(fm, source));
+		return fm;
+	}
+
+	@Test
+	public void testRead() {
+		final ProblemList problems = new ProblemList();
+		final IFeatureModel fm = read(MODEL, problems);
+		assertFalse(problems.containsError());
+		assertEquals(3, fm.getNumberOfFeatures());
+		assertEquals("Root", fm.getStructure().getRoot().getFeature().getName());
+		assertEquals(1, fm.getConstraintCount());
+	}
+
+	@Test
+	public void testLineNumbers() {
+		ProblemList problems = new ProblemList();
+		read(MODEL.replace("name=\"B\"", "name=\"A\""), problems);
+		assertTrue(problems.containsError());
+		assertEquals(6, problems.get(0).getLine());
+
+		problems = new ProblemList();
+		read(MODEL.replace("<var>B</var>", "<var>C</var>"), problems);
+		assertTrue(problems.containsError());
+		assertEquals(13, problems.get(0).getLine());
+
+		problems = new ProblemList();
+		read(MODEL.replace("		</and>\n", ""), problems);
+		assertTrue(problems.containsError());
+		assertEquals(7, problems.get(0).getLine());
+	}
+
+	@Test
+	public void testWriteRead() {
+		final ProblemList problems = new ProblemList();
+		final IFeatureModel fm = read(MODEL, problems);
+		final IFeature a = fm.getFeature("A");
+		a.getProperty().setDescription("First line\nSecond line & <more>");
+		a.getCustomProperties().setEntrySet(Collections.singleton(new Entry<String, Type, Object>("key", Type.INT, 42)));
+		fm.getProperty().addComment("a comment");
+
+		final String source = new XmlFeatureModelFormat().write(fm);
+		final IFeatureModel fm2 = read(source, problems);
+		assertFalse(problems.containsError());
+		assertEquals("First line\nSecond line & <more>", fm2.getFeature("A").getProperty().getDescription());
+		assertEquals(Integer.valueOf(42), fm2.getFeature("A").getCustomProperties().get("key"));
+		assertEquals("a comment", fm2.getProperty().getComments().iterator().next());
+		assertEquals(source, new XmlFeatureModelFormat().write(fm2));
+	}
+
+	@Test
+	public void testStreamWriteRead() throws IOException {
+		final ProblemList problems = new ProblemList();
+		final IFeatureModel fm = read(MODEL, problems);
+		fm.getFeature("B").getProperty().setDescription("Umlaut \u00e4");
+
+		final Path file = Files.createTempFile("feature_model", ".xml");
+		try {
+			assertFalse(FileHandler.save(file, fm, new XmlFeatureModelFormat()).containsError());
+			final String source = new XmlFeatureModelFormat().write(fm);
+			assertEquals(source, FileSystem.readtoString(file));
+
+			final IFeatureModel fm2 = FMFactoryManager.getFactory().createFeatureModel();
+			assertFalse(FileHandler.load(file, fm2, new XmlFeatureModelFormat()).containsError());
+			assertEquals(source, new XmlFeatureModelFormat().write(fm2));
+		} finally {
+			Files.delete(file);
+		}
+	}
+
+}
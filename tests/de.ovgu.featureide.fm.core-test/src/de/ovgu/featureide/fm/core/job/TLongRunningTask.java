@@ -0,0 +1,180 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2016  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ * 
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.job;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import de.ovgu.featureide.fm.core.job.IJob.JobStatus;
+import de.ovgu.featureide.fm.core.job.LongRunningTask.Priority;
+import de.ovgu.featureide.fm.core.job.monitor.IMonitor;
+
+/**
+ * Tests the execution of {@link LongRunningTask}s by a {@link JobScheduler}.
+ */
+public class TLongRunningTask {
+
+	private static class BlockingMethod implements LongRunningMethod<Void> {
+		private final CountDownLatch started = new CountDownLatch(1);
+		private final CountDownLatch release = new CountDownLatch(1);
+
+		@Override
+		public Void execute(IMonitor monitor) throws Exception {
+			started.countDown();
+			release.await();
+			return null;
+		}
+	}
+
+	private static class RecordingMethod implements LongRunningMethod<Integer> {
+		private final List<Integer> executionOrder;
+		private final int id;
+
+		public RecordingMethod(List<Integer> executionOrder, int id) {
+			this.executionOrder = executionOrder;
+			this.id = id;
+		}
+
+		@Override
+		public Integer execute(IMonitor monitor) throws Exception {
+			monitor.checkCancel();
+			executionOrder.add(id);
+			return id;
+		}
+	}
+
+	@Test
+	public void testBoundedParallelism() throws InterruptedException {
+		final JobScheduler scheduler = new JobScheduler(2);
+		final AtomicInteger running = new AtomicInteger();
+		final AtomicInteger maxRunning = new AtomicInteger();
+		final List<LongRunningTask<Void>> tasks = new ArrayList<>();
+		for (int i = 0; i < 20; i++) {
+			tasks.add(new LongRunningTask<>("", new LongRunningMethod<Void>() {
+				@Override
+				public Void execute(IMonitor monitor) throws Exception {
+					final int current = running.incrementAndGet();
+					synchronized (maxRunning) {
+						maxRunning.set(Math.max(maxRunning.get(), current));
+					}
+					Thread.sleep(5);
+					running.decrementAndGet();
+					return null;
+				}
+			}, null, scheduler));
+		}
+		for (LongRunningTask<Void> task : tasks) {
+			task.schedule();
+		}
+		for (LongRunningTask<Void> task : tasks) {
+			task.join();
+			assertEquals(JobStatus.OK, task.getStatus());
+		}
+		assertTrue(maxRunning.get() <= 2);
+		assertEquals(20, scheduler.getNumberOfFinishedTasks());
+		assertTrue(scheduler.getTotalExecutionTime() > 0);
+		scheduler.shutdown();
+	}
+
+	@Test
+	public void testPriorityAndCancel() throws InterruptedException {
+		final JobScheduler scheduler = new JobScheduler(1);
+		final BlockingMethod blockingMethod = new BlockingMethod();
+		final LongRunningTask<Void> blockingTask = new LongRunningTask<>("", blockingMethod, null, scheduler);
+		blockingTask.schedule();
+		blockingMethod.started.await();
+
+		final List<Integer> executionOrder = Collections.synchronizedList(new ArrayList<Integer>());
+		final List<LongRunningTask<Integer>> tasks = Arrays.asList( //
+				new LongRunningTask<>("", new RecordingMethod(executionOrder, 1), null, scheduler, Priority.BACKGROUND), //
+				new LongRunningTask<>("", new RecordingMethod(executionOrder, 2), null, scheduler, Priority.BACKGROUND), //
+				new LongRunningTask<>("", new RecordingMethod(executionOrder, 3), null, scheduler, Priority.INTERACTIVE), //
+				new LongRunningTask<>("", new RecordingMethod(executionOrder, 4), null, scheduler, Priority.INTERACTIVE));
+		for (LongRunningTask<Integer> task : tasks) {
+			task.schedule();
+		}
+		assertFalse(tasks.get(1).cancel());
+		assertEquals(3, scheduler.getNumberOfWaitingTasks());
+
+		blockingMethod.release.countDown();
+		for (LongRunningTask<Integer> task : tasks) {
+			task.join();
+		}
+		assertEquals(Arrays.asList(3, 4, 1), executionOrder);
+		assertEquals(JobStatus.FAILED, tasks.get(1).getStatus());
+		assertTrue(tasks.get(1).isCanceled());
+		assertEquals(1, scheduler.getNumberOfCanceledTasks());
+		scheduler.shutdown();
+	}
+
+	@Test
+	public void testNestedJoin() throws InterruptedException {
+		final JobScheduler scheduler = new JobScheduler(1);
+		final LongRunningTask<Integer> outerTask = new LongRunningTask<>("", new LongRunningMethod<Integer>() {
+			@Override
+			public Integer execute(IMonitor monitor) throws Exception {
+				final LongRunningTask<Integer> innerTask = new LongRunningTask<>("", new LongRunningMethod<Integer>() {
+					@Override
+					public Integer execute(IMonitor monitor) throws Exception {
+						return 42;
+					}
+				}, null, scheduler);
+				assertEquals(Priority.INTERACTIVE, innerTask.getPriority());
+				innerTask.schedule();
+				innerTask.join();
+				return innerTask.getResults();
+			}
+		}, null, scheduler, Priority.INTERACTIVE);
+		outerTask.schedule();
+		outerTask.join();
+		assertEquals(JobStatus.OK, outerTask.getStatus());
+		assertEquals(Integer.valueOf(42), outerTask.getResults());
+		scheduler.shutdown();
+	}
+
+	@Test
+	public void testInheritedPriority() {
+		final JobScheduler scheduler = new JobScheduler(1);
+		final RecordingMethod method = new RecordingMethod(new ArrayList<Integer>(), 0);
+		assertEquals(Priority.BACKGROUND, new LongRunningTask<>("", method, null, scheduler).getPriority());
+
+		final Priority oldPriority = LongRunningTask.setInheritedPriority(Priority.INTERACTIVE);
+		try {
+			assertEquals(Priority.INTERACTIVE, new LongRunningTask<>("", method, null, scheduler).getPriority());
+			assertEquals(Priority.BACKGROUND, new LongRunningTask<>("", method, null, scheduler, Priority.BACKGROUND).getPriority());
+		} finally {
+			LongRunningTask.setInheritedPriority(oldPriority);
+		}
+		assertEquals(Priority.BACKGROUND, new LongRunningTask<>("", method, null, scheduler).getPriority());
+		scheduler.shutdown();
+	}
+
+}
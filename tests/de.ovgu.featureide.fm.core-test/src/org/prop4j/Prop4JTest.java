@@ -20,23 +20,49 @@
  */
 package org.prop4j;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
 
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
 import java.util.Set;
 
 import junit.framework.JUnit4TestAdapter;
 
 import org.junit.Test;
+import org.prop4j.analyses.ImplicationAnalysis;
+import org.prop4j.analyses.PairWiseConfigurationGenerator.Configuration;
+import org.prop4j.analyses.TWiseConfigurationGenerator;
+import org.prop4j.analyses.UniformRandomConfigurationGenerator;
+import org.prop4j.solver.BackboneFinder;
+import org.prop4j.solver.BasicSolver;
+import org.prop4j.solver.ClauseStore;
+import org.prop4j.solver.DDNNF;
+import org.prop4j.solver.DDNNFCompiler;
+import org.prop4j.solver.ISatSolver.SatResult;
+import org.prop4j.solver.SatInstance;
 import org.sat4j.core.VecInt;
 import org.sat4j.minisat.SolverFactory;
 import org.sat4j.specs.ContradictionException;
 import org.sat4j.specs.ISolver;
 import org.sat4j.specs.TimeoutException;
 
+import de.ovgu.featureide.fm.core.job.LongRunningWrapper;
+import de.ovgu.featureide.fm.core.job.monitor.NullMonitor;
+
 /**
  * Tests for tautologies, node transformations, and node parsing
  * 
@@ -717,6 +743,305 @@ public class Prop4JTest {
 
 	}
 	
+	@Test
+	public void testTseitinCNF1() throws TimeoutException {
+		tseitin(new Or(new And(a, b), new And(c, d), new And(e, new Not(f))));
+	}
+
+	@Test
+	public void testTseitinCNF2() throws TimeoutException {
+		tseitin(new Equals(new Implies(a, new Or(b, c)), new And(d, new Or(e, new And(f, g)))));
+	}
+
+	@Test
+	public void testTseitinCNF3() throws TimeoutException {
+		tseitin(new Not(new And(new Or(a, new And(b, c)), new Or(new Not(d), new And(e, f)), g)));
+	}
+
+	@Test
+	public void testTseitinCNF4() throws TimeoutException {
+		tseitin(new And(new Or(a, b), new Or(new Not(c), d), e));
+	}
+
+	@Test
+	public void testTseitinCNFSize() {
+		final Node[] conjunctions = new Node[16];
+		for (int i = 0; i < conjunctions.length; i++) {
+			conjunctions[i] = new And("x" + i, "y" + i);
+		}
+		final List<String> auxiliaryVariables = new ArrayList<>();
+		final Node cnf = Node.buildTseitinCNF(new Or(conjunctions), auxiliaryVariables);
+		assertEquals(conjunctions.length, auxiliaryVariables.size());
+		assertEquals(2 * conjunctions.length + 1, cnf.getChildren().length);
+	}
+
+	@Test
+	public void testKnownValues() {
+		final Node node = new And(a, new Implies(a, b), new Implies(c, new Not(b)), new Or(d, e), new Implies(f, new Or(g, c)), new Not(g));
+		final SatSolver solver = new SatSolver(node, TIMEOUT);
+		final Set<Literal> expected = new HashSet<>(Arrays.asList(a, b, new Literal("c", false), new Literal("f", false), new Literal("g", false)));
+		assertEquals(expected, new HashSet<>(solver.knownValues()));
+		assertEquals(new HashSet<>(Arrays.asList(a, b)), new HashSet<>(solver.knownValues(SatSolver.ValueType.TRUE)));
+		assertEquals(new HashSet<>(Arrays.asList(a, b, new Literal("c", false), new Literal("f", false), new Literal("g", false), d, new Literal("e", false))),
+				new HashSet<>(solver.knownValues(new Literal("e", false))));
+	}
+
+	@Test
+	public void testClauseStore() {
+		final Node cnf = new And(new Or(a, new Literal("b", false)), new Or(c), new Or(new Literal("a", false), b, new Literal("d", false)));
+		final SatInstance satInstance = new SatInstance(cnf, Arrays.asList("a", "b", "c", "d"));
+		final ClauseStore clauses = satInstance.getClauses();
+		assertEquals(3, clauses.getNumberOfClauses());
+		assertEquals(6, clauses.getNumberOfLiterals());
+		assertEquals(3, clauses.getMaxClauseSize());
+		assertArrayEquals(new int[] { 1, -2 }, clauses.getClause(0));
+		assertArrayEquals(new int[] { 3 }, clauses.getClause(1));
+		assertArrayEquals(new int[] { -1, 2, -4 }, clauses.getClause(2));
+		assertEquals(cnf, satInstance.getCnf());
+		assertEquals(cnf.getChildren()[2], satInstance.getClause(2));
+	}
+
+	@Test
+	public void testDDNNF() throws TimeoutException {
+		final Random random = new Random(0);
+		for (int i = 0; i < 200; i++) {
+			final int numberOfVariables = 1 + random.nextInt(8);
+			final Node cnf = RandomCNF.createCNF(random, numberOfVariables, random.nextInt(3 * numberOfVariables), false);
+			final SatInstance satInstance = new SatInstance(cnf, RandomCNF.getVariables(numberOfVariables));
+			final DDNNF ddnnf = new DDNNFCompiler(satInstance).execute(new NullMonitor());
+
+			// count by enumerating all assignments
+			final int[] assumptions = new int[] { 1 };
+			final List<Integer> models = RandomCNF.getModels(cnf, numberOfVariables);
+			final long numberOfModels = models.size();
+			final long[] numberOfSelections = new long[numberOfVariables];
+			long numberOfModelsWithAssumptions = 0;
+			for (int model : models) {
+				for (int k = 0; k < numberOfVariables; k++) {
+					if ((model & (1 << k)) != 0) {
+						numberOfSelections[k]++;
+					}
+				}
+				if ((model & 1) != 0) {
+					numberOfModelsWithAssumptions++;
+				}
+			}
+
+			assertEquals(BigInteger.valueOf(numberOfModels), ddnnf.countModels());
+			assertEquals(BigInteger.valueOf(numberOfModelsWithAssumptions), ddnnf.countModels(assumptions));
+			final BigInteger[] selections = ddnnf.countSelections(new int[0]);
+			for (int k = 0; k < numberOfVariables; k++) {
+				assertEquals(BigInteger.valueOf(numberOfSelections[k]), selections[k]);
+			}
+		}
+	}
+
+	/**
+	 * Creates a random formula of clauses with two or three literals, which is split into several components during the compilation.
+	 */
+	private static Node createComponentCNF(Random random, int numberOfVariables) {
+		final Node[] clauses = new Node[(numberOfVariables / 2) + random.nextInt(numberOfVariables)];
+		for (int i = 0; i < clauses.length; i++) {
+			final Node[] literals = new Node[2 + random.nextInt(2)];
+			for (int j = 0; j < literals.length; j++) {
+				literals[j] = new Literal(RandomCNF.getVariable(random.nextInt(numberOfVariables)), random.nextBoolean());
+			}
+			clauses[i] = new Or(literals);
+		}
+		return new And(clauses);
+	}
+
+	private static void testDDNNFModelCount(long seed) throws TimeoutException {
+		final Random random = new Random(seed);
+		final int numberOfVariables = 6 + random.nextInt(8);
+		final Node cnf = createComponentCNF(random, numberOfVariables);
+		final SatInstance satInstance = new SatInstance(cnf, RandomCNF.getVariables(numberOfVariables));
+		final DDNNF ddnnf = new DDNNFCompiler(satInstance).execute(new NullMonitor());
+		assertEquals("seed " + seed + ": " + cnf, BigInteger.valueOf(RandomCNF.getModels(cnf, numberOfVariables).size()), ddnnf.countModels());
+	}
+
+	@Test
+	public void testDDNNFRandomCNF() throws TimeoutException {
+		for (long seed = 0; seed < 2000; seed++) {
+			testDDNNFModelCount(seed);
+		}
+	}
+
+	@Test
+	public void testDDNNFComponentCache() throws TimeoutException {
+		// two different components of this formula had the same cache key, when the variables and clauses were not separated
+		testDDNNFModelCount(56147);
+	}
+
+	/**
+	 * Creates a solver whose satisfiability checks with assumptions time out.
+	 */
+	private static ISolver createTimeoutSolver(final ISolver solver) {
+		return (ISolver) Proxy.newProxyInstance(ISolver.class.getClassLoader(), new Class<?>[] { ISolver.class }, new InvocationHandler() {
+			@Override
+			public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+				if ("isSatisfiable".equals(method.getName()) && args != null && args.length == 2) {
+					throw new TimeoutException();
+				}
+				try {
+					return method.invoke(solver, args);
+				} catch (InvocationTargetException e) {
+					throw e.getCause();
+				}
+			}
+		});
+	}
+
+	@Test
+	public void testBackboneTimeout() throws Exception {
+		final Node cnf = new And(new Or("A"), new Or(new Literal("A", false), "B"), new Or("C", "D"));
+		final SatInstance satInstance = new SatInstance(cnf, Arrays.asList("A", "B", "C", "D"));
+
+		BasicSolver solver = new BasicSolver(satInstance);
+		BackboneFinder backboneFinder = new BackboneFinder(solver.getInternalSolver(), solver.getAssignment());
+		backboneFinder.findBackbone(solver.findModel(), new NullMonitor());
+		assertFalse(backboneFinder.isTimeoutOccurred());
+		assertEquals(2, solver.getAssignment().size());
+
+		// the backbone is incomplete, as every candidate is dropped
+		solver = new BasicSolver(satInstance);
+		backboneFinder = new BackboneFinder(createTimeoutSolver(solver.getInternalSolver()), solver.getAssignment());
+		backboneFinder.findBackbone(solver.findModel(), new NullMonitor());
+		assertTrue(backboneFinder.isTimeoutOccurred());
+		assertEquals(0, solver.getAssignment().size());
+	}
+
+	@Test
+	public void testImplicationTimeout() throws Exception {
+		final Node cnf = new And(new Or(new Literal("A", false), "B"), new Or(new Literal("B", false), "C"));
+		final SatInstance satInstance = new SatInstance(cnf, Arrays.asList("A", "B", "C"));
+		final List<int[]> pairs = Arrays.asList(new int[] { -1, 2 }, new int[] { -2, 3 }, new int[] { -1, 3 });
+
+		final ImplicationAnalysis analysis = new ImplicationAnalysis(new BasicSolver(satInstance), pairs);
+		assertEquals(3, LongRunningWrapper.runMethod(analysis).size());
+		assertFalse(analysis.isTimeoutOccurred());
+
+		// only the first two models are found, all further calls time out
+		final ImplicationAnalysis timeoutAnalysis = new ImplicationAnalysis(new BasicSolver(satInstance) {
+			private int calls = 0;
+
+			@Override
+			public SatResult isSatisfiable() {
+				return (++calls > 2) ? SatResult.TIMEOUT : super.isSatisfiable();
+			}
+		}, pairs);
+		assertEquals(0, LongRunningWrapper.runMethod(timeoutAnalysis).size());
+		assertTrue(timeoutAnalysis.isTimeoutOccurred());
+	}
+
+	@Test
+	public void testUniformSampling() throws Exception {
+		final Random random = new Random(0);
+		for (int i = 0; i < 50; i++) {
+			final int numberOfVariables = 1 + random.nextInt(6);
+			final Node cnf = RandomCNF.createCNF(random, numberOfVariables, random.nextInt(2 * numberOfVariables), true);
+			final List<Integer> models = RandomCNF.getModels(cnf, numberOfVariables);
+			if (models.isEmpty()) {
+				continue;
+			}
+			final SatInstance satInstance = new SatInstance(cnf, RandomCNF.getVariables(numberOfVariables));
+
+			// the generator returns distinct configurations, thus eventually all models
+			final UniformRandomConfigurationGenerator generator = new UniformRandomConfigurationGenerator(satInstance, Integer.MAX_VALUE);
+			generator.setRandom(new Random(i));
+			assertEquals(models.size(), generator.execute(new NullMonitor()).size());
+
+			// each model is drawn with the same probability
+			final DDNNF.Sampler sampler = new DDNNFCompiler(satInstance).execute(new NullMonitor()).getSampler(new int[0], new Random(i));
+			final int samplesPerModel = 200;
+			final Map<Integer, Integer> frequencies = new HashMap<>();
+			for (int j = 0; j < samplesPerModel * models.size(); j++) {
+				final int model = RandomCNF.toBitMask(sampler.next());
+				final Integer frequency = frequencies.get(model);
+				frequencies.put(model, frequency == null ? 1 : frequency + 1);
+			}
+			assertEquals(new HashSet<>(models), frequencies.keySet());
+			for (int frequency : frequencies.values()) {
+				assertTrue(Math.abs(frequency - samplesPerModel) < samplesPerModel / 3);
+			}
+		}
+	}
+
+	@Test
+	public void testTWiseSampling() throws Exception {
+		final Random random = new Random(0);
+		for (int i = 0; i < 100; i++) {
+			final int numberOfVariables = 1 + random.nextInt(7);
+			final Node cnf = RandomCNF.createCNF(random, numberOfVariables, random.nextInt(2 * numberOfVariables), true);
+			final List<Integer> models = RandomCNF.getModels(cnf, numberOfVariables);
+			if (models.isEmpty()) {
+				continue;
+			}
+
+			final int t = 2 + random.nextInt(2);
+			final TWiseConfigurationGenerator generator = new TWiseConfigurationGenerator(new SatInstance(cnf, RandomCNF.getVariables(numberOfVariables)), t,
+					Integer.MAX_VALUE);
+			generator.setNumberOfThreads(1 + random.nextInt(3));
+			generator.setMaxOpenConfigurations(1 + random.nextInt(4));
+			generator.execute(new NullMonitor());
+			assertEquals(0, generator.getNumberOfUncoveredInteractions());
+
+			final List<Integer> sample = new ArrayList<>();
+			for (Configuration configuration : generator.q) {
+				final int model = RandomCNF.toBitMask(configuration.getModel());
+				assertTrue(models.contains(model));
+				sample.add(model);
+			}
+
+			// every valid interaction of t variables must be contained in a configuration
+			for (int mask = 0; mask < (1 << numberOfVariables); mask++) {
+				if (Integer.bitCount(mask) == Math.min(t, numberOfVariables)) {
+					for (int model : models) {
+						boolean covered = false;
+						for (int configuration : sample) {
+							if (((configuration ^ model) & mask) == 0) {
+								covered = true;
+								break;
+							}
+						}
+						assertTrue(covered);
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * Checks that the Tseitin CNF of the given node is in regular form and that its projection on the original variables is equivalent to the node
+	 * (i.e., that every assignment of the original variables satisfies the node iff it can be extended to a model of the CNF).
+	 * The node itself is evaluated using a solver for its regular CNF.
+	 */
+	private void tseitin(Node node) throws TimeoutException {
+		final List<String> auxiliaryVariables = new ArrayList<>();
+		final Node cnf = Node.buildTseitinCNF(node, auxiliaryVariables);
+		assertTrue(cnf instanceof And);
+		for (Node clause : cnf.getChildren()) {
+			assertTrue(clause instanceof Or);
+			for (Node literal : clause.getChildren()) {
+				assertTrue(literal instanceof Literal);
+			}
+		}
+		for (String var : auxiliaryVariables) {
+			assertTrue(Node.isAuxiliaryVariable(var));
+		}
+
+		final List<String> variables = new ArrayList<>(new HashSet<>(node.getContainedFeatures()));
+		final SatSolver solver = new SatSolver(cnf, TIMEOUT, false);
+		final SatSolver referenceSolver = new SatSolver(node, TIMEOUT);
+		final Node[] assumptions = new Node[variables.size()];
+		for (int i = 0; i < (1 << variables.size()); i++) {
+			for (int j = 0; j < assumptions.length; j++) {
+				assumptions[j] = new Literal(variables.get(j), (i & (1 << j)) != 0);
+			}
+			assertEquals(referenceSolver.isSatisfiable(assumptions), solver.isSatisfiable(assumptions));
+		}
+	}
+
 	@Test
 	public void problemAymericHervieu() {
 		String ctr = "(C => A) & (E => C) & (G => C) & (D => A) & (F => C) & (C => A) & "+
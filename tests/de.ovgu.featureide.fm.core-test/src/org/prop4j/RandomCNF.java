@@ -0,0 +1,124 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2016  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ * 
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package org.prop4j;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Creates small random formulas in CNF over the variables {@code v0}, {@code v1}, ... and enumerates their models by brute force.
+ * Used by tests that compare an analysis with the exact result.
+ */
+public final class RandomCNF {
+
+	private RandomCNF() {
+	}
+
+	public static String getVariable(int index) {
+		return "v" + index;
+	}
+
+	public static List<String> getVariables(int numberOfVariables) {
+		final List<String> variables = new ArrayList<>(numberOfVariables);
+		for (int i = 0; i < numberOfVariables; i++) {
+			variables.add(getVariable(i));
+		}
+		return variables;
+	}
+
+	/**
+	 * Creates a clause with one to three random literals.
+	 * 
+	 * @param random the random generator
+	 * @param numberOfVariables the number of variables to choose from
+	 * @return the clause as {@link Or}
+	 */
+	public static Node createClause(Random random, int numberOfVariables) {
+		final Node[] literals = new Node[1 + random.nextInt(3)];
+		for (int i = 0; i < literals.length; i++) {
+			literals[i] = new Literal(getVariable(random.nextInt(numberOfVariables)), random.nextBoolean());
+		}
+		return new Or(literals);
+	}
+
+	/**
+	 * Creates a formula of random clauses.
+	 * 
+	 * @param random the random generator
+	 * @param numberOfVariables the number of variables
+	 * @param numberOfClauses the number of random clauses
+	 * @param containsAllVariables if {@code true}, the formula additionally starts with a tautology {@code (vi | -vi)} for each variable,
+	 *            such that every variable occurs in the formula
+	 * @return the formula as {@link And} of {@link Or}s
+	 */
+	public static Node createCNF(Random random, int numberOfVariables, int numberOfClauses, boolean containsAllVariables) {
+		final int offset = containsAllVariables ? numberOfVariables : 0;
+		final Node[] clauses = new Node[offset + numberOfClauses];
+		for (int i = 0; i < offset; i++) {
+			clauses[i] = new Or(new Literal(getVariable(i)), new Literal(getVariable(i), false));
+		}
+		for (int i = offset; i < clauses.length; i++) {
+			clauses[i] = createClause(random, numberOfVariables);
+		}
+		return new And(clauses);
+	}
+
+	/**
+	 * Enumerates all assignments of the given formula.
+	 * 
+	 * @param cnf the formula
+	 * @param numberOfVariables the number of variables
+	 * @return all models as bit masks, in which bit {@code i} is set iff variable {@code vi} is selected
+	 */
+	public static List<Integer> getModels(Node cnf, int numberOfVariables) {
+		final Map<Object, Boolean> assignment = new HashMap<>();
+		final List<Integer> models = new ArrayList<>();
+		for (int i = 0; i < (1 << numberOfVariables); i++) {
+			for (int j = 0; j < numberOfVariables; j++) {
+				assignment.put(getVariable(j), (i & (1 << j)) != 0);
+			}
+			if (cnf.getValue(assignment)) {
+				models.add(i);
+			}
+		}
+		return models;
+	}
+
+	/**
+	 * Converts a model given as literals into a bit mask as returned by {@link #getModels(Node, int)}.
+	 * 
+	 * @param literals the literals of the model (variable {@code vi} has index {@code i + 1})
+	 * @return the bit mask
+	 */
+	public static int toBitMask(int[] literals) {
+		int model = 0;
+		for (int literal : literals) {
+			if (literal > 0) {
+				model |= 1 << (literal - 1);
+			}
+		}
+		return model;
+	}
+
+}
@@ -0,0 +1,175 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2016  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ * 
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package org.prop4j.analyses;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map.Entry;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.prop4j.And;
+import org.prop4j.Literal;
+import org.prop4j.Or;
+import org.prop4j.analyses.AnalysisResultCache.Key;
+import org.prop4j.solver.SatInstance;
+
+import de.ovgu.featureide.common.Commons;
+import de.ovgu.featureide.fm.core.base.IFeatureModel;
+import de.ovgu.featureide.fm.core.base.event.FeatureIDEEvent;
+import de.ovgu.featureide.fm.core.base.event.FeatureIDEEvent.EventType;
+import de.ovgu.featureide.fm.core.io.AnalysisResultCacheFormat;
+import de.ovgu.featureide.fm.core.job.LongRunningWrapper;
+
+/**
+ * Tests for {@link AnalysisResultCache}.
+ */
+public class TAnalysisResultCache {
+
+	private static final String MODEL_PATH_REMOTE = "/home/itidbrun/TeamCity/buildAgent/work/featureide/tests/de.ovgu.featureide.fm.core-test/src/analyzefeaturemodels/";
+	private static final String MODEL_PATH_LOCAL_CLASS_PATH = "analyzefeaturemodels";
+
+	@Before
+	public void clearCache() {
+		AnalysisResultCache.getInstance().clear();
+	}
+
+	@Test
+	public void testLeastRecentlyUsed() {
+		final AnalysisResultCache cache = new AnalysisResultCache(2);
+		cache.put(1, AnalysisResultCache.CORE_DEAD, new int[][] { { 1 } });
+		cache.put(2, AnalysisResultCache.CORE_DEAD, new int[][] { { 2 } });
+		assertNotNull(cache.get(1, AnalysisResultCache.CORE_DEAD));
+		cache.put(3, AnalysisResultCache.CORE_DEAD, new int[][] { { 3 } });
+
+		assertEquals(2, cache.size());
+		assertNull(cache.get(2, AnalysisResultCache.CORE_DEAD));
+		assertNotNull(cache.get(1, AnalysisResultCache.CORE_DEAD));
+		assertNotNull(cache.get(3, AnalysisResultCache.CORE_DEAD));
+		assertNull(cache.get(3, AnalysisResultCache.CORE_DEAD, 1));
+		assertNull(cache.get(3, AnalysisResultCache.VALID));
+	}
+
+	@Test
+	public void testFeatureModelAnalysis() {
+		for (int i = 1; i <= 8; i++) {
+			final IFeatureModel fm = Commons.loadFeatureModelFromFile("test_" + i + ".xml", MODEL_PATH_REMOTE, MODEL_PATH_LOCAL_CLASS_PATH);
+
+			final FeatureModelAnalysis expected = new FeatureModelAnalysis(fm);
+			expected.useResultCache = false;
+			LongRunningWrapper.runMethod(expected);
+
+			final FeatureModelAnalysis first = new FeatureModelAnalysis(fm);
+			LongRunningWrapper.runMethod(first);
+			final long hits = AnalysisResultCache.getInstance().getHits();
+			final int size = AnalysisResultCache.getInstance().size();
+
+			final FeatureModelAnalysis second = new FeatureModelAnalysis(fm);
+			LongRunningWrapper.runMethod(second);
+			assertTrue(AnalysisResultCache.getInstance().getHits() > hits);
+			assertEquals(size, AnalysisResultCache.getInstance().size());
+
+			for (FeatureModelAnalysis analysis : new FeatureModelAnalysis[] { first, second }) {
+				assertEquals(expected.isValid(), analysis.isValid());
+				assertEquals(expected.getCoreFeatures(), analysis.getCoreFeatures());
+				assertEquals(expected.getDeadFeatures(), analysis.getDeadFeatures());
+				assertEquals(expected.getFalseOptionalFeatures(), analysis.getFalseOptionalFeatures());
+			}
+		}
+	}
+
+	@Test
+	public void testInvalidation() {
+		final IFeatureModel fm = Commons.loadFeatureModelFromFile("test_1.xml", MODEL_PATH_REMOTE, MODEL_PATH_LOCAL_CLASS_PATH);
+		LongRunningWrapper.runMethod(new FeatureModelAnalysis(fm));
+		assertTrue(AnalysisResultCache.getInstance().size() > 0);
+
+		fm.fireEvent(new FeatureIDEEvent(fm, EventType.COLOR_CHANGED));
+		assertTrue(AnalysisResultCache.getInstance().size() > 0);
+
+		fm.fireEvent(new FeatureIDEEvent(fm, EventType.MODEL_DATA_CHANGED));
+		assertEquals(0, AnalysisResultCache.getInstance().size());
+	}
+
+	@Test
+	public void testReadWrite() throws IOException {
+		final AnalysisResultCache cache = new AnalysisResultCache(AnalysisResultCache.DEFAULT_CAPACITY);
+		cache.put(-42, AnalysisResultCache.CORE_DEAD, new int[][] { { 1, -2, 300000 } });
+		cache.put(7, AnalysisResultCache.IMPLICATION, Long.MIN_VALUE, new int[][] { { -1, 2 }, {}, { 3, -4 } });
+		cache.put(8, AnalysisResultCache.VALID, new int[0][]);
+		cache.get(-42, AnalysisResultCache.CORE_DEAD);
+
+		final AnalysisResultCacheFormat format = new AnalysisResultCacheFormat();
+		final ByteArrayOutputStream out = new ByteArrayOutputStream();
+		format.write(cache, out);
+
+		final AnalysisResultCache readCache = new AnalysisResultCache(AnalysisResultCache.DEFAULT_CAPACITY);
+		assertFalse(format.read(readCache, ByteBuffer.wrap(out.toByteArray())).containsError());
+		compare(cache, readCache);
+
+		final AnalysisResultCache readStringCache = new AnalysisResultCache(AnalysisResultCache.DEFAULT_CAPACITY);
+		assertFalse(format.read(readStringCache, format.write(cache)).containsError());
+		compare(cache, readStringCache);
+
+		final byte[] content = out.toByteArray();
+		content[content.length / 2] ^= 0x10;
+		assertTrue(format.read(new AnalysisResultCache(AnalysisResultCache.DEFAULT_CAPACITY), ByteBuffer.wrap(content)).containsError());
+	}
+
+	@Test
+	public void testFingerprintCollision() {
+		final List<String> variables = new ArrayList<>();
+		for (int i = 1; i <= 40; i++) {
+			variables.add("F" + i);
+		}
+		// both clauses have the same value for 31 * a + b, where a and b are the indices of their literals
+		final SatInstance first = new SatInstance(new And(new Or(new Literal("F1", false), new Literal("F2"))), variables);
+		final SatInstance second = new SatInstance(new And(new Or(new Literal("F2", false), new Literal("F33"))), variables);
+		assertNotEquals(first.getFingerprint(), second.getFingerprint());
+		assertEquals(first.getFingerprint(), new SatInstance(new And(new Or(new Literal("F1", false), new Literal("F2"))), variables).getFingerprint());
+
+		final AnalysisResultCache cache = new AnalysisResultCache(AnalysisResultCache.DEFAULT_CAPACITY);
+		cache.put(first.getFingerprint(), AnalysisResultCache.CORE_DEAD, new int[][] { { 1 } });
+		assertNull(cache.get(second.getFingerprint(), AnalysisResultCache.CORE_DEAD));
+	}
+
+	private static void compare(AnalysisResultCache expected, AnalysisResultCache actual) {
+		final List<Entry<Key, int[][]>> expectedEntries = expected.getEntries();
+		final List<Entry<Key, int[][]>> actualEntries = actual.getEntries();
+		assertEquals(expectedEntries.size(), actualEntries.size());
+		for (int i = 0; i < expectedEntries.size(); i++) {
+			assertEquals(expectedEntries.get(i).getKey(), actualEntries.get(i).getKey());
+			assertArrayEquals(expectedEntries.get(i).getValue(), actualEntries.get(i).getValue());
+		}
+	}
+
+}
@@ -0,0 +1,283 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2016  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ * 
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.ui.actions.generator;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.Thread.UncaughtExceptionHandler;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+
+import org.junit.Test;
+
+import de.ovgu.featureide.fm.core.base.IFeatureModel;
+import de.ovgu.featureide.fm.core.base.impl.FMFactoryManager;
+import de.ovgu.featureide.fm.core.configuration.Configuration;
+
+/**
+ * Tests the pipeline of {@link BuildStage}s with stages that do not depend on a {@link ConfigurationBuilder}.
+ */
+public class BuildStageTest {
+
+	private static final int NUMBER_OF_CONFIGURATIONS = 50;
+
+	/**
+	 * Replaces the {@link ConfigurationBuilder} of the stages.
+	 */
+	private static class Pipeline {
+
+		private final List<TestStage> stages = new ArrayList<>();
+		private final List<BuilderConfiguration> built = Collections.synchronizedList(new ArrayList<BuilderConfiguration>());
+		private final List<BuilderConfiguration> failed = Collections.synchronizedList(new ArrayList<BuilderConfiguration>());
+
+		private volatile boolean canceled = false;
+
+		private TestStage addStage(int numberOfThreads) {
+			final TestStage stage = new TestStage(this, numberOfThreads);
+			if (!stages.isEmpty()) {
+				stages.get(stages.size() - 1).setNext(stage);
+			}
+			stages.add(stage);
+			return stage;
+		}
+
+		private void start() {
+			for (TestStage stage : stages) {
+				stage.start();
+			}
+		}
+
+		private void cancel() {
+			canceled = true;
+			for (TestStage stage : stages) {
+				stage.cancel();
+			}
+		}
+
+		private void join() throws InterruptedException {
+			for (TestStage stage : stages) {
+				stage.join();
+			}
+		}
+
+	}
+
+	private static class TestStage extends BuildStage {
+
+		private final Pipeline pipeline;
+		private final List<BuilderConfiguration> processed = Collections.synchronizedList(new ArrayList<BuilderConfiguration>());
+
+		private TestStage(Pipeline pipeline, int numberOfThreads) {
+			super(null, "Test", numberOfThreads);
+			this.pipeline = pipeline;
+		}
+
+		@Override
+		protected void process(BuilderConfiguration configuration) throws Exception {
+			processed.add(configuration);
+		}
+
+		@Override
+		boolean isCanceled() {
+			return pipeline.canceled;
+		}
+
+		@Override
+		void cancelBuild() {
+			pipeline.cancel();
+		}
+
+		@Override
+		void built(BuilderConfiguration configuration) {
+			pipeline.built.add(configuration);
+		}
+
+		@Override
+		void handleError(BuilderConfiguration configuration, Exception e) {
+			pipeline.failed.add(configuration);
+		}
+
+	}
+
+	private static List<BuilderConfiguration> createConfigurations() {
+		final IFeatureModel featureModel = FMFactoryManager.getFactory().createFeatureModel();
+		final List<BuilderConfiguration> configurations = new ArrayList<>();
+		for (int i = 0; i < NUMBER_OF_CONFIGURATIONS; i++) {
+			configurations.add(new BuilderConfiguration(new Configuration(featureModel, false, false), i));
+		}
+		return configurations;
+	}
+
+	private static void putAll(BuildStage stage, List<BuilderConfiguration> configurations) throws InterruptedException {
+		for (BuilderConfiguration configuration : configurations) {
+			assertTrue(stage.put(configuration));
+		}
+		stage.close();
+	}
+
+	@Test(timeout = 10000)
+	public void testClose() throws InterruptedException {
+		final Pipeline pipeline = new Pipeline();
+		final TestStage first = pipeline.addStage(2);
+		final TestStage second = pipeline.addStage(1);
+		final TestStage third = pipeline.addStage(3);
+		pipeline.start();
+
+		final List<BuilderConfiguration> configurations = createConfigurations();
+		putAll(first, configurations);
+		pipeline.join();
+
+		assertFalse(pipeline.canceled);
+		assertEquals(new HashSet<>(configurations), new HashSet<>(first.processed));
+		assertEquals(new HashSet<>(configurations), new HashSet<>(second.processed));
+		assertEquals(new HashSet<>(configurations), new HashSet<>(third.processed));
+		assertEquals(NUMBER_OF_CONFIGURATIONS, pipeline.built.size());
+		assertEquals(new HashSet<>(configurations), new HashSet<>(pipeline.built));
+	}
+
+	@Test(timeout = 10000)
+	public void testFailingProcess() throws InterruptedException {
+		final Pipeline pipeline = new Pipeline();
+		final TestStage first = pipeline.addStage(2);
+		final TestStage second = new TestStage(pipeline, 2) {
+			@Override
+			protected void process(BuilderConfiguration configuration) throws Exception {
+				super.process(configuration);
+				if (Integer.parseInt(configuration.getName()) % 2 == 0) {
+					throw new Exception();
+				}
+			}
+		};
+		first.setNext(second);
+		pipeline.stages.add(second);
+		final TestStage third = pipeline.addStage(1);
+		pipeline.start();
+
+		final List<BuilderConfiguration> configurations = createConfigurations();
+		putAll(first, configurations);
+		pipeline.join();
+
+		assertFalse(pipeline.canceled);
+		assertEquals(NUMBER_OF_CONFIGURATIONS / 2, pipeline.failed.size());
+		assertEquals(NUMBER_OF_CONFIGURATIONS, second.processed.size());
+		assertEquals(NUMBER_OF_CONFIGURATIONS, pipeline.failed.size() + third.processed.size());
+		for (BuilderConfiguration configuration : pipeline.failed) {
+			assertFalse(third.processed.contains(configuration));
+		}
+		assertEquals(NUMBER_OF_CONFIGURATIONS, pipeline.built.size());
+		assertEquals(new HashSet<>(configurations), new HashSet<>(pipeline.built));
+	}
+
+	@Test(timeout = 10000)
+	public void testCancel() throws InterruptedException {
+		final Pipeline pipeline = new Pipeline();
+		final TestStage first = pipeline.addStage(2);
+		final TestStage last = new TestStage(pipeline, 1) {
+			@Override
+			protected void process(BuilderConfiguration configuration) throws Exception {
+				super.process(configuration);
+				// blocks until the build is canceled
+				Thread.sleep(Long.MAX_VALUE);
+			}
+		};
+		first.setNext(last);
+		pipeline.stages.add(last);
+		pipeline.start();
+
+		final List<BuilderConfiguration> configurations = createConfigurations();
+		final Thread producer = new Thread() {
+			@Override
+			public void run() {
+				try {
+					for (BuilderConfiguration configuration : configurations) {
+						if (!first.put(configuration)) {
+							return;
+						}
+					}
+					first.close();
+				} catch (InterruptedException e) {
+				}
+			}
+		};
+		producer.start();
+		// wait until the pipeline is congested
+		while (last.processed.isEmpty()) {
+			Thread.sleep(10);
+		}
+		Thread.sleep(500);
+
+		pipeline.cancel();
+		pipeline.join();
+		producer.join();
+
+		assertTrue(pipeline.built.size() < NUMBER_OF_CONFIGURATIONS);
+		assertTrue(first.processed.size() < NUMBER_OF_CONFIGURATIONS);
+	}
+
+	@Test(timeout = 10000)
+	public void testStageDied() throws InterruptedException {
+		final Pipeline pipeline = new Pipeline();
+		final TestStage first = pipeline.addStage(2);
+		final TestStage last = new TestStage(pipeline, 2) {
+			@Override
+			protected void process(BuilderConfiguration configuration) throws Exception {
+				super.process(configuration);
+				throw new Error();
+			}
+		};
+		first.setNext(last);
+		pipeline.stages.add(last);
+
+		final List<Throwable> errors = Collections.synchronizedList(new ArrayList<Throwable>());
+		final UncaughtExceptionHandler handler = Thread.getDefaultUncaughtExceptionHandler();
+		Thread.setDefaultUncaughtExceptionHandler(new UncaughtExceptionHandler() {
+			@Override
+			public void uncaughtException(Thread t, Throwable e) {
+				errors.add(e);
+			}
+		});
+		try {
+			pipeline.start();
+
+			final List<BuilderConfiguration> configurations = createConfigurations();
+			boolean passedAll = true;
+			for (BuilderConfiguration configuration : configurations) {
+				if (!first.put(configuration)) {
+					passedAll = false;
+					break;
+				}
+			}
+			pipeline.join();
+
+			assertFalse(passedAll);
+			assertTrue(pipeline.canceled);
+			assertEquals(2, last.processed.size());
+			assertEquals(2, errors.size());
+		} finally {
+			Thread.setDefaultUncaughtExceptionHandler(handler);
+		}
+	}
+
+}
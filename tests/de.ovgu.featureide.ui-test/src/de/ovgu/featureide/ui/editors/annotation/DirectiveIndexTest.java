@@ -0,0 +1,245 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2016  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ * 
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.ui.editors.annotation;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import de.ovgu.featureide.core.fstmodel.preprocessor.FSTDirective;
+import de.ovgu.featureide.core.fstmodel.preprocessor.FSTDirectiveCommand;
+
+/**
+ * Tests the line ranges of the {@link DirectiveIndex} for the following document (line numbers on the left), whose directives are
+ * created like in the Antenna model builder:
+ * 
+ * <pre>
+ *  0 class A {
+ *  1 //#if A
+ *  2 int a;
+ *  3 //#if B
+ *  4 int b;
+ *  5 //#endif
+ *  6 //#else
+ *  7 int c;
+ *  8 //#endif
+ *  9 int x;
+ * 10 //#define D
+ * 11 //#ifdef C
+ * 12 int d;
+ * 13 //#endif
+ * 14 }
+ * </pre>
+ */
+public class DirectiveIndexTest {
+
+	private FSTDirective ifA;
+	private FSTDirective ifB;
+	private FSTDirective elseA;
+	private FSTDirective defineD;
+	private FSTDirective ifdefC;
+	private List<FSTDirective> topLevelDirectives;
+	private DirectiveIndex index;
+
+	private static FSTDirective createDirective(FSTDirectiveCommand command, int id, int startLine, int endLine, int endLength) {
+		final FSTDirective directive = new FSTDirective();
+		directive.setCommand(command);
+		directive.setId(id);
+		directive.setStartLine(startLine, 0);
+		directive.setEndLine(endLine, endLength);
+		return directive;
+	}
+
+	@Before
+	public void createDirectives() {
+		ifA = createDirective(FSTDirectiveCommand.IF, 0, 1, 6, 0);
+		ifB = createDirective(FSTDirectiveCommand.IF, 1, 3, 5, 8);
+		elseA = createDirective(FSTDirectiveCommand.ELSE, 2, 6, 8, 8);
+		defineD = createDirective(FSTDirectiveCommand.DEFINE, 3, 10, 0, 0);
+		ifdefC = createDirective(FSTDirectiveCommand.IFDEF, 4, 11, 13, 8);
+		ifA.addChild(ifB);
+		ifA.addChild(elseA);
+		topLevelDirectives = Arrays.asList(ifA, defineD, ifdefC);
+		// the index does not depend on the order of the given directives
+		index = new DirectiveIndex(Arrays.asList(ifdefC, elseA, defineD, ifB, ifA));
+	}
+
+	@Test
+	public void testNestedDirectives() {
+		assertEquals(1, index.getMaxDepth());
+		assertSame(ifA, index.getOpener());
+		assertEquals(Arrays.asList(ifA, ifB, elseA, defineD, ifdefC), DirectiveIndex.getAllDirectives(topLevelDirectives));
+		assertTrue(DirectiveIndex.isClosed(topLevelDirectives));
+
+		// the last line of a directive includes the lines of its children
+		assertEquals(9, index.getLastLine(ifA));
+		assertEquals(5, index.getLastLine(ifB));
+		assertEquals(8, index.getLastLine(elseA));
+		assertEquals(13, index.getLastLine(ifdefC));
+
+		assertEquals(Collections.emptyList(), index.getDirectives(0, 0));
+		assertEquals(Arrays.asList(ifA), index.getDirectives(2, 2));
+		assertEquals(Arrays.asList(ifA, ifB), index.getDirectives(4, 4));
+		assertEquals(Arrays.asList(ifA, elseA), index.getDirectives(7, 7));
+		assertEquals(Arrays.asList(ifdefC), index.getDirectives(12, 12));
+		assertEquals(Collections.emptyList(), index.getDirectives(14, 14));
+
+		// an edit within a nested directive affects the whole top-level directive
+		assertArrayEquals(new int[] { 1, 9 }, index.getRegion(4, 4));
+		assertArrayEquals(new int[] { 1, 9 }, index.getRegion(7, 7));
+		assertArrayEquals(new int[] { 11, 13 }, index.getRegion(12, 12));
+		assertArrayEquals(new int[] { 0, 0 }, index.getRegion(0, 0));
+		assertArrayEquals(new int[] { 14, 14 }, index.getRegion(14, 14));
+
+		assertEquals(Arrays.asList(ifA, ifB, elseA), index.getRegionDirectives(1, 9));
+		assertEquals(Arrays.asList(defineD, ifdefC), index.getRegionDirectives(10, 14));
+		assertEquals(Collections.emptyList(), index.getRegionDirectives(14, 14));
+	}
+
+	@Test
+	public void testEditSpanningBoundaries() {
+		// edits within the content of a directive
+		assertFalse(index.containsBoundary(2, 2));
+		assertFalse(index.containsBoundary(4, 4));
+		assertFalse(index.containsBoundary(7, 7));
+		assertFalse(index.containsBoundary(12, 12));
+		assertFalse(index.containsBoundary(14, 20));
+
+		// edits of a directive line or spanning one
+		assertTrue(index.containsBoundary(3, 3));
+		assertTrue(index.containsBoundary(2, 3));
+		assertTrue(index.containsBoundary(4, 5));
+		assertTrue(index.containsBoundary(7, 8));
+		assertTrue(index.containsBoundary(9, 11));
+		assertTrue(index.containsBoundary(12, 13));
+		assertTrue(index.containsBoundary(0, 14));
+
+		// an edit spanning two top-level directives affects both of them
+		assertArrayEquals(new int[] { 1, 13 }, index.getRegion(5, 11));
+		assertArrayEquals(new int[] { 1, 13 }, index.getRegion(2, 12));
+		assertEquals(Arrays.asList(ifA, ifB, elseA, defineD, ifdefC), index.getRegionDirectives(1, 13));
+		assertEquals(Arrays.asList(ifA, ifB, elseA, ifdefC), index.getDirectives(4, 12));
+	}
+
+	@Test
+	public void testInsertLines() {
+		// two lines inserted behind line 4 (within #if B)
+		index.shift(4, 2);
+		assertEquals(1, ifA.getStartLine());
+		assertEquals(8, ifA.getEndLine());
+		assertEquals(3, ifB.getStartLine());
+		assertEquals(7, ifB.getEndLine());
+		assertEquals(8, elseA.getStartLine());
+		assertEquals(10, elseA.getEndLine());
+		assertEquals(12, defineD.getStartLine());
+		assertEquals(13, ifdefC.getStartLine());
+		assertEquals(15, ifdefC.getEndLine());
+		// the lengths of the directive lines do not change
+		assertEquals(8, ifB.getEndLength());
+
+		assertEquals(11, index.getLastLine(ifA));
+		assertEquals(Arrays.asList(ifA, ifB), index.getDirectives(6, 6));
+		assertFalse(index.containsBoundary(4, 6));
+		assertTrue(index.containsBoundary(7, 7));
+		assertArrayEquals(new int[] { 1, 11 }, index.getRegion(6, 6));
+		assertArrayEquals(new int[] { 13, 15 }, index.getRegion(14, 14));
+		assertEquals(Arrays.asList(defineD, ifdefC), index.getRegionDirectives(12, 15));
+
+		// the line itself is not moved (a line inserted behind the #endif of #if B)
+		index.shift(7, 1);
+		assertEquals(3, ifB.getStartLine());
+		assertEquals(7, ifB.getEndLine());
+		assertEquals(9, elseA.getStartLine());
+		assertEquals(9, ifA.getEndLine());
+
+		// no change
+		index.shift(0, 0);
+		assertEquals(1, ifA.getStartLine());
+		assertEquals(16, ifdefC.getEndLine());
+	}
+
+	@Test
+	public void testDeleteLines() {
+		// line 2 (within #if A) is removed
+		index.shift(2, -1);
+		assertEquals(1, ifA.getStartLine());
+		assertEquals(5, ifA.getEndLine());
+		assertEquals(2, ifB.getStartLine());
+		assertEquals(4, ifB.getEndLine());
+		assertEquals(12, ifdefC.getEndLine());
+		assertEquals(Arrays.asList(ifA, ifB), index.getDirectives(3, 3));
+		assertArrayEquals(new int[] { 1, 8 }, index.getRegion(3, 3));
+		assertArrayEquals(new int[] { 10, 12 }, index.getRegion(11, 11));
+		assertFalse(index.containsBoundary(8, 8));
+
+		// inserting the line again restores all lines
+		index.shift(1, 1);
+		assertEquals(3, ifB.getStartLine());
+		assertEquals(5, ifB.getEndLine());
+		assertEquals(13, ifdefC.getEndLine());
+		assertArrayEquals(new int[] { 1, 9 }, index.getRegion(4, 4));
+		assertEquals(Arrays.asList(ifA, ifB), index.getDirectives(4, 4));
+	}
+
+	@Test
+	public void testUpdate() {
+		// the lines of a directive are changed directly (e.g., by the model builder)
+		ifdefC.setStartLine(12, 0);
+		ifdefC.setEndLine(14, 8);
+		index.update();
+		assertEquals(14, index.getLastLine(ifdefC));
+		assertEquals(Collections.emptyList(), index.getDirectives(11, 11));
+		assertEquals(Arrays.asList(ifdefC), index.getDirectives(14, 14));
+		assertFalse(index.containsBoundary(11, 11));
+		assertTrue(index.containsBoundary(12, 12));
+		assertArrayEquals(new int[] { 12, 14 }, index.getRegion(13, 13));
+	}
+
+	@Test
+	public void testUnclosedDirective() {
+		// the last #if is not closed, thus, it reaches the end of the document
+		final FSTDirective ifE = createDirective(FSTDirectiveCommand.IF, 5, 15, 0, 0);
+		final List<FSTDirective> directives = Arrays.asList(ifA, ifB, elseA, defineD, ifdefC, ifE);
+		index = new DirectiveIndex(directives);
+
+		assertFalse(DirectiveIndex.isClosed(Arrays.asList(ifA, defineD, ifdefC, ifE)));
+		assertEquals(Integer.MAX_VALUE, index.getLastLine(ifE));
+		assertArrayEquals(new int[] { 15, Integer.MAX_VALUE }, index.getRegion(20, 20));
+		assertEquals(Arrays.asList(ifE), index.getDirectives(20, 20));
+		assertEquals(Arrays.asList(ifdefC, ifE), index.getDirectives(12, Integer.MAX_VALUE));
+		assertEquals(Arrays.asList(ifE), index.getRegionDirectives(15, Integer.MAX_VALUE));
+
+		// the range of a #condition depends on the length of the document
+		assertTrue(DirectiveIndex.isClosed(topLevelDirectives));
+		final FSTDirective condition = createDirective(FSTDirectiveCommand.CONDITION, 6, 0, 15, 0);
+		assertFalse(DirectiveIndex.isClosed(Arrays.asList(condition)));
+	}
+
+}